@@ -0,0 +1,47 @@
+package com.inf.cscb869_pharmacy.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Realm role extraction that runs on every JWT-authenticated API request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class KeycloakRoleConverterBenchmark {
+
+    private SecurityConfig.KeycloakRoleConverter converter;
+    private Jwt jwt;
+
+    @Setup
+    public void setUp() {
+        converter = new SecurityConfig.KeycloakRoleConverter();
+        jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("doctor@clinic.com")
+                .issuedAt(Instant.parse("2026-02-10T08:00:00Z"))
+                .expiresAt(Instant.parse("2026-02-10T09:00:00Z"))
+                .claim("realm_access", Map.of("roles",
+                        List.of("DOCTOR", "offline_access", "uma_authorization", "default-roles-pharmacy-realm")))
+                .build();
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> convert() {
+        return converter.convert(jwt);
+    }
+}
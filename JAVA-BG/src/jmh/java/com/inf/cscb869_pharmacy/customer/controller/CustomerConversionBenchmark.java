@@ -0,0 +1,61 @@
+package com.inf.cscb869_pharmacy.customer.controller;
+
+import com.inf.cscb869_pharmacy.customer.dto.CustomerDTO;
+import com.inf.cscb869_pharmacy.customer.entity.Customer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code CustomerApiController.convertToDTO} applied to a customer list, as the list endpoints do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CustomerConversionBenchmark {
+
+    @Param({"10", "500"})
+    private int size;
+
+    private CustomerApiController controller;
+    private List<Customer> customers;
+
+    @Setup
+    public void setUp() {
+        // convertToDTO does not touch the customer service
+        controller = new CustomerApiController(null);
+        customers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Customer customer = Customer.builder()
+                    .name("Customer " + i)
+                    .egn(String.format("%010d", i))
+                    .email("customer" + i + "@mail.com")
+                    .phone("+359888" + String.format("%06d", i))
+                    .address("Sofia, street " + i)
+                    .dateOfBirth(LocalDate.of(1960, 1, 1).plusDays(i * 37L))
+                    .allergies(i % 3 == 0 ? "Penicillin" : null)
+                    .insuranceNumber("INS-" + i)
+                    .active(true)
+                    .build();
+            customer.setId((long) i);
+            customers.add(customer);
+        }
+    }
+
+    @Benchmark
+    public List<CustomerDTO> convertList() {
+        return customers.stream()
+                .map(controller::convertToDTO)
+                .toList();
+    }
+}
@@ -0,0 +1,90 @@
+package com.inf.cscb869_pharmacy.recipe.controller;
+
+import com.inf.cscb869_pharmacy.customer.entity.Customer;
+import com.inf.cscb869_pharmacy.diagnosis.entity.Diagnosis;
+import com.inf.cscb869_pharmacy.doctor.entity.Doctor;
+import com.inf.cscb869_pharmacy.medicine.entity.Medicine;
+import com.inf.cscb869_pharmacy.recipe.dto.RecipeDTO;
+import com.inf.cscb869_pharmacy.recipe.entity.Recipe;
+import com.inf.cscb869_pharmacy.recipe.entity.RecipeMedicine;
+import com.inf.cscb869_pharmacy.recipe.entity.RecipeStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to form conversion of a recipe ({@code RecipeViewController.convertToDTO}) and the
+ * diagnosis summary every recipe list row renders ({@link Recipe#getDiagnosisSummary()}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RecipeConversionBenchmark {
+
+    @Param({"1", "5"})
+    private int diagnoses;
+
+    @Param({"3"})
+    private int medicines;
+
+    private RecipeViewController controller;
+    private Recipe recipe;
+
+    @Setup
+    public void setUp() {
+        // convertToDTO does not touch the injected services
+        controller = new RecipeViewController(null, null, null, null, null, null);
+
+        Doctor doctor = Doctor.builder().name("Dr. Ivanov").licenseNumber("UIN-1").build();
+        doctor.setId(1L);
+        Customer customer = Customer.builder().name("Maria Petrova").egn("8501011234").build();
+        customer.setId(2L);
+        recipe = Recipe.builder()
+                .creationDate(LocalDate.of(2026, 2, 10))
+                .doctor(doctor)
+                .customer(customer)
+                .status(RecipeStatus.ACTIVE)
+                .notes("Rest and fluids")
+                .diagnoses(new ArrayList<>())
+                .recipeMedicines(new ArrayList<>())
+                .build();
+        recipe.setId(3L);
+        for (int i = 0; i < diagnoses; i++) {
+            // Every other name repeats with stray whitespace, as entered in the forms
+            recipe.getDiagnoses().add(Diagnosis.builder()
+                    .name(i % 2 == 0 ? "Diagnosis " + i : " Diagnosis " + (i - 1) + " ")
+                    .recipe(recipe)
+                    .build());
+        }
+        for (int i = 0; i < medicines; i++) {
+            Medicine medicine = new Medicine();
+            medicine.setId((long) i);
+            medicine.setName("Medicine " + i);
+            recipe.addMedicine(RecipeMedicine.builder()
+                    .medicine(medicine)
+                    .dosage("1 tablet")
+                    .durationDays(7)
+                    .instructions("After meals")
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public RecipeDTO convertToDTO() {
+        return controller.convertToDTO(recipe);
+    }
+
+    @Benchmark
+    public String diagnosisSummary() {
+        return recipe.getDiagnosisSummary();
+    }
+}
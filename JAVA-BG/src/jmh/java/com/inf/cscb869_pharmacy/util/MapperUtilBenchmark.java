@@ -0,0 +1,50 @@
+package com.inf.cscb869_pharmacy.util;
+
+import com.inf.cscb869_pharmacy.medicine.dto.MedicineDTO;
+import com.inf.cscb869_pharmacy.medicine.entity.Medicine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MapperUtil#mapList} as used for the medicine list, which maps every row through ModelMapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapperUtilBenchmark {
+
+    @Param({"10", "500"})
+    private int size;
+
+    private MapperUtil mapperUtil;
+    private List<Medicine> medicines;
+
+    @Setup
+    public void setUp() {
+        mapperUtil = new MapperUtil();
+        medicines = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Medicine medicine = new Medicine();
+            medicine.setId((long) i);
+            medicine.setName("Medicine " + i);
+            medicine.setAgeAppropriateness(i % 18);
+            medicine.setNeedsRecipe(i % 2 == 0);
+            medicines.add(medicine);
+        }
+    }
+
+    @Benchmark
+    public List<MedicineDTO> mapList() {
+        return mapperUtil.mapList(medicines, MedicineDTO.class);
+    }
+}
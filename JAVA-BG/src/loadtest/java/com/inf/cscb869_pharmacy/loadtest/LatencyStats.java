@@ -0,0 +1,115 @@
+package com.inf.cscb869_pharmacy.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms per request label, in microseconds with three significant digits.
+ * Nothing is recorded until {@link #startRecording()}, so warmup requests stay out of the results.
+ */
+final class LatencyStats {
+
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+    private final LongAdder droppedIterations = new LongAdder();
+    private volatile boolean recording;
+    private volatile long recordingStartedNanos;
+    private volatile long recordingStoppedNanos;
+
+    void startRecording() {
+        recordingStartedNanos = System.nanoTime();
+        recording = true;
+    }
+
+    void stopRecording() {
+        recording = false;
+        recordingStoppedNanos = System.nanoTime();
+    }
+
+    void record(String label, long latencyNanos, boolean failed) {
+        if (!recording) {
+            return;
+        }
+        Series target = series.computeIfAbsent(label, ignored -> new Series());
+        target.histogram.recordValue(Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(latencyNanos), 1), MAX_TRACKABLE_MICROS));
+        if (failed) {
+            target.errors.increment();
+        }
+    }
+
+    /**
+     * An open-loop iteration that never started because too many were already in flight.
+     */
+    void dropped() {
+        if (recording) {
+            droppedIterations.increment();
+        }
+    }
+
+    double measuredSeconds() {
+        return (recordingStoppedNanos - recordingStartedNanos) / 1e9;
+    }
+
+    /**
+     * Request totals plus one entry per label, latencies in milliseconds. Whole iterations span several
+     * requests, so they are reported in their own block instead of being counted into the total.
+     */
+    Map<String, Object> summarize() {
+        double seconds = measuredSeconds();
+        Histogram total = new Histogram(MAX_TRACKABLE_MICROS, 3);
+        long totalErrors = 0;
+        Map<String, Object> requests = new TreeMap<>();
+        Map<String, Object> iterations = describe(new Histogram(MAX_TRACKABLE_MICROS, 3), 0, seconds);
+        for (Map.Entry<String, Series> entry : series.entrySet()) {
+            Histogram histogram = entry.getValue().histogram.copy();
+            long errors = entry.getValue().errors.sum();
+            if (LoadTestMain.ITERATION_LABEL.equals(entry.getKey())) {
+                iterations = describe(histogram, errors, seconds);
+                continue;
+            }
+            total.add(histogram);
+            totalErrors += errors;
+            requests.put(entry.getKey(), describe(histogram, errors, seconds));
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("measuredSeconds", seconds);
+        summary.put("total", describe(total, totalErrors, seconds));
+        summary.put("iterations", iterations);
+        summary.put("droppedIterations", droppedIterations.sum());
+        summary.put("requests", requests);
+        return summary;
+    }
+
+    private static Map<String, Object> describe(Histogram histogram, long errors, double seconds) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        long count = histogram.getTotalCount();
+        values.put("count", count);
+        values.put("errors", errors);
+        values.put("throughputPerSecond", seconds > 0 ? count / seconds : 0);
+        values.put("meanMs", count > 0 ? histogram.getMean() / 1000 : 0);
+        values.put("p50Ms", percentileMillis(histogram, 50));
+        values.put("p95Ms", percentileMillis(histogram, 95));
+        values.put("p99Ms", percentileMillis(histogram, 99));
+        values.put("p999Ms", percentileMillis(histogram, 99.9));
+        values.put("maxMs", count > 0 ? histogram.getMaxValue() / 1000.0 : 0);
+        return values;
+    }
+
+    private static double percentileMillis(Histogram histogram, double percentile) {
+        return histogram.getTotalCount() > 0 ? histogram.getValueAtPercentile(percentile) / 1000.0 : 0;
+    }
+
+    private static final class Series {
+        private final ConcurrentHistogram histogram = new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+    }
+}
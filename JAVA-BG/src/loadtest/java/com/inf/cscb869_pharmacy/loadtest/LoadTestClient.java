@@ -0,0 +1,111 @@
+package com.inf.cscb869_pharmacy.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+/**
+ * JSON calls against the application with a bearer token per user, timed into {@link LatencyStats}.
+ * A status of 400 or above, a timeout or an I/O error counts as a failed request.
+ */
+final class LoadTestClient {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpClient http;
+    private final LoadTestConfig config;
+    private final LatencyStats stats;
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+
+    LoadTestClient(LoadTestConfig config, LatencyStats stats) {
+        this.config = config;
+        this.stats = stats;
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(config.timeout())
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    /**
+     * Fetches (once) an access token for the user from the stand-in issuer's token endpoint.
+     */
+    String token(String username, String roles) {
+        return tokens.computeIfAbsent(username + "|" + roles, ignored -> {
+            String form = "username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+                    + "&roles=" + URLEncoder.encode(roles, StandardCharsets.UTF_8);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(config.issuerUrl() + "/protocol/openid-connect/token"))
+                    .timeout(config.timeout())
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form))
+                    .build();
+            try {
+                HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("Token request failed with status " + response.statusCode());
+                }
+                return JSON.readTree(response.body()).get("access_token").asText();
+            } catch (IOException e) {
+                throw new IllegalStateException("Token endpoint not reachable: " + config.issuerUrl(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while fetching a token", e);
+            }
+        });
+    }
+
+    JsonNode get(String label, String token, String path) {
+        return send(label, token, HttpRequest.newBuilder(uri(path)).GET());
+    }
+
+    JsonNode post(String label, String token, String path, Object body) {
+        try {
+            return send(label, token, HttpRequest.newBuilder(uri(path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(body))));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Request body is not serializable", e);
+        }
+    }
+
+    /**
+     * Sends the request and returns the parsed body, or null when the request failed.
+     */
+    private JsonNode send(String label, String token, HttpRequest.Builder builder) {
+        HttpRequest request = builder
+                .timeout(config.timeout())
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "application/json")
+                .build();
+        long started = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            boolean failed = response.statusCode() >= 400;
+            stats.record(label, System.nanoTime() - started, failed);
+            return failed || response.body().length == 0 ? null : JSON.readTree(response.body());
+        } catch (IOException e) {
+            stats.record(label, System.nanoTime() - started, true);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create(config.baseUrl() + path);
+    }
+
+    static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,100 @@
+package com.inf.cscb869_pharmacy.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test settings, read from {@code loadtest.*} system properties (the Gradle task passes -Ploadtest.* through).
+ * Id ranges are inclusive and must match the data the application was started with.
+ */
+record LoadTestConfig(String baseUrl,
+                      String issuerUrl,
+                      String scenario,
+                      Mode mode,
+                      int users,
+                      double rate,
+                      Duration duration,
+                      Duration warmup,
+                      IdRange doctorIds,
+                      IdRange customerIds,
+                      IdRange medicineIds,
+                      long seed,
+                      String outputDir,
+                      Duration timeout,
+                      int maxInFlight) {
+
+    enum Mode {
+        /** A fixed number of virtual users, each starting its next iteration when the previous one ends. */
+        CLOSED,
+        /** Iterations start at a fixed rate whatever the response times are. */
+        OPEN
+    }
+
+    static LoadTestConfig fromSystemProperties() {
+        int users = Integer.parseInt(property("users", "20"));
+        return new LoadTestConfig(
+                property("base-url", "http://localhost:8084"),
+                property("issuer-url", "http://localhost:9999" + StandInIssuer.REALM_PATH),
+                property("scenario", "doctor-workflow"),
+                Mode.valueOf(property("mode", "closed").toUpperCase()),
+                users,
+                Double.parseDouble(property("rate", "50")),
+                Duration.ofSeconds(Long.parseLong(property("duration-seconds", "60"))),
+                Duration.ofSeconds(Long.parseLong(property("warmup-seconds", "10"))),
+                IdRange.parse(property("doctor-ids", "1-5")),
+                IdRange.parse(property("customer-ids", "1-8")),
+                IdRange.parse(property("medicine-ids", "1-10")),
+                Long.parseLong(property("seed", "42")),
+                property("output-dir", "build/loadtest"),
+                Duration.ofSeconds(Long.parseLong(property("timeout-seconds", "30"))),
+                Integer.parseInt(property("max-in-flight", String.valueOf(Math.max(users, 1) * 10))));
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+
+    /**
+     * The settings written into the report, so two runs can be checked for comparability.
+     */
+    Map<String, Object> describe() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("baseUrl", baseUrl);
+        settings.put("scenario", scenario);
+        settings.put("mode", mode.name().toLowerCase());
+        if (mode == Mode.CLOSED) {
+            settings.put("users", users);
+        } else {
+            settings.put("rate", rate);
+            settings.put("maxInFlight", maxInFlight);
+        }
+        settings.put("durationSeconds", duration.toSeconds());
+        settings.put("warmupSeconds", warmup.toSeconds());
+        settings.put("doctorIds", doctorIds.toString());
+        settings.put("customerIds", customerIds.toString());
+        settings.put("medicineIds", medicineIds.toString());
+        settings.put("seed", seed);
+        return settings;
+    }
+
+    record IdRange(long from, long to) {
+
+        IdRange {
+            if (from < 1 || to < from) {
+                throw new IllegalArgumentException("Invalid id range: " + from + "-" + to);
+            }
+        }
+
+        static IdRange parse(String value) {
+            String[] bounds = value.split("-");
+            long from = Long.parseLong(bounds[0].trim());
+            return new IdRange(from, bounds.length > 1 ? Long.parseLong(bounds[1].trim()) : from);
+        }
+
+        @Override
+        public String toString() {
+            return from + "-" + to;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.inf.cscb869_pharmacy.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives one scenario against a running application and writes a JSON report per run to {@code loadtest.output-dir}.
+ * <p>
+ * Closed loop: {@code loadtest.users} virtual users iterate back to back. Open loop: iterations start at
+ * {@code loadtest.rate} per second on a fixed schedule, and the "iteration" latency is measured from the scheduled
+ * start, so a slow server shows up as queueing instead of silently lowering the request rate.
+ * Everything runs on virtual threads.
+ */
+public final class LoadTestMain {
+
+    static final String ITERATION_LABEL = "iteration";
+
+    private static final DateTimeFormatter RUN_ID = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        Scenario scenario = Scenarios.named(config.scenario(), config);
+        LatencyStats stats = new LatencyStats();
+        LoadTestClient client = new LoadTestClient(config, stats);
+
+        Instant startedAt = Instant.now();
+        System.out.printf("Running %s (%s loop) against %s for %ds after %ds warmup%n", config.scenario(),
+                config.mode().name().toLowerCase(), config.baseUrl(), config.duration().toSeconds(), config.warmup().toSeconds());
+        if (config.mode() == LoadTestConfig.Mode.CLOSED) {
+            runClosed(config, scenario, client, stats);
+        } else {
+            runOpen(config, scenario, client, stats);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", startedAt.toString());
+        report.put("config", config.describe());
+        report.putAll(stats.summarize());
+        Path output = write(config, startedAt, report);
+        System.out.println("Report written to " + output.toAbsolutePath());
+    }
+
+    private static void runClosed(LoadTestConfig config, Scenario scenario, LoadTestClient client, LatencyStats stats)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + config.warmup().toNanos() + config.duration().toNanos();
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < config.users(); user++) {
+                SplittableRandom random = new SplittableRandom(config.seed() + user);
+                users.submit(() -> {
+                    while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                        long started = System.nanoTime();
+                        boolean failed = iterate(scenario, client, random);
+                        stats.record(ITERATION_LABEL, System.nanoTime() - started, failed);
+                    }
+                });
+            }
+            measure(config, stats);
+        }
+    }
+
+    private static void runOpen(LoadTestConfig config, Scenario scenario, LoadTestClient client, LatencyStats stats)
+            throws InterruptedException {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.rate());
+        long start = System.nanoTime();
+        long deadline = start + config.warmup().toNanos() + config.duration().toNanos();
+        long warmupEnd = start + config.warmup().toNanos();
+        Semaphore inFlight = new Semaphore(config.maxInFlight());
+        SplittableRandom seeds = new SplittableRandom(config.seed());
+        boolean recording = false;
+
+        try (ExecutorService iterations = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long next = start; next < deadline; next += intervalNanos) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (!recording && next >= warmupEnd) {
+                    stats.startRecording();
+                    recording = true;
+                }
+                if (!inFlight.tryAcquire()) {
+                    stats.dropped();
+                    continue;
+                }
+                long scheduled = next;
+                SplittableRandom random = seeds.split();
+                iterations.submit(() -> {
+                    try {
+                        boolean failed = iterate(scenario, client, random);
+                        stats.record(ITERATION_LABEL, System.nanoTime() - scheduled, failed);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            // Let iterations already scheduled finish, so the slowest ones are not left out of the tail
+            iterations.shutdown();
+            iterations.awaitTermination(config.timeout().toNanos(), TimeUnit.NANOSECONDS);
+            stats.stopRecording();
+            iterations.shutdownNow();
+        }
+    }
+
+    private static void measure(LoadTestConfig config, LatencyStats stats) throws InterruptedException {
+        Thread.sleep(config.warmup());
+        stats.startRecording();
+        Thread.sleep(config.duration());
+        stats.stopRecording();
+    }
+
+    /**
+     * Runs one iteration; returns true when it threw instead of finishing.
+     */
+    private static boolean iterate(Scenario scenario, LoadTestClient client, SplittableRandom random) {
+        try {
+            scenario.iterate(client, random);
+            return false;
+        } catch (RuntimeException e) {
+            System.err.println("Iteration failed: " + e.getMessage());
+            return true;
+        }
+    }
+
+    private static Path write(LoadTestConfig config, Instant startedAt, Map<String, Object> report) throws Exception {
+        Path directory = Path.of(config.outputDir());
+        Files.createDirectories(directory);
+        Path output = directory.resolve(config.scenario() + "-" + config.mode().name().toLowerCase() + "-"
+                + RUN_ID.format(startedAt) + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), report);
+        return output;
+    }
+}
@@ -0,0 +1,12 @@
+package com.inf.cscb869_pharmacy.loadtest;
+
+import java.util.SplittableRandom;
+
+/**
+ * One iteration of a virtual user: a short sequence of API calls made by the same user.
+ */
+@FunctionalInterface
+interface Scenario {
+
+    void iterate(LoadTestClient client, SplittableRandom random);
+}
@@ -0,0 +1,123 @@
+package com.inf.cscb869_pharmacy.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.inf.cscb869_pharmacy.loadtest.LoadTestConfig.IdRange;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * The named scenarios a run can pick with {@code -Ploadtest.scenario=...}.
+ * Users are authenticated through the stand-in issuer with the same realm roles Keycloak would give them.
+ */
+final class Scenarios {
+
+    private static final String DOCTOR_ROLES = "DOCTOR";
+    private static final String ADMIN_ROLES = "ADMIN";
+
+    private static final List<String[]> DIAGNOSES = List.of(
+            new String[]{"J06.9", "Acute upper respiratory infection"},
+            new String[]{"I10", "Essential hypertension"},
+            new String[]{"E11.9", "Type 2 diabetes mellitus"},
+            new String[]{"M54.5", "Low back pain"},
+            new String[]{"J20.9", "Acute bronchitis"},
+            new String[]{"K29.7", "Gastritis"});
+
+    private static final Map<String, Function<LoadTestConfig, Scenario>> SCENARIOS = Map.of(
+            "doctor-workflow", Scenarios::doctorWorkflow,
+            "report-browsing", Scenarios::reportBrowsing,
+            "api-bulk-reads", Scenarios::apiBulkReads);
+
+    private Scenarios() {
+    }
+
+    static Scenario named(String name, LoadTestConfig config) {
+        Function<LoadTestConfig, Scenario> factory = SCENARIOS.get(name);
+        if (factory == null) {
+            throw new IllegalArgumentException("Unknown scenario: " + name + ", expected one of " + SCENARIOS.keySet());
+        }
+        return factory.apply(config);
+    }
+
+    /**
+     * A doctor looks at the last month of their examinations, writes a recipe with a diagnosis
+     * and issues a sick leave for roughly one visit in four.
+     */
+    static Scenario doctorWorkflow(LoadTestConfig config) {
+        return (client, random) -> {
+            long doctorId = pick(random, config.doctorIds());
+            String token = client.token("doctor" + doctorId + "@loadtest.local", DOCTOR_ROLES);
+            LocalDate today = LocalDate.now();
+
+            client.get("list-recipes", token, "/api/reports/doctor-examinations/" + doctorId
+                    + "?startDate=" + today.minusDays(30) + "&endDate=" + today);
+
+            JsonNode recipe = client.post("create-recipe", token, "/api/recipes", Map.of(
+                    "creationDate", today.toString(),
+                    "expirationDate", today.plusDays(30).toString(),
+                    "status", "ACTIVE",
+                    "doctor", Map.of("id", doctorId),
+                    "customer", Map.of("id", pick(random, config.customerIds()))));
+            if (recipe == null || !recipe.hasNonNull("id")) {
+                return;
+            }
+            Map<String, Object> recipeRef = Map.of("id", recipe.get("id").asLong());
+
+            String[] diagnosis = DIAGNOSES.get(random.nextInt(DIAGNOSES.size()));
+            client.post("add-diagnosis", token, "/api/diagnoses", Map.of(
+                    "recipe", recipeRef,
+                    "icd10Code", diagnosis[0],
+                    "name", diagnosis[1],
+                    "diagnosisDate", today.toString(),
+                    "isPrimary", true));
+
+            if (random.nextInt(4) == 0) {
+                client.post("issue-sick-leave", token, "/api/sick-leaves?overlap=MERGE", Map.of(
+                        "recipe", recipeRef,
+                        "startDate", today.toString(),
+                        "durationDays", 1 + random.nextInt(10),
+                        "reason", diagnosis[1]));
+            }
+        };
+    }
+
+    /**
+     * An administrator moves through the report pages: aggregates, a trend chart and a patient drill-down.
+     */
+    static Scenario reportBrowsing(LoadTestConfig config) {
+        return (client, random) -> {
+            String token = client.token("admin@loadtest.local", ADMIN_ROLES);
+            LocalDate today = LocalDate.now();
+
+            client.get("common-diagnoses", token, "/api/reports/common-diagnoses");
+            client.get("visits-by-doctor", token, "/api/reports/visit-count-by-doctor");
+            client.get("recipe-trend", token, "/api/reports/trends?metric=recipes&granularity=month&from="
+                    + today.minusYears(1) + "&to=" + today);
+            String diagnosis = DIAGNOSES.get(random.nextInt(DIAGNOSES.size()))[1];
+            client.get("patients-by-diagnosis", token, "/api/reports/patients-by-diagnosis?diagnosis="
+                    + LoadTestClient.encode(diagnosis));
+            client.get("patient-history", token, "/api/reports/patient-history/" + pick(random, config.customerIds()));
+        };
+    }
+
+    /**
+     * API consumers reading reference data and paging through diagnoses and sick leaves.
+     */
+    static Scenario apiBulkReads(LoadTestConfig config) {
+        return (client, random) -> {
+            String token = client.token("api@loadtest.local", ADMIN_ROLES);
+
+            client.get("medicines", token, "/api/medicines");
+            client.get("medicine", token, "/api/medicines/" + pick(random, config.medicineIds()));
+            client.get("diagnoses-page", token, "/api/diagnoses?page=" + random.nextInt(20) + "&size=50");
+            client.get("doctor-sick-leaves", token, "/api/sick-leaves/doctor/" + pick(random, config.doctorIds()));
+        };
+    }
+
+    private static long pick(SplittableRandom random, IdRange range) {
+        return random.nextLong(range.from(), range.to() + 1);
+    }
+}
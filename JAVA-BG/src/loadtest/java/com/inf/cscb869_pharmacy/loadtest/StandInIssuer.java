@@ -0,0 +1,166 @@
+package com.inf.cscb869_pharmacy.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+
+/**
+ * Test-only stand-in for the Keycloak realm: OIDC discovery, a JWKS endpoint and a token endpoint that signs
+ * an access token for any username and realm roles it is asked for. Never point a real deployment at it.
+ * Start it before the application runs with the {@code loadtest} profile, which trusts its keys.
+ */
+public final class StandInIssuer {
+
+    static final String REALM_PATH = "/realms/pharmacy-realm";
+    static final Duration TOKEN_TTL = Duration.ofHours(1);
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpServer server;
+    private final RSAKey key;
+    private final String issuer;
+
+    private StandInIssuer(HttpServer server, RSAKey key, String issuer) {
+        this.server = server;
+        this.key = key;
+        this.issuer = issuer;
+    }
+
+    public static void main(String[] args) throws Exception {
+        StandInIssuer issuer = start(Integer.getInteger("loadtest.issuer-port", 9999));
+        System.out.println("Stand-in issuer running at " + issuer.issuer());
+        Thread.currentThread().join();
+    }
+
+    static StandInIssuer start(int port) throws IOException, JOSEException {
+        RSAKey key = new RSAKeyGenerator(2048).keyID(UUID.randomUUID().toString()).generate();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        String issuer = "http://localhost:" + server.getAddress().getPort() + REALM_PATH;
+        StandInIssuer standIn = new StandInIssuer(server, key, issuer);
+
+        server.createContext(REALM_PATH + "/.well-known/openid-configuration", exchange ->
+                standIn.respond(exchange, 200, JSON.writeValueAsString(standIn.discovery())));
+        server.createContext(REALM_PATH + "/protocol/openid-connect/certs", exchange ->
+                standIn.respond(exchange, 200, new JWKSet(key.toPublicJWK()).toString()));
+        server.createContext(REALM_PATH + "/protocol/openid-connect/token", standIn::token);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        return standIn;
+    }
+
+    String issuer() {
+        return issuer;
+    }
+
+    void stop() {
+        server.stop(0);
+    }
+
+    /**
+     * A signed access token shaped like Keycloak's: the username doubles as e-mail and realm roles sit under realm_access.
+     */
+    String issue(String username, List<String> roles) throws JOSEException {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .subject(username)
+                .claim("preferred_username", username)
+                .claim("email", username)
+                .claim("realm_access", Map.of("roles", roles))
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(TOKEN_TTL)))
+                .jwtID(UUID.randomUUID().toString())
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256)
+                .keyID(key.getKeyID())
+                .type(JOSEObjectType.JWT)
+                .build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+
+    private Map<String, Object> discovery() {
+        Map<String, Object> discovery = new HashMap<>();
+        discovery.put("issuer", issuer);
+        discovery.put("authorization_endpoint", issuer + "/protocol/openid-connect/auth");
+        discovery.put("token_endpoint", issuer + "/protocol/openid-connect/token");
+        discovery.put("userinfo_endpoint", issuer + "/protocol/openid-connect/userinfo");
+        discovery.put("end_session_endpoint", issuer + "/protocol/openid-connect/logout");
+        discovery.put("jwks_uri", issuer + "/protocol/openid-connect/certs");
+        discovery.put("response_types_supported", List.of("code"));
+        discovery.put("subject_types_supported", List.of("public"));
+        discovery.put("id_token_signing_alg_values_supported", List.of("RS256"));
+        return discovery;
+    }
+
+    private void token(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, "{\"error\":\"method_not_allowed\"}");
+            return;
+        }
+        Map<String, String> form = parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        String username = form.get("username");
+        if (username == null || username.isBlank()) {
+            respond(exchange, 400, "{\"error\":\"invalid_request\"}");
+            return;
+        }
+        List<String> roles = Arrays.stream(form.getOrDefault("roles", "").split(","))
+                .map(String::trim)
+                .filter(role -> !role.isEmpty())
+                .toList();
+        try {
+            respond(exchange, 200, JSON.writeValueAsString(Map.of(
+                    "access_token", issue(username, roles),
+                    "token_type", "Bearer",
+                    "expires_in", TOKEN_TTL.toSeconds())));
+        } catch (JOSEException e) {
+            respond(exchange, 500, "{\"error\":\"server_error\"}");
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseForm(String body) {
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                form.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return form;
+    }
+}
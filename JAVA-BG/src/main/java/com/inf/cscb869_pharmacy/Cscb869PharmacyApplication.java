@@ -2,8 +2,12 @@ package com.inf.cscb869_pharmacy;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@EnableAsync
 public class Cscb869PharmacyApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(Cscb869PharmacyApplication.class, args);
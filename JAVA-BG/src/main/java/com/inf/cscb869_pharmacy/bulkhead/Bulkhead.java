@@ -0,0 +1,119 @@
+package com.inf.cscb869_pharmacy.bulkhead;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A fair semaphore in front of one subsystem's database work, so a burst in one subsystem
+ * cannot take the connections another one needs.
+ * A thread holds at most one permit: nested calls already run on the outer call's connection and pass straight through.
+ */
+public class Bulkhead {
+
+    private static final ThreadLocal<Bulkhead> HELD = new ThreadLocal<>();
+    private static final Permit NESTED = () -> {
+    };
+
+    private final Subsystem subsystem;
+    private final int maxConcurrent;
+    private final Duration maxWait;
+    private final Semaphore permits;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public Bulkhead(Subsystem subsystem, int maxConcurrent, Duration maxWait, MeterRegistry registry) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("Bulkhead " + subsystem.key() + " needs at least one permit");
+        }
+        this.subsystem = subsystem;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWait = maxWait;
+        this.permits = new Semaphore(maxConcurrent, true);
+
+        String name = subsystem.key();
+        Gauge.builder("pharmacy.bulkhead.max", () -> maxConcurrent)
+                .description("Permits of the bulkhead")
+                .tag("bulkhead", name)
+                .register(registry);
+        Gauge.builder("pharmacy.bulkhead.active", this::active)
+                .description("Permits in use")
+                .tag("bulkhead", name)
+                .register(registry);
+        Gauge.builder("pharmacy.bulkhead.waiting", permits::getQueueLength)
+                .description("Callers waiting for a permit")
+                .tag("bulkhead", name)
+                .register(registry);
+        Gauge.builder("pharmacy.bulkhead.saturation", () -> (double) active() / maxConcurrent)
+                .description("Share of permits in use")
+                .tag("bulkhead", name)
+                .register(registry);
+        this.waitTimer = Timer.builder("pharmacy.bulkhead.wait")
+                .description("Time spent waiting for a permit")
+                .tag("bulkhead", name)
+                .publishPercentileHistogram()
+                .register(registry);
+        this.rejected = Counter.builder("pharmacy.bulkhead.rejected")
+                .description("Calls rejected after waiting the max wait")
+                .tag("bulkhead", name)
+                .register(registry);
+    }
+
+    /**
+     * Takes a permit, waiting at most the max wait. Close the returned permit to give it back.
+     */
+    public Permit acquire() {
+        if (HELD.get() != null) {
+            return NESTED;
+        }
+        long started = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BulkheadFullException(subsystem, maxWait);
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new BulkheadFullException(subsystem, maxWait);
+        }
+        waitTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        HELD.set(this);
+        return () -> {
+            HELD.remove();
+            permits.release();
+        };
+    }
+
+    public Subsystem getSubsystem() {
+        return subsystem;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    int active() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    /**
+     * A taken permit; closing it releases the permit.
+     */
+    @FunctionalInterface
+    public interface Permit extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,44 @@
+package com.inf.cscb869_pharmacy.bulkhead;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+/**
+ * Applies {@link UseBulkhead}. Runs outside the transaction advice, so a caller that is turned away
+ * never took a connection.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class BulkheadAspect {
+
+    private final BulkheadRegistry bulkheads;
+
+    @Around("@within(com.inf.cscb869_pharmacy.bulkhead.UseBulkhead) || @annotation(com.inf.cscb869_pharmacy.bulkhead.UseBulkhead)")
+    public Object guard(ProceedingJoinPoint joinPoint) throws Throwable {
+        try (Bulkhead.Permit permit = bulkheads.get(subsystem(joinPoint)).acquire()) {
+            return joinPoint.proceed();
+        }
+    }
+
+    private static Subsystem subsystem(ProceedingJoinPoint joinPoint) {
+        Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+        Method method = AopUtils.getMostSpecificMethod(((MethodSignature) joinPoint.getSignature()).getMethod(), targetClass);
+        UseBulkhead annotation = AnnotatedElementUtils.findMergedAnnotation(method, UseBulkhead.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(targetClass, UseBulkhead.class);
+        }
+        return annotation.value();
+    }
+}
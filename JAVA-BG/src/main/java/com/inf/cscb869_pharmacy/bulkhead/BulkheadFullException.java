@@ -0,0 +1,21 @@
+package com.inf.cscb869_pharmacy.bulkhead;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * No permit became free within the bulkhead's max wait.
+ */
+@Getter
+public class BulkheadFullException extends RuntimeException {
+
+    private final Subsystem subsystem;
+    private final Duration maxWait;
+
+    public BulkheadFullException(Subsystem subsystem, Duration maxWait) {
+        super("The " + subsystem.key() + " capacity is saturated, try again shortly");
+        this.subsystem = subsystem;
+        this.maxWait = maxWait;
+    }
+}
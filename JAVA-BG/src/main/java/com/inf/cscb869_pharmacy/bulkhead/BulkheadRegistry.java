@@ -0,0 +1,68 @@
+package com.inf.cscb869_pharmacy.bulkhead;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * One bulkhead per {@link Subsystem}, sized as a share of the Hikari pool
+ * ({@code pharmacy.bulkhead.<subsystem>.pool-share}, percent). Whatever the shares leave over stays free
+ * for unguarded reads, the UI and scheduled jobs.
+ */
+@Component
+@Slf4j
+public class BulkheadRegistry {
+
+    static final int DEFAULT_POOL_SIZE = 10;
+
+    private final Map<Subsystem, Bulkhead> bulkheads = new EnumMap<>(Subsystem.class);
+
+    public BulkheadRegistry(Environment environment, MeterRegistry registry) {
+        int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, DEFAULT_POOL_SIZE);
+        int totalShare = 0;
+        for (Subsystem subsystem : Subsystem.values()) {
+            String prefix = "pharmacy.bulkhead." + subsystem.key() + ".";
+            int share = environment.getProperty(prefix + "pool-share", Integer.class, defaultShare(subsystem));
+            long maxWaitMs = environment.getProperty(prefix + "max-wait-ms", Long.class, defaultMaxWaitMs(subsystem));
+            int permits = permits(poolSize, share);
+            totalShare += share;
+            bulkheads.put(subsystem, new Bulkhead(subsystem, permits, Duration.ofMillis(maxWaitMs), registry));
+            log.info("Bulkhead {}: {} of {} connections, max wait {} ms", subsystem.key(), permits, poolSize, maxWaitMs);
+        }
+        if (totalShare > 100) {
+            log.warn("Bulkhead pool shares add up to {}%; subsystems can still starve each other", totalShare);
+        }
+    }
+
+    public Bulkhead get(Subsystem subsystem) {
+        return bulkheads.get(subsystem);
+    }
+
+    /**
+     * Permits for a share of the pool, at least one.
+     */
+    static int permits(int poolSize, int sharePercent) {
+        return Math.max(1, poolSize * sharePercent / 100);
+    }
+
+    private static int defaultShare(Subsystem subsystem) {
+        return switch (subsystem) {
+            case WRITES -> 50;
+            case REPORTS -> 30;
+            case EXPORTS -> 10;
+        };
+    }
+
+    private static long defaultMaxWaitMs(Subsystem subsystem) {
+        return switch (subsystem) {
+            case WRITES -> 2000;
+            case REPORTS -> 500;
+            case EXPORTS -> 60000;
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package com.inf.cscb869_pharmacy.bulkhead;
+
+/**
+ * Workloads that get their own share of the connection pool.
+ */
+public enum Subsystem {
+    /** Transactional writes made by doctors: recipes, diagnoses, sick leaves. */
+    WRITES,
+    /** Report and trend queries that miss the report caches. */
+    REPORTS,
+    /** Background CSV report jobs. */
+    EXPORTS;
+
+    /** Name used in properties and metric tags. */
+    public String key() {
+        return name().toLowerCase();
+    }
+}
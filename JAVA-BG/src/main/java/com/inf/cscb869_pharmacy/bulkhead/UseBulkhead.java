@@ -0,0 +1,17 @@
+package com.inf.cscb869_pharmacy.bulkhead;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the method, or every public method of the type, inside the bulkhead of the given subsystem.
+ * Callers wait at most the subsystem's max wait for a permit and then get a {@link BulkheadFullException}.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface UseBulkhead {
+
+    Subsystem value();
+}
@@ -0,0 +1,55 @@
+package com.inf.cscb869_pharmacy.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Subscriber bookkeeping and local dispatch shared by the bus transports.
+ */
+@Slf4j
+abstract class AbstractInvalidationBus implements InvalidationBus {
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, List<Consumer<CacheInvalidation>>> subscribers = new ConcurrentHashMap<>();
+
+    @Override
+    public void subscribe(String cacheName, Consumer<CacheInvalidation> listener) {
+        subscribers.computeIfAbsent(cacheName, name -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Applies an invalidation received from the transport; the node's own invalidations are skipped.
+     */
+    void deliver(CacheInvalidation invalidation) {
+        if (nodeId.equals(invalidation.origin())) {
+            return;
+        }
+        for (Consumer<CacheInvalidation> listener : subscribers.getOrDefault(invalidation.cacheName(), List.of())) {
+            try {
+                listener.accept(invalidation);
+            } catch (RuntimeException e) {
+                log.error("Cache invalidation of {} failed", invalidation.cacheName(), e);
+            }
+        }
+    }
+
+    /**
+     * Drops every subscribed cache, for when invalidations may have been missed and cannot be replayed.
+     */
+    void invalidateEverything(long version) {
+        log.warn("Cache invalidations may have been missed; dropping all subscribed caches");
+        for (String cacheName : subscribers.keySet()) {
+            deliver(new CacheInvalidation(cacheName, null, version, null));
+        }
+    }
+}
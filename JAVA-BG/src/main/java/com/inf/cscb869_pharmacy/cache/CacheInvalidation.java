@@ -0,0 +1,15 @@
+package com.inf.cscb869_pharmacy.cache;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * One invalidation on the bus: drop {@code key} from {@code cacheName}, or the whole cache when the key is null.
+ * The version orders invalidations published through the same bus; origin is the publishing node.
+ */
+public record CacheInvalidation(String cacheName, String key, long version, String origin) {
+
+    @JsonIgnore
+    public boolean isWholeCache() {
+        return key == null;
+    }
+}
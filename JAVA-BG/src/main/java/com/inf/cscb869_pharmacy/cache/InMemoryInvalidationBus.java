@@ -0,0 +1,82 @@
+package com.inf.cscb869_pharmacy.cache;
+
+import com.inf.cscb869_pharmacy.util.TransactionCallbacks;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-process stand-in for the Postgres bus, for tests and single-node runs ({@code pharmacy.invalidation.transport=memory}).
+ * Buses sharing a {@link Hub} behave like nodes on one database: a disconnected bus misses live
+ * invalidations and catches up from the hub's log when it reconnects.
+ */
+@Component
+@ConditionalOnProperty(name = "pharmacy.invalidation.transport", havingValue = "memory")
+public class InMemoryInvalidationBus extends AbstractInvalidationBus {
+
+    private final Hub hub;
+    private volatile boolean connected = true;
+    private volatile long lastSeenVersion;
+
+    public InMemoryInvalidationBus() {
+        this(new Hub());
+    }
+
+    public InMemoryInvalidationBus(Hub hub) {
+        this.hub = hub;
+        hub.join(this);
+    }
+
+    @Override
+    public void publish(String cacheName, Object key) {
+        String cacheKey = key == null ? null : key.toString();
+        TransactionCallbacks.afterCommit(() -> hub.broadcast(cacheName, cacheKey, nodeId()));
+    }
+
+    public void disconnect() {
+        connected = false;
+    }
+
+    public void reconnect() {
+        // Live invalidations may arrive during the replay too; applying one twice is harmless
+        connected = true;
+        for (CacheInvalidation invalidation : hub.since(lastSeenVersion)) {
+            receive(invalidation);
+        }
+    }
+
+    private synchronized void receive(CacheInvalidation invalidation) {
+        lastSeenVersion = Math.max(lastSeenVersion, invalidation.version());
+        deliver(invalidation);
+    }
+
+    /**
+     * The shared "database": keeps every invalidation for catch-up.
+     */
+    public static class Hub {
+
+        private final List<InMemoryInvalidationBus> buses = new CopyOnWriteArrayList<>();
+        private final List<CacheInvalidation> log = new ArrayList<>();
+
+        void join(InMemoryInvalidationBus bus) {
+            buses.add(bus);
+        }
+
+        synchronized void broadcast(String cacheName, String key, String origin) {
+            CacheInvalidation invalidation = new CacheInvalidation(cacheName, key, log.size() + 1L, origin);
+            log.add(invalidation);
+            for (InMemoryInvalidationBus bus : buses) {
+                if (bus.connected) {
+                    bus.receive(invalidation);
+                }
+            }
+        }
+
+        synchronized List<CacheInvalidation> since(long version) {
+            return new ArrayList<>(log.subList((int) version, log.size()));
+        }
+    }
+}
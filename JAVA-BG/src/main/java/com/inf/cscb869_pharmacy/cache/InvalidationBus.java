@@ -0,0 +1,21 @@
+package com.inf.cscb869_pharmacy.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Tells the other nodes which cache entries a write made stale. A node never receives its own
+ * invalidations, since it already evicted locally when it wrote.
+ */
+public interface InvalidationBus {
+
+    /**
+     * Publishes once the current transaction commits, or right away without one. A null key drops the whole cache.
+     */
+    void publish(String cacheName, Object key);
+
+    /**
+     * Registers a local eviction for invalidations of one cache published by other nodes.
+     * After a gap the bus cannot replay, every subscriber gets a whole-cache invalidation.
+     */
+    void subscribe(String cacheName, Consumer<CacheInvalidation> listener);
+}
@@ -0,0 +1,287 @@
+package com.inf.cscb869_pharmacy.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inf.cscb869_pharmacy.job.ClusterJob;
+import com.inf.cscb869_pharmacy.util.TransactionCallbacks;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invalidation bus over Postgres LISTEN/NOTIFY, so nodes need nothing but the database they already share.
+ * <p>
+ * Published invalidations are queued, de-duplicated and written in batches to {@code cache_invalidation_log},
+ * with one NOTIFY each, in a single transaction. Every node holds one dedicated connection (outside the pool) that
+ * LISTENs and pings the database each poll; the ping's {@code now()} is the node's watermark. After a reconnect the
+ * node replays log rows written since its watermark (minus a margin for commits in flight), or drops every
+ * subscribed cache when it was away longer than the log is kept.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "pharmacy.invalidation.transport", havingValue = "postgres", matchIfMissing = true)
+public class PostgresInvalidationBus extends AbstractInvalidationBus implements SmartLifecycle {
+
+    static final String CHANNEL = "pharmacy_cache_invalidation";
+    static final Duration CATCH_UP_MARGIN = Duration.ofSeconds(5);
+    private static final int MAX_BATCH = 500;
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final Duration pollInterval;
+    private final Duration retention;
+    private final Duration shutdownTimeout;
+    private final BlockingQueue<Pending> pending = new LinkedBlockingQueue<>();
+
+    private volatile boolean running;
+    private volatile Timestamp watermark;
+    private volatile long stopDeadline;
+    private Thread listener;
+    private Thread sender;
+
+    public PostgresInvalidationBus(DataSource dataSource,
+                                   DataSourceProperties dataSourceProperties,
+                                   @Value("${pharmacy.invalidation.poll-interval-ms:1000}") long pollIntervalMs,
+                                   @Value("${pharmacy.invalidation.retention-minutes:60}") long retentionMinutes,
+                                   @Value("${pharmacy.invalidation.shutdown-timeout-ms:10000}") long shutdownTimeoutMs) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.dataSourceProperties = dataSourceProperties;
+        this.pollInterval = Duration.ofMillis(pollIntervalMs);
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        this.shutdownTimeout = Duration.ofMillis(shutdownTimeoutMs);
+    }
+
+    @Override
+    public void publish(String cacheName, Object key) {
+        Pending invalidation = new Pending(cacheName, key == null ? null : key.toString());
+        TransactionCallbacks.afterCommit(() -> pending.add(invalidation));
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        listener = Thread.ofVirtual().name("cache-invalidation-listener").start(this::listen);
+        sender = Thread.ofVirtual().name("cache-invalidation-sender").start(this::send);
+    }
+
+    /**
+     * Waits up to the shutdown timeout for queued invalidations to be written, before the pool closes.
+     */
+    @Override
+    public void stop() {
+        stopDeadline = System.nanoTime() + shutdownTimeout.toNanos();
+        running = false;
+        listener.interrupt();
+        sender.interrupt();
+        try {
+            if (!sender.join(shutdownTimeout)) {
+                log.warn("Cache invalidation sender did not finish within {} ms", shutdownTimeout.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Scheduled(fixedDelayString = "${pharmacy.invalidation.prune-interval-ms:600000}")
+    @ClusterJob(value = "cache-invalidation-prune", minIntervalString = "${pharmacy.invalidation.prune-interval-ms:600000}")
+    public int prune() {
+        int deleted = jdbcTemplate.update("DELETE FROM cache_invalidation_log WHERE created_at < now() - make_interval(mins => ?)",
+                (int) retention.toMinutes());
+        log.debug("Pruned {} cache invalidation log rows", deleted);
+        return deleted;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                Timestamp now = ping(connection);
+                catchUp(connection, now);
+                watermark = now;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Listening for cache invalidations on {}", CHANNEL);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollInterval.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                    watermark = ping(connection);
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Cache invalidation listener lost its connection, reconnecting: {}", e.getMessage());
+                    sleep(pollInterval);
+                }
+            }
+        }
+    }
+
+    /**
+     * Replays what was logged while this node was not listening. On first start there is nothing cached to fix.
+     */
+    private void catchUp(Connection connection, Timestamp now) throws SQLException {
+        Timestamp since = watermark;
+        if (since == null) {
+            return;
+        }
+        if (now.getTime() - since.getTime() > retention.toMillis()) {
+            invalidateEverything(0);
+            return;
+        }
+        int replayed = 0;
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT id, cache_name, cache_key, origin FROM cache_invalidation_log WHERE created_at >= ? ORDER BY id")) {
+            statement.setTimestamp(1, new Timestamp(since.getTime() - CATCH_UP_MARGIN.toMillis()));
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    deliver(new CacheInvalidation(rows.getString(2), rows.getString(3), rows.getLong(1), rows.getString(4)));
+                    replayed++;
+                }
+            }
+        }
+        log.info("Replayed {} cache invalidations missed while disconnected", replayed);
+    }
+
+    private void receive(String payload) {
+        try {
+            deliver(JSON.readValue(payload, CacheInvalidation.class));
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed cache invalidation: {}", payload);
+        }
+    }
+
+    /**
+     * Writes queued invalidations in batches. A failed batch is kept and retried with backoff, since an invalidation
+     * that never reaches the log cannot be replayed by the other nodes either.
+     */
+    private void send() {
+        List<Pending> batch = new ArrayList<>();
+        Duration backoff = pollInterval;
+        while (running || !pending.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    Pending first = pending.poll(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                }
+                pending.drainTo(batch, Math.max(0, MAX_BATCH - batch.size()));
+                write(new LinkedHashSet<>(batch));
+                batch.clear();
+                backoff = pollInterval;
+            } catch (InterruptedException e) {
+                // stop() interrupts the wait; the loop still flushes what is queued
+            } catch (RuntimeException e) {
+                if (!running && System.nanoTime() - stopDeadline > 0) {
+                    log.error("Dropping {} unpublished cache invalidations on shutdown", batch.size() + pending.size(), e);
+                    return;
+                }
+                log.warn("Could not publish {} cache invalidations, retrying in {} ms",
+                        batch.size(), backoff.toMillis(), e);
+                pause(backoff);
+                backoff = backoff.multipliedBy(2).compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff.multipliedBy(2);
+            }
+        }
+    }
+
+    private void write(Set<Pending> invalidations) {
+        jdbcTemplate.execute((Connection connection) -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO cache_invalidation_log (cache_name, cache_key, origin) VALUES (?, ?, ?) RETURNING id");
+                 PreparedStatement notify = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                for (Pending invalidation : invalidations) {
+                    insert.setString(1, invalidation.cacheName());
+                    insert.setString(2, invalidation.key());
+                    insert.setString(3, nodeId());
+                    long version;
+                    try (ResultSet id = insert.executeQuery()) {
+                        id.next();
+                        version = id.getLong(1);
+                    }
+                    notify.setString(1, CHANNEL);
+                    notify.setString(2, JSON.writeValueAsString(
+                            new CacheInvalidation(invalidation.cacheName(), invalidation.key(), version, nodeId())));
+                    notify.execute();
+                }
+                // Notifications are delivered when this commits, together with their log rows
+                connection.commit();
+            } catch (SQLException | JsonProcessingException | RuntimeException e) {
+                connection.rollback();
+                throw e instanceof SQLException sqlException ? sqlException : new SQLException(e);
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            return null;
+        });
+    }
+
+    private static Timestamp ping(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT now()")) {
+            result.next();
+            return result.getTimestamp(1);
+        }
+    }
+
+    /**
+     * Sleeps through an interrupt: during shutdown the sender keeps retrying until the stop deadline.
+     */
+    private static void pause(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            // running is the stop signal here, not the interrupt
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Pending(String cacheName, String key) {
+    }
+}
@@ -0,0 +1,100 @@
+package com.inf.cscb869_pharmacy.cache;
+
+import com.inf.cscb869_pharmacy.doctor.entity.Doctor;
+import com.inf.cscb869_pharmacy.medicine.entity.Medicine;
+import com.inf.cscb869_pharmacy.util.TransactionCallbacks;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Second-level cache regions for reference data (doctors, medicines and their natural-key lookups),
+ * bounded and expired by {@code ehcache.xml}.
+ * Hibernate already updates the entity regions on this node's own entity writes, so the explicit evictions
+ * only drop the lookup query region locally, after commit so a rollback evicts nothing.
+ * Every eviction is also published on the {@link InvalidationBus} so the other nodes drop their entity copies.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReferenceDataCache {
+
+    public static final String DOCTORS = "doctors";
+    public static final String MEDICINES = "medicines";
+    /** Query cache region of the natural-key and dropdown lookups. */
+    public static final String LOOKUPS = "reference-lookups";
+
+    static final List<String> REGIONS = List.of(DOCTORS, MEDICINES, LOOKUPS);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry registry;
+    private final InvalidationBus invalidationBus;
+
+    @PostConstruct
+    void registerMetrics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String region : REGIONS) {
+            Gauge.builder("pharmacy.cache.hit.ratio", statistics, stats -> hitRatio(stats.getCacheRegionStatistics(region)))
+                    .description("Second-level cache hits per lookup since startup")
+                    .tag("region", region)
+                    .register(registry);
+        }
+    }
+
+    @PostConstruct
+    void subscribe() {
+        invalidationBus.subscribe(DOCTORS, invalidation -> evictLocally(Doctor.class, invalidation));
+        invalidationBus.subscribe(MEDICINES, invalidation -> evictLocally(Medicine.class, invalidation));
+    }
+
+    public void evictDoctor(Long id) {
+        evict(DOCTORS, id);
+    }
+
+    public void evictMedicine(Long id) {
+        evict(MEDICINES, id);
+    }
+
+    /**
+     * This node's entity region was already refreshed by the READ_WRITE write-through, so locally only
+     * the lookups go; the other nodes drop the entity too when the invalidation reaches them.
+     */
+    private void evict(String region, Long id) {
+        TransactionCallbacks.afterCommit(() -> {
+            evictLookups();
+            log.debug("Evicted the lookups of {} {} from the reference data cache", region, id);
+        });
+        invalidationBus.publish(region, id);
+    }
+
+    private void evictLocally(Class<?> entity, CacheInvalidation invalidation) {
+        if (invalidation.isWholeCache()) {
+            entityManagerFactory.getCache().evict(entity);
+        } else {
+            entityManagerFactory.getCache().evict(entity, Long.valueOf(invalidation.key()));
+        }
+        evictLookups();
+        log.debug("Evicted {} {} on invalidation from node {}", entity.getSimpleName(), invalidation.key(), invalidation.origin());
+    }
+
+    private void evictLookups() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegion(LOOKUPS);
+    }
+
+    static double hitRatio(CacheRegionStatistics region) {
+        if (region == null) {
+            return 0;
+        }
+        long lookups = region.getHitCount() + region.getMissCount();
+        return lookups == 0 ? 0 : (double) region.getHitCount() / lookups;
+    }
+}
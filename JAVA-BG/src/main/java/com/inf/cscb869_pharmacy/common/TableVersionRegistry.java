@@ -0,0 +1,156 @@
+package com.inf.cscb869_pharmacy.common;
+
+import com.inf.cscb869_pharmacy.cache.CacheInvalidation;
+import com.inf.cscb869_pharmacy.cache.InvalidationBus;
+import com.inf.cscb869_pharmacy.datasource.ReadYourWritesTracker;
+import com.inf.cscb869_pharmacy.util.CurrentActor;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-table write counters, bumped after every committed entity insert, update or delete.
+ * A cached result remembers the versions of the tables it read and is stale as soon as any of them moves.
+ * Bulk JPQL/SQL statements bypass entity events; callers issuing them on a tracked table bump it themselves.
+ * Bumps are shared with the other nodes over the {@link InvalidationBus}, so their cached results go stale too.
+ * With read replicas, a committed entity change also starts the writing user's read-your-writes window.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TableVersionRegistry implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    static final String CACHE_NAME = "table-versions";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final InvalidationBus invalidationBus;
+    private final ObjectProvider<ReadYourWritesTracker> readYourWrites;
+
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final Map<String, Long> changedAt = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        listeners.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        listeners.appendListeners(EventType.POST_COMMIT_DELETE, this);
+        invalidationBus.subscribe(CACHE_NAME, this::onRemoteBump);
+    }
+
+    public long version(String table) {
+        AtomicLong version = versions.get(table);
+        return version == null ? 0L : version.get();
+    }
+
+    /**
+     * Registers each table, so a whole-cache invalidation after a bus gap also moves tables never written on this node.
+     */
+    public long[] snapshot(Collection<String> tables) {
+        long[] snapshot = new long[tables.size()];
+        int i = 0;
+        for (String table : tables) {
+            snapshot[i++] = versions.computeIfAbsent(table, key -> new AtomicLong()).get();
+        }
+        return snapshot;
+    }
+
+    public void bump(String table) {
+        bumpLocally(table);
+        invalidationBus.publish(CACHE_NAME, table);
+    }
+
+    /**
+     * Whether any of the tables was written less than {@code window} ago.
+     */
+    public boolean changedWithin(Collection<String> tables, Duration window) {
+        long now = System.nanoTime();
+        for (String table : tables) {
+            Long changed = changedAt.get(table);
+            if (changed != null && now - changed < window.toNanos()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        bump(event.getPersister());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        bump(event.getPersister());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        bump(event.getPersister());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return true;
+    }
+
+    /**
+     * A write on another node; an invalidation without a table means writes were missed, so everything moves.
+     */
+    void onRemoteBump(CacheInvalidation invalidation) {
+        if (invalidation.isWholeCache()) {
+            versions.keySet().forEach(this::bumpLocally);
+        } else {
+            bumpLocally(invalidation.key());
+        }
+    }
+
+    private void bumpLocally(String table) {
+        versions.computeIfAbsent(table, key -> new AtomicLong()).incrementAndGet();
+        changedAt.put(table, System.nanoTime());
+    }
+
+    private void bump(EntityPersister persister) {
+        String table = persister instanceof AbstractEntityPersister entityPersister
+                ? entityPersister.getTableName()
+                : persister.getEntityName();
+        bump(table);
+        readYourWrites.ifAvailable(tracker -> tracker.writeCommitted(CurrentActor.name()));
+        log.debug("Table {} is now at version {}", table, version(table));
+    }
+}
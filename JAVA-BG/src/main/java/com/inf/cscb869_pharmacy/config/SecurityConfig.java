@@ -29,10 +29,12 @@ public class SecurityConfig {
     private static final String[] STAFF_ROLES = {"DOCTOR", "ADMIN"};
 
     private static final String[] PUBLIC_PATHS = {
-            "/", "/index", "/css/**", "/js/**", "/images/**", "/login/**", "/oauth2/**"
+            "/", "/index", "/css/**", "/js/**", "/images/**", "/login/**", "/oauth2/**",
+            "/actuator/health"
     };
 
     private static final String[] ADMIN_ONLY_PATHS = {
+            "/actuator/**",
             "/medicines/create-medicine",
             "/medicines/create",
             "/medicines/edit-medicine/**",
@@ -45,7 +47,8 @@ public class SecurityConfig {
             "/customers/edit/**",
             "/customers/delete/**",
             "/api/doctors/**",
-            "/api/customers/**"
+            "/api/customers/**",
+            "/api/admin/**"
     };
 
     private static final String[] STAFF_FEATURE_PATHS = {
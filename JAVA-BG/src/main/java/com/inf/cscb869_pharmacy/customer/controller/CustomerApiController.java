@@ -106,7 +106,7 @@ public class CustomerApiController {
         return ResponseEntity.ok(exists);
     }
 
-    private CustomerDTO convertToDTO(Customer customer) {
+    CustomerDTO convertToDTO(Customer customer) {
         return CustomerDTO.builder()
                 .id(customer.getId())
                 .name(customer.getName())
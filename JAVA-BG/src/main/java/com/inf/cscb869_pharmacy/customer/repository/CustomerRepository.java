@@ -2,6 +2,9 @@ package com.inf.cscb869_pharmacy.customer.repository;
 
 import com.inf.cscb869_pharmacy.customer.entity.Customer;
 import com.inf.cscb869_pharmacy.doctor.entity.Doctor;
+import com.inf.cscb869_pharmacy.report.dto.PatientReportDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -62,6 +65,43 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     @Query("SELECT c FROM Customer c WHERE c.insurancePaidUntil < :referenceDate OR c.insurancePaidUntil IS NULL")
     List<Customer> findWithoutValidInsurance(@Param("referenceDate") LocalDate referenceDate);
 
+    /**
+     * Find distinct patients with a diagnosis whose normalized name contains the given text.
+     * Semi-join on diagnoses, so each customer row is produced once without loading recipes.
+     */
+    @Query(value = "SELECT c FROM Customer c WHERE EXISTS (SELECT 1 FROM Diagnosis d " +
+            "WHERE d.recipe.customer = c AND d.normalizedName LIKE CONCAT('%', LOWER(:diagnosis), '%'))",
+            countQuery = "SELECT COUNT(c) FROM Customer c WHERE EXISTS (SELECT 1 FROM Diagnosis d " +
+                    "WHERE d.recipe.customer = c AND d.normalizedName LIKE CONCAT('%', LOWER(:diagnosis), '%'))")
+    Page<Customer> findPatientsByDiagnosis(@Param("diagnosis") String diagnosis, Pageable pageable);
+
+    /**
+     * Report projection of {@link #findPatientsByDiagnosis}.
+     */
+    @Query(value = "SELECT new com.inf.cscb869_pharmacy.report.dto.PatientReportDTO(" +
+            "c.id, c.name, c.egn, d.name, c.insurancePaidUntil) " +
+            "FROM Customer c LEFT JOIN c.primaryDoctor d WHERE EXISTS (SELECT 1 FROM Diagnosis dg " +
+            "WHERE dg.recipe.customer = c AND dg.normalizedName LIKE CONCAT('%', LOWER(:diagnosis), '%'))",
+            countQuery = "SELECT COUNT(c) FROM Customer c WHERE EXISTS (SELECT 1 FROM Diagnosis dg " +
+                    "WHERE dg.recipe.customer = c AND dg.normalizedName LIKE CONCAT('%', LOWER(:diagnosis), '%'))")
+    Page<PatientReportDTO> findPatientReportsByDiagnosis(@Param("diagnosis") String diagnosis, Pageable pageable);
+
+    @Query("SELECT new com.inf.cscb869_pharmacy.report.dto.PatientReportDTO(" +
+            "c.id, c.name, c.egn, d.name, c.insurancePaidUntil) " +
+            "FROM Customer c JOIN c.primaryDoctor d WHERE d.id = :doctorId ORDER BY c.name")
+    List<PatientReportDTO> findPatientReportsByPrimaryDoctorId(@Param("doctorId") Long doctorId);
+
+    @Query("SELECT new com.inf.cscb869_pharmacy.report.dto.PatientReportDTO(" +
+            "c.id, c.name, c.egn, d.name, c.insurancePaidUntil) " +
+            "FROM Customer c LEFT JOIN c.primaryDoctor d WHERE c.insurancePaidUntil >= :referenceDate ORDER BY c.name")
+    List<PatientReportDTO> findPatientReportsWithValidInsurance(@Param("referenceDate") LocalDate referenceDate);
+
+    @Query("SELECT new com.inf.cscb869_pharmacy.report.dto.PatientReportDTO(" +
+            "c.id, c.name, c.egn, d.name, c.insurancePaidUntil) " +
+            "FROM Customer c LEFT JOIN c.primaryDoctor d " +
+            "WHERE c.insurancePaidUntil < :referenceDate OR c.insurancePaidUntil IS NULL ORDER BY c.name")
+    List<PatientReportDTO> findPatientReportsWithoutValidInsurance(@Param("referenceDate") LocalDate referenceDate);
+
     /**
      * Find all patients by primary doctor
      */
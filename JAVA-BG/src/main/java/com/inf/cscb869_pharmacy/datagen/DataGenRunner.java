@@ -0,0 +1,48 @@
+package com.inf.cscb869_pharmacy.datagen;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Fills the database with synthetic data when the {@code datagen} profile is active.
+ * Runs after {@code data.sql} and before the startup rebuilds of the derived tables, which then cover the new rows.
+ * Генериране на голям синтетичен набор от данни
+ */
+@Component
+@Profile("datagen")
+@Slf4j
+public class DataGenRunner implements CommandLineRunner {
+
+    private final DataSource dataSource;
+    private final SyntheticDataGenerator.Settings settings;
+
+    public DataGenRunner(DataSource dataSource,
+                         @Value("${pharmacy.datagen.seed:42}") long seed,
+                         @Value("${pharmacy.datagen.doctors:500}") int doctors,
+                         @Value("${pharmacy.datagen.customers:200000}") int customers,
+                         @Value("${pharmacy.datagen.medicines:300}") int medicines,
+                         @Value("${pharmacy.datagen.recipes:1000000}") long recipes,
+                         @Value("${pharmacy.datagen.years:3}") int years,
+                         @Value("${pharmacy.datagen.batch-size:50000}") int batchSize) {
+        this.dataSource = dataSource;
+        this.settings = new SyntheticDataGenerator.Settings(seed, doctors, customers, medicines, recipes, years, batchSize);
+    }
+
+    @Override
+    public void run(String... args) {
+        log.info("Generating synthetic data: {}", settings);
+        long started = System.nanoTime();
+        SyntheticDataGenerator.Result result = new SyntheticDataGenerator(settings, new JdbcTableWriter(dataSource), LocalDate.now())
+                .generate();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        log.info("Generated {} in {} s ({} recipes/s)", result, elapsed.toSeconds(),
+                result.recipes() * 1000 / Math.max(1, elapsed.toMillis()));
+    }
+}
@@ -0,0 +1,100 @@
+package com.inf.cscb869_pharmacy.datagen;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Loads generated rows with {@code COPY ... FROM STDIN} on PostgreSQL and with batched inserts elsewhere (H2).
+ */
+@Slf4j
+public class JdbcTableWriter implements TableWriter {
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean postgres;
+
+    public JdbcTableWriter(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        try (Connection connection = dataSource.getConnection()) {
+            this.postgres = connection.isWrapperFor(PGConnection.class);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not inspect the datasource", e);
+        }
+        log.info("Bulk loading through {}", postgres ? "PostgreSQL COPY" : "batched inserts");
+    }
+
+    @Override
+    public long maxId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return max != null ? max : 0L;
+    }
+
+    @Override
+    public Set<String> existingValues(String table, String column) {
+        return new HashSet<>(jdbcTemplate.queryForList("SELECT " + column + " FROM " + table, String.class));
+    }
+
+    @Override
+    public void write(String table, List<String> columns, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        if (postgres) {
+            copy(table, columns, rows);
+        } else {
+            String placeholders = String.join(",", columns.stream().map(column -> "?").toList());
+            jdbcTemplate.batchUpdate("INSERT INTO " + table + " (" + String.join(",", columns) + ") VALUES (" + placeholders + ")", rows);
+        }
+    }
+
+    @Override
+    public void resetIdentity(String table) {
+        if (postgres) {
+            jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence(?, 'id'), (SELECT COALESCE(MAX(id), 0) + 1 FROM " + table + "), false)",
+                    Long.class, table);
+        } else {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + (maxId(table) + 1));
+        }
+    }
+
+    private void copy(String table, List<String> columns, List<Object[]> rows) {
+        StringBuilder csv = new StringBuilder(rows.size() * 96);
+        for (Object[] row : rows) {
+            appendCsvLine(csv, row);
+        }
+        String sql = "COPY " + table + " (" + String.join(",", columns) + ") FROM STDIN WITH (FORMAT csv)";
+        try (Connection connection = dataSource.getConnection()) {
+            connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, new StringReader(csv.toString()));
+        } catch (Exception e) {
+            throw new IllegalStateException("COPY into " + table + " failed", e);
+        }
+    }
+
+    /**
+     * One CSV record; an unquoted empty field is NULL, so every string is quoted.
+     */
+    static void appendCsvLine(StringBuilder csv, Object[] row) {
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                csv.append(',');
+            }
+            Object value = row[i];
+            if (value instanceof String text) {
+                csv.append('"').append(text.replace("\"", "\"\"")).append('"');
+            } else if (value != null) {
+                csv.append(value);
+            }
+        }
+        csv.append('\n');
+    }
+}
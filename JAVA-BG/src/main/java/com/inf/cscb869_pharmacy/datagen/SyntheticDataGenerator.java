@@ -0,0 +1,351 @@
+package com.inf.cscb869_pharmacy.datagen;
+
+import com.inf.cscb869_pharmacy.util.NameNormalizer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of a production-sized data set: the same settings and seed always produce the same rows.
+ * Recipes are spread evenly over the period in date order, visits are skewed towards a minority of doctors,
+ * diagnoses follow a long-tailed ICD-10 mix and a patient never gets two overlapping sick leaves.
+ * Derived tables (diagnosis catalog, co-occurrence, monthly rollup) are left to their startup rebuilds.
+ */
+@Slf4j
+public class SyntheticDataGenerator {
+
+    static final List<String> MEDICINE_COLUMNS = List.of("id", "name", "age_appropriateness", "needs_recipe");
+    static final List<String> DOCTOR_COLUMNS = List.of("id", "name", "license_number", "specialty", "is_primary_doctor",
+            "email", "phone_number");
+    static final List<String> CUSTOMER_COLUMNS = List.of("id", "name", "egn", "email", "phone", "address", "date_of_birth",
+            "allergies", "medical_history", "insurance_number", "active", "insurance_paid_until", "primary_doctor_id");
+    static final List<String> RECIPE_COLUMNS = List.of("id", "creation_date", "doctor_id", "customer_id", "status", "notes",
+            "expiration_date", "sick_leave", "sick_leave_days", "sick_leave_start_date");
+    static final List<String> RECIPE_MEDICINE_COLUMNS = List.of("id", "recipe_id", "medicine_id", "dosage", "duration_days",
+            "instructions", "quantity");
+    static final List<String> DIAGNOSIS_COLUMNS = List.of("id", "recipe_id", "icd10_code", "name", "normalized_name",
+            "description", "diagnosis_date", "is_primary", "severity", "notes");
+    static final List<String> SICK_LEAVE_COLUMNS = List.of("id", "leave_number", "recipe_id", "customer_id",
+            "issuing_doctor_id", "continuation_of_id", "start_date", "duration_days", "end_date", "reason", "status",
+            "issue_date", "notes");
+
+    private static final String[] MALE_FIRST_NAMES = {"Ivan", "Georgi", "Dimitar", "Nikolay", "Petar", "Hristo", "Todor",
+            "Stoyan", "Aleksandar", "Martin", "Vasil", "Krasimir"};
+    private static final String[] FEMALE_FIRST_NAMES = {"Maria", "Elena", "Ivanka", "Desislava", "Petya", "Gergana",
+            "Nadezhda", "Teodora", "Viktoria", "Silvia", "Radka", "Yordanka"};
+    private static final String[] LAST_NAME_STEMS = {"Ivanov", "Georgiev", "Dimitrov", "Petrov", "Nikolov", "Hristov",
+            "Todorov", "Stoyanov", "Kolev", "Angelov", "Popov", "Marinov", "Iliev", "Vasilev", "Atanasov"};
+    private static final String[] CITIES = {"Sofia", "Sofia", "Sofia", "Plovdiv", "Plovdiv", "Varna", "Burgas", "Ruse",
+            "Stara Zagora", "Pleven", "Sliven", "Dobrich"};
+    private static final String[] SPECIALTIES = {"Cardiology", "Pediatrics", "Neurology", "Dermatology", "Orthopedics",
+            "ENT", "Endocrinology", "Pulmonology"};
+    private static final String[] MEDICINE_NAMES = {"Paracetamol", "Ibuprofen", "Amoxicillin", "Azithromycin",
+            "Metformin", "Amlodipine", "Bisoprolol", "Omeprazole", "Pantoprazole", "Atorvastatin", "Losartan",
+            "Cetirizine", "Loratadine", "Salbutamol", "Diclofenac", "Metoprolol", "Levothyroxine", "Sertraline",
+            "Cefuroxime", "Clarithromycin"};
+    private static final int[] STRENGTHS_MG = {5, 10, 20, 50, 100, 250, 500, 1000};
+    private static final String[] ALLERGIES = {"Penicillin", "Pollen", "Aspirin", "Sulfonamides", "Latex", "Dust mites"};
+    private static final String[] DOSAGES = {"1 tablet once daily", "1 tablet twice daily", "1 tablet three times daily",
+            "2 tablets once daily", "5 ml three times daily", "1 capsule twice daily"};
+    private static final String[] INSTRUCTIONS = {"After meals", "Before meals", "In the morning", "Before sleep",
+            "With plenty of water", null};
+    private static final String[] RECIPE_NOTES = {"Follow-up in two weeks", "Rest and fluids", "Control blood pressure",
+            "Repeat tests before next visit"};
+    // Most frequent first; codes are picked with a long-tailed skew towards the head of the list
+    private static final String[][] DIAGNOSES = {
+            {"J06.9", "Acute upper respiratory infection, unspecified"},
+            {"I10", "Essential (primary) hypertension"},
+            {"J11.1", "Influenza with other respiratory manifestations, virus not identified"},
+            {"M54.5", "Low back pain"},
+            {"E11.9", "Type 2 diabetes mellitus without complications"},
+            {"J20.9", "Acute bronchitis, unspecified"},
+            {"J02.9", "Acute pharyngitis, unspecified"},
+            {"K29.7", "Gastritis, unspecified"},
+            {"A09", "Other gastroenteritis and colitis of infectious and unspecified origin"},
+            {"N39.0", "Urinary tract infection, site not specified"},
+            {"R51", "Headache"},
+            {"K21.9", "Gastro-oesophageal reflux disease without oesophagitis"},
+            {"J45.9", "Asthma, unspecified"},
+            {"F41.1", "Generalized anxiety disorder"},
+            {"M17.9", "Gonarthrosis, unspecified"}};
+    private static final int[] SICK_LEAVE_DAYS = {1, 2, 3, 3, 3, 5, 5, 5, 5, 7, 7, 7, 10, 14, 21, 30};
+
+    /**
+     * Sizes of the generated data set; {@code years} is how far back recipes go from {@code today}.
+     */
+    public record Settings(long seed, int doctors, int customers, int medicines, long recipes, int years, int batchSize) {
+    }
+
+    public record Result(int doctors, int customers, int medicines, long recipes, long recipeMedicines,
+                         long diagnoses, long sickLeaves) {
+    }
+
+    private final Settings settings;
+    private final TableWriter writer;
+    private final LocalDate today;
+
+    public SyntheticDataGenerator(Settings settings, TableWriter writer, LocalDate today) {
+        if (settings.doctors() < 1 || settings.customers() < 1 || settings.medicines() < 1
+                || settings.recipes() < 0 || settings.years() < 1 || settings.batchSize() < 1) {
+            throw new IllegalArgumentException("Data generator needs at least one doctor, customer, medicine, year and batch row");
+        }
+        this.settings = settings;
+        this.writer = writer;
+        this.today = today;
+    }
+
+    public Result generate() {
+        SplittableRandom random = new SplittableRandom(settings.seed());
+
+        long firstMedicineId = writer.maxId("medicine") + 1;
+        writeMedicines(random.split(), firstMedicineId);
+
+        long firstDoctorId = writer.maxId("doctor") + 1;
+        long[] primaryDoctorIds = writeDoctors(random.split(), firstDoctorId);
+
+        long firstCustomerId = writer.maxId("customers") + 1;
+        writeCustomers(random.split(), firstCustomerId, primaryDoctorIds);
+
+        Result result = writeRecipes(random.split(), firstMedicineId, firstDoctorId, firstCustomerId);
+
+        for (String table : List.of("medicine", "doctor", "customers", "recipe", "recipe_medicines", "diagnoses", "sick_leaves")) {
+            writer.resetIdentity(table);
+        }
+        return result;
+    }
+
+    private void writeMedicines(SplittableRandom random, long firstId) {
+        List<Object[]> rows = new ArrayList<>(settings.medicines());
+        for (int i = 0; i < settings.medicines(); i++) {
+            String name = MEDICINE_NAMES[i % MEDICINE_NAMES.length] + " "
+                    + STRENGTHS_MG[(i / MEDICINE_NAMES.length) % STRENGTHS_MG.length] + "mg";
+            if (i >= MEDICINE_NAMES.length * STRENGTHS_MG.length) {
+                name += " (" + (i / (MEDICINE_NAMES.length * STRENGTHS_MG.length) + 1) + ")";
+            }
+            rows.add(new Object[]{firstId + i, name, random.nextInt(0, 19), random.nextInt(100) < 70});
+        }
+        writer.write("medicine", MEDICINE_COLUMNS, rows);
+    }
+
+    private long[] writeDoctors(SplittableRandom random, long firstId) {
+        List<Object[]> rows = new ArrayList<>(settings.doctors());
+        List<Long> primaryIds = new ArrayList<>();
+        for (int i = 0; i < settings.doctors(); i++) {
+            long id = firstId + i;
+            // About 60% are general practitioners, who can be a patient's primary doctor; the first always is
+            boolean primary = i == 0 || random.nextInt(100) < 60;
+            boolean male = random.nextBoolean();
+            rows.add(new Object[]{id, "Dr. " + personName(random, male), String.format("GEN-%010d", id),
+                    primary ? "General Practice" : pick(random, SPECIALTIES), primary,
+                    "doctor" + id + "@datagen.local", phone(random)});
+            if (primary) {
+                primaryIds.add(id);
+            }
+        }
+        writer.write("doctor", DOCTOR_COLUMNS, rows);
+        return primaryIds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private void writeCustomers(SplittableRandom random, long firstId, long[] primaryDoctorIds) {
+        Set<String> egns = writer.existingValues("customers", "egn");
+        List<Object[]> rows = new ArrayList<>(Math.min(settings.customers(), settings.batchSize()));
+        for (int i = 0; i < settings.customers(); i++) {
+            long id = firstId + i;
+            boolean male = random.nextBoolean();
+            LocalDate birthDate;
+            String egn;
+            do {
+                birthDate = today.minusDays(random.nextInt(1, 90 * 365));
+                egn = egn(birthDate, random.nextInt(0, 500) * 2 + (male ? 0 : 1));
+            } while (!egns.add(egn));
+
+            LocalDate insurancePaidUntil = random.nextInt(100) < 85
+                    ? today.plusDays(random.nextInt(0, 366))
+                    : today.minusDays(random.nextInt(1, 731));
+            rows.add(new Object[]{id, personName(random, male), egn, "customer" + id + "@datagen.local", phone(random),
+                    pick(random, CITIES) + ", " + random.nextInt(1, 200) + " " + pick(random, LAST_NAME_STEMS) + " St.",
+                    birthDate, random.nextInt(100) < 15 ? pick(random, ALLERGIES) : null, null,
+                    "INS-" + id, random.nextInt(100) < 97, insurancePaidUntil,
+                    primaryDoctorIds[random.nextInt(primaryDoctorIds.length)]});
+            if (rows.size() == settings.batchSize()) {
+                writer.write("customers", CUSTOMER_COLUMNS, rows);
+                rows.clear();
+            }
+        }
+        writer.write("customers", CUSTOMER_COLUMNS, rows);
+    }
+
+    private Result writeRecipes(SplittableRandom random, long firstMedicineId, long firstDoctorId, long firstCustomerId) {
+        long recipeId = writer.maxId("recipe") + 1;
+        long recipeMedicineId = writer.maxId("recipe_medicines") + 1;
+        long diagnosisId = writer.maxId("diagnoses") + 1;
+        long sickLeaveId = writer.maxId("sick_leaves") + 1;
+
+        LocalDate start = today.minusYears(settings.years());
+        long periodDays = today.toEpochDay() - start.toEpochDay() + 1;
+        // Last day covered by a non-cancelled sick leave, per customer
+        long[] sickUntil = new long[settings.customers()];
+        Arrays.fill(sickUntil, Long.MIN_VALUE);
+
+        List<Object[]> recipes = new ArrayList<>();
+        List<Object[]> recipeMedicines = new ArrayList<>();
+        List<Object[]> diagnoses = new ArrayList<>();
+        List<Object[]> sickLeaves = new ArrayList<>();
+        long recipeMedicineCount = 0;
+        long diagnosisCount = 0;
+        long sickLeaveCount = 0;
+
+        for (long i = 0; i < settings.recipes(); i++, recipeId++) {
+            LocalDate creationDate = start.plusDays(i * periodDays / settings.recipes());
+            long doctorId = firstDoctorId + skewed(random, settings.doctors(), 2.0);
+            int customerIndex = random.nextInt(settings.customers());
+            long customerId = firstCustomerId + customerIndex;
+            LocalDate expirationDate = creationDate.plusDays(30);
+
+            int diagnosisCountForRecipe = 1 + (random.nextInt(100) < 35 ? 1 : 0) + (random.nextInt(100) < 10 ? 1 : 0);
+            int[] codes = distinctSkewed(random, DIAGNOSES.length, diagnosisCountForRecipe);
+            for (int d = 0; d < codes.length; d++) {
+                String[] diagnosis = DIAGNOSES[codes[d]];
+                diagnoses.add(new Object[]{diagnosisId++, recipeId, diagnosis[0], diagnosis[1],
+                        NameNormalizer.normalize(diagnosis[1]), null, creationDate, d == 0, severity(random), null});
+            }
+            diagnosisCount += codes.length;
+
+            int medicineCount = 1 + geometric(random, 4);
+            for (int m = 0; m < medicineCount; m++) {
+                recipeMedicines.add(new Object[]{recipeMedicineId++, recipeId,
+                        firstMedicineId + skewed(random, settings.medicines(), 1.5), pick(random, DOSAGES),
+                        random.nextInt(3, 31), pick(random, INSTRUCTIONS), random.nextInt(1, 4)});
+            }
+            recipeMedicineCount += medicineCount;
+
+            Integer sickLeaveDays = null;
+            if (random.nextInt(100) < 12 && sickUntil[customerIndex] < creationDate.toEpochDay()) {
+                sickLeaveDays = SICK_LEAVE_DAYS[random.nextInt(SICK_LEAVE_DAYS.length)];
+                LocalDate endDate = creationDate.plusDays(sickLeaveDays - 1);
+                String status;
+                if (random.nextInt(100) < 3) {
+                    status = "CANCELLED";
+                } else {
+                    status = endDate.isBefore(today) ? "COMPLETED" : "ACTIVE";
+                    sickUntil[customerIndex] = endDate.toEpochDay();
+                }
+                sickLeaves.add(new Object[]{sickLeaveId, "SL-GEN-" + sickLeaveId, recipeId, customerId, doctorId, null,
+                        creationDate, sickLeaveDays, endDate, DIAGNOSES[codes[0]][1], status, creationDate, null});
+                sickLeaveId++;
+                sickLeaveCount++;
+            }
+
+            recipes.add(new Object[]{recipeId, creationDate, doctorId, customerId,
+                    recipeStatus(random, expirationDate), random.nextInt(100) < 30 ? pick(random, RECIPE_NOTES) : null,
+                    expirationDate, sickLeaveDays != null, sickLeaveDays, sickLeaveDays != null ? creationDate : null});
+
+            if (recipes.size() == settings.batchSize()) {
+                flush(recipes, recipeMedicines, diagnoses, sickLeaves);
+                log.info("Generated {} of {} recipes", i + 1, settings.recipes());
+            }
+        }
+        flush(recipes, recipeMedicines, diagnoses, sickLeaves);
+
+        return new Result(settings.doctors(), settings.customers(), settings.medicines(), settings.recipes(),
+                recipeMedicineCount, diagnosisCount, sickLeaveCount);
+    }
+
+    private void flush(List<Object[]> recipes, List<Object[]> recipeMedicines, List<Object[]> diagnoses,
+                       List<Object[]> sickLeaves) {
+        // Parents first: the children reference recipe ids
+        writer.write("recipe", RECIPE_COLUMNS, recipes);
+        writer.write("recipe_medicines", RECIPE_MEDICINE_COLUMNS, recipeMedicines);
+        writer.write("diagnoses", DIAGNOSIS_COLUMNS, diagnoses);
+        writer.write("sick_leaves", SICK_LEAVE_COLUMNS, sickLeaves);
+        recipes.clear();
+        recipeMedicines.clear();
+        diagnoses.clear();
+        sickLeaves.clear();
+    }
+
+    /**
+     * A valid Bulgarian personal number (ЕГН): birth date with the century encoded in the month,
+     * a three-digit serial whose parity is the sex (even for men) and the mod-11 check digit.
+     */
+    static String egn(LocalDate birthDate, int serial) {
+        int month = birthDate.getMonthValue();
+        int year = birthDate.getYear();
+        if (year >= 2000) {
+            month += 40;
+        } else if (year < 1900) {
+            month += 20;
+        }
+        String digits = String.format("%02d%02d%02d%03d", year % 100, month, birthDate.getDayOfMonth(), serial);
+        int[] weights = {2, 4, 8, 5, 10, 9, 7, 3, 6};
+        int sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += (digits.charAt(i) - '0') * weights[i];
+        }
+        int check = sum % 11;
+        return digits + (check == 10 ? 0 : check);
+    }
+
+    private String recipeStatus(SplittableRandom random, LocalDate expirationDate) {
+        int roll = random.nextInt(100);
+        if (expirationDate.isBefore(today)) {
+            return roll < 75 ? "FULFILLED" : roll < 95 ? "EXPIRED" : "CANCELLED";
+        }
+        return roll < 90 ? "ACTIVE" : roll < 98 ? "FULFILLED" : "CANCELLED";
+    }
+
+    private static String severity(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        return roll < 50 ? "MILD" : roll < 85 ? "MODERATE" : roll < 97 ? "SEVERE" : "CRITICAL";
+    }
+
+    private static String personName(SplittableRandom random, boolean male) {
+        String first = pick(random, male ? MALE_FIRST_NAMES : FEMALE_FIRST_NAMES);
+        String last = pick(random, LAST_NAME_STEMS);
+        return first + " " + (male ? last : last + "a");
+    }
+
+    private static String phone(SplittableRandom random) {
+        return "+3598" + random.nextInt(7, 10) + String.format("%07d", random.nextInt(10_000_000));
+    }
+
+    /**
+     * Index in {@code [0, size)} skewed towards 0; a higher exponent concentrates more on the head.
+     */
+    private static int skewed(SplittableRandom random, int size, double exponent) {
+        return (int) (size * Math.pow(random.nextDouble(), exponent));
+    }
+
+    private static int[] distinctSkewed(SplittableRandom random, int size, int count) {
+        int[] picked = new int[count];
+        int found = 0;
+        while (found < count) {
+            int candidate = skewed(random, size, 2.0);
+            boolean duplicate = false;
+            for (int i = 0; i < found; i++) {
+                duplicate |= picked[i] == candidate;
+            }
+            if (!duplicate) {
+                picked[found++] = candidate;
+            }
+        }
+        return picked;
+    }
+
+    private static int geometric(SplittableRandom random, int max) {
+        int value = 0;
+        while (value < max && random.nextBoolean()) {
+            value++;
+        }
+        return value;
+    }
+
+    private static <T> T pick(SplittableRandom random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,19 @@
+package com.inf.cscb869_pharmacy.datagen;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Destination of generated rows. Rows carry their own ids, so parents and children can be written
+ * in separate bulk statements; identity sequences are moved past them once loading is done.
+ */
+public interface TableWriter {
+
+    long maxId(String table);
+
+    Set<String> existingValues(String table, String column);
+
+    void write(String table, List<String> columns, List<Object[]> rows);
+
+    void resetIdentity(String table);
+}
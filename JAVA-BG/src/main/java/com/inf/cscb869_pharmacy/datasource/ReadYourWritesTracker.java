@@ -0,0 +1,55 @@
+package com.inf.cscb869_pharmacy.datasource;
+
+import com.inf.cscb869_pharmacy.util.CurrentActor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers when each user last committed a write. For the stickiness window after that, the user's
+ * read-only transactions stay on the primary so they see their own changes whatever the replica lag.
+ * Writes are reported by {@code TableVersionRegistry} after entity changes commit, so a read-write
+ * transaction that changed nothing does not make its user sticky.
+ */
+public class ReadYourWritesTracker {
+
+    static final int PURGE_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    /**
+     * Starts the user's stickiness window; called once a transaction that changed data has committed.
+     */
+    public void writeCommitted(String actor) {
+        if (windowNanos <= 0 || CurrentActor.SYSTEM.equals(actor)) {
+            return;
+        }
+        if (lastWrites.size() >= PURGE_THRESHOLD) {
+            purgeExpired();
+        }
+        lastWrites.put(actor, System.nanoTime());
+    }
+
+    public boolean isSticky(String actor) {
+        Long lastWrite = lastWrites.get(actor);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.nanoTime() - lastWrite < windowNanos) {
+            return true;
+        }
+        lastWrites.remove(actor, lastWrite);
+        return false;
+    }
+
+    void purgeExpired() {
+        long now = System.nanoTime();
+        lastWrites.values().removeIf(lastWrite -> now - lastWrite >= windowNanos);
+    }
+}
@@ -0,0 +1,87 @@
+package com.inf.cscb869_pharmacy.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read replica routing, active when {@code pharmacy.datasource.replica.urls} is set.
+ * The primary pool keeps the {@code spring.datasource.*} settings; every replica gets a read-only pool
+ * with the same credentials unless replica ones are given.
+ */
+@Configuration
+@Slf4j
+@ConditionalOnProperty(name = "pharmacy.datasource.replica.urls")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaLagMonitor replicaLagMonitor(DataSourceProperties properties,
+                                               MeterRegistry registry,
+                                               @Value("${pharmacy.datasource.replica.urls}") String urls,
+                                               @Value("${pharmacy.datasource.replica.username:}") String username,
+                                               @Value("${pharmacy.datasource.replica.password:}") String password,
+                                               @Value("${pharmacy.datasource.replica.maximum-pool-size:10}") int maximumPoolSize,
+                                               @Value("${pharmacy.datasource.replica.max-lag-ms:2000}") long maxLagMs,
+                                               @Value("${pharmacy.datasource.replica.lag-query:}") String lagQuery) {
+        List<String> replicaUrls = Arrays.stream(urls.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(replicaUrls.get(i));
+            replica.setUsername(username.isEmpty() ? properties.determineUsername() : username);
+            replica.setPassword(password.isEmpty() ? properties.determinePassword() : password);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(maximumPoolSize);
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            replicas.put(replica.getPoolName(), replica);
+        }
+        log.info("Routing read-only transactions to {} replica(s), max lag {} ms", replicas.size(), maxLagMs);
+        return new ReplicaLagMonitor(replicas, Duration.ofMillis(maxLagMs),
+                lagQuery.isEmpty() ? ReplicaLagMonitor.POSTGRES_LAG_QUERY : lagQuery, registry);
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${pharmacy.datasource.replica.read-your-writes-ms:5000}") long windowMs) {
+        return new ReadYourWritesTracker(Duration.ofMillis(windowMs));
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaLagMonitor replicaLagMonitor,
+                                 ReadYourWritesTracker readYourWritesTracker, MeterRegistry registry) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicaLagMonitor,
+                readYourWritesTracker, registry);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
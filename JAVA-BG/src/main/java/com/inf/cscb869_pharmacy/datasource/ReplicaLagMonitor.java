@@ -0,0 +1,135 @@
+package com.inf.cscb869_pharmacy.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Polls each replica's replication lag. A replica takes reads only while its last check succeeded
+ * with a lag under the limit; until the first check it takes none.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements Closeable {
+
+    /**
+     * Seconds since the last replayed transaction, or 0 when the replica has replayed all WAL it received
+     * (an idle primary does not make the replica look lagged).
+     */
+    public static final String POSTGRES_LAG_QUERY = "SELECT CASE"
+            + " WHEN NOT pg_is_in_recovery() THEN 0"
+            + " WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+            + " ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final Map<String, DataSource> replicas;
+    private final Map<String, Replica> states = new LinkedHashMap<>();
+    private final List<String> names;
+    private final Duration maxLag;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaLagMonitor(Map<String, DataSource> replicas, Duration maxLag, String lagQuery, MeterRegistry registry) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.names = new ArrayList<>(replicas.keySet());
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+        for (String name : names) {
+            Replica replica = new Replica();
+            states.put(name, replica);
+            Gauge.builder("pharmacy.datasource.replica.lag", replica, state -> state.lagSeconds)
+                    .description("Replication lag seen by the last check")
+                    .baseUnit("seconds")
+                    .tag("replica", name)
+                    .register(registry);
+            Gauge.builder("pharmacy.datasource.replica.available", replica, state -> state.available ? 1 : 0)
+                    .description("Whether the replica takes read-only transactions")
+                    .tag("replica", name)
+                    .register(registry);
+        }
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    @Scheduled(fixedDelayString = "${pharmacy.datasource.replica.lag-check-interval-ms:1000}")
+    public void check() {
+        for (String name : names) {
+            Replica replica = states.get(name);
+            try (Connection connection = replicas.get(name).getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet result = statement.executeQuery(lagQuery)) {
+                double lagSeconds = result.next() ? result.getDouble(1) : 0;
+                boolean available = lagSeconds * 1000 <= maxLag.toMillis();
+                if (available != replica.available) {
+                    log.info("Replica {} is {} (lag {} s)", name, available ? "available" : "lagging", lagSeconds);
+                }
+                replica.lagSeconds = lagSeconds;
+                replica.available = available;
+            } catch (SQLException e) {
+                markUnavailable(name, e);
+            }
+        }
+    }
+
+    /**
+     * The next available replica in round-robin order, or empty when none is.
+     */
+    public Optional<String> nextAvailable() {
+        int size = names.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            String name = names.get((start + i) % size);
+            if (states.get(name).available) {
+                return Optional.of(name);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Takes the replica out of rotation until its next successful check.
+     */
+    public void markUnavailable(String name, SQLException cause) {
+        Replica replica = states.get(name);
+        if (replica != null && replica.available) {
+            log.warn("Replica {} is unavailable: {}", name, cause.getMessage());
+        }
+        if (replica != null) {
+            replica.available = false;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static final class Replica {
+        private volatile boolean available;
+        private volatile double lagSeconds;
+    }
+}
@@ -0,0 +1,80 @@
+package com.inf.cscb869_pharmacy.datasource;
+
+import com.inf.cscb869_pharmacy.util.CurrentActor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Sends read-only transactions to an available replica and everything else to the primary.
+ * Reads stay on the primary while the user is inside their read-your-writes window or no replica
+ * is within the lag limit; a replica that refuses a connection falls back to the primary.
+ * <p>
+ * The decision needs the transaction's read-only flag, which Spring sets only after the transaction
+ * manager asks for a connection, so this must sit behind a {@code LazyConnectionDataSourceProxy}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final ReplicaLagMonitor replicas;
+    private final ReadYourWritesTracker readYourWrites;
+    private final MeterRegistry registry;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaLagMonitor replicas,
+                                    ReadYourWritesTracker readYourWrites, MeterRegistry registry) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.readYourWrites = readYourWrites;
+        this.registry = registry;
+        Map<Object, Object> targets = new HashMap<>(replicas.getReplicas());
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        if (PRIMARY.equals(key)) {
+            return primary.getConnection();
+        }
+        try {
+            return getResolvedDataSources().get(key).getConnection();
+        } catch (SQLException e) {
+            replicas.markUnavailable((String) key, e);
+            routed(PRIMARY, "replica-unavailable");
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return routed(PRIMARY, "read-write");
+        }
+        if (readYourWrites.isSticky(CurrentActor.name())) {
+            return routed(PRIMARY, "read-your-writes");
+        }
+        Optional<String> replica = replicas.nextAvailable();
+        return replica.isPresent()
+                ? routed(replica.get(), "read-only")
+                : routed(PRIMARY, "no-replica-available");
+    }
+
+    private String routed(String target, String reason) {
+        registry.counter("pharmacy.datasource.routed", "target", target, "reason", reason).increment();
+        return target;
+    }
+}
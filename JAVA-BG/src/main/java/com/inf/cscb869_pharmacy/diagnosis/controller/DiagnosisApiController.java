@@ -1,10 +1,18 @@
 package com.inf.cscb869_pharmacy.diagnosis.controller;
 
+import com.inf.cscb869_pharmacy.diagnosis.dto.DiagnosisCatalogEntryDTO;
+import com.inf.cscb869_pharmacy.diagnosis.dto.DiagnosisQueryDTO;
+import com.inf.cscb869_pharmacy.diagnosis.dto.Icd10CodeUsageDTO;
 import com.inf.cscb869_pharmacy.diagnosis.entity.Diagnosis;
 import com.inf.cscb869_pharmacy.diagnosis.entity.DiagnosisSeverity;
+import com.inf.cscb869_pharmacy.diagnosis.service.DiagnosisCatalogService;
 import com.inf.cscb869_pharmacy.diagnosis.service.DiagnosisService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,6 +23,9 @@ import java.util.List;
 /**
  * REST API Controller for Diagnosis management
  * REST API контролер за управление на диагнози
+ * <p>
+ * List endpoints are paged ({@code page}, {@code size}, {@code sort}); the total row count
+ * is returned in the {@code X-Total-Count} header.
  */
 @RestController
 @RequestMapping("/api/diagnoses")
@@ -23,11 +34,29 @@ import java.util.List;
 public class DiagnosisApiController {
 
     private final DiagnosisService diagnosisService;
+    private final DiagnosisCatalogService diagnosisCatalogService;
 
     @GetMapping
-    public ResponseEntity<List<Diagnosis>> getAllDiagnoses() {
-        log.info("API: Getting all diagnoses");
-        return ResponseEntity.ok(diagnosisService.getAllDiagnoses());
+    public ResponseEntity<List<Diagnosis>> getAllDiagnoses(
+            @PageableDefault(size = 50, sort = "diagnosisDate", direction = Sort.Direction.DESC) Pageable pageable) {
+        log.info("API: Getting diagnoses page {}", pageable.getPageNumber());
+        return toResponse(diagnosisService.getDiagnoses(pageable));
+    }
+
+    @GetMapping("/query")
+    public ResponseEntity<List<Diagnosis>> queryDiagnoses(
+            @ModelAttribute DiagnosisQueryDTO criteria,
+            @PageableDefault(size = 50, sort = "diagnosisDate", direction = Sort.Direction.DESC) Pageable pageable) {
+        log.info("API: Querying diagnoses");
+        return toResponse(diagnosisService.queryDiagnoses(criteria, pageable));
+    }
+
+    @GetMapping("/catalog/suggest")
+    public ResponseEntity<List<DiagnosisCatalogEntryDTO>> suggestDiagnosisNames(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("API: Suggesting diagnosis names for prefix: {}", prefix);
+        return ResponseEntity.ok(diagnosisCatalogService.suggest(prefix, Math.min(limit, 50)));
     }
 
     @GetMapping("/{id}")
@@ -76,29 +105,35 @@ public class DiagnosisApiController {
     }
 
     @GetMapping("/icd10/{code}")
-    public ResponseEntity<List<Diagnosis>> getDiagnosesByIcd10Code(@PathVariable String code) {
+    public ResponseEntity<List<Diagnosis>> getDiagnosesByIcd10Code(
+            @PathVariable String code,
+            @PageableDefault(size = 50, sort = "diagnosisDate", direction = Sort.Direction.DESC) Pageable pageable) {
         log.info("API: Getting diagnoses by ICD-10 code: {}", code);
-        return ResponseEntity.ok(diagnosisService.getDiagnosesByIcd10Code(code));
+        return toResponse(diagnosisService.getDiagnosesByIcd10Code(code, pageable));
     }
 
     @GetMapping("/primary")
-    public ResponseEntity<List<Diagnosis>> getPrimaryDiagnoses() {
+    public ResponseEntity<List<Diagnosis>> getPrimaryDiagnoses(
+            @PageableDefault(size = 50, sort = "diagnosisDate", direction = Sort.Direction.DESC) Pageable pageable) {
         log.info("API: Getting primary diagnoses");
-        return ResponseEntity.ok(diagnosisService.getPrimaryDiagnoses());
+        return toResponse(diagnosisService.getPrimaryDiagnoses(pageable));
     }
 
     @GetMapping("/severity/{severity}")
-    public ResponseEntity<List<Diagnosis>> getDiagnosesBySeverity(@PathVariable DiagnosisSeverity severity) {
+    public ResponseEntity<List<Diagnosis>> getDiagnosesBySeverity(
+            @PathVariable DiagnosisSeverity severity,
+            @PageableDefault(size = 50, sort = "diagnosisDate", direction = Sort.Direction.DESC) Pageable pageable) {
         log.info("API: Getting diagnoses with severity: {}", severity);
-        return ResponseEntity.ok(diagnosisService.getDiagnosesBySeverity(severity));
+        return toResponse(diagnosisService.getDiagnosesBySeverity(severity, pageable));
     }
 
     @GetMapping("/date-range")
     public ResponseEntity<List<Diagnosis>> getDiagnosesInDateRange(
             @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
-            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate) {
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate,
+            @PageableDefault(size = 50, sort = "diagnosisDate", direction = Sort.Direction.DESC) Pageable pageable) {
         log.info("API: Getting diagnoses between {} and {}", startDate, endDate);
-        return ResponseEntity.ok(diagnosisService.getDiagnosesInDateRange(startDate, endDate));
+        return toResponse(diagnosisService.getDiagnosesInDateRange(startDate, endDate, pageable));
     }
 
     @GetMapping("/statistics/common")
@@ -106,4 +141,16 @@ public class DiagnosisApiController {
         log.info("API: Getting most common diagnoses");
         return ResponseEntity.ok(diagnosisService.getMostCommonDiagnoses());
     }
+
+    @GetMapping("/statistics/codes")
+    public ResponseEntity<List<Icd10CodeUsageDTO>> getMostCommonIcd10Codes() {
+        log.info("API: Getting most common ICD-10 codes");
+        return ResponseEntity.ok(diagnosisService.getMostCommonIcd10Codes());
+    }
+
+    private static ResponseEntity<List<Diagnosis>> toResponse(Page<Diagnosis> page) {
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(page.getTotalElements()))
+                .body(page.getContent());
+    }
 }
@@ -42,10 +42,7 @@ public class DiagnosisViewController {
                 model.addAttribute("error", "Doctor account is not linked to a doctor record in the database. Please contact admin.");
                 return "diagnoses/diagnoses";
             }
-            model.addAttribute("diagnoses", diagnosisService.getAllDiagnoses().stream()
-                    .filter(d -> d.getRecipe() != null && d.getRecipe().getDoctor() != null
-                            && d.getRecipe().getDoctor().getId().equals(currentDoctor.getId()))
-                    .collect(Collectors.toList()));
+            model.addAttribute("diagnoses", diagnosisService.getDiagnosesByDoctorId(currentDoctor.getId()));
             return "diagnoses/diagnoses";
         }
 
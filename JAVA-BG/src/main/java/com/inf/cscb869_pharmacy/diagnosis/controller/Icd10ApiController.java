@@ -0,0 +1,65 @@
+package com.inf.cscb869_pharmacy.diagnosis.controller;
+
+import com.inf.cscb869_pharmacy.diagnosis.dto.Icd10ChapterDTO;
+import com.inf.cscb869_pharmacy.diagnosis.dto.Icd10CodeDTO;
+import com.inf.cscb869_pharmacy.diagnosis.dto.Icd10ValidationDTO;
+import com.inf.cscb869_pharmacy.diagnosis.service.Icd10CatalogService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST API Controller for the ICD-10 classification
+ * REST API контролер за класификацията МКБ-10
+ */
+@RestController
+@RequestMapping("/api/diagnoses/icd10")
+@RequiredArgsConstructor
+@Slf4j
+public class Icd10ApiController {
+
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final int MAX_LISTED_CODES = 1000;
+
+    private final Icd10CatalogService icd10CatalogService;
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<Icd10CodeDTO>> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("API: Suggesting ICD-10 codes for: {}", q);
+        return ResponseEntity.ok(icd10CatalogService.suggest(q, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
+    @GetMapping("/validate")
+    public ResponseEntity<Icd10ValidationDTO> validate(@RequestParam String code) {
+        log.info("API: Validating ICD-10 code: {}", code);
+        return ResponseEntity.ok(icd10CatalogService.validate(code));
+    }
+
+    @GetMapping("/chapters")
+    public ResponseEntity<List<Icd10ChapterDTO>> getChapters() {
+        log.info("API: Getting ICD-10 chapters");
+        return ResponseEntity.ok(icd10CatalogService.getChapters());
+    }
+
+    @GetMapping("/chapters/{chapter}")
+    public ResponseEntity<List<Icd10CodeDTO>> getCodesInChapter(
+            @PathVariable String chapter,
+            @RequestParam(defaultValue = "200") int limit) {
+        log.info("API: Getting ICD-10 codes in chapter: {}", chapter);
+        return ResponseEntity.ok(icd10CatalogService.getCodesInChapter(chapter, Math.min(limit, MAX_LISTED_CODES)));
+    }
+
+    @GetMapping("/range")
+    public ResponseEntity<List<Icd10CodeDTO>> getCodesInRange(
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam(defaultValue = "200") int limit) {
+        log.info("API: Getting ICD-10 codes from {} to {}", from, to);
+        return ResponseEntity.ok(icd10CatalogService.getCodesInRange(from, to, Math.min(limit, MAX_LISTED_CODES)));
+    }
+}
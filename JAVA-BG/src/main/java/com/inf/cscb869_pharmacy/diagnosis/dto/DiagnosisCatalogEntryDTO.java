@@ -0,0 +1,16 @@
+package com.inf.cscb869_pharmacy.diagnosis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DiagnosisCatalogEntryDTO {
+    private String name;
+    private String icd10Code;
+    private Long usageCount;
+}
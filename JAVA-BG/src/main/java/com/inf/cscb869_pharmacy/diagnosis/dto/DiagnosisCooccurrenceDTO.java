@@ -0,0 +1,16 @@
+package com.inf.cscb869_pharmacy.diagnosis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DiagnosisCooccurrenceDTO {
+    private String firstDiagnosis;
+    private String secondDiagnosis;
+    private Long count;
+}
@@ -0,0 +1,34 @@
+package com.inf.cscb869_pharmacy.diagnosis.dto;
+
+import com.inf.cscb869_pharmacy.diagnosis.entity.DiagnosisSeverity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Optional filter criteria for diagnosis queries; null fields are ignored.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DiagnosisQueryDTO {
+    private DiagnosisSeverity severity;
+    private Boolean primary;
+    private String icd10Code;
+    private String name;
+
+    @DateTimeFormat(pattern = "yyyy-MM-dd")
+    private LocalDate startDate;
+
+    @DateTimeFormat(pattern = "yyyy-MM-dd")
+    private LocalDate endDate;
+
+    private Long recipeId;
+    private Long customerId;
+    private Long doctorId;
+}
@@ -0,0 +1,17 @@
+package com.inf.cscb869_pharmacy.diagnosis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Icd10ChapterDTO {
+    private String chapter;
+    private String firstCategory;
+    private String lastCategory;
+    private String title;
+}
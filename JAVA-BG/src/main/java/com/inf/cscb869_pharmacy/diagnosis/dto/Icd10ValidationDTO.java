@@ -0,0 +1,19 @@
+package com.inf.cscb869_pharmacy.diagnosis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Icd10ValidationDTO {
+    private String input;
+    private String code;
+    private boolean validFormat;
+    private boolean known;
+    private String description;
+    private String chapter;
+}
@@ -2,6 +2,7 @@ package com.inf.cscb869_pharmacy.diagnosis.entity;
 
 import com.inf.cscb869_pharmacy.common.BaseEntity;
 import com.inf.cscb869_pharmacy.recipe.entity.Recipe;
+import com.inf.cscb869_pharmacy.util.NameNormalizer;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -10,7 +11,14 @@ import lombok.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "diagnoses")
+@Table(name = "diagnoses", indexes = {
+        @Index(name = "idx_diagnoses_recipe_id", columnList = "recipe_id"),
+        @Index(name = "idx_diagnoses_date", columnList = "diagnosis_date"),
+        @Index(name = "idx_diagnoses_normalized_name", columnList = "normalized_name"),
+        @Index(name = "idx_diagnoses_severity_date", columnList = "severity, diagnosis_date"),
+        @Index(name = "idx_diagnoses_primary_date", columnList = "is_primary, diagnosis_date"),
+        @Index(name = "idx_diagnoses_icd10_code_date", columnList = "icd10_code, diagnosis_date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -30,6 +38,12 @@ public class Diagnosis extends BaseEntity {
     @Column(nullable = false, length = 500)
     private String name;
 
+    /**
+     * Trimmed, whitespace-collapsed, lower-cased {@link #name}; the column name searches run against.
+     */
+    @Column(name = "normalized_name", length = 500)
+    private String normalizedName;
+
     @Column(length = 2000)
     private String description;
 
@@ -47,6 +61,12 @@ public class Diagnosis extends BaseEntity {
     @Column(length = 1000)
     private String notes;
 
+    @PrePersist
+    @PreUpdate
+    public void normalizeName() {
+        this.normalizedName = NameNormalizer.normalize(name);
+    }
+
     @Override
     public String toString() {
         return "Diagnosis{" +
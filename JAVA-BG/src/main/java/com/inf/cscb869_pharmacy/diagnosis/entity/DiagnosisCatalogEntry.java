@@ -0,0 +1,44 @@
+package com.inf.cscb869_pharmacy.diagnosis.entity;
+
+import com.inf.cscb869_pharmacy.common.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * One row per distinct (normalized) diagnosis name with its usage counter.
+ * Каталог на уникалните имена на диагнози
+ */
+@Entity
+@Table(name = "diagnosis_catalog",
+        uniqueConstraints = @UniqueConstraint(name = "uk_diagnosis_catalog_normalized_name",
+                columnNames = "normalized_name"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DiagnosisCatalogEntry extends BaseEntity {
+
+    @Column(name = "normalized_name", nullable = false, length = 500)
+    private String normalizedName;
+
+    @Column(name = "display_name", nullable = false, length = 500)
+    private String displayName;
+
+    @Column(name = "icd10_code", length = 10)
+    private String icd10Code;
+
+    @Column(name = "usage_count", nullable = false)
+    @Builder.Default
+    private Long usageCount = 0L;
+
+    @Override
+    public String toString() {
+        return "DiagnosisCatalogEntry{" +
+                "id=" + getId() +
+                ", displayName='" + displayName + '\'' +
+                ", icd10Code='" + icd10Code + '\'' +
+                ", usageCount=" + usageCount +
+                '}';
+    }
+}
@@ -0,0 +1,48 @@
+package com.inf.cscb869_pharmacy.diagnosis.entity;
+
+import com.inf.cscb869_pharmacy.common.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Number of recipes on which two diagnoses (by normalized name) were recorded together.
+ * The pair is stored once, ordered so that {@code firstName < secondName}.
+ * Съвместна поява на диагнози в една рецепта
+ */
+@Entity
+@Table(name = "diagnosis_cooccurrence",
+        uniqueConstraints = @UniqueConstraint(name = "uk_diagnosis_cooccurrence_pair",
+                columnNames = {"first_name", "second_name"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DiagnosisCooccurrence extends BaseEntity {
+
+    @Column(name = "first_name", nullable = false, length = 500)
+    private String firstName;
+
+    @Column(name = "second_name", nullable = false, length = 500)
+    private String secondName;
+
+    @Column(name = "first_display_name", nullable = false, length = 500)
+    private String firstDisplayName;
+
+    @Column(name = "second_display_name", nullable = false, length = 500)
+    private String secondDisplayName;
+
+    @Column(name = "pair_count", nullable = false)
+    @Builder.Default
+    private Long pairCount = 0L;
+
+    @Override
+    public String toString() {
+        return "DiagnosisCooccurrence{" +
+                "id=" + getId() +
+                ", firstDisplayName='" + firstDisplayName + '\'' +
+                ", secondDisplayName='" + secondDisplayName + '\'' +
+                ", pairCount=" + pairCount +
+                '}';
+    }
+}
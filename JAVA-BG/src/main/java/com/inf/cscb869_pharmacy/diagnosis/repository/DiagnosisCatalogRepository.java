@@ -0,0 +1,40 @@
+package com.inf.cscb869_pharmacy.diagnosis.repository;
+
+import com.inf.cscb869_pharmacy.diagnosis.entity.DiagnosisCatalogEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface DiagnosisCatalogRepository extends JpaRepository<DiagnosisCatalogEntry, Long> {
+
+    Optional<DiagnosisCatalogEntry> findByNormalizedName(String normalizedName);
+
+    @Modifying
+    @Query("UPDATE DiagnosisCatalogEntry e SET e.usageCount = e.usageCount + :delta, " +
+            "e.icd10Code = COALESCE(e.icd10Code, :icd10Code) " +
+            "WHERE e.normalizedName = :normalizedName")
+    int adjustUsage(@Param("normalizedName") String normalizedName,
+                    @Param("delta") long delta,
+                    @Param("icd10Code") String icd10Code);
+
+    /**
+     * Adds to the usage of a name, creating its entry when missing. One statement, so two recipes
+     * introducing the same new name at once cannot both insert it.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO diagnosis_catalog (normalized_name, display_name, icd10_code, usage_count) " +
+            "VALUES (:normalizedName, :displayName, :icd10Code, :delta) " +
+            "ON CONFLICT (normalized_name) DO UPDATE " +
+            "SET usage_count = diagnosis_catalog.usage_count + EXCLUDED.usage_count, " +
+            "icd10_code = COALESCE(diagnosis_catalog.icd10_code, EXCLUDED.icd10_code)",
+            nativeQuery = true)
+    int upsertUsage(@Param("normalizedName") String normalizedName,
+                    @Param("displayName") String displayName,
+                    @Param("icd10Code") String icd10Code,
+                    @Param("delta") long delta);
+}
@@ -0,0 +1,39 @@
+package com.inf.cscb869_pharmacy.diagnosis.repository;
+
+import com.inf.cscb869_pharmacy.diagnosis.entity.DiagnosisCooccurrence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DiagnosisCooccurrenceRepository extends JpaRepository<DiagnosisCooccurrence, Long> {
+
+    @Modifying
+    @Query("UPDATE DiagnosisCooccurrence c SET c.pairCount = c.pairCount + :delta " +
+            "WHERE c.firstName = :firstName AND c.secondName = :secondName")
+    int adjustCount(@Param("firstName") String firstName,
+                    @Param("secondName") String secondName,
+                    @Param("delta") long delta);
+
+    /**
+     * Adds to a pair's count, creating the row when missing. One statement, so two nodes flushing the
+     * same new pair at once cannot both insert it.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO diagnosis_cooccurrence (first_name, second_name, first_display_name, second_display_name, pair_count) " +
+            "VALUES (:firstName, :secondName, :firstDisplayName, :secondDisplayName, :delta) " +
+            "ON CONFLICT (first_name, second_name) DO UPDATE " +
+            "SET pair_count = diagnosis_cooccurrence.pair_count + EXCLUDED.pair_count",
+            nativeQuery = true)
+    int upsertCount(@Param("firstName") String firstName,
+                    @Param("secondName") String secondName,
+                    @Param("firstDisplayName") String firstDisplayName,
+                    @Param("secondDisplayName") String secondDisplayName,
+                    @Param("delta") long delta);
+
+    @Modifying
+    @Query("DELETE FROM DiagnosisCooccurrence c WHERE c.pairCount <= 0")
+    int deleteEmptyPairs();
+}
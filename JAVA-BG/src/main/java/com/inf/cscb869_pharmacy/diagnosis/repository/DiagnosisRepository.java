@@ -1,7 +1,11 @@
 package com.inf.cscb869_pharmacy.diagnosis.repository;
 
 import com.inf.cscb869_pharmacy.diagnosis.entity.Diagnosis;
+import com.inf.cscb869_pharmacy.diagnosis.entity.DiagnosisSeverity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -10,24 +14,59 @@ import java.time.LocalDate;
 import java.util.List;
 
 @Repository
-public interface DiagnosisRepository extends JpaRepository<Diagnosis, Long> {
+public interface DiagnosisRepository extends JpaRepository<Diagnosis, Long>, JpaSpecificationExecutor<Diagnosis> {
 
     List<Diagnosis> findByRecipeId(Long recipeId);
 
     @Query("SELECT d FROM Diagnosis d WHERE d.recipe.customer.id = :customerId ORDER BY d.diagnosisDate DESC")
     List<Diagnosis> findByCustomerId(@Param("customerId") Long customerId);
 
+    @Query("SELECT d FROM Diagnosis d WHERE d.recipe.doctor.id = :doctorId ORDER BY d.diagnosisDate DESC")
+    List<Diagnosis> findByDoctorId(@Param("doctorId") Long doctorId);
+
     List<Diagnosis> findByNameContainingIgnoreCase(String name);
 
     @Query("SELECT d.name, COUNT(d) as cnt FROM Diagnosis d GROUP BY d.name ORDER BY cnt DESC")
     List<Object[]> findMostCommonDiagnoses();
 
-    @Query("SELECT COUNT(DISTINCT d.recipe.customer) FROM Diagnosis d WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :diagnosisName, '%'))")
+    /**
+     * Trend rows: bucket start (date_trunc unit), diagnosis count by diagnosis date.
+     */
+    @Query(value = "SELECT CAST(DATE_TRUNC(:unit, d.diagnosis_date) AS date) AS bucket, COUNT(*) " +
+            "FROM diagnoses d JOIN recipe r ON r.id = d.recipe_id " +
+            "WHERE d.diagnosis_date BETWEEN :from AND :to " +
+            "AND (CAST(:doctorId AS bigint) IS NULL OR r.doctor_id = CAST(:doctorId AS bigint)) " +
+            "GROUP BY bucket ORDER BY bucket",
+            nativeQuery = true)
+    List<Object[]> countByPeriod(@Param("unit") String unit,
+                                 @Param("from") LocalDate from,
+                                 @Param("to") LocalDate to,
+                                 @Param("doctorId") Long doctorId);
+
+    @Query("SELECT d.icd10Code, COUNT(d) as cnt FROM Diagnosis d WHERE d.icd10Code IS NOT NULL GROUP BY d.icd10Code ORDER BY cnt DESC")
+    List<Object[]> findMostCommonIcd10Codes();
+
+    @Query("SELECT d.name, d.icd10Code, COUNT(d) FROM Diagnosis d GROUP BY d.name, d.icd10Code")
+    List<Object[]> summarizeNamesAndCodes();
+
+    /**
+     * Per-recipe diagnosis pairs: first normalized name, second normalized name (first &lt; second),
+     * their display names and the number of recipes carrying both. Used only to rebuild the co-occurrence table.
+     */
+    @Query("SELECT a.normalizedName, b.normalizedName, MIN(a.name), MIN(b.name), COUNT(DISTINCT a.recipe.id) " +
+            "FROM Diagnosis a, Diagnosis b " +
+            "WHERE a.recipe = b.recipe AND a.normalizedName < b.normalizedName " +
+            "GROUP BY a.normalizedName, b.normalizedName")
+    List<Object[]> summarizeCooccurrences();
+
+    @Query("SELECT COUNT(DISTINCT d.recipe.customer.id) FROM Diagnosis d WHERE d.normalizedName LIKE CONCAT('%', LOWER(:diagnosisName), '%')")
     long countDistinctPatientsByDiagnosisName(@Param("diagnosisName") String diagnosisName);
 
-    List<Diagnosis> findByDiagnosisDateBetween(LocalDate startDate, LocalDate endDate);
+    Page<Diagnosis> findByDiagnosisDateBetween(LocalDate startDate, LocalDate endDate, Pageable pageable);
+
+    Page<Diagnosis> findByIcd10Code(String icd10Code, Pageable pageable);
 
-    List<Diagnosis> findByIcd10Code(String icd10Code);
+    Page<Diagnosis> findByIsPrimaryTrue(Pageable pageable);
 
-    List<Diagnosis> findByIsPrimaryTrue();
+    Page<Diagnosis> findBySeverity(DiagnosisSeverity severity, Pageable pageable);
 }
@@ -0,0 +1,80 @@
+package com.inf.cscb869_pharmacy.diagnosis.repository;
+
+import com.inf.cscb869_pharmacy.diagnosis.dto.DiagnosisQueryDTO;
+import com.inf.cscb869_pharmacy.diagnosis.entity.Diagnosis;
+import com.inf.cscb869_pharmacy.diagnosis.entity.DiagnosisSeverity;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Composable predicates for {@link DiagnosisRepository}; criteria left null add nothing to the WHERE clause.
+ */
+public final class DiagnosisSpecifications {
+
+    private DiagnosisSpecifications() {
+    }
+
+    public static Specification<Diagnosis> matching(DiagnosisQueryDTO criteria) {
+        return Specification.where(hasSeverity(criteria.getSeverity()))
+                .and(isPrimary(criteria.getPrimary()))
+                .and(hasIcd10Code(criteria.getIcd10Code()))
+                .and(nameContains(criteria.getName()))
+                .and(diagnosedFrom(criteria.getStartDate()))
+                .and(diagnosedUntil(criteria.getEndDate()))
+                .and(forRecipe(criteria.getRecipeId()))
+                .and(forCustomer(criteria.getCustomerId()))
+                .and(forDoctor(criteria.getDoctorId()));
+    }
+
+    public static Specification<Diagnosis> hasSeverity(DiagnosisSeverity severity) {
+        return severity == null ? null : (root, query, cb) -> cb.equal(root.get("severity"), severity);
+    }
+
+    public static Specification<Diagnosis> isPrimary(Boolean primary) {
+        return primary == null ? null : (root, query, cb) -> cb.equal(root.get("isPrimary"), primary);
+    }
+
+    public static Specification<Diagnosis> hasIcd10Code(String icd10Code) {
+        return icd10Code == null || icd10Code.isBlank()
+                ? null
+                : (root, query, cb) -> cb.equal(root.get("icd10Code"), icd10Code);
+    }
+
+    public static Specification<Diagnosis> nameContains(String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        String pattern = "%" + name.trim().toLowerCase(Locale.ROOT) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("name")), pattern);
+    }
+
+    public static Specification<Diagnosis> diagnosedFrom(LocalDate startDate) {
+        return startDate == null
+                ? null
+                : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("diagnosisDate"), startDate);
+    }
+
+    public static Specification<Diagnosis> diagnosedUntil(LocalDate endDate) {
+        return endDate == null
+                ? null
+                : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("diagnosisDate"), endDate);
+    }
+
+    public static Specification<Diagnosis> forRecipe(Long recipeId) {
+        return recipeId == null ? null : (root, query, cb) -> cb.equal(root.get("recipe").get("id"), recipeId);
+    }
+
+    public static Specification<Diagnosis> forCustomer(Long customerId) {
+        return customerId == null
+                ? null
+                : (root, query, cb) -> cb.equal(root.get("recipe").get("customer").get("id"), customerId);
+    }
+
+    public static Specification<Diagnosis> forDoctor(Long doctorId) {
+        return doctorId == null
+                ? null
+                : (root, query, cb) -> cb.equal(root.get("recipe").get("doctor").get("id"), doctorId);
+    }
+}
@@ -0,0 +1,34 @@
+package com.inf.cscb869_pharmacy.diagnosis.service;
+
+import com.inf.cscb869_pharmacy.diagnosis.dto.DiagnosisCatalogEntryDTO;
+import com.inf.cscb869_pharmacy.diagnosis.entity.Diagnosis;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Distinct diagnosis-name catalog kept in memory for option lists and autocomplete
+ * Каталог на имената на диагнози (в паметта)
+ */
+public interface DiagnosisCatalogService {
+
+    /**
+     * Distinct diagnosis names currently in use, sorted case-insensitively.
+     */
+    List<String> getDiagnosisOptions();
+
+    List<DiagnosisCatalogEntryDTO> suggest(String prefix, int limit);
+
+    /**
+     * Applies the net usage change of a write: {@code removed} diagnoses release a use,
+     * {@code added} diagnoses record one. The in-memory view follows after commit.
+     */
+    void recordChanges(Collection<Diagnosis> removed, Collection<Diagnosis> added);
+
+    /**
+     * Recomputes the catalog table from the diagnoses table and reloads memory.
+     */
+    void rebuild();
+
+    void reload();
+}
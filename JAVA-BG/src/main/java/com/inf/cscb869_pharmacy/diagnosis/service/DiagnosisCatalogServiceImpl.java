@@ -0,0 +1,249 @@
+package com.inf.cscb869_pharmacy.diagnosis.service;
+
+import com.inf.cscb869_pharmacy.cache.InvalidationBus;
+import com.inf.cscb869_pharmacy.diagnosis.dto.DiagnosisCatalogEntryDTO;
+import com.inf.cscb869_pharmacy.diagnosis.entity.Diagnosis;
+import com.inf.cscb869_pharmacy.diagnosis.entity.DiagnosisCatalogEntry;
+import com.inf.cscb869_pharmacy.diagnosis.repository.DiagnosisCatalogRepository;
+import com.inf.cscb869_pharmacy.diagnosis.repository.DiagnosisRepository;
+import com.inf.cscb869_pharmacy.util.NameNormalizer;
+import com.inf.cscb869_pharmacy.util.TransactionCallbacks;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Service implementation for the diagnosis-name catalog.
+ * The table is the source of truth; memory holds a sorted copy keyed by normalized name
+ * so option lists and prefix lookups never touch the diagnoses table.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class DiagnosisCatalogServiceImpl implements DiagnosisCatalogService {
+
+    private final DiagnosisCatalogRepository diagnosisCatalogRepository;
+    private final DiagnosisRepository diagnosisRepository;
+    private final InvalidationBus invalidationBus;
+    private final TransactionTemplate transactionTemplate;
+
+    static final String CACHE_NAME = "diagnosis-catalog";
+
+    private final ConcurrentSkipListMap<String, CatalogItem> items = new ConcurrentSkipListMap<>();
+    /** Bumped after every change to {@code items}; a snapshot built at an older version is never stored. */
+    private final AtomicLong itemsVersion = new AtomicLong();
+    private final AtomicReference<OptionsSnapshot> optionsSnapshot = new AtomicReference<>();
+    /**
+     * Held shared by a write from just before its commit until memory has its change,
+     * exclusively while memory is read back from the table.
+     */
+    private final ReadWriteLock itemsLock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    void subscribe() {
+        invalidationBus.subscribe(CACHE_NAME, invalidation -> transactionTemplate.executeWithoutResult(status -> {
+            if (invalidation.isWholeCache()) {
+                reload();
+            } else {
+                refresh(invalidation.key());
+            }
+        }));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (diagnosisCatalogRepository.count() == 0 && diagnosisRepository.count() > 0) {
+            rebuild();
+        } else {
+            reload();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> getDiagnosisOptions() {
+        OptionsSnapshot current = optionsSnapshot.get();
+        long version = itemsVersion.get();
+        if (current != null && current.version() == version) {
+            return current.options();
+        }
+        List<String> options = items.values().stream()
+                .filter(item -> item.usageCount() > 0)
+                .map(CatalogItem::displayName)
+                .sorted(String.CASE_INSENSITIVE_ORDER)
+                .toList();
+        // Lost races are harmless: the winner's version is checked again on the next call
+        optionsSnapshot.compareAndSet(current, new OptionsSnapshot(version, options));
+        return options;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DiagnosisCatalogEntryDTO> suggest(String prefix, int limit) {
+        String normalizedPrefix = NameNormalizer.normalize(prefix);
+        if (normalizedPrefix == null || limit <= 0) {
+            return List.of();
+        }
+        return items.subMap(normalizedPrefix, true, normalizedPrefix + Character.MAX_VALUE, false)
+                .values().stream()
+                .filter(item -> item.usageCount() > 0)
+                .sorted(Comparator.comparingLong(CatalogItem::usageCount).reversed()
+                        .thenComparing(CatalogItem::displayName, String.CASE_INSENSITIVE_ORDER))
+                .limit(limit)
+                .map(CatalogItem::toDto)
+                .toList();
+    }
+
+    @Override
+    public void recordChanges(Collection<Diagnosis> removed, Collection<Diagnosis> added) {
+        Map<String, UsageDelta> deltas = new LinkedHashMap<>();
+        collect(deltas, removed, -1);
+        collect(deltas, added, 1);
+        deltas.values().removeIf(delta -> delta.amount == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        for (var entry : deltas.entrySet()) {
+            UsageDelta delta = entry.getValue();
+            if (delta.amount > 0) {
+                diagnosisCatalogRepository.upsertUsage(entry.getKey(), delta.displayName, delta.icd10Code, delta.amount);
+            } else {
+                diagnosisCatalogRepository.adjustUsage(entry.getKey(), delta.amount, delta.icd10Code);
+            }
+        }
+
+        TransactionCallbacks.afterCommitHolding(itemsLock.readLock(), () -> {
+            deltas.forEach((key, delta) -> items.merge(key,
+                    new CatalogItem(delta.displayName, delta.icd10Code, delta.amount),
+                    (current, change) -> current.plus(change.usageCount(), change.icd10Code())));
+            itemsVersion.incrementAndGet();
+        });
+        deltas.keySet().forEach(key -> invalidationBus.publish(CACHE_NAME, key));
+    }
+
+    @Override
+    public void rebuild() {
+        log.info("Rebuilding diagnosis catalog from diagnoses table");
+        Map<String, UsageDelta> totals = new LinkedHashMap<>();
+        for (Object[] row : diagnosisRepository.summarizeNamesAndCodes()) {
+            String name = (String) row[0];
+            String normalized = NameNormalizer.normalize(name);
+            if (normalized == null) {
+                continue;
+            }
+            long count = row[2] instanceof Number ? ((Number) row[2]).longValue() : 0L;
+            totals.computeIfAbsent(normalized, key -> new UsageDelta(name.trim()))
+                    .add(count, (String) row[1]);
+        }
+
+        diagnosisCatalogRepository.deleteAllInBatch();
+        diagnosisCatalogRepository.saveAll(totals.entrySet().stream()
+                .map(entry -> DiagnosisCatalogEntry.builder()
+                        .normalizedName(entry.getKey())
+                        .displayName(entry.getValue().displayName)
+                        .icd10Code(entry.getValue().icd10Code)
+                        .usageCount(entry.getValue().amount)
+                        .build())
+                .toList());
+
+        TransactionCallbacks.afterCommit(this::reload);
+        invalidationBus.publish(CACHE_NAME, null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void reload() {
+        Map<String, CatalogItem> loaded = new HashMap<>();
+        // No merge can land between the read and the replace, so none is lost or applied twice
+        itemsLock.writeLock().lock();
+        try {
+            diagnosisCatalogRepository.findAll().forEach(entry -> loaded.put(entry.getNormalizedName(), toItem(entry)));
+            items.keySet().retainAll(loaded.keySet());
+            items.putAll(loaded);
+            itemsVersion.incrementAndGet();
+        } finally {
+            itemsLock.writeLock().unlock();
+        }
+        log.info("Loaded {} diagnosis catalog entries", loaded.size());
+    }
+
+    private void refresh(String normalizedName) {
+        itemsLock.writeLock().lock();
+        try {
+            diagnosisCatalogRepository.findByNormalizedName(normalizedName)
+                    .ifPresentOrElse(entry -> items.put(normalizedName, toItem(entry)),
+                            () -> items.remove(normalizedName));
+            itemsVersion.incrementAndGet();
+        } finally {
+            itemsLock.writeLock().unlock();
+        }
+    }
+
+    private static CatalogItem toItem(DiagnosisCatalogEntry entry) {
+        return new CatalogItem(entry.getDisplayName(), entry.getIcd10Code(),
+                entry.getUsageCount() != null ? entry.getUsageCount() : 0L);
+    }
+
+    private static void collect(Map<String, UsageDelta> deltas, Collection<Diagnosis> diagnoses, int sign) {
+        if (diagnoses == null) {
+            return;
+        }
+        for (Diagnosis diagnosis : diagnoses) {
+            String normalized = diagnosis != null ? NameNormalizer.normalize(diagnosis.getName()) : null;
+            if (normalized == null) {
+                continue;
+            }
+            deltas.computeIfAbsent(normalized, key -> new UsageDelta(diagnosis.getName().trim()))
+                    .add(sign, sign > 0 ? diagnosis.getIcd10Code() : null);
+        }
+    }
+
+    private static final class UsageDelta {
+        private final String displayName;
+        private String icd10Code;
+        private long amount;
+
+        private UsageDelta(String displayName) {
+            this.displayName = displayName;
+        }
+
+        private void add(long change, String code) {
+            amount += change;
+            if (icd10Code == null && code != null && !code.isBlank()) {
+                icd10Code = code.trim();
+            }
+        }
+    }
+
+    private record OptionsSnapshot(long version, List<String> options) {
+    }
+
+    private record CatalogItem(String displayName, String icd10Code, long usageCount) {
+
+        private CatalogItem plus(long change, String code) {
+            return new CatalogItem(displayName, icd10Code != null ? icd10Code : code, usageCount + change);
+        }
+
+        private DiagnosisCatalogEntryDTO toDto() {
+            return DiagnosisCatalogEntryDTO.builder()
+                    .name(displayName)
+                    .icd10Code(icd10Code)
+                    .usageCount(usageCount)
+                    .build();
+        }
+    }
+}
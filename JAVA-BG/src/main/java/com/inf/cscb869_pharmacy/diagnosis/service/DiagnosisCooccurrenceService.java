@@ -0,0 +1,37 @@
+package com.inf.cscb869_pharmacy.diagnosis.service;
+
+import com.inf.cscb869_pharmacy.diagnosis.dto.DiagnosisCooccurrenceDTO;
+import com.inf.cscb869_pharmacy.diagnosis.entity.Diagnosis;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Which diagnoses are recorded together on the same recipe, kept in memory and persisted periodically
+ * Съвместна поява на диагнози
+ */
+public interface DiagnosisCooccurrenceService {
+
+    /**
+     * Applies the pair-count change of one recipe's diagnoses going from {@code before} to {@code after}.
+     * Memory follows after commit; the table follows on the next flush.
+     */
+    void recordRecipeChange(Collection<Diagnosis> before, Collection<Diagnosis> after);
+
+    List<DiagnosisCooccurrenceDTO> getTopPairs(int top);
+
+    /**
+     * Writes pending pair-count deltas to the co-occurrence table.
+     */
+    void flush();
+
+    /**
+     * Reloads memory from the co-occurrence table, picking up the other nodes' changes.
+     */
+    void reload();
+
+    /**
+     * Recomputes the co-occurrence table from the diagnoses table and reloads memory.
+     */
+    void rebuild();
+}
@@ -0,0 +1,327 @@
+package com.inf.cscb869_pharmacy.diagnosis.service;
+
+import com.inf.cscb869_pharmacy.cache.InvalidationBus;
+import com.inf.cscb869_pharmacy.diagnosis.dto.DiagnosisCooccurrenceDTO;
+import com.inf.cscb869_pharmacy.diagnosis.entity.Diagnosis;
+import com.inf.cscb869_pharmacy.diagnosis.entity.DiagnosisCooccurrence;
+import com.inf.cscb869_pharmacy.diagnosis.repository.DiagnosisCooccurrenceRepository;
+import com.inf.cscb869_pharmacy.diagnosis.repository.DiagnosisRepository;
+import com.inf.cscb869_pharmacy.util.NameNormalizer;
+import com.inf.cscb869_pharmacy.util.TransactionCallbacks;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Service implementation for diagnosis co-occurrence counts.
+ * Memory serves reads; every committed change is also queued as a per-pair delta and the queue is
+ * written to the table on a fixed delay. Deltas that fail to persist are re-queued.
+ * Each node only sees its own commits, so memory is periodically reloaded from the table (which every
+ * node flushes into) plus the node's unflushed deltas, and right away when another node rebuilds.
+ * A rebuild reads the diagnoses table while no recipe change of this node is between its commit and
+ * its queueing, so each change is either in the snapshot or queued afterwards, never both.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DiagnosisCooccurrenceServiceImpl implements DiagnosisCooccurrenceService {
+
+    static final String CACHE_NAME = "diagnosis-cooccurrence";
+
+    private static final Comparator<DiagnosisCooccurrenceDTO> BY_COUNT =
+            Comparator.comparingLong(DiagnosisCooccurrenceDTO::getCount)
+                    .thenComparing(DiagnosisCooccurrenceDTO::getFirstDiagnosis, Comparator.reverseOrder())
+                    .thenComparing(DiagnosisCooccurrenceDTO::getSecondDiagnosis, Comparator.reverseOrder());
+
+    private final DiagnosisCooccurrenceRepository cooccurrenceRepository;
+    private final DiagnosisRepository diagnosisRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final InvalidationBus invalidationBus;
+
+    private volatile ConcurrentHashMap<PairKey, PairCount> counts = new ConcurrentHashMap<>();
+    private volatile ConcurrentHashMap<PairKey, Long> pending = new ConcurrentHashMap<>();
+    /** Serializes flushes, reloads and rebuilds; a lock rather than a monitor so virtual threads do not pin their carrier. */
+    private final ReentrantLock persistLock = new ReentrantLock();
+    /**
+     * Held shared by a recipe transaction from just before its commit until its deltas are queued,
+     * exclusively while a rebuild reads its snapshot or the maps are swapped.
+     */
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    void subscribe() {
+        invalidationBus.subscribe(CACHE_NAME, invalidation -> reload());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (cooccurrenceRepository.count() == 0 && diagnosisRepository.count() > 0) {
+            rebuild();
+            return;
+        }
+        reload();
+    }
+
+    @Override
+    public void recordRecipeChange(Collection<Diagnosis> before, Collection<Diagnosis> after) {
+        Map<String, String> beforeNames = distinctNames(before);
+        Map<String, String> afterNames = distinctNames(after);
+
+        Map<PairKey, Long> deltas = new HashMap<>();
+        addPairs(deltas, beforeNames.keySet(), -1);
+        addPairs(deltas, afterNames.keySet(), 1);
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        Map<String, String> displayNames = new HashMap<>(beforeNames);
+        displayNames.putAll(afterNames);
+        Runnable queue = () -> deltas.forEach((pair, delta) -> {
+            apply(counts, pair, delta, displayNames.get(pair.first()), displayNames.get(pair.second()));
+            pending.merge(pair, delta, Long::sum);
+        });
+        TransactionCallbacks.afterCommitHolding(swapLock.readLock(), queue);
+    }
+
+    @Override
+    public List<DiagnosisCooccurrenceDTO> getTopPairs(int top) {
+        if (top <= 0) {
+            return List.of();
+        }
+        PriorityQueue<DiagnosisCooccurrenceDTO> heap = new PriorityQueue<>(top + 1, BY_COUNT);
+        counts.values().forEach(pair -> {
+            long count = pair.count.get();
+            if (count <= 0) {
+                return;
+            }
+            heap.offer(DiagnosisCooccurrenceDTO.builder()
+                    .firstDiagnosis(pair.firstDisplayName)
+                    .secondDiagnosis(pair.secondDisplayName)
+                    .count(count)
+                    .build());
+            if (heap.size() > top) {
+                heap.poll();
+            }
+        });
+
+        List<DiagnosisCooccurrenceDTO> result = new ArrayList<>(heap);
+        result.sort(BY_COUNT.reversed());
+        return result;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${pharmacy.cooccurrence.flush-interval-ms:60000}",
+            initialDelayString = "${pharmacy.cooccurrence.flush-interval-ms:60000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        persistLock.lock();
+        try {
+            flushPending();
+        } finally {
+            persistLock.unlock();
+        }
+    }
+
+    /**
+     * Replaces memory with the table, which holds every node's flushed deltas, plus this node's
+     * unflushed ones. Flushes are held off meanwhile, so a delta is counted from the table or from
+     * the queue but not both.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${pharmacy.cooccurrence.reload-interval-ms:300000}",
+            initialDelayString = "${pharmacy.cooccurrence.reload-interval-ms:300000}")
+    public void reload() {
+        persistLock.lock();
+        try {
+            flushPending();
+            ConcurrentHashMap<PairKey, PairCount> loaded = new ConcurrentHashMap<>();
+            cooccurrenceRepository.findAll().forEach(row -> loaded.put(
+                    new PairKey(row.getFirstName(), row.getSecondName()),
+                    new PairCount(row.getFirstDisplayName(), row.getSecondDisplayName(), row.getPairCount())));
+            swapIn(loaded);
+            log.info("Loaded {} diagnosis co-occurrence pairs", loaded.size());
+        } finally {
+            persistLock.unlock();
+        }
+    }
+
+    @Override
+    public void rebuild() {
+        log.info("Rebuilding diagnosis co-occurrence table from diagnoses table");
+        persistLock.lock();
+        try {
+            Map<PairKey, Long> superseded = new HashMap<>();
+            ConcurrentHashMap<PairKey, PairCount> rebuilt;
+            try {
+                rebuilt = transactionTemplate.execute(status -> {
+                    List<Object[]> summary;
+                    // Every change queued so far is in the snapshot; later ones commit after it and are queued anew
+                    swapLock.writeLock().lock();
+                    try {
+                        summary = diagnosisRepository.summarizeCooccurrences();
+                        superseded.putAll(pending);
+                        pending = new ConcurrentHashMap<>();
+                    } finally {
+                        swapLock.writeLock().unlock();
+                    }
+                    List<DiagnosisCooccurrence> rows = summary.stream()
+                            .map(DiagnosisCooccurrenceServiceImpl::toEntity)
+                            .toList();
+                    cooccurrenceRepository.deleteAllInBatch();
+                    cooccurrenceRepository.saveAll(rows);
+
+                    ConcurrentHashMap<PairKey, PairCount> memory = new ConcurrentHashMap<>();
+                    rows.forEach(row -> memory.put(new PairKey(row.getFirstName(), row.getSecondName()),
+                            new PairCount(row.getFirstDisplayName(), row.getSecondDisplayName(), row.getPairCount())));
+                    return memory;
+                });
+            } catch (RuntimeException e) {
+                // The table was not rewritten, so the superseded deltas still have to reach it
+                superseded.forEach((key, delta) -> pending.merge(key, delta, Long::sum));
+                throw e;
+            }
+
+            swapIn(rebuilt);
+            invalidationBus.publish(CACHE_NAME, null);
+            log.info("Rebuilt {} diagnosis co-occurrence pairs", rebuilt.size());
+        } finally {
+            persistLock.unlock();
+        }
+    }
+
+    /**
+     * Makes {@code base} the served counts, with the still-queued deltas (not yet in the table) replayed on top.
+     */
+    private void swapIn(ConcurrentHashMap<PairKey, PairCount> base) {
+        swapLock.writeLock().lock();
+        try {
+            Map<PairKey, PairCount> previous = counts;
+            pending.forEach((pair, delta) -> {
+                PairCount known = previous.get(pair);
+                apply(base, pair, delta,
+                        known != null ? known.firstDisplayName : pair.first(),
+                        known != null ? known.secondDisplayName : pair.second());
+            });
+            counts = base;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    private void flushPending() {
+        Map<PairKey, Long> drained = new HashMap<>();
+        for (PairKey key : pending.keySet()) {
+            Long delta = pending.remove(key);
+            if (delta != null && delta != 0) {
+                drained.put(key, delta);
+            }
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(drained));
+            log.info("Persisted {} diagnosis co-occurrence deltas", drained.size());
+        } catch (RuntimeException e) {
+            drained.forEach((key, delta) -> pending.merge(key, delta, Long::sum));
+            log.warn("Could not persist {} diagnosis co-occurrence deltas, will retry", drained.size(), e);
+        }
+    }
+
+    private static void apply(Map<PairKey, PairCount> target, PairKey pair, long delta,
+                              String firstDisplayName, String secondDisplayName) {
+        target.computeIfAbsent(pair, key -> new PairCount(firstDisplayName, secondDisplayName, 0L))
+                .count.addAndGet(delta);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void persist(Map<PairKey, Long> deltas) {
+        deltas.forEach((pair, delta) -> {
+            if (delta > 0) {
+                PairCount current = counts.get(pair);
+                cooccurrenceRepository.upsertCount(pair.first(), pair.second(),
+                        current != null ? current.firstDisplayName : pair.first(),
+                        current != null ? current.secondDisplayName : pair.second(),
+                        delta);
+            } else {
+                cooccurrenceRepository.adjustCount(pair.first(), pair.second(), delta);
+            }
+        });
+        cooccurrenceRepository.deleteEmptyPairs();
+    }
+
+    /**
+     * The database orders the pair by its collation; memory keys use Java string order, so re-orient here.
+     */
+    private static DiagnosisCooccurrence toEntity(Object[] row) {
+        boolean swap = ((String) row[0]).compareTo((String) row[1]) > 0;
+        int first = swap ? 1 : 0;
+        int second = swap ? 0 : 1;
+        return DiagnosisCooccurrence.builder()
+                .firstName((String) row[first])
+                .secondName((String) row[second])
+                .firstDisplayName(((String) row[first + 2]).trim())
+                .secondDisplayName(((String) row[second + 2]).trim())
+                .pairCount(((Number) row[4]).longValue())
+                .build();
+    }
+
+    private static Map<String, String> distinctNames(Collection<Diagnosis> diagnoses) {
+        Map<String, String> names = new TreeMap<>();
+        if (diagnoses == null) {
+            return names;
+        }
+        for (Diagnosis diagnosis : diagnoses) {
+            String normalized = diagnosis != null ? NameNormalizer.normalize(diagnosis.getName()) : null;
+            if (normalized != null) {
+                names.putIfAbsent(normalized, diagnosis.getName().trim());
+            }
+        }
+        return names;
+    }
+
+    private static void addPairs(Map<PairKey, Long> deltas, Set<String> sortedNames, long sign) {
+        List<String> names = new ArrayList<>(sortedNames);
+        for (int i = 0; i < names.size(); i++) {
+            for (int j = i + 1; j < names.size(); j++) {
+                deltas.merge(new PairKey(names.get(i), names.get(j)), sign, Long::sum);
+            }
+        }
+    }
+
+    private record PairKey(String first, String second) {
+    }
+
+    private static final class PairCount {
+        private final String firstDisplayName;
+        private final String secondDisplayName;
+        private final AtomicLong count;
+
+        private PairCount(String firstDisplayName, String secondDisplayName, long count) {
+            this.firstDisplayName = firstDisplayName;
+            this.secondDisplayName = secondDisplayName;
+            this.count = new AtomicLong(count);
+        }
+    }
+}
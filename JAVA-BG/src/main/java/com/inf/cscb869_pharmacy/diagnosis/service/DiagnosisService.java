@@ -1,7 +1,11 @@
 package com.inf.cscb869_pharmacy.diagnosis.service;
 
+import com.inf.cscb869_pharmacy.diagnosis.dto.DiagnosisQueryDTO;
+import com.inf.cscb869_pharmacy.diagnosis.dto.Icd10CodeUsageDTO;
 import com.inf.cscb869_pharmacy.diagnosis.entity.Diagnosis;
 import com.inf.cscb869_pharmacy.diagnosis.entity.DiagnosisSeverity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -22,6 +26,15 @@ public interface DiagnosisService {
 
     List<Diagnosis> getAllDiagnoses();
 
+    Page<Diagnosis> getDiagnoses(Pageable pageable);
+
+    /**
+     * Single paged query over any combination of the criteria in {@code criteria}.
+     */
+    Page<Diagnosis> queryDiagnoses(DiagnosisQueryDTO criteria, Pageable pageable);
+
+    List<Diagnosis> getDiagnosesByDoctorId(Long doctorId);
+
     List<Diagnosis> getDiagnosesByRecipeId(Long recipeId);
 
     List<Diagnosis> getDiagnosesByCustomerId(Long customerId);
@@ -30,13 +43,15 @@ public interface DiagnosisService {
 
     List<Object[]> getMostCommonDiagnoses();
 
+    List<Icd10CodeUsageDTO> getMostCommonIcd10Codes();
+
     Long countPatientsByDiagnosisName(String diagnosisName);
 
-    List<Diagnosis> getDiagnosesInDateRange(LocalDate startDate, LocalDate endDate);
+    Page<Diagnosis> getDiagnosesInDateRange(LocalDate startDate, LocalDate endDate, Pageable pageable);
 
-    List<Diagnosis> getDiagnosesByIcd10Code(String icd10Code);
+    Page<Diagnosis> getDiagnosesByIcd10Code(String icd10Code, Pageable pageable);
 
-    List<Diagnosis> getPrimaryDiagnoses();
+    Page<Diagnosis> getPrimaryDiagnoses(Pageable pageable);
 
-    List<Diagnosis> getDiagnosesBySeverity(DiagnosisSeverity severity);
+    Page<Diagnosis> getDiagnosesBySeverity(DiagnosisSeverity severity, Pageable pageable);
 }
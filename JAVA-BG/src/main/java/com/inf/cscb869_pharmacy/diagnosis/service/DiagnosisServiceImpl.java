@@ -1,15 +1,25 @@
 package com.inf.cscb869_pharmacy.diagnosis.service;
 
+import com.inf.cscb869_pharmacy.bulkhead.Subsystem;
+import com.inf.cscb869_pharmacy.bulkhead.UseBulkhead;
+import com.inf.cscb869_pharmacy.diagnosis.dto.DiagnosisQueryDTO;
+import com.inf.cscb869_pharmacy.diagnosis.dto.Icd10CodeDTO;
+import com.inf.cscb869_pharmacy.diagnosis.dto.Icd10CodeUsageDTO;
 import com.inf.cscb869_pharmacy.diagnosis.entity.Diagnosis;
 import com.inf.cscb869_pharmacy.diagnosis.entity.DiagnosisSeverity;
 import com.inf.cscb869_pharmacy.diagnosis.repository.DiagnosisRepository;
+import com.inf.cscb869_pharmacy.diagnosis.repository.DiagnosisSpecifications;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Service implementation for Diagnosis management
@@ -22,22 +32,35 @@ import java.util.List;
 public class DiagnosisServiceImpl implements DiagnosisService {
 
     private final DiagnosisRepository diagnosisRepository;
+    private final DiagnosisCatalogService diagnosisCatalogService;
+    private final Icd10CatalogService icd10CatalogService;
+    private final DiagnosisCooccurrenceService diagnosisCooccurrenceService;
 
     @Override
+    @UseBulkhead(Subsystem.WRITES)
     public Diagnosis createDiagnosis(Diagnosis diagnosis) {
         log.info("Creating new diagnosis: {}", diagnosis.getName());
         if (diagnosis.getDiagnosisDate() == null) {
             diagnosis.setDiagnosisDate(LocalDate.now());
         }
-        return diagnosisRepository.save(diagnosis);
+        diagnosis.setIcd10Code(icd10CatalogService.resolveCode(diagnosis.getIcd10Code()));
+        Diagnosis saved = diagnosisRepository.save(diagnosis);
+        diagnosisCatalogService.recordChanges(List.of(), List.of(saved));
+        recordCooccurrence(saved, null, saved);
+        return saved;
     }
 
     @Override
+    @UseBulkhead(Subsystem.WRITES)
     public Diagnosis updateDiagnosis(Long id, Diagnosis diagnosis) {
         log.info("Updating diagnosis with ID: {}", id);
         Diagnosis existing = getDiagnosisById(id);
+        Diagnosis previous = Diagnosis.builder()
+                .name(existing.getName())
+                .icd10Code(existing.getIcd10Code())
+                .build();
 
-        existing.setIcd10Code(diagnosis.getIcd10Code());
+        existing.setIcd10Code(icd10CatalogService.resolveCode(diagnosis.getIcd10Code()));
         existing.setName(diagnosis.getName());
         existing.setDescription(diagnosis.getDescription());
         existing.setDiagnosisDate(diagnosis.getDiagnosisDate());
@@ -45,13 +68,21 @@ public class DiagnosisServiceImpl implements DiagnosisService {
         existing.setSeverity(diagnosis.getSeverity());
         existing.setNotes(diagnosis.getNotes());
 
-        return diagnosisRepository.save(existing);
+        Diagnosis saved = diagnosisRepository.save(existing);
+        diagnosisCatalogService.recordChanges(List.of(previous), List.of(saved));
+        recordCooccurrence(saved, previous, saved);
+        return saved;
     }
 
     @Override
+    @UseBulkhead(Subsystem.WRITES)
     public void deleteDiagnosis(Long id) {
         log.info("Deleting diagnosis with ID: {}", id);
-        diagnosisRepository.deleteById(id);
+        diagnosisRepository.findById(id).ifPresent(existing -> {
+            diagnosisRepository.delete(existing);
+            diagnosisCatalogService.recordChanges(List.of(existing), List.of());
+            recordCooccurrence(existing, existing, null);
+        });
     }
 
     @Override
@@ -68,6 +99,32 @@ public class DiagnosisServiceImpl implements DiagnosisService {
         return diagnosisRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Diagnosis> getDiagnoses(Pageable pageable) {
+        log.info("Fetching diagnoses page {}", pageable.getPageNumber());
+        return diagnosisRepository.findAll(pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Diagnosis> queryDiagnoses(DiagnosisQueryDTO criteria, Pageable pageable) {
+        log.info("Querying diagnoses with criteria: {}", criteria);
+        if (criteria.getStartDate() != null && criteria.getEndDate() != null
+                && criteria.getStartDate().isAfter(criteria.getEndDate())) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+        criteria.setIcd10Code(canonicalCode(criteria.getIcd10Code()));
+        return diagnosisRepository.findAll(DiagnosisSpecifications.matching(criteria), pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Diagnosis> getDiagnosesByDoctorId(Long doctorId) {
+        log.info("Fetching diagnoses for doctor ID: {}", doctorId);
+        return diagnosisRepository.findByDoctorId(doctorId);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Diagnosis> getDiagnosesByRecipeId(Long recipeId) {
@@ -96,6 +153,24 @@ public class DiagnosisServiceImpl implements DiagnosisService {
         return diagnosisRepository.findMostCommonDiagnoses();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Icd10CodeUsageDTO> getMostCommonIcd10Codes() {
+        log.info("Fetching most common ICD-10 codes");
+        return diagnosisRepository.findMostCommonIcd10Codes().stream()
+                .map(row -> {
+                    String code = (String) row[0];
+                    Optional<Icd10CodeDTO> known = icd10CatalogService.findCode(code);
+                    return Icd10CodeUsageDTO.builder()
+                            .code(code)
+                            .description(known.map(Icd10CodeDTO::getDescription).orElse(null))
+                            .chapter(known.map(Icd10CodeDTO::getChapter).orElse(null))
+                            .count(((Number) row[1]).longValue())
+                            .build();
+                })
+                .toList();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Long countPatientsByDiagnosisName(String diagnosisName) {
@@ -105,31 +180,60 @@ public class DiagnosisServiceImpl implements DiagnosisService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<Diagnosis> getDiagnosesInDateRange(LocalDate startDate, LocalDate endDate) {
+    public Page<Diagnosis> getDiagnosesInDateRange(LocalDate startDate, LocalDate endDate, Pageable pageable) {
         log.info("Fetching diagnoses between {} and {}", startDate, endDate);
-        return diagnosisRepository.findByDiagnosisDateBetween(startDate, endDate);
+        return diagnosisRepository.findByDiagnosisDateBetween(startDate, endDate, pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Diagnosis> getDiagnosesByIcd10Code(String icd10Code) {
+    public Page<Diagnosis> getDiagnosesByIcd10Code(String icd10Code, Pageable pageable) {
         log.info("Fetching diagnoses with ICD-10 code: {}", icd10Code);
-        return diagnosisRepository.findByIcd10Code(icd10Code);
+        return diagnosisRepository.findByIcd10Code(canonicalCode(icd10Code), pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Diagnosis> getPrimaryDiagnoses() {
-        log.info("Fetching all primary diagnoses");
-        return diagnosisRepository.findByIsPrimaryTrue();
+    public Page<Diagnosis> getPrimaryDiagnoses(Pageable pageable) {
+        log.info("Fetching primary diagnoses");
+        return diagnosisRepository.findByIsPrimaryTrue(pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Diagnosis> getDiagnosesBySeverity(DiagnosisSeverity severity) {
+    public Page<Diagnosis> getDiagnosesBySeverity(DiagnosisSeverity severity, Pageable pageable) {
         log.info("Fetching diagnoses with severity: {}", severity);
-        return diagnosisRepository.findAll().stream()
-                .filter(d -> d.getSeverity() == severity)
+        return diagnosisRepository.findBySeverity(severity, pageable);
+    }
+
+    private String canonicalCode(String icd10Code) {
+        if (icd10Code == null || icd10Code.isBlank()) {
+            return null;
+        }
+        return icd10CatalogService.findCode(icd10Code)
+                .map(Icd10CodeDTO::getCode)
+                .orElse(icd10Code.trim());
+    }
+
+    /**
+     * Co-occurrence is per recipe, so a single diagnosis change is applied against its recipe siblings.
+     */
+    private void recordCooccurrence(Diagnosis diagnosis, Diagnosis before, Diagnosis after) {
+        if (diagnosis.getRecipe() == null || diagnosis.getRecipe().getId() == null) {
+            return;
+        }
+        List<Diagnosis> siblings = diagnosisRepository.findByRecipeId(diagnosis.getRecipe().getId()).stream()
+                .filter(sibling -> !sibling.getId().equals(diagnosis.getId()))
                 .toList();
+
+        List<Diagnosis> beforeRecipe = new ArrayList<>(siblings);
+        List<Diagnosis> afterRecipe = new ArrayList<>(siblings);
+        if (before != null) {
+            beforeRecipe.add(before);
+        }
+        if (after != null) {
+            afterRecipe.add(after);
+        }
+        diagnosisCooccurrenceService.recordRecipeChange(beforeRecipe, afterRecipe);
     }
 }
@@ -0,0 +1,46 @@
+package com.inf.cscb869_pharmacy.diagnosis.service;
+
+import com.inf.cscb869_pharmacy.diagnosis.dto.Icd10ChapterDTO;
+import com.inf.cscb869_pharmacy.diagnosis.dto.Icd10CodeDTO;
+import com.inf.cscb869_pharmacy.diagnosis.dto.Icd10ValidationDTO;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read-only ICD-10 classification loaded from the bundled classification file
+ * Каталог на МКБ-10 кодове
+ */
+public interface Icd10CatalogService {
+
+    /**
+     * Code prefix search when the query looks like a code, description keyword search otherwise.
+     */
+    List<Icd10CodeDTO> suggest(String query, int limit);
+
+    List<Icd10CodeDTO> findByPrefix(String prefix, int limit);
+
+    /**
+     * Codes whose description contains every query word (word prefixes match).
+     */
+    List<Icd10CodeDTO> searchDescriptions(String keywords, int limit);
+
+    List<Icd10ChapterDTO> getChapters();
+
+    List<Icd10CodeDTO> getCodesInChapter(String chapter, int limit);
+
+    /**
+     * Codes between two categories, both inclusive, e.g. {@code J00}..{@code J06}.
+     */
+    List<Icd10CodeDTO> getCodesInRange(String fromCategory, String toCategory, int limit);
+
+    Optional<Icd10CodeDTO> findCode(String code);
+
+    Icd10ValidationDTO validate(String code);
+
+    /**
+     * Canonical form of an entered code for storage ({@code j209} becomes {@code J20.9}).
+     * Rejects malformed or unknown codes only when strict validation is enabled.
+     */
+    String resolveCode(String code);
+}
@@ -0,0 +1,368 @@
+package com.inf.cscb869_pharmacy.diagnosis.service;
+
+import com.inf.cscb869_pharmacy.diagnosis.dto.Icd10ChapterDTO;
+import com.inf.cscb869_pharmacy.diagnosis.dto.Icd10CodeDTO;
+import com.inf.cscb869_pharmacy.diagnosis.dto.Icd10ValidationDTO;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Service implementation for the ICD-10 classification.
+ * The classification is immutable after load, so it is held in parallel sorted arrays
+ * (codes, descriptions, chapter ordinals) plus a sorted word index with postings;
+ * every lookup is a binary search over those arrays.
+ */
+@Service
+@Slf4j
+public class Icd10CatalogServiceImpl implements Icd10CatalogService {
+
+    private static final Pattern CODE_FORMAT = Pattern.compile("^[A-Z][0-9][0-9A-Z](\\.[0-9A-Z]{1,4})?$");
+    private static final Pattern CODE_LIKE = Pattern.compile("^[A-Za-z][0-9][0-9A-Za-z.]{0,6}$");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final String RANGE_END = String.valueOf(Character.MAX_VALUE);
+
+    private final Resource classification;
+    private final boolean strictValidation;
+
+    private volatile Index index = Index.EMPTY;
+
+    public Icd10CatalogServiceImpl(
+            @Value("${pharmacy.icd10.classification:classpath:icd10/icd10-codes.tsv}") Resource classification,
+            @Value("${pharmacy.icd10.strict-validation:false}") boolean strictValidation) {
+        this.classification = classification;
+        this.strictValidation = strictValidation;
+    }
+
+    @PostConstruct
+    public void load() {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(classification.getInputStream(), StandardCharsets.UTF_8))) {
+            index = Index.read(reader);
+            log.info("Loaded {} ICD-10 codes in {} chapters", index.codes.length, index.chapters.length);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read ICD-10 classification from " + classification, e);
+        }
+    }
+
+    @Override
+    public List<Icd10CodeDTO> suggest(String query, int limit) {
+        if (query == null || query.isBlank() || limit <= 0) {
+            return List.of();
+        }
+        String trimmed = query.trim();
+        return CODE_LIKE.matcher(trimmed).matches()
+                ? findByPrefix(trimmed, limit)
+                : searchDescriptions(trimmed, limit);
+    }
+
+    @Override
+    public List<Icd10CodeDTO> findByPrefix(String prefix, int limit) {
+        String canonical = canonicalize(prefix);
+        if (canonical == null || limit <= 0) {
+            return List.of();
+        }
+        Index current = index;
+        return current.slice(current.lowerBound(canonical), current.lowerBound(canonical + RANGE_END), limit);
+    }
+
+    @Override
+    public List<Icd10CodeDTO> searchDescriptions(String keywords, int limit) {
+        List<String> words = tokenize(keywords);
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Index current = index;
+        BitSet matches = null;
+        for (String word : words) {
+            BitSet wordMatches = current.codesWithWordPrefix(word);
+            if (matches == null) {
+                matches = wordMatches;
+            } else {
+                matches.and(wordMatches);
+            }
+            if (matches.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        List<Icd10CodeDTO> result = new ArrayList<>();
+        for (int i = matches.nextSetBit(0); i >= 0 && result.size() < limit; i = matches.nextSetBit(i + 1)) {
+            result.add(current.toDto(i));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Icd10ChapterDTO> getChapters() {
+        return Arrays.stream(index.chapters)
+                .map(Chapter::toDto)
+                .toList();
+    }
+
+    @Override
+    public List<Icd10CodeDTO> getCodesInChapter(String chapter, int limit) {
+        Chapter found = Arrays.stream(index.chapters)
+                .filter(c -> c.roman().equalsIgnoreCase(chapter != null ? chapter.trim() : ""))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("ICD-10 chapter not found: " + chapter));
+        return getCodesInRange(found.firstCategory(), found.lastCategory(), limit);
+    }
+
+    @Override
+    public List<Icd10CodeDTO> getCodesInRange(String fromCategory, String toCategory, int limit) {
+        String from = canonicalize(fromCategory);
+        String to = canonicalize(toCategory);
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Both range bounds are required");
+        }
+        if (from.compareTo(to) > 0) {
+            throw new IllegalArgumentException("Range start " + from + " is after range end " + to);
+        }
+        Index current = index;
+        return current.slice(current.lowerBound(from), current.lowerBound(to + RANGE_END), limit);
+    }
+
+    @Override
+    public Optional<Icd10CodeDTO> findCode(String code) {
+        String canonical = canonicalize(code);
+        if (canonical == null) {
+            return Optional.empty();
+        }
+        Index current = index;
+        int position = current.indexOf(canonical);
+        return position >= 0 ? Optional.of(current.toDto(position)) : Optional.empty();
+    }
+
+    @Override
+    public Icd10ValidationDTO validate(String code) {
+        String canonical = canonicalize(code);
+        boolean validFormat = canonical != null && CODE_FORMAT.matcher(canonical).matches();
+        Icd10ValidationDTO result = Icd10ValidationDTO.builder()
+                .input(code)
+                .code(validFormat ? canonical : null)
+                .validFormat(validFormat)
+                .build();
+        if (!validFormat) {
+            return result;
+        }
+
+        Index current = index;
+        int position = current.indexOf(canonical);
+        result.setKnown(position >= 0);
+        if (position >= 0) {
+            result.setDescription(current.descriptions[position]);
+        }
+        Chapter chapter = current.chapterFor(canonical);
+        result.setChapter(chapter != null ? chapter.roman() : null);
+        return result;
+    }
+
+    @Override
+    public String resolveCode(String code) {
+        String canonical = canonicalize(code);
+        if (canonical == null) {
+            return null;
+        }
+        boolean validFormat = CODE_FORMAT.matcher(canonical).matches();
+        if (strictValidation) {
+            if (!validFormat) {
+                throw new IllegalArgumentException("Invalid ICD-10 code format: " + code);
+            }
+            if (index.indexOf(canonical) < 0) {
+                throw new IllegalArgumentException("Unknown ICD-10 code: " + canonical);
+            }
+        }
+        return validFormat ? canonical : code.trim();
+    }
+
+    /**
+     * Upper-cases, strips whitespace and restores the dot after the category ({@code j 209} -> {@code J20.9}).
+     */
+    static String canonicalize(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        String compact = WHITESPACE.matcher(raw).replaceAll("").toUpperCase(Locale.ROOT);
+        if (compact.isEmpty()) {
+            return null;
+        }
+        if (compact.length() > 3 && compact.charAt(3) != '.') {
+            compact = compact.substring(0, 3) + "." + compact.substring(3);
+        }
+        return compact;
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return Arrays.stream(WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(word -> word.length() >= 2)
+                .distinct()
+                .toList();
+    }
+
+    private static int lowerBound(String[] sorted, String key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private record Chapter(String roman, String firstCategory, String lastCategory, String title) {
+
+        private Icd10ChapterDTO toDto() {
+            return Icd10ChapterDTO.builder()
+                    .chapter(roman)
+                    .firstCategory(firstCategory)
+                    .lastCategory(lastCategory)
+                    .title(title)
+                    .build();
+        }
+    }
+
+    private static final class Index {
+
+        private static final Index EMPTY = new Index(
+                new String[0], new String[0], new byte[0], new Chapter[0], new String[0], new int[0][]);
+
+        private final String[] codes;
+        private final String[] descriptions;
+        private final byte[] chapterOf;
+        private final Chapter[] chapters;
+        private final String[] words;
+        private final int[][] postings;
+
+        private Index(String[] codes, String[] descriptions, byte[] chapterOf,
+                      Chapter[] chapters, String[] words, int[][] postings) {
+            this.codes = codes;
+            this.descriptions = descriptions;
+            this.chapterOf = chapterOf;
+            this.chapters = chapters;
+            this.words = words;
+            this.postings = postings;
+        }
+
+        private static Index read(BufferedReader reader) throws IOException {
+            List<Chapter> chapterList = new ArrayList<>();
+            TreeMap<String, String> entries = new TreeMap<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split("\t");
+                if (line.startsWith("@") && parts.length >= 4) {
+                    chapterList.add(new Chapter(parts[0].substring(1).trim(), parts[1].trim(),
+                            parts[2].trim(), parts[3].trim()));
+                } else if (parts.length >= 2) {
+                    String code = canonicalize(parts[0]);
+                    if (code != null && CODE_FORMAT.matcher(code).matches()) {
+                        entries.put(code, parts[1].trim());
+                    }
+                }
+            }
+            chapterList.sort(Comparator.comparing(Chapter::firstCategory));
+            Chapter[] chapters = chapterList.toArray(Chapter[]::new);
+
+            int size = entries.size();
+            String[] codes = new String[size];
+            String[] descriptions = new String[size];
+            byte[] chapterOf = new byte[size];
+            TreeMap<String, List<Integer>> wordPostings = new TreeMap<>();
+            int ordinal = 0;
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                codes[ordinal] = entry.getKey();
+                descriptions[ordinal] = entry.getValue();
+                chapterOf[ordinal] = (byte) chapterOrdinal(chapters, entry.getKey());
+                for (String word : tokenize(entry.getValue())) {
+                    wordPostings.computeIfAbsent(word, key -> new ArrayList<>()).add(ordinal);
+                }
+                ordinal++;
+            }
+
+            String[] words = wordPostings.keySet().toArray(String[]::new);
+            int[][] postings = new int[words.length][];
+            for (int i = 0; i < words.length; i++) {
+                postings[i] = wordPostings.get(words[i]).stream().mapToInt(Integer::intValue).toArray();
+            }
+            return new Index(codes, descriptions, chapterOf, chapters, words, postings);
+        }
+
+        private static int chapterOrdinal(Chapter[] chapters, String code) {
+            String category = code.substring(0, Math.min(3, code.length()));
+            int low = 0;
+            int high = chapters.length - 1;
+            int found = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (chapters[mid].firstCategory().compareTo(category) <= 0) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return found >= 0 && category.compareTo(chapters[found].lastCategory()) <= 0 ? found : -1;
+        }
+
+        private int lowerBound(String key) {
+            return Icd10CatalogServiceImpl.lowerBound(codes, key);
+        }
+
+        private int indexOf(String code) {
+            int position = Arrays.binarySearch(codes, code);
+            return position >= 0 ? position : -1;
+        }
+
+        private Chapter chapterFor(String code) {
+            int ordinal = chapterOrdinal(chapters, code);
+            return ordinal >= 0 ? chapters[ordinal] : null;
+        }
+
+        private BitSet codesWithWordPrefix(String prefix) {
+            BitSet result = new BitSet(codes.length);
+            int to = Icd10CatalogServiceImpl.lowerBound(words, prefix + RANGE_END);
+            for (int w = Icd10CatalogServiceImpl.lowerBound(words, prefix); w < to; w++) {
+                for (int ordinal : postings[w]) {
+                    result.set(ordinal);
+                }
+            }
+            return result;
+        }
+
+        private List<Icd10CodeDTO> slice(int from, int to, int limit) {
+            List<Icd10CodeDTO> result = new ArrayList<>(Math.max(0, Math.min(to - from, limit)));
+            for (int i = from; i < to && result.size() < limit; i++) {
+                result.add(toDto(i));
+            }
+            return result;
+        }
+
+        private Icd10CodeDTO toDto(int ordinal) {
+            return Icd10CodeDTO.builder()
+                    .code(codes[ordinal])
+                    .description(descriptions[ordinal])
+                    .chapter(chapterOf[ordinal] >= 0 ? chapters[chapterOf[ordinal]].roman() : null)
+                    .build();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.inf.cscb869_pharmacy.doctor.entity;
 
+import com.inf.cscb869_pharmacy.cache.ReferenceDataCache;
 import com.inf.cscb869_pharmacy.common.BaseEntity;
 import com.inf.cscb869_pharmacy.customer.entity.Customer;
 import com.inf.cscb869_pharmacy.recipe.entity.Recipe;
@@ -9,11 +10,15 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataCache.DOCTORS)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -1,8 +1,12 @@
 package com.inf.cscb869_pharmacy.doctor.repository;
 
+import com.inf.cscb869_pharmacy.cache.ReferenceDataCache;
 import com.inf.cscb869_pharmacy.doctor.entity.Doctor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,12 +15,27 @@ import java.util.Optional;
 @Repository
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.LOOKUPS)
+    })
+    @Override
+    List<Doctor> findAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.LOOKUPS)
+    })
     Optional<Doctor> findByLicenseNumber(String licenseNumber);
 
     List<Doctor> findByIsPrimaryDoctorTrue();
 
     List<Doctor> findBySpecialty(String specialty);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.LOOKUPS)
+    })
     Optional<Doctor> findByEmailIgnoreCase(String email);
 
     @Query("SELECT d.name, COUNT(c) FROM Doctor d LEFT JOIN Customer c ON c.primaryDoctor = d GROUP BY d.id, d.name")
@@ -1,5 +1,6 @@
 package com.inf.cscb869_pharmacy.doctor.service.impl;
 
+import com.inf.cscb869_pharmacy.cache.ReferenceDataCache;
 import com.inf.cscb869_pharmacy.doctor.entity.Doctor;
 import com.inf.cscb869_pharmacy.doctor.repository.DoctorRepository;
 import com.inf.cscb869_pharmacy.doctor.service.DoctorService;
@@ -14,6 +15,7 @@ import java.util.Optional;
 public class DoctorServiceImpl implements DoctorService {
 
     private final DoctorRepository doctorRepository;
+    private final ReferenceDataCache referenceDataCache;
 
     @Override
     public List<Doctor> getDoctors() {
@@ -28,23 +30,28 @@ public class DoctorServiceImpl implements DoctorService {
 
     @Override
     public Doctor createDoctor(Doctor doctor) {
-        return this.doctorRepository.save(doctor);
+        Doctor saved = this.doctorRepository.save(doctor);
+        this.referenceDataCache.evictDoctor(saved.getId());
+        return saved;
     }
 
     @Override
     public Doctor updateDoctor(Doctor doctor, long id) {
-        return this.doctorRepository.findById(id)
+        Doctor saved = this.doctorRepository.findById(id)
                 .map(doctor1 -> {
                     doctor1.setName(doctor.getName());
                     return this.doctorRepository.save(doctor1);
                 }).orElseGet(()->
                         this.doctorRepository.save(doctor)
                 );
+        this.referenceDataCache.evictDoctor(saved.getId());
+        return saved;
     }
 
     @Override
     public void deleteDoctor(long id) {
         this.doctorRepository.deleteById(id);
+        this.referenceDataCache.evictDoctor(id);
     }
 
     @Override
@@ -0,0 +1,58 @@
+package com.inf.cscb869_pharmacy.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * {@link JobLock} on Postgres session-level advisory locks, keyed by (a fixed job namespace, hash of the job name).
+ * The lock lives on a connection held for the whole run, so a node that dies mid-run releases it with its session.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "pharmacy.jobs.lock", havingValue = "advisory", matchIfMissing = true)
+public class AdvisoryJobLock implements JobLock {
+
+    /** First key of every job lock, so job locks cannot collide with advisory locks taken for anything else. */
+    static final int NAMESPACE = 0x4A4F4253;
+
+    private final DataSource dataSource;
+
+    @Override
+    public boolean runExclusively(String jobName, Runnable work) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!call(connection, "SELECT pg_try_advisory_lock(?, ?)", jobName)) {
+                return false;
+            }
+            try {
+                work.run();
+            } finally {
+                if (!call(connection, "SELECT pg_advisory_unlock(?, ?)", jobName)) {
+                    log.warn("Advisory lock of job {} was already released", jobName);
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Could not lock job " + jobName, e);
+        }
+    }
+
+    private static boolean call(Connection connection, String sql, String jobName) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, NAMESPACE);
+            statement.setInt(2, jobName.hashCode());
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        }
+    }
+}
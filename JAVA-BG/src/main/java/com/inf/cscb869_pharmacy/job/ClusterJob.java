@@ -0,0 +1,24 @@
+package com.inf.cscb869_pharmacy.job;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a scheduled method on one node of the cluster at a time, under the {@link JobLock} named {@code value}.
+ * Nodes that find the lock taken, or a run started less than {@code minIntervalString} ms ago, skip their turn.
+ * Each run is recorded in {@code job_run}; a method returning a number reports it as the rows affected.
+ * Only for work on shared data: node-local state (in-memory queues, spool files) still needs every node.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ClusterJob {
+
+    String value();
+
+    /**
+     * Milliseconds, placeholders allowed; empty means no minimum.
+     */
+    String minIntervalString() default "";
+}
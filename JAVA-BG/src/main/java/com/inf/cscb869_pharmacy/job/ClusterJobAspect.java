@@ -0,0 +1,72 @@
+package com.inf.cscb869_pharmacy.job;
+
+import com.inf.cscb869_pharmacy.job.service.JobRunService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Applies {@link ClusterJob}. Runs outside the transaction advice, so the job's transaction starts only
+ * once this node holds the lock, and its run record is written after that transaction ends.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+@Slf4j
+public class ClusterJobAspect {
+
+    private final JobLock jobLock;
+    private final JobRunService jobRunService;
+    private final Environment environment;
+
+    @Around("@annotation(clusterJob)")
+    public Object runOnce(ProceedingJoinPoint joinPoint, ClusterJob clusterJob) throws Throwable {
+        String jobName = clusterJob.value();
+        Duration minInterval = minInterval(clusterJob);
+        Object[] result = new Object[1];
+        Throwable[] failure = new Throwable[1];
+
+        boolean locked = jobLock.runExclusively(jobName, () -> {
+            if (jobRunService.ranWithin(jobName, minInterval)) {
+                log.debug("Job {} already ran on another node within {}", jobName, minInterval);
+                return;
+            }
+            LocalDateTime startedAt = LocalDateTime.now();
+            long start = System.nanoTime();
+            try {
+                result[0] = joinPoint.proceed();
+            } catch (Throwable e) {
+                failure[0] = e;
+            }
+            Duration duration = Duration.ofNanos(System.nanoTime() - start);
+            jobRunService.recordRun(jobName, startedAt, duration, rowsAffected(result[0]), failure[0]);
+            log.info("Job {} finished in {} ms", jobName, duration.toMillis());
+        });
+        if (!locked) {
+            log.debug("Job {} is running on another node, skipping", jobName);
+        }
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        return result[0];
+    }
+
+    private Duration minInterval(ClusterJob clusterJob) {
+        String value = environment.resolvePlaceholders(clusterJob.minIntervalString());
+        return value.isBlank() ? Duration.ZERO : Duration.ofMillis(Long.parseLong(value.trim()));
+    }
+
+    private static Long rowsAffected(Object result) {
+        return result instanceof Number rows ? rows.longValue() : null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.inf.cscb869_pharmacy.job;
+
+/**
+ * Cluster-wide mutual exclusion for named jobs. Never waits: a node that cannot take the lock skips the run.
+ */
+public interface JobLock {
+
+    /**
+     * Runs {@code work} while holding the lock named {@code jobName}.
+     *
+     * @return false when another node holds the lock and nothing ran
+     */
+    boolean runExclusively(String jobName, Runnable work);
+}
@@ -0,0 +1,71 @@
+package com.inf.cscb869_pharmacy.job;
+
+import com.inf.cscb869_pharmacy.job.entity.JobRun;
+import com.inf.cscb869_pharmacy.job.repository.JobRunRepository;
+import com.inf.cscb869_pharmacy.util.CurrentNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * {@link JobLock} on a lease held in the job's {@code job_run} row, for databases without advisory locks (H2 in tests).
+ * A lease expires after {@code pharmacy.jobs.lease-ms}, so a node that dies mid-run blocks the job that long at most;
+ * runs must finish well within it.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "pharmacy.jobs.lock", havingValue = "lease")
+public class LeaseJobLock implements JobLock {
+
+    private final JobRunRepository jobRunRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration leaseDuration;
+
+    public LeaseJobLock(JobRunRepository jobRunRepository,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${pharmacy.jobs.lease-ms:600000}") long leaseMs) {
+        this.jobRunRepository = jobRunRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.leaseDuration = Duration.ofMillis(leaseMs);
+    }
+
+    @Override
+    public boolean runExclusively(String jobName, Runnable work) {
+        createRowIfMissing(jobName);
+        String owner = CurrentNode.NAME + "/" + UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        Integer acquired = transactionTemplate.execute(status ->
+                jobRunRepository.acquireLease(jobName, owner, now, now.plus(leaseDuration)));
+        if (acquired == null || acquired == 0) {
+            return false;
+        }
+        try {
+            work.run();
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> jobRunRepository.releaseLease(jobName, owner));
+        }
+        return true;
+    }
+
+    private void createRowIfMissing(String jobName) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (jobRunRepository.findByJobName(jobName).isEmpty()) {
+                    jobRunRepository.save(JobRun.builder().jobName(jobName).build());
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Job {} row was created by another node", jobName);
+        }
+    }
+}
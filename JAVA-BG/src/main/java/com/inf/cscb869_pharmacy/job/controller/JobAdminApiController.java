@@ -0,0 +1,36 @@
+package com.inf.cscb869_pharmacy.job.controller;
+
+import com.inf.cscb869_pharmacy.job.dto.JobRunDTO;
+import com.inf.cscb869_pharmacy.job.service.JobRunService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST API Controller for the status of cluster jobs (admin only)
+ * Последно изпълнение на фоновите задачи
+ */
+@RestController
+@RequestMapping("/api/admin/jobs")
+@RequiredArgsConstructor
+public class JobAdminApiController {
+
+    private final JobRunService jobRunService;
+
+    @GetMapping
+    public ResponseEntity<List<JobRunDTO>> getJobRuns() {
+        return ResponseEntity.ok(jobRunService.getJobRuns());
+    }
+
+    @GetMapping("/{jobName}")
+    public ResponseEntity<JobRunDTO> getJobRun(@PathVariable String jobName) {
+        return jobRunService.getJobRun(jobName)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,27 @@
+package com.inf.cscb869_pharmacy.job.dto;
+
+import com.inf.cscb869_pharmacy.job.entity.JobRunStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last run of a cluster job; {@code lastRowsAffected} is null for jobs that do not report it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobRunDTO {
+    private String jobName;
+    private JobRunStatus lastStatus;
+    private LocalDateTime lastStartedAt;
+    private Long lastDurationMs;
+    private Long lastRowsAffected;
+    private String lastError;
+    private String lastNode;
+    private Long runCount;
+}
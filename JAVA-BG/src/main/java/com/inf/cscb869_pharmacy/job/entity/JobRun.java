@@ -0,0 +1,64 @@
+package com.inf.cscb869_pharmacy.job.entity;
+
+import com.inf.cscb869_pharmacy.common.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last run of one cluster job, whichever node ran it; also holds the job's lease when locking by lease.
+ */
+@Entity
+@Table(name = "job_run",
+        uniqueConstraints = @UniqueConstraint(name = "uk_job_run_job_name", columnNames = "job_name"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobRun extends BaseEntity {
+
+    @Column(name = "job_name", nullable = false, length = 100)
+    private String jobName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "last_status", length = 20)
+    private JobRunStatus lastStatus;
+
+    @Column(name = "last_started_at")
+    private LocalDateTime lastStartedAt;
+
+    @Column(name = "last_duration_ms")
+    private Long lastDurationMs;
+
+    @Column(name = "last_rows_affected")
+    private Long lastRowsAffected;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "last_node", length = 255)
+    private String lastNode;
+
+    @Column(name = "run_count", nullable = false)
+    @Builder.Default
+    private Long runCount = 0L;
+
+    @Column(name = "lease_owner", length = 300)
+    private String leaseOwner;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Override
+    public String toString() {
+        return "JobRun{" +
+                "id=" + getId() +
+                ", jobName='" + jobName + '\'' +
+                ", lastStatus=" + lastStatus +
+                ", lastStartedAt=" + lastStartedAt +
+                ", lastNode='" + lastNode + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,6 @@
+package com.inf.cscb869_pharmacy.job.entity;
+
+public enum JobRunStatus {
+    SUCCEEDED,
+    FAILED
+}
@@ -0,0 +1,36 @@
+package com.inf.cscb869_pharmacy.job.repository;
+
+import com.inf.cscb869_pharmacy.job.entity.JobRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface JobRunRepository extends JpaRepository<JobRun, Long> {
+
+    Optional<JobRun> findByJobName(String jobName);
+
+    List<JobRun> findAllByOrderByJobNameAsc();
+
+    /**
+     * Takes the lease when it is free or expired; 1 when taken, 0 when another owner holds it.
+     */
+    @Modifying
+    @Query("UPDATE JobRun j SET j.leaseOwner = :owner, j.leaseUntil = :until " +
+            "WHERE j.jobName = :jobName AND (j.leaseUntil IS NULL OR j.leaseUntil < :now)")
+    int acquireLease(@Param("jobName") String jobName,
+                     @Param("owner") String owner,
+                     @Param("now") LocalDateTime now,
+                     @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("UPDATE JobRun j SET j.leaseOwner = NULL, j.leaseUntil = NULL " +
+            "WHERE j.jobName = :jobName AND j.leaseOwner = :owner")
+    int releaseLease(@Param("jobName") String jobName, @Param("owner") String owner);
+}
@@ -0,0 +1,29 @@
+package com.inf.cscb869_pharmacy.job.service;
+
+import com.inf.cscb869_pharmacy.job.dto.JobRunDTO;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Run history of the cluster jobs
+ * Статус на фоновите задачи в клъстера
+ */
+public interface JobRunService {
+
+    /**
+     * Whether any node started the job less than {@code interval} ago.
+     */
+    boolean ranWithin(String jobName, Duration interval);
+
+    /**
+     * Records a finished run; {@code error} is null when it succeeded.
+     */
+    void recordRun(String jobName, LocalDateTime startedAt, Duration duration, Long rowsAffected, Throwable error);
+
+    List<JobRunDTO> getJobRuns();
+
+    Optional<JobRunDTO> getJobRun(String jobName);
+}
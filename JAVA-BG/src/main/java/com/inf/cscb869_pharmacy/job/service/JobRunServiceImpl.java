@@ -0,0 +1,88 @@
+package com.inf.cscb869_pharmacy.job.service;
+
+import com.inf.cscb869_pharmacy.job.dto.JobRunDTO;
+import com.inf.cscb869_pharmacy.job.entity.JobRun;
+import com.inf.cscb869_pharmacy.job.entity.JobRunStatus;
+import com.inf.cscb869_pharmacy.job.repository.JobRunRepository;
+import com.inf.cscb869_pharmacy.util.CurrentNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service implementation for the cluster job run history.
+ * Runs are recorded in a transaction of their own, so a failed job still leaves its record.
+ * The check before a run is read-write as well, to be answered by the primary rather than a lagging replica.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class JobRunServiceImpl implements JobRunService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JobRunRepository jobRunRepository;
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean ranWithin(String jobName, Duration interval) {
+        if (interval.isZero()) {
+            return false;
+        }
+        LocalDateTime since = LocalDateTime.now().minus(interval);
+        return jobRunRepository.findByJobName(jobName)
+                .map(JobRun::getLastStartedAt)
+                .filter(startedAt -> startedAt.isAfter(since))
+                .isPresent();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void recordRun(String jobName, LocalDateTime startedAt, Duration duration, Long rowsAffected, Throwable error) {
+        JobRun run = jobRunRepository.findByJobName(jobName)
+                .orElseGet(() -> JobRun.builder().jobName(jobName).build());
+        run.setLastStatus(error == null ? JobRunStatus.SUCCEEDED : JobRunStatus.FAILED);
+        run.setLastStartedAt(startedAt);
+        run.setLastDurationMs(duration.toMillis());
+        run.setLastRowsAffected(rowsAffected);
+        run.setLastError(error == null ? null : truncate(String.valueOf(error.getMessage())));
+        run.setLastNode(CurrentNode.NAME);
+        run.setRunCount(run.getRunCount() + 1);
+        jobRunRepository.save(run);
+    }
+
+    @Override
+    public List<JobRunDTO> getJobRuns() {
+        return jobRunRepository.findAllByOrderByJobNameAsc().stream()
+                .map(JobRunServiceImpl::toDTO)
+                .toList();
+    }
+
+    @Override
+    public Optional<JobRunDTO> getJobRun(String jobName) {
+        return jobRunRepository.findByJobName(jobName).map(JobRunServiceImpl::toDTO);
+    }
+
+    private static JobRunDTO toDTO(JobRun run) {
+        return JobRunDTO.builder()
+                .jobName(run.getJobName())
+                .lastStatus(run.getLastStatus())
+                .lastStartedAt(run.getLastStartedAt())
+                .lastDurationMs(run.getLastDurationMs())
+                .lastRowsAffected(run.getLastRowsAffected())
+                .lastError(run.getLastError())
+                .lastNode(run.getLastNode())
+                .runCount(run.getRunCount())
+                .build();
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -1,6 +1,8 @@
 package com.inf.cscb869_pharmacy.medicine.entity;
 
+import com.inf.cscb869_pharmacy.cache.ReferenceDataCache;
 import com.inf.cscb869_pharmacy.common.BaseEntity;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -8,8 +10,12 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataCache.MEDICINES)
 @Getter
 @Setter
 public class Medicine extends BaseEntity {
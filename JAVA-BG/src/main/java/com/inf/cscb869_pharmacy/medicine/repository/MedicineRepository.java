@@ -1,11 +1,22 @@
 package com.inf.cscb869_pharmacy.medicine.repository;
 
+import com.inf.cscb869_pharmacy.cache.ReferenceDataCache;
 import com.inf.cscb869_pharmacy.medicine.entity.Medicine;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 
 public interface MedicineRepository extends JpaRepository<Medicine, Long> {
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.LOOKUPS)
+    })
+    @Override
+    List<Medicine> findAll();
+
     List<Medicine> findByName(String name);
     List<Medicine> findByNameStartsWith(String name);
     List<Medicine> findByNameStartsWithAndAgeAppropriatenessGreaterThan(String name, int age);
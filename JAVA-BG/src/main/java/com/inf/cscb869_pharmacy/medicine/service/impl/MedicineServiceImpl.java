@@ -1,5 +1,6 @@
 package com.inf.cscb869_pharmacy.medicine.service.impl;
 
+import com.inf.cscb869_pharmacy.cache.ReferenceDataCache;
 import com.inf.cscb869_pharmacy.medicine.entity.Medicine;
 import com.inf.cscb869_pharmacy.medicine.repository.MedicineRepository;
 import com.inf.cscb869_pharmacy.medicine.dto.CreateMedicineDTO;
@@ -17,6 +18,7 @@ public class MedicineServiceImpl implements MedicineService {
 
     private final MedicineRepository medicineRepository;
     private final MapperUtil mapperUtil;
+    private final ReferenceDataCache referenceDataCache;
 
     @Override
     public List<MedicineDTO> getMedicines() {
@@ -33,13 +35,14 @@ public class MedicineServiceImpl implements MedicineService {
 
     @Override
     public CreateMedicineDTO createMedicine(CreateMedicineDTO medicine) {
-        return mapperUtil.getModelMapper()
-                .map(this.medicineRepository.save(mapperUtil.getModelMapper().map(medicine, Medicine.class)), CreateMedicineDTO.class);
+        Medicine saved = this.medicineRepository.save(mapperUtil.getModelMapper().map(medicine, Medicine.class));
+        this.referenceDataCache.evictMedicine(saved.getId());
+        return mapperUtil.getModelMapper().map(saved, CreateMedicineDTO.class);
     }
 
     @Override
     public Medicine updateMedicine(Medicine medicine, long id) {
-        return this.medicineRepository.findById(id)
+        Medicine saved = this.medicineRepository.findById(id)
                 .map(existingMedicine -> {
                     // Update all fields
                     existingMedicine.setName(medicine.getName());
@@ -49,11 +52,14 @@ public class MedicineServiceImpl implements MedicineService {
                 }).orElseThrow(() ->
                         new RuntimeException("Medicine with id=" + id + " not found!")
                 );
+        this.referenceDataCache.evictMedicine(id);
+        return saved;
     }
 
     @Override
     public void deleteMedicine(long id) {
         this.medicineRepository.deleteById(id);
+        this.referenceDataCache.evictMedicine(id);
     }
 
     @Override
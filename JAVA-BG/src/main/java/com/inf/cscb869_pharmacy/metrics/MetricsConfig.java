@@ -0,0 +1,22 @@
+package com.inf.cscb869_pharmacy.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables {@code @Timed} on service classes; the timers are published as {@code pharmacy.service}
+ * tagged with the class and method. Endpoint, repository, Hikari and Hibernate metrics come from
+ * Spring Boot's auto-configuration (see the {@code management.*} properties).
+ */
+@Configuration
+public class MetricsConfig {
+
+    public static final String SERVICE_TIMER = "pharmacy.service";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
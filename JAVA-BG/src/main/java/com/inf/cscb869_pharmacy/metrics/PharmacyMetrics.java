@@ -0,0 +1,34 @@
+package com.inf.cscb869_pharmacy.metrics;
+
+import com.inf.cscb869_pharmacy.util.TransactionCallbacks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Business counters exported next to the technical metrics.
+ * Counts move only after the writing transaction commits, so rolled back writes are never counted.
+ */
+@Component
+public class PharmacyMetrics {
+
+    private final Counter recipesCreated;
+    private final Counter sickLeavesIssued;
+
+    public PharmacyMetrics(MeterRegistry registry) {
+        this.recipesCreated = Counter.builder("pharmacy.recipes.created")
+                .description("Recipes created")
+                .register(registry);
+        this.sickLeavesIssued = Counter.builder("pharmacy.sick.leaves.issued")
+                .description("Sick leaves issued")
+                .register(registry);
+    }
+
+    public void recipeCreated() {
+        TransactionCallbacks.afterCommit(recipesCreated::increment);
+    }
+
+    public void sickLeaveIssued() {
+        TransactionCallbacks.afterCommit(sickLeavesIssued::increment);
+    }
+}
@@ -0,0 +1,99 @@
+package com.inf.cscb869_pharmacy.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Counts the SQL statements of each controller request, including lazy loads while the view renders.
+ * Requests over their {@link QueryBudget} and statements repeated with different parameters are logged
+ * and counted, so pages that drift into N+1 loading show up before they reach production.
+ */
+@Component
+@Slf4j
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+
+    private static final String SCOPE_ATTRIBUTE = QueryBudgetInterceptor.class.getName() + ".scope";
+
+    private final ObjectProvider<MeterRegistry> registry;
+    private final int defaultMaxStatements;
+    private final int repeatedStatementThreshold;
+
+    public QueryBudgetInterceptor(ObjectProvider<MeterRegistry> registry,
+                                  @Value("${pharmacy.sql-budget.default-max-statements:50}") int defaultMaxStatements,
+                                  @Value("${pharmacy.sql-budget.repeated-statement-threshold:10}") int repeatedStatementThreshold) {
+        this.registry = registry;
+        this.defaultMaxStatements = defaultMaxStatements;
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod && request.getAttribute(SCOPE_ATTRIBUTE) == null) {
+            request.setAttribute(SCOPE_ATTRIBUTE, SqlStatementRecorder.open());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(SCOPE_ATTRIBUTE) instanceof SqlStatementRecorder.Scope scope)) {
+            return;
+        }
+        request.removeAttribute(SCOPE_ATTRIBUTE);
+        scope.close();
+
+        String endpoint = endpoint(request);
+        int statements = scope.statementCount();
+        int budget = budget((HandlerMethod) handler);
+        MeterRegistry meters = registry.getIfAvailable();
+        if (meters != null) {
+            DistributionSummary.builder("http.server.requests.sql.statements")
+                    .description("SQL statements issued per request")
+                    .tag("endpoint", endpoint)
+                    .register(meters)
+                    .record(statements);
+        }
+
+        if (statements > budget) {
+            log.warn("{} issued {} SQL statements, budget is {}", endpoint, statements, budget);
+            count(meters, "pharmacy.sql.budget.exceeded", endpoint);
+        }
+        Map<String, Integer> repeated = scope.repeatedStatements(repeatedStatementThreshold);
+        if (!repeated.isEmpty()) {
+            repeated.forEach((sql, count) -> log.warn("Possible N+1 in {}: statement ran {} times: {}", endpoint, count, sql));
+            count(meters, "pharmacy.sql.repeated.statements", endpoint);
+        }
+    }
+
+    private int budget(HandlerMethod handler) {
+        QueryBudget budget = AnnotatedElementUtils.findMergedAnnotation(handler.getMethod(), QueryBudget.class);
+        if (budget == null) {
+            budget = AnnotatedElementUtils.findMergedAnnotation(handler.getBeanType(), QueryBudget.class);
+        }
+        return budget != null ? budget.value() : defaultMaxStatements;
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+
+    private static void count(MeterRegistry meters, String name, String endpoint) {
+        if (meters != null) {
+            Counter.builder(name).tag("endpoint", endpoint).register(meters).increment();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.inf.cscb869_pharmacy.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the per-request SQL statement budget check on all controllers.
+ */
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "pharmacy.sql-budget.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryBudgetWebConfig implements WebMvcConfigurer {
+
+    private final QueryBudgetInterceptor queryBudgetInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(queryBudgetInterceptor);
+    }
+}
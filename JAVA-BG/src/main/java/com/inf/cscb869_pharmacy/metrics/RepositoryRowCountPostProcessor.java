@@ -0,0 +1,82 @@
+package com.inf.cscb869_pharmacy.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.BaseStream;
+
+/**
+ * Records how many rows each repository method returns, next to the
+ * {@code spring.data.repository.invocations} timers Spring Boot already publishes.
+ * Streams are left out because counting them would consume them; counts, flags and void methods are not rows.
+ */
+@Component
+public class RepositoryRowCountPostProcessor implements BeanPostProcessor {
+
+    static final String METRIC_NAME = "spring.data.repository.rows";
+
+    private final ObjectProvider<MeterRegistry> registry;
+
+    public RepositoryRowCountPostProcessor(ObjectProvider<MeterRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) -> {
+                        String repository = repositoryInformation.getRepositoryInterface().getSimpleName();
+                        proxyFactory.addAdvice(rowCounter(repository));
+                    }));
+        }
+        return bean;
+    }
+
+    private MethodInterceptor rowCounter(String repository) {
+        return invocation -> {
+            Object result = invocation.proceed();
+            long rows = invocation.getMethod().getReturnType() == void.class ? -1 : rowCount(result);
+            if (rows >= 0) {
+                DistributionSummary.builder(METRIC_NAME)
+                        .description("Rows returned by repository methods")
+                        .baseUnit("rows")
+                        .tag("repository", repository)
+                        .tag("method", invocation.getMethod().getName())
+                        .register(registry.getObject())
+                        .record(rows);
+            }
+            return result;
+        };
+    }
+
+    /**
+     * Number of rows in a repository result, or -1 when the result is not a row set.
+     */
+    static long rowCount(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Number || result instanceof Boolean || result instanceof BaseStream<?, ?>) {
+            return -1;
+        }
+        return 1;
+    }
+}
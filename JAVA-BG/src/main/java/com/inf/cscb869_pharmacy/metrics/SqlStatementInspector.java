@@ -0,0 +1,17 @@
+package com.inf.cscb869_pharmacy.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate hook that feeds every prepared statement to {@link SqlStatementRecorder}.
+ * Registered by class name through {@code spring.jpa.properties.hibernate.session_factory.statement_inspector},
+ * so it is active in {@code @DataJpaTest} slices too. Leaves the SQL unchanged.
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementRecorder.record(sql);
+        return sql;
+    }
+}
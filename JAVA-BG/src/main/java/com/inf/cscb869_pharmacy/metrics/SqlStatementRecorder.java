@@ -0,0 +1,84 @@
+package com.inf.cscb869_pharmacy.metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a scope is open.
+ * Hibernate binds parameters as {@code ?}, so two executions with the same text are the same
+ * statement with different parameters; many of them in one scope usually means an N+1 load.
+ * Scopes nest: an HTTP request scope and a test scope on the same thread both see every statement.
+ */
+public final class SqlStatementRecorder {
+
+    private static final ThreadLocal<List<Scope>> OPEN_SCOPES = new ThreadLocal<>();
+
+    private SqlStatementRecorder() {
+    }
+
+    public static Scope open() {
+        List<Scope> scopes = OPEN_SCOPES.get();
+        if (scopes == null) {
+            scopes = new ArrayList<>();
+            OPEN_SCOPES.set(scopes);
+        }
+        Scope scope = new Scope();
+        scopes.add(scope);
+        return scope;
+    }
+
+    static void record(String sql) {
+        List<Scope> scopes = OPEN_SCOPES.get();
+        if (scopes == null) {
+            return;
+        }
+        for (Scope scope : scopes) {
+            scope.record(sql);
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final Map<String, Integer> executions = new LinkedHashMap<>();
+        private int statementCount;
+
+        private Scope() {
+        }
+
+        private void record(String sql) {
+            statementCount++;
+            executions.merge(sql, 1, Integer::sum);
+        }
+
+        public int statementCount() {
+            return statementCount;
+        }
+
+        /**
+         * Statements executed at least {@code minExecutions} times, with their execution counts.
+         */
+        public Map<String, Integer> repeatedStatements(int minExecutions) {
+            Map<String, Integer> repeated = new LinkedHashMap<>();
+            executions.forEach((sql, count) -> {
+                if (count >= minExecutions) {
+                    repeated.put(sql, count);
+                }
+            });
+            return repeated;
+        }
+
+        @Override
+        public void close() {
+            List<Scope> scopes = OPEN_SCOPES.get();
+            if (scopes == null) {
+                return;
+            }
+            scopes.remove(this);
+            if (scopes.isEmpty()) {
+                OPEN_SCOPES.remove();
+            }
+        }
+    }
+}
@@ -2,7 +2,7 @@ package com.inf.cscb869_pharmacy.recipe.controller;
 
 import com.inf.cscb869_pharmacy.customer.service.CustomerService;
 import com.inf.cscb869_pharmacy.diagnosis.entity.Diagnosis;
-import com.inf.cscb869_pharmacy.diagnosis.service.DiagnosisService;
+import com.inf.cscb869_pharmacy.diagnosis.service.DiagnosisCatalogService;
 import com.inf.cscb869_pharmacy.doctor.service.DoctorService;
 import com.inf.cscb869_pharmacy.medicine.entity.Medicine;
 import com.inf.cscb869_pharmacy.medicine.repository.MedicineRepository;
@@ -39,7 +39,7 @@ public class RecipeViewController {
     private final RecipeService recipeService;
     private final DoctorService doctorService;
     private final CustomerService customerService;
-    private final DiagnosisService diagnosisService;
+    private final DiagnosisCatalogService diagnosisCatalogService;
     private final MedicineService medicineService;
     private final MedicineRepository medicineRepository;
 
@@ -374,7 +374,7 @@ public class RecipeViewController {
     /**
      * Convert Entity to DTO
      */
-    private RecipeDTO convertToDTO(Recipe recipe) {
+    RecipeDTO convertToDTO(Recipe recipe) {
         List<String> selectedDiagnoses = recipe.getDiagnoses().stream()
                 .map(Diagnosis::getName)
                 .filter(name -> name != null && !name.isBlank())
@@ -462,16 +462,6 @@ public class RecipeViewController {
     }
 
     private List<String> getDiagnosisOptions() {
-        LinkedHashSet<String> options = new LinkedHashSet<>();
-
-        diagnosisService.getAllDiagnoses().stream()
-                .map(d -> d.getName())
-                .filter(name -> name != null && !name.isBlank())
-                .map(String::trim)
-                .forEach(options::add);
-
-        return options.stream()
-                .sorted(String.CASE_INSENSITIVE_ORDER)
-                .toList();
+        return diagnosisCatalogService.getDiagnosisOptions();
     }
 }
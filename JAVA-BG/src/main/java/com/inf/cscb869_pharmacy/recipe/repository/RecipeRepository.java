@@ -1,13 +1,18 @@
 package com.inf.cscb869_pharmacy.recipe.repository;
 
 import com.inf.cscb869_pharmacy.recipe.entity.Recipe;
+import com.inf.cscb869_pharmacy.report.dto.ExaminationReportDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface RecipeRepository extends JpaRepository<Recipe, Long> {
@@ -16,12 +21,12 @@ public interface RecipeRepository extends JpaRepository<Recipe, Long> {
     List<Recipe> findAllByCreationDateAndDoctorNameContains(LocalDate dateCreation, String doctorName);
     List<Recipe> findAllByCreationDateAndDoctorNameStartsWith(LocalDate dateCreation, String doctorName);
 
-    @Query("SELECT DISTINCT r FROM Recipe r JOIN r.diagnoses d " +
-            "WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :diagnosis, '%'))")
+    @Query("SELECT r FROM Recipe r WHERE EXISTS (SELECT 1 FROM Diagnosis d WHERE d.recipe = r " +
+            "AND d.normalizedName LIKE CONCAT('%', LOWER(:diagnosis), '%'))")
     List<Recipe> findByDiagnosisContainingIgnoreCase(@Param("diagnosis") String diagnosis);
 
-    @Query("SELECT COUNT(DISTINCT r.customer) FROM Recipe r JOIN r.diagnoses d " +
-            "WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :diagnosis, '%'))")
+    @Query("SELECT COUNT(DISTINCT r.customer.id) FROM Diagnosis d JOIN d.recipe r " +
+            "WHERE d.normalizedName LIKE CONCAT('%', LOWER(:diagnosis), '%')")
     long countDistinctPatientsByDiagnosis(@Param("diagnosis") String diagnosis);
 
     @Query("SELECT COUNT(DISTINCT r) FROM Recipe r JOIN r.diagnoses d " +
@@ -38,9 +43,6 @@ public interface RecipeRepository extends JpaRepository<Recipe, Long> {
 
     List<Recipe> findByCustomerIdAndSickLeaveTrueOrderByCreationDateDesc(Long customerId);
 
-    @Query("SELECT r.doctor.name, COUNT(r) FROM Recipe r WHERE r.sickLeave = TRUE GROUP BY r.doctor.id, r.doctor.name ORDER BY COUNT(r) DESC")
-    List<Object[]> countSickLeavesByDoctor();
-
     @Query("SELECT d.name, COUNT(d) as cnt FROM Diagnosis d " +
             "WHERE d.name IS NOT NULL AND TRIM(d.name) <> '' GROUP BY d.name ORDER BY cnt DESC")
     List<Object[]> findMostCommonDiagnoses();
@@ -49,13 +51,63 @@ public interface RecipeRepository extends JpaRepository<Recipe, Long> {
 
     List<Recipe> findByDoctorIdAndCreationDateBetween(Long doctorId, LocalDate startDate, LocalDate endDate);
 
-    @Query(value = "SELECT EXTRACT(YEAR FROM r.creation_date) AS yr, " +
-            "EXTRACT(MONTH FROM r.creation_date) AS mn, " +
-            "COUNT(*) AS cnt " +
+    long countByCreationDateBetween(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Trend rows: bucket start (date_trunc unit), recipe count; only non-empty buckets.
+     */
+    @Query(value = "SELECT CAST(DATE_TRUNC(:unit, r.creation_date) AS date) AS bucket, COUNT(*) " +
             "FROM recipe r " +
-            "WHERE r.sick_leave = TRUE " +
-            "GROUP BY EXTRACT(YEAR FROM r.creation_date), EXTRACT(MONTH FROM r.creation_date) " +
-            "ORDER BY EXTRACT(YEAR FROM r.creation_date) DESC, EXTRACT(MONTH FROM r.creation_date) DESC",
+            "WHERE r.creation_date BETWEEN :from AND :to " +
+            "AND (CAST(:doctorId AS bigint) IS NULL OR r.doctor_id = CAST(:doctorId AS bigint)) " +
+            "GROUP BY bucket ORDER BY bucket",
             nativeQuery = true)
-    List<Object[]> countSickLeavesByMonth();
+    List<Object[]> countByPeriod(@Param("unit") String unit,
+                                 @Param("from") LocalDate from,
+                                 @Param("to") LocalDate to,
+                                 @Param("doctorId") Long doctorId);
+
+    long countByDoctorIdAndCreationDateBetween(Long doctorId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Report projections of the patient history and examination lists.
+     */
+    @Query("SELECT new com.inf.cscb869_pharmacy.report.dto.ExaminationReportDTO(" +
+            "r.id, r.creationDate, d.id, d.name, c.id, c.name, r.status, r.expirationDate, r.sickLeave, r.sickLeaveDays) " +
+            "FROM Recipe r JOIN r.doctor d JOIN r.customer c " +
+            "WHERE c.id = :customerId ORDER BY r.creationDate DESC, r.id DESC")
+    List<ExaminationReportDTO> findExaminationReportsByCustomerId(@Param("customerId") Long customerId);
+
+    @Query("SELECT new com.inf.cscb869_pharmacy.report.dto.ExaminationReportDTO(" +
+            "r.id, r.creationDate, d.id, d.name, c.id, c.name, r.status, r.expirationDate, r.sickLeave, r.sickLeaveDays) " +
+            "FROM Recipe r JOIN r.doctor d JOIN r.customer c " +
+            "WHERE r.creationDate BETWEEN :startDate AND :endDate ORDER BY r.creationDate, r.id")
+    List<ExaminationReportDTO> findExaminationReports(@Param("startDate") LocalDate startDate,
+                                                      @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT new com.inf.cscb869_pharmacy.report.dto.ExaminationReportDTO(" +
+            "r.id, r.creationDate, d.id, d.name, c.id, c.name, r.status, r.expirationDate, r.sickLeave, r.sickLeaveDays) " +
+            "FROM Recipe r JOIN r.doctor d JOIN r.customer c " +
+            "WHERE d.id = :doctorId AND r.creationDate BETWEEN :startDate AND :endDate ORDER BY r.creationDate, r.id")
+    List<ExaminationReportDTO> findDoctorExaminationReports(@Param("doctorId") Long doctorId,
+                                                            @Param("startDate") LocalDate startDate,
+                                                            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Export rows: id, creation date, doctor, customer, status, expiration date, sick leave flag.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT r.id, r.creationDate, d.name, c.name, r.status, r.expirationDate, r.sickLeave " +
+            "FROM Recipe r JOIN r.doctor d JOIN r.customer c " +
+            "WHERE r.creationDate BETWEEN :startDate AND :endDate ORDER BY r.creationDate, r.id")
+    Stream<Object[]> streamExaminationRows(@Param("startDate") LocalDate startDate,
+                                           @Param("endDate") LocalDate endDate);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT r.id, r.creationDate, d.name, c.name, r.status, r.expirationDate, r.sickLeave " +
+            "FROM Recipe r JOIN r.doctor d JOIN r.customer c " +
+            "WHERE d.id = :doctorId AND r.creationDate BETWEEN :startDate AND :endDate ORDER BY r.creationDate, r.id")
+    Stream<Object[]> streamDoctorExaminationRows(@Param("doctorId") Long doctorId,
+                                                 @Param("startDate") LocalDate startDate,
+                                                 @Param("endDate") LocalDate endDate);
 }
@@ -1,21 +1,38 @@
 package com.inf.cscb869_pharmacy.recipe.service.impl;
 
+import com.inf.cscb869_pharmacy.bulkhead.Subsystem;
+import com.inf.cscb869_pharmacy.bulkhead.UseBulkhead;
+import com.inf.cscb869_pharmacy.diagnosis.entity.Diagnosis;
+import com.inf.cscb869_pharmacy.diagnosis.service.DiagnosisCatalogService;
+import com.inf.cscb869_pharmacy.diagnosis.service.DiagnosisCooccurrenceService;
+import com.inf.cscb869_pharmacy.metrics.MetricsConfig;
+import com.inf.cscb869_pharmacy.metrics.PharmacyMetrics;
 import com.inf.cscb869_pharmacy.recipe.dto.RecipeDTO;
 import com.inf.cscb869_pharmacy.recipe.dto.RecipeMedicineDTO;
 import com.inf.cscb869_pharmacy.recipe.entity.Recipe;
 import com.inf.cscb869_pharmacy.recipe.repository.RecipeRepository;
 import com.inf.cscb869_pharmacy.recipe.service.RecipeService;
+import com.inf.cscb869_pharmacy.sickleave.service.SickLeaveService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class RecipeServiceImpl implements RecipeService {
 
     private final RecipeRepository recipeRepository;
+    private final DiagnosisCatalogService diagnosisCatalogService;
+    private final DiagnosisCooccurrenceService diagnosisCooccurrenceService;
+    private final SickLeaveService sickLeaveService;
+    private final PharmacyMetrics pharmacyMetrics;
 
     @Override
     public List<Recipe> getRecipes() {
@@ -29,19 +46,28 @@ public class RecipeServiceImpl implements RecipeService {
     }
 
     @Override
+    @Transactional
+    @UseBulkhead(Subsystem.WRITES)
     public RecipeDTO createRecipe(Recipe recipe) {
         validateRecipe(recipe);
         Recipe savedRecipe = this.recipeRepository.save(recipe);
+        this.diagnosisCatalogService.recordChanges(List.of(), savedRecipe.getDiagnoses());
+        this.diagnosisCooccurrenceService.recordRecipeChange(List.of(), savedRecipe.getDiagnoses());
+        this.pharmacyMetrics.recipeCreated();
         return toDto(savedRecipe);
     }
 
     @Override
+    @Transactional
+    @UseBulkhead(Subsystem.WRITES)
     public RecipeDTO updateRecipe(Recipe recipe, long id) {
         Recipe existingRecipe = this.recipeRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Recipe with id=" + id + " not found!"));
 
         validateRecipe(recipe);
 
+        Long previousDoctorId = existingRecipe.getDoctor() != null ? existingRecipe.getDoctor().getId() : null;
+        Long previousCustomerId = existingRecipe.getCustomer() != null ? existingRecipe.getCustomer().getId() : null;
         existingRecipe.setCreationDate(recipe.getCreationDate());
         existingRecipe.setDoctor(recipe.getDoctor());
         existingRecipe.setCustomer(recipe.getCustomer());
@@ -49,6 +75,7 @@ public class RecipeServiceImpl implements RecipeService {
         existingRecipe.setNotes(recipe.getNotes());
         existingRecipe.setExpirationDate(recipe.getExpirationDate());
 
+        List<Diagnosis> previousDiagnoses = new ArrayList<>(existingRecipe.getDiagnoses());
         existingRecipe.getDiagnoses().clear();
         if (recipe.getDiagnoses() != null) {
             recipe.getDiagnoses().forEach(diagnosis -> {
@@ -63,12 +90,31 @@ public class RecipeServiceImpl implements RecipeService {
         }
 
         Recipe savedRecipe = this.recipeRepository.save(existingRecipe);
+        this.diagnosisCatalogService.recordChanges(previousDiagnoses, savedRecipe.getDiagnoses());
+        this.diagnosisCooccurrenceService.recordRecipeChange(previousDiagnoses, savedRecipe.getDiagnoses());
+        Long doctorId = savedRecipe.getDoctor() != null ? savedRecipe.getDoctor().getId() : null;
+        if (doctorId != null && !Objects.equals(previousDoctorId, doctorId)) {
+            this.sickLeaveService.reassignIssuingDoctor(id, doctorId);
+        }
+        Long customerId = savedRecipe.getCustomer() != null ? savedRecipe.getCustomer().getId() : null;
+        if (customerId != null && !Objects.equals(previousCustomerId, customerId)) {
+            this.sickLeaveService.reassignCustomer(id, customerId);
+        }
         return toDto(savedRecipe);
     }
 
     @Override
+    @Transactional
+    @UseBulkhead(Subsystem.WRITES)
     public void deleteRecipe(long id) {
-        this.recipeRepository.deleteById(id);
+        this.recipeRepository.findById(id).ifPresent(recipe -> {
+            List<Diagnosis> removedDiagnoses = new ArrayList<>(recipe.getDiagnoses());
+            // Through the service rather than the cascade, so the monthly rollup loses the leaves too
+            this.sickLeaveService.deleteSickLeavesByRecipeId(id);
+            this.recipeRepository.delete(recipe);
+            this.diagnosisCatalogService.recordChanges(removedDiagnoses, List.of());
+            this.diagnosisCooccurrenceService.recordRecipeChange(removedDiagnoses, List.of());
+        });
     }
 
     @Override
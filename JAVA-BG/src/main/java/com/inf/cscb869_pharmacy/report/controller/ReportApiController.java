@@ -1,16 +1,27 @@
 package com.inf.cscb869_pharmacy.report.controller;
 
-import com.inf.cscb869_pharmacy.customer.entity.Customer;
-import com.inf.cscb869_pharmacy.recipe.entity.Recipe;
+import com.inf.cscb869_pharmacy.diagnosis.dto.DiagnosisCooccurrenceDTO;
+import com.inf.cscb869_pharmacy.diagnosis.service.DiagnosisCooccurrenceService;
+import com.inf.cscb869_pharmacy.metrics.QueryBudget;
 import com.inf.cscb869_pharmacy.report.dto.DiagnosisReportDTO;
 import com.inf.cscb869_pharmacy.report.dto.DoctorStatisticsDTO;
+import com.inf.cscb869_pharmacy.report.dto.ExaminationReportDTO;
 import com.inf.cscb869_pharmacy.report.dto.MonthlyStatisticsDTO;
+import com.inf.cscb869_pharmacy.report.dto.PatientReportDTO;
+import com.inf.cscb869_pharmacy.report.dto.TrendDTO;
 import com.inf.cscb869_pharmacy.report.service.ReportService;
+import com.inf.cscb869_pharmacy.report.service.TrendService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -25,13 +36,24 @@ import java.util.List;
 @Slf4j
 public class ReportApiController {
 
+    private static final int MAX_COOCCURRENCE_PAIRS = 200;
+
     private final ReportService reportService;
+    private final DiagnosisCooccurrenceService diagnosisCooccurrenceService;
+    private final TrendService trendService;
 
     @GetMapping("/patients-by-diagnosis")
-    public ResponseEntity<List<Customer>> getPatientsByDiagnosis(
-            @RequestParam String diagnosis) {
+    @QueryBudget(2)
+    public ResponseEntity<List<PatientReportDTO>> getPatientsByDiagnosis(
+            @RequestParam String diagnosis,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size) {
         log.info("API: Getting patients with diagnosis: {}", diagnosis);
-        return ResponseEntity.ok(reportService.getPatientsByDiagnosis(diagnosis));
+        Page<PatientReportDTO> patients = reportService.getPatientReportsByDiagnosis(diagnosis,
+                PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), 500), Sort.by("name")));
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(patients.getTotalElements()))
+                .body(patients.getContent());
     }
 
     @GetMapping("/common-diagnoses")
@@ -40,11 +62,27 @@ public class ReportApiController {
         return ResponseEntity.ok(reportService.getMostCommonDiagnoses());
     }
 
+    @GetMapping("/diagnosis-cooccurrence")
+    public ResponseEntity<List<DiagnosisCooccurrenceDTO>> getDiagnosisCooccurrence(
+            @RequestParam(defaultValue = "20") int top) {
+        log.info("API: Getting top {} diagnosis co-occurrence pairs", top);
+        return ResponseEntity.ok(diagnosisCooccurrenceService.getTopPairs(Math.min(top, MAX_COOCCURRENCE_PAIRS)));
+    }
+
+    @PostMapping("/diagnosis-cooccurrence/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> rebuildDiagnosisCooccurrence() {
+        log.info("API: Rebuilding diagnosis co-occurrence counts");
+        diagnosisCooccurrenceService.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/patients-by-primary-doctor/{doctorId}")
-    public ResponseEntity<List<Customer>> getPatientsByPrimaryDoctor(
+    @QueryBudget(1)
+    public ResponseEntity<List<PatientReportDTO>> getPatientsByPrimaryDoctor(
             @PathVariable Long doctorId) {
         log.info("API: Getting patients for primary doctor ID: {}", doctorId);
-        return ResponseEntity.ok(reportService.getPatientsByPrimaryDoctor(doctorId));
+        return ResponseEntity.ok(reportService.getPatientReportsByPrimaryDoctor(doctorId));
     }
 
     @GetMapping("/patient-count-by-primary-doctor")
@@ -60,29 +98,47 @@ public class ReportApiController {
     }
 
     @GetMapping("/patient-history/{customerId}")
-    public ResponseEntity<List<Recipe>> getPatientHistory(
+    @QueryBudget(1)
+    public ResponseEntity<List<ExaminationReportDTO>> getPatientHistory(
             @PathVariable Long customerId) {
         log.info("API: Getting medical history for customer ID: {}", customerId);
-        return ResponseEntity.ok(reportService.getPatientMedicalHistory(customerId));
+        return ResponseEntity.ok(reportService.getPatientHistoryReports(customerId));
     }
 
     @GetMapping("/examinations")
-    public ResponseEntity<List<Recipe>> getExaminationsInDateRange(
+    @QueryBudget(1)
+    public ResponseEntity<List<ExaminationReportDTO>> getExaminationsInDateRange(
             @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
             @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate) {
         log.info("API: Getting examinations between {} and {}", startDate, endDate);
-        return ResponseEntity.ok(reportService.getExaminationsInDateRange(startDate, endDate));
+        return ResponseEntity.ok(reportService.getExaminationReportsInDateRange(startDate, endDate));
     }
 
     @GetMapping("/doctor-examinations/{doctorId}")
-    public ResponseEntity<List<Recipe>> getDoctorExaminationsInDateRange(
+    @QueryBudget(1)
+    public ResponseEntity<List<ExaminationReportDTO>> getDoctorExaminationsInDateRange(
             @PathVariable Long doctorId,
             @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
             @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate) {
         log.info("API: Getting examinations for doctor {} between {} and {}", 
                 doctorId, startDate, endDate);
         return ResponseEntity.ok(
-                reportService.getDoctorExaminationsInDateRange(doctorId, startDate, endDate));
+                reportService.getDoctorExaminationReportsInDateRange(doctorId, startDate, endDate));
+    }
+
+    @GetMapping("/trends")
+    public ResponseEntity<TrendDTO> getTrend(
+            @RequestParam String metric,
+            @RequestParam(defaultValue = "month") String granularity,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to,
+            @RequestParam(required = false) Long doctorId) {
+        log.info("API: Getting {} trend by {} from {} to {}", metric, granularity, from, to);
+        try {
+            return ResponseEntity.ok(trendService.getTrend(metric, granularity, from, to, doctorId));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     @GetMapping("/sick-leaves-by-month")
@@ -98,14 +154,16 @@ public class ReportApiController {
     }
 
     @GetMapping("/valid-insurance")
-    public ResponseEntity<List<Customer>> getCustomersWithValidInsurance() {
+    @QueryBudget(1)
+    public ResponseEntity<List<PatientReportDTO>> getCustomersWithValidInsurance() {
         log.info("API: Getting customers with valid insurance");
-        return ResponseEntity.ok(reportService.getCustomersWithValidInsurance());
+        return ResponseEntity.ok(reportService.getPatientReportsWithValidInsurance());
     }
 
     @GetMapping("/invalid-insurance")
-    public ResponseEntity<List<Customer>> getCustomersWithoutValidInsurance() {
+    @QueryBudget(1)
+    public ResponseEntity<List<PatientReportDTO>> getCustomersWithoutValidInsurance() {
         log.info("API: Getting customers without valid insurance");
-        return ResponseEntity.ok(reportService.getCustomersWithoutValidInsurance());
+        return ResponseEntity.ok(reportService.getPatientReportsWithoutValidInsurance());
     }
 }
@@ -0,0 +1,85 @@
+package com.inf.cscb869_pharmacy.report.controller;
+
+import com.inf.cscb869_pharmacy.report.dto.ReportJobDTO;
+import com.inf.cscb869_pharmacy.report.dto.ReportJobRequest;
+import com.inf.cscb869_pharmacy.report.dto.ReportJobStatus;
+import com.inf.cscb869_pharmacy.report.service.ReportJobService;
+import com.inf.cscb869_pharmacy.util.CurrentActor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * REST API Controller for background report jobs
+ * Асинхронни справки: заявка, статус, отказ и изтегляне на резултата
+ */
+@RestController
+@RequestMapping("/api/reports/jobs")
+@RequiredArgsConstructor
+@Slf4j
+public class ReportJobApiController {
+
+    private final ReportJobService reportJobService;
+
+    @PostMapping
+    public ResponseEntity<ReportJobDTO> submit(@RequestBody ReportJobRequest request) {
+        log.info("API: Submitting {} report job", request.getType());
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(reportJobService.submit(request, CurrentActor.name()));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, e.getMessage());
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ReportJobDTO>> getJobs() {
+        return ResponseEntity.ok(reportJobService.getJobs(CurrentActor.name()));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ReportJobDTO> getJob(@PathVariable String id) {
+        return reportJobService.getJob(id, CurrentActor.name())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancel(@PathVariable String id) {
+        log.info("API: Cancelling report job {}", id);
+        return reportJobService.cancel(id, CurrentActor.name())
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/{id}/result")
+    public ResponseEntity<Resource> download(@PathVariable String id) {
+        String owner = CurrentActor.name();
+        ReportJobDTO job = reportJobService.getJob(id, owner)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Report job not found: " + id));
+        if (job.getStatus() != ReportJobStatus.SUCCEEDED) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Report job is " + job.getStatus());
+        }
+        return reportJobService.getResult(id, owner)
+                .map(file -> ResponseEntity.ok()
+                        .contentType(new MediaType("text", "csv"))
+                        .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                                .filename(job.getType().name().toLowerCase() + "-" + id + ".csv")
+                                .build()
+                                .toString())
+                        .<Resource>body(new FileSystemResource(file)))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.GONE, "Report job result has expired"));
+    }
+}
@@ -1,6 +1,7 @@
 package com.inf.cscb869_pharmacy.report.controller;
 
 import com.inf.cscb869_pharmacy.customer.service.CustomerService;
+import com.inf.cscb869_pharmacy.diagnosis.service.DiagnosisCatalogService;
 import com.inf.cscb869_pharmacy.doctor.service.DoctorService;
 import com.inf.cscb869_pharmacy.report.dto.MonthlyStatisticsDTO;
 import com.inf.cscb869_pharmacy.report.service.ReportService;
@@ -14,7 +15,6 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * View Controller for Medical Reports and Statistics
@@ -29,6 +29,7 @@ public class ReportViewController {
     private final ReportService reportService;
     private final DoctorService doctorService;
     private final CustomerService customerService;
+    private final DiagnosisCatalogService diagnosisCatalogService;
 
     @GetMapping
     public String reportsIndex() {
@@ -175,10 +176,6 @@ public class ReportViewController {
     }
 
     private List<String> getDiagnosisOptions() {
-        return reportService.getMostCommonDiagnoses().stream()
-                .map(d -> d.getDiagnosis())
-                .filter(d -> d != null && !d.isBlank())
-                .distinct()
-                .collect(Collectors.toList());
+        return diagnosisCatalogService.getDiagnosisOptions();
     }
 }
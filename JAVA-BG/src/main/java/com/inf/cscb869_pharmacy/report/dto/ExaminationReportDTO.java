@@ -0,0 +1,29 @@
+package com.inf.cscb869_pharmacy.report.dto;
+
+import com.inf.cscb869_pharmacy.recipe.entity.RecipeStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Examination (recipe) row of the report API, loaded with a JPQL constructor expression.
+ * Only the patient's id and name are included, never their EGN or medical record.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExaminationReportDTO {
+
+    private Long id;
+    private LocalDate creationDate;
+    private Long doctorId;
+    private String doctorName;
+    private Long customerId;
+    private String customerName;
+    private RecipeStatus status;
+    private LocalDate expirationDate;
+    private Boolean sickLeave;
+    private Integer sickLeaveDays;
+}
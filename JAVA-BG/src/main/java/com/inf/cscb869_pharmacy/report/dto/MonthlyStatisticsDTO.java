@@ -14,4 +14,5 @@ public class MonthlyStatisticsDTO {
     private Integer month;
     private String monthName;
     private Long count;
+    private Long totalDays;
 }
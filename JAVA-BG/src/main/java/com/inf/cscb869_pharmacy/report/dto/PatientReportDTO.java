@@ -0,0 +1,42 @@
+package com.inf.cscb869_pharmacy.report.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Patient row of the report API, loaded with a JPQL constructor expression instead of the full customer graph.
+ * The EGN is masked on construction so only its last four digits leave the server.
+ */
+@Data
+@NoArgsConstructor
+public class PatientReportDTO {
+
+    private static final int VISIBLE_EGN_DIGITS = 4;
+
+    private Long id;
+    private String name;
+    private String maskedEgn;
+    private String primaryDoctorName;
+    private LocalDate insurancePaidUntil;
+
+    public PatientReportDTO(Long id, String name, String egn, String primaryDoctorName, LocalDate insurancePaidUntil) {
+        this.id = id;
+        this.name = name;
+        this.maskedEgn = maskEgn(egn);
+        this.primaryDoctorName = primaryDoctorName;
+        this.insurancePaidUntil = insurancePaidUntil;
+    }
+
+    public static String maskEgn(String egn) {
+        if (egn == null) {
+            return null;
+        }
+        if (egn.length() <= VISIBLE_EGN_DIGITS) {
+            return "*".repeat(egn.length());
+        }
+        int hidden = egn.length() - VISIBLE_EGN_DIGITS;
+        return "*".repeat(hidden) + egn.substring(hidden);
+    }
+}
@@ -0,0 +1,28 @@
+package com.inf.cscb869_pharmacy.report.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Status of a background report; {@code progress} is the percentage of rows written.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportJobDTO {
+    private String id;
+    private ReportJobType type;
+    private ReportJobStatus status;
+    private Integer progress;
+    private Long processedRows;
+    private Long totalRows;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
@@ -0,0 +1,25 @@
+package com.inf.cscb869_pharmacy.report.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Parameters of a background report; {@code doctorId} is only used by {@link ReportJobType#DOCTOR_EXAMINATIONS}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportJobRequest {
+    private ReportJobType type;
+    private Long doctorId;
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate startDate;
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate endDate;
+}
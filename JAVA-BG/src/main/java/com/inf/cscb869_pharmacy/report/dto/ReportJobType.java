@@ -0,0 +1,9 @@
+package com.inf.cscb869_pharmacy.report.dto;
+
+/**
+ * Reports that can run as background jobs.
+ */
+public enum ReportJobType {
+    EXAMINATIONS,
+    DOCTOR_EXAMINATIONS
+}
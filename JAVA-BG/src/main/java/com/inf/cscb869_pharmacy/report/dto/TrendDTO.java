@@ -0,0 +1,28 @@
+package com.inf.cscb869_pharmacy.report.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One point per bucket between {@code from} and {@code to}, including empty buckets.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrendDTO {
+    private String metric;
+    private TrendGranularity granularity;
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate from;
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate to;
+    private Long doctorId;
+    private List<TrendPointDTO> points;
+}
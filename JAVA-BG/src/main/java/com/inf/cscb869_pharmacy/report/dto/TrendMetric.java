@@ -0,0 +1,30 @@
+package com.inf.cscb869_pharmacy.report.dto;
+
+import java.util.Arrays;
+
+/**
+ * What a trend counts: recipes by creation date, non-cancelled sick leaves by start date,
+ * or diagnoses by diagnosis date.
+ */
+public enum TrendMetric {
+    RECIPES("recipes"),
+    SICK_LEAVES("sickLeaves"),
+    DIAGNOSES("diagnoses");
+
+    private final String param;
+
+    TrendMetric(String param) {
+        this.param = param;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    public static TrendMetric fromParam(String value) {
+        return Arrays.stream(values())
+                .filter(metric -> metric.param.equalsIgnoreCase(value) || metric.name().equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown trend metric: " + value));
+    }
+}
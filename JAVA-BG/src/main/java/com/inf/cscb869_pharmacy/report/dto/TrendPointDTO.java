@@ -0,0 +1,19 @@
+package com.inf.cscb869_pharmacy.report.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrendPointDTO {
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate periodStart;
+    private Long count;
+}
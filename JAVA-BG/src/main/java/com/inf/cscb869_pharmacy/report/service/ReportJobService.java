@@ -0,0 +1,35 @@
+package com.inf.cscb869_pharmacy.report.service;
+
+import com.inf.cscb869_pharmacy.report.dto.ReportJobDTO;
+import com.inf.cscb869_pharmacy.report.dto.ReportJobRequest;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Runs long reports on a bounded worker pool and keeps their results as CSV files for a limited time.
+ * Jobs are only visible to the user who submitted them.
+ * Асинхронни справки
+ */
+public interface ReportJobService {
+
+    /**
+     * Queues a report; fails with {@link IllegalStateException} when the user or the queue is at its limit.
+     */
+    ReportJobDTO submit(ReportJobRequest request, String owner);
+
+    Optional<ReportJobDTO> getJob(String id, String owner);
+
+    List<ReportJobDTO> getJobs(String owner);
+
+    /**
+     * Cancels a queued or running job; returns {@code false} when the user has no such job.
+     */
+    boolean cancel(String id, String owner);
+
+    /**
+     * The CSV file of a job that has succeeded.
+     */
+    Optional<Path> getResult(String id, String owner);
+}
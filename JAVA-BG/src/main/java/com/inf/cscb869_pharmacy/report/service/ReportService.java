@@ -4,7 +4,11 @@ import com.inf.cscb869_pharmacy.customer.entity.Customer;
 import com.inf.cscb869_pharmacy.recipe.entity.Recipe;
 import com.inf.cscb869_pharmacy.report.dto.DiagnosisReportDTO;
 import com.inf.cscb869_pharmacy.report.dto.DoctorStatisticsDTO;
+import com.inf.cscb869_pharmacy.report.dto.ExaminationReportDTO;
 import com.inf.cscb869_pharmacy.report.dto.MonthlyStatisticsDTO;
+import com.inf.cscb869_pharmacy.report.dto.PatientReportDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -13,6 +17,8 @@ public interface ReportService {
 
     List<Customer> getPatientsByDiagnosis(String diagnosis);
 
+    Page<Customer> getPatientsByDiagnosis(String diagnosis, Pageable pageable);
+
     long countPatientsByDiagnosis(String diagnosis);
 
     List<DiagnosisReportDTO> getMostCommonDiagnoses();
@@ -36,4 +42,24 @@ public interface ReportService {
     List<Customer> getCustomersWithValidInsurance();
 
     List<Customer> getCustomersWithoutValidInsurance();
+
+    /**
+     * API projection of the patient reports: id, name, masked EGN, primary doctor and insurance date.
+     */
+    Page<PatientReportDTO> getPatientReportsByDiagnosis(String diagnosis, Pageable pageable);
+
+    List<PatientReportDTO> getPatientReportsByPrimaryDoctor(Long doctorId);
+
+    List<PatientReportDTO> getPatientReportsWithValidInsurance();
+
+    List<PatientReportDTO> getPatientReportsWithoutValidInsurance();
+
+    /**
+     * API projection of the patient history and examination lists, without the customer's personal data.
+     */
+    List<ExaminationReportDTO> getPatientHistoryReports(Long customerId);
+
+    List<ExaminationReportDTO> getExaminationReportsInDateRange(LocalDate startDate, LocalDate endDate);
+
+    List<ExaminationReportDTO> getDoctorExaminationReportsInDateRange(Long doctorId, LocalDate startDate, LocalDate endDate);
 }
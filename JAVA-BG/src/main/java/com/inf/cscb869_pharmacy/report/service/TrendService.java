@@ -0,0 +1,18 @@
+package com.inf.cscb869_pharmacy.report.service;
+
+import com.inf.cscb869_pharmacy.report.dto.TrendDTO;
+
+import java.time.LocalDate;
+
+/**
+ * Time series of recipes, sick leaves or diagnoses in day, week or month buckets
+ * Динамика на прегледи, болнични и диагнози във времето
+ */
+public interface TrendService {
+
+    /**
+     * Counts per bucket from {@code from} to {@code to}, widened to whole buckets, with empty buckets as zero.
+     * {@code doctorId} is optional.
+     */
+    TrendDTO getTrend(String metric, String granularity, LocalDate from, LocalDate to, Long doctorId);
+}
@@ -0,0 +1,230 @@
+package com.inf.cscb869_pharmacy.report.service.impl;
+
+import com.inf.cscb869_pharmacy.common.TableVersionRegistry;
+import com.inf.cscb869_pharmacy.customer.entity.Customer;
+import com.inf.cscb869_pharmacy.datasource.ReplicaLagMonitor;
+import com.inf.cscb869_pharmacy.recipe.entity.Recipe;
+import com.inf.cscb869_pharmacy.report.dto.DiagnosisReportDTO;
+import com.inf.cscb869_pharmacy.report.dto.DoctorStatisticsDTO;
+import com.inf.cscb869_pharmacy.report.dto.ExaminationReportDTO;
+import com.inf.cscb869_pharmacy.report.dto.MonthlyStatisticsDTO;
+import com.inf.cscb869_pharmacy.report.dto.PatientReportDTO;
+import com.inf.cscb869_pharmacy.report.service.ReportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Caches the aggregate reports in front of {@link ReportServiceImpl}.
+ * Each entry is tagged with the tables its query reads and the table versions seen before it ran;
+ * a write to any of those tables makes it stale. Concurrent misses on one report share a single query.
+ * Patient lists are not cached and go straight to the database.
+ * With read replicas, a result loaded within the replica lag of a write may miss that write, so it is returned but not cached;
+ * the settle window defaults to the replicas' max lag.
+ * Кеширане на агрегираните справки
+ */
+@Service
+@Primary
+@Slf4j
+@ConditionalOnProperty(name = "pharmacy.report-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CachingReportService implements ReportService {
+
+    static final List<String> MOST_COMMON_DIAGNOSES_TABLES = List.of("diagnoses");
+    static final List<String> PRIMARY_DOCTOR_TABLES = List.of("doctor", "customers");
+    static final List<String> DOCTOR_VISIT_TABLES = List.of("doctor", "recipe");
+    static final List<String> SICK_LEAVE_RANKING_TABLES = List.of("doctor", "sick_leaves");
+
+    private final ReportService delegate;
+    private final TableVersionRegistry tableVersions;
+    private final Duration replicaSettle;
+
+    private final Map<String, CompletableFuture<Entry>> entries = new ConcurrentHashMap<>();
+
+    public CachingReportService(@Qualifier("reportServiceImpl") ReportService delegate,
+                                TableVersionRegistry tableVersions,
+                                @Value("${pharmacy.report-cache.replica-settle-ms:-1}") long replicaSettleMs,
+                                Optional<ReplicaLagMonitor> replicas) {
+        this.delegate = delegate;
+        this.tableVersions = tableVersions;
+        this.replicaSettle = settleWindow(replicaSettleMs, replicas);
+    }
+
+    /**
+     * The configured window, or without one the replicas' max lag; zero when reads never go to a replica.
+     */
+    static Duration settleWindow(long configuredMs, Optional<ReplicaLagMonitor> replicas) {
+        if (configuredMs >= 0) {
+            return Duration.ofMillis(configuredMs);
+        }
+        return replicas.map(ReplicaLagMonitor::getMaxLag).orElse(Duration.ZERO);
+    }
+
+    @Override
+    public List<DiagnosisReportDTO> getMostCommonDiagnoses() {
+        return cached("most-common-diagnoses", MOST_COMMON_DIAGNOSES_TABLES, delegate::getMostCommonDiagnoses);
+    }
+
+    @Override
+    public List<DoctorStatisticsDTO> getPatientCountPerPrimaryDoctor() {
+        return cached("patients-per-primary-doctor", PRIMARY_DOCTOR_TABLES, delegate::getPatientCountPerPrimaryDoctor);
+    }
+
+    @Override
+    public List<DoctorStatisticsDTO> getVisitCountPerDoctor() {
+        return cached("visits-per-doctor", DOCTOR_VISIT_TABLES, delegate::getVisitCountPerDoctor);
+    }
+
+    @Override
+    public List<DoctorStatisticsDTO> getDoctorsSickLeaveRanking() {
+        return cached("doctors-sick-leave-ranking", SICK_LEAVE_RANKING_TABLES, delegate::getDoctorsSickLeaveRanking);
+    }
+
+    @Override
+    public List<Customer> getPatientsByDiagnosis(String diagnosis) {
+        return delegate.getPatientsByDiagnosis(diagnosis);
+    }
+
+    @Override
+    public Page<Customer> getPatientsByDiagnosis(String diagnosis, Pageable pageable) {
+        return delegate.getPatientsByDiagnosis(diagnosis, pageable);
+    }
+
+    @Override
+    public long countPatientsByDiagnosis(String diagnosis) {
+        return delegate.countPatientsByDiagnosis(diagnosis);
+    }
+
+    @Override
+    public List<Customer> getPatientsByPrimaryDoctor(Long doctorId) {
+        return delegate.getPatientsByPrimaryDoctor(doctorId);
+    }
+
+    @Override
+    public List<Recipe> getPatientMedicalHistory(Long customerId) {
+        return delegate.getPatientMedicalHistory(customerId);
+    }
+
+    @Override
+    public List<Recipe> getExaminationsInDateRange(LocalDate startDate, LocalDate endDate) {
+        return delegate.getExaminationsInDateRange(startDate, endDate);
+    }
+
+    @Override
+    public List<Recipe> getDoctorExaminationsInDateRange(Long doctorId, LocalDate startDate, LocalDate endDate) {
+        return delegate.getDoctorExaminationsInDateRange(doctorId, startDate, endDate);
+    }
+
+    @Override
+    public List<MonthlyStatisticsDTO> getSickLeavesByMonth() {
+        // Already served from the monthly rollup
+        return delegate.getSickLeavesByMonth();
+    }
+
+    @Override
+    public List<Customer> getCustomersWithValidInsurance() {
+        return delegate.getCustomersWithValidInsurance();
+    }
+
+    @Override
+    public List<Customer> getCustomersWithoutValidInsurance() {
+        return delegate.getCustomersWithoutValidInsurance();
+    }
+
+    @Override
+    public Page<PatientReportDTO> getPatientReportsByDiagnosis(String diagnosis, Pageable pageable) {
+        return delegate.getPatientReportsByDiagnosis(diagnosis, pageable);
+    }
+
+    @Override
+    public List<PatientReportDTO> getPatientReportsByPrimaryDoctor(Long doctorId) {
+        return delegate.getPatientReportsByPrimaryDoctor(doctorId);
+    }
+
+    @Override
+    public List<PatientReportDTO> getPatientReportsWithValidInsurance() {
+        return delegate.getPatientReportsWithValidInsurance();
+    }
+
+    @Override
+    public List<PatientReportDTO> getPatientReportsWithoutValidInsurance() {
+        return delegate.getPatientReportsWithoutValidInsurance();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> cached(String key, List<String> tables, Supplier<List<T>> loader) {
+        while (true) {
+            long[] versions = tableVersions.snapshot(tables);
+            CompletableFuture<Entry> existing = entries.get(key);
+            if (existing != null) {
+                Entry entry = await(existing);
+                if (entry != null && Arrays.equals(entry.versions(), versions)) {
+                    return (List<T>) entry.value();
+                }
+                // Stale or failed: drop it, unless another caller already replaced it
+                entries.remove(key, existing);
+                continue;
+            }
+
+            CompletableFuture<Entry> loading = new CompletableFuture<>();
+            if (entries.putIfAbsent(key, loading) != null) {
+                continue;
+            }
+            log.debug("Report cache miss for {}", key);
+            try {
+                List<T> value = List.copyOf(loader.get());
+                loading.complete(new Entry(versions, value));
+                if (!replicaSettle.isZero() && tableVersions.changedWithin(tables, replicaSettle)) {
+                    entries.remove(key, loading);
+                }
+                return value;
+            } catch (RuntimeException e) {
+                entries.remove(key, loading);
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    private static Entry await(CompletableFuture<Entry> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // The loading caller already reported the failure; waiters retry with a query of their own
+            return null;
+        }
+    }
+
+    private record Entry(long[] versions, List<?> value) {
+    }
+
+    @Override
+    public List<ExaminationReportDTO> getPatientHistoryReports(Long customerId) {
+        return delegate.getPatientHistoryReports(customerId);
+    }
+
+    @Override
+    public List<ExaminationReportDTO> getExaminationReportsInDateRange(LocalDate startDate, LocalDate endDate) {
+        return delegate.getExaminationReportsInDateRange(startDate, endDate);
+    }
+
+    @Override
+    public List<ExaminationReportDTO> getDoctorExaminationReportsInDateRange(Long doctorId, LocalDate startDate, LocalDate endDate) {
+        return delegate.getDoctorExaminationReportsInDateRange(doctorId, startDate, endDate);
+    }
+}
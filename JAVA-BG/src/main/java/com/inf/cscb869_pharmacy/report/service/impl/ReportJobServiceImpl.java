@@ -0,0 +1,336 @@
+package com.inf.cscb869_pharmacy.report.service.impl;
+
+import com.inf.cscb869_pharmacy.bulkhead.Bulkhead;
+import com.inf.cscb869_pharmacy.bulkhead.BulkheadRegistry;
+import com.inf.cscb869_pharmacy.bulkhead.Subsystem;
+import com.inf.cscb869_pharmacy.recipe.repository.RecipeRepository;
+import com.inf.cscb869_pharmacy.report.dto.ReportJobDTO;
+import com.inf.cscb869_pharmacy.report.dto.ReportJobRequest;
+import com.inf.cscb869_pharmacy.report.dto.ReportJobStatus;
+import com.inf.cscb869_pharmacy.report.dto.ReportJobType;
+import com.inf.cscb869_pharmacy.report.service.ReportJobService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Service implementation for background report jobs.
+ * Workers stream report rows straight into a CSV file in a temporary directory, so neither a request
+ * thread nor the heap holds the whole result. Finished jobs and their files are dropped after the TTL.
+ * Workers are virtual threads; the database work of each job runs inside the exports bulkhead.
+ * Асинхронни справки
+ */
+@Service
+@Slf4j
+public class ReportJobServiceImpl implements ReportJobService {
+
+    static final String CSV_HEADER = "id,creation_date,doctor,customer,status,expiration_date,sick_leave";
+
+    private final RecipeRepository recipeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Bulkhead exports;
+    private final int maxJobsPerUser;
+    private final Duration resultTtl;
+    private final ThreadPoolExecutor workers;
+    private final Path spoolDirectory;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public ReportJobServiceImpl(RecipeRepository recipeRepository,
+                                TransactionTemplate transactionTemplate,
+                                BulkheadRegistry bulkheads,
+                                @Value("${pharmacy.report-jobs.workers:2}") int workerCount,
+                                @Value("${pharmacy.report-jobs.queue-capacity:20}") int queueCapacity,
+                                @Value("${pharmacy.report-jobs.max-per-user:2}") int maxJobsPerUser,
+                                @Value("${pharmacy.report-jobs.result-ttl-minutes:60}") long resultTtlMinutes) {
+        this.recipeRepository = recipeRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.exports = bulkheads.get(Subsystem.EXPORTS);
+        this.maxJobsPerUser = maxJobsPerUser;
+        this.resultTtl = Duration.ofMinutes(resultTtlMinutes);
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofVirtual().name("report-job-", 1).factory());
+        try {
+            this.spoolDirectory = Files.createTempDirectory("report-jobs");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create report job directory", e);
+        }
+    }
+
+    @Override
+    public synchronized ReportJobDTO submit(ReportJobRequest request, String owner) {
+        validate(request);
+        long active = jobs.values().stream()
+                .filter(job -> job.owner.equals(owner) && !job.status.isFinished())
+                .count();
+        if (active >= maxJobsPerUser) {
+            throw new IllegalStateException("At most " + maxJobsPerUser + " report jobs may run per user");
+        }
+
+        Job job = new Job(UUID.randomUUID().toString(), owner, request);
+        jobs.put(job.id, job);
+        try {
+            job.future = workers.submit(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new IllegalStateException("Report job queue is full, try again later");
+        }
+        log.info("Queued {} report job {} for {}", request.getType(), job.id, owner);
+        return job.toDto();
+    }
+
+    @Override
+    public Optional<ReportJobDTO> getJob(String id, String owner) {
+        return find(id, owner).map(Job::toDto);
+    }
+
+    @Override
+    public List<ReportJobDTO> getJobs(String owner) {
+        return jobs.values().stream()
+                .filter(job -> job.owner.equals(owner))
+                .sorted(Comparator.comparing((Job job) -> job.submittedAt).reversed())
+                .map(Job::toDto)
+                .toList();
+    }
+
+    @Override
+    public boolean cancel(String id, String owner) {
+        Optional<Job> found = find(id, owner);
+        found.ifPresent(job -> {
+            job.cancelRequested = true;
+            if (job.future != null && job.future.cancel(false)) {
+                // Never started; the worker will not get to mark it
+                job.finish(ReportJobStatus.CANCELLED, null);
+            }
+            log.info("Cancel requested for report job {}", id);
+        });
+        return found.isPresent();
+    }
+
+    @Override
+    public Optional<Path> getResult(String id, String owner) {
+        return find(id, owner)
+                .filter(job -> job.status == ReportJobStatus.SUCCEEDED)
+                .map(job -> job.file);
+    }
+
+    @Scheduled(fixedDelayString = "${pharmacy.report-jobs.cleanup-interval-ms:300000}")
+    public void cleanUp() {
+        cleanUp(LocalDateTime.now());
+    }
+
+    void cleanUp(LocalDateTime now) {
+        LocalDateTime cutoff = now.minus(resultTtl);
+        jobs.values().removeIf(job -> {
+            if (job.finishedAt == null || job.finishedAt.isAfter(cutoff)) {
+                return false;
+            }
+            deleteQuietly(job.file);
+            return true;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+        jobs.values().forEach(job -> deleteQuietly(job.file));
+        deleteQuietly(spoolDirectory);
+    }
+
+    private void run(Job job) {
+        if (job.cancelRequested) {
+            job.finish(ReportJobStatus.CANCELLED, null);
+            return;
+        }
+        job.status = ReportJobStatus.RUNNING;
+        job.startedAt = LocalDateTime.now();
+        Path file = spoolDirectory.resolve(job.id + ".csv");
+        try (Bulkhead.Permit permit = exports.acquire()) {
+            transactionTemplate.executeWithoutResult(status -> write(job, file));
+            job.file = file;
+            job.finish(ReportJobStatus.SUCCEEDED, null);
+            log.info("Report job {} wrote {} rows", job.id, job.processedRows);
+        } catch (JobCancelledException e) {
+            deleteQuietly(file);
+            job.finish(ReportJobStatus.CANCELLED, null);
+            log.info("Report job {} cancelled after {} rows", job.id, job.processedRows);
+        } catch (RuntimeException e) {
+            deleteQuietly(file);
+            job.finish(ReportJobStatus.FAILED, e.getMessage());
+            log.error("Report job {} failed", job.id, e);
+        }
+    }
+
+    private void write(Job job, Path file) {
+        ReportJobRequest request = job.request;
+        boolean byDoctor = request.getType() == ReportJobType.DOCTOR_EXAMINATIONS;
+        job.totalRows = byDoctor
+                ? recipeRepository.countByDoctorIdAndCreationDateBetween(request.getDoctorId(), request.getStartDate(), request.getEndDate())
+                : recipeRepository.countByCreationDateBetween(request.getStartDate(), request.getEndDate());
+
+        try (Stream<Object[]> rows = byDoctor
+                ? recipeRepository.streamDoctorExaminationRows(request.getDoctorId(), request.getStartDate(), request.getEndDate())
+                : recipeRepository.streamExaminationRows(request.getStartDate(), request.getEndDate());
+             BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(CSV_HEADER);
+            writer.newLine();
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                if (job.cancelRequested || Thread.currentThread().isInterrupted()) {
+                    throw new JobCancelledException();
+                }
+                writer.write(toCsvLine(row));
+                writer.newLine();
+                job.processedRows++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write report job result", e);
+        }
+    }
+
+    /**
+     * Text cells starting with a formula character get a leading quote, so a spreadsheet shows them instead of
+     * evaluating them. Numbers are left alone, so negative values stay numeric.
+     */
+    static String toCsvLine(Object[] row) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            String value = row[i] == null ? "" : row[i].toString();
+            if (!(row[i] instanceof Number) && startsFormula(value)) {
+                value = "'" + value;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                line.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(value);
+            }
+        }
+        return line.toString();
+    }
+
+    private static boolean startsFormula(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        char first = value.charAt(0);
+        return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+    }
+
+    private Optional<Job> find(String id, String owner) {
+        Job job = jobs.get(id);
+        return job != null && job.owner.equals(owner) ? Optional.of(job) : Optional.empty();
+    }
+
+    private static void validate(ReportJobRequest request) {
+        if (request == null || request.getType() == null) {
+            throw new IllegalArgumentException("Report type is required");
+        }
+        if (request.getStartDate() == null || request.getEndDate() == null) {
+            throw new IllegalArgumentException("Start and end date are required");
+        }
+        if (request.getEndDate().isBefore(request.getStartDate())) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        if (request.getType() == ReportJobType.DOCTOR_EXAMINATIONS && request.getDoctorId() == null) {
+            throw new IllegalArgumentException("Doctor is required for doctor examination reports");
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", path, e);
+        }
+    }
+
+    private static final class Job {
+        private final String id;
+        private final String owner;
+        private final ReportJobRequest request;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+
+        private volatile ReportJobStatus status = ReportJobStatus.QUEUED;
+        private volatile boolean cancelRequested;
+        private volatile long processedRows;
+        private volatile long totalRows;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+        private volatile Path file;
+        private volatile Future<?> future;
+
+        private Job(String id, String owner, ReportJobRequest request) {
+            this.id = id;
+            this.owner = owner;
+            this.request = request;
+        }
+
+        private synchronized void finish(ReportJobStatus finalStatus, String message) {
+            if (status.isFinished()) {
+                return;
+            }
+            status = finalStatus;
+            error = message;
+            finishedAt = LocalDateTime.now();
+        }
+
+        private ReportJobDTO toDto() {
+            long processed = processedRows;
+            long total = totalRows;
+            int progress;
+            if (status == ReportJobStatus.SUCCEEDED) {
+                progress = 100;
+            } else if (total == 0) {
+                progress = 0;
+            } else {
+                progress = (int) Math.min(99, processed * 100 / total);
+            }
+            return ReportJobDTO.builder()
+                    .id(id)
+                    .type(request.getType())
+                    .status(status)
+                    .progress(progress)
+                    .processedRows(processed)
+                    .totalRows(total)
+                    .submittedAt(submittedAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+
+    private static final class JobCancelledException extends RuntimeException {
+    }
+}
@@ -1,16 +1,28 @@
 package com.inf.cscb869_pharmacy.report.service.impl;
 
+import com.inf.cscb869_pharmacy.bulkhead.Subsystem;
+import com.inf.cscb869_pharmacy.bulkhead.UseBulkhead;
 import com.inf.cscb869_pharmacy.customer.entity.Customer;
 import com.inf.cscb869_pharmacy.customer.repository.CustomerRepository;
 import com.inf.cscb869_pharmacy.doctor.repository.DoctorRepository;
+import com.inf.cscb869_pharmacy.metrics.MetricsConfig;
 import com.inf.cscb869_pharmacy.recipe.entity.Recipe;
 import com.inf.cscb869_pharmacy.recipe.repository.RecipeRepository;
 import com.inf.cscb869_pharmacy.report.dto.DiagnosisReportDTO;
 import com.inf.cscb869_pharmacy.report.dto.DoctorStatisticsDTO;
+import com.inf.cscb869_pharmacy.report.dto.ExaminationReportDTO;
 import com.inf.cscb869_pharmacy.report.dto.MonthlyStatisticsDTO;
+import com.inf.cscb869_pharmacy.report.dto.PatientReportDTO;
 import com.inf.cscb869_pharmacy.report.service.ReportService;
+import com.inf.cscb869_pharmacy.sickleave.repository.SickLeaveRepository;
+import com.inf.cscb869_pharmacy.sickleave.service.SickLeaveRollupService;
+import com.inf.cscb869_pharmacy.util.NameNormalizer;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,28 +35,36 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 @Transactional(readOnly = true)
+@Timed(MetricsConfig.SERVICE_TIMER)
+@UseBulkhead(Subsystem.REPORTS)
 public class ReportServiceImpl implements ReportService {
 
     private final CustomerRepository customerRepository;
     private final DoctorRepository doctorRepository;
     private final RecipeRepository recipeRepository;
+    private final SickLeaveRepository sickLeaveRepository;
+    private final SickLeaveRollupService sickLeaveRollupService;
 
     @Override
     public List<Customer> getPatientsByDiagnosis(String diagnosis) {
-        log.info("Finding patients with diagnosis: {}", diagnosis);
-        
-        List<Recipe> recipes = recipeRepository.findByDiagnosisContainingIgnoreCase(diagnosis);
+        return getPatientsByDiagnosis(diagnosis, Pageable.unpaged(Sort.by("name"))).getContent();
+    }
 
-        return recipes.stream()
-                .map(Recipe::getCustomer)
-                .distinct()
-                .collect(Collectors.toList());
+    @Override
+    public Page<Customer> getPatientsByDiagnosis(String diagnosis, Pageable pageable) {
+        log.info("Finding patients with diagnosis: {}", diagnosis);
+        String normalized = NameNormalizer.normalize(diagnosis);
+        if (normalized == null) {
+            return Page.empty(pageable);
+        }
+        return customerRepository.findPatientsByDiagnosis(normalized, pageable);
     }
 
     @Override
     public long countPatientsByDiagnosis(String diagnosis) {
         log.info("Counting patients with diagnosis: {}", diagnosis);
-        return recipeRepository.countDistinctPatientsByDiagnosis(diagnosis);
+        String normalized = NameNormalizer.normalize(diagnosis);
+        return normalized == null ? 0L : recipeRepository.countDistinctPatientsByDiagnosis(normalized);
     }
 
     @Override
@@ -117,7 +137,7 @@ public class ReportServiceImpl implements ReportService {
     public List<MonthlyStatisticsDTO> getSickLeavesByMonth() {
         log.info("Fetching sick leaves grouped by month");
         
-        List<Object[]> results = recipeRepository.countSickLeavesByMonth();
+        List<Object[]> results = sickLeaveRollupService.getMonthlyTotals();
         
         return results.stream()
                 .map(row -> {
@@ -125,12 +145,14 @@ public class ReportServiceImpl implements ReportService {
                     Integer year = row[0] instanceof Number ? ((Number) row[0]).intValue() : null;
                     Integer month = row[1] instanceof Number ? ((Number) row[1]).intValue() : null;
                     Long count = row[2] instanceof Number ? ((Number) row[2]).longValue() : 0L;
+                    Long totalDays = row.length > 3 && row[3] instanceof Number ? ((Number) row[3]).longValue() : 0L;
                     
                     return MonthlyStatisticsDTO.builder()
                             .year(year)
                             .month(month)
                             .monthName((month != null && month >= 1 && month <= 12) ? Month.of(month).name() : "UNKNOWN")
                             .count(count)
+                            .totalDays(totalDays)
                             .build();
                 })
                 .collect(Collectors.toList());
@@ -140,7 +162,7 @@ public class ReportServiceImpl implements ReportService {
     public List<DoctorStatisticsDTO> getDoctorsSickLeaveRanking() {
         log.info("Fetching doctors ranked by sick leaves issued");
         
-        List<Object[]> results = recipeRepository.countSickLeavesByDoctor();
+        List<Object[]> results = sickLeaveRepository.countSickLeavesByDoctor();
         
         return results.stream()
                 .map(row -> DoctorStatisticsDTO.builder()
@@ -163,4 +185,50 @@ public class ReportServiceImpl implements ReportService {
         LocalDate today = LocalDate.now();
         return customerRepository.findWithoutValidInsurance(today);
     }
+
+    @Override
+    public Page<PatientReportDTO> getPatientReportsByDiagnosis(String diagnosis, Pageable pageable) {
+        log.info("Finding patient reports with diagnosis: {}", diagnosis);
+        String normalized = NameNormalizer.normalize(diagnosis);
+        if (normalized == null) {
+            return Page.empty(pageable);
+        }
+        return customerRepository.findPatientReportsByDiagnosis(normalized, pageable);
+    }
+
+    @Override
+    public List<PatientReportDTO> getPatientReportsByPrimaryDoctor(Long doctorId) {
+        log.info("Finding patient reports for primary doctor ID: {}", doctorId);
+        return customerRepository.findPatientReportsByPrimaryDoctorId(doctorId);
+    }
+
+    @Override
+    public List<PatientReportDTO> getPatientReportsWithValidInsurance() {
+        log.info("Fetching patient reports with valid insurance");
+        return customerRepository.findPatientReportsWithValidInsurance(LocalDate.now());
+    }
+
+    @Override
+    public List<PatientReportDTO> getPatientReportsWithoutValidInsurance() {
+        log.info("Fetching patient reports without valid insurance");
+        return customerRepository.findPatientReportsWithoutValidInsurance(LocalDate.now());
+    }
+
+    @Override
+    public List<ExaminationReportDTO> getPatientHistoryReports(Long customerId) {
+        log.info("Fetching medical history reports for customer ID: {}", customerId);
+        return recipeRepository.findExaminationReportsByCustomerId(customerId);
+    }
+
+    @Override
+    public List<ExaminationReportDTO> getExaminationReportsInDateRange(LocalDate startDate, LocalDate endDate) {
+        log.info("Fetching examination reports between {} and {}", startDate, endDate);
+        return recipeRepository.findExaminationReports(startDate, endDate);
+    }
+
+    @Override
+    public List<ExaminationReportDTO> getDoctorExaminationReportsInDateRange(Long doctorId, LocalDate startDate, LocalDate endDate) {
+        log.info("Fetching examination reports for doctor ID {} between {} and {}", doctorId, startDate, endDate);
+        return recipeRepository.findDoctorExaminationReports(doctorId, startDate, endDate);
+    }
 }
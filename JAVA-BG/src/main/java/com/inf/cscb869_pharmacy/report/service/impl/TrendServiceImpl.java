@@ -0,0 +1,169 @@
+package com.inf.cscb869_pharmacy.report.service.impl;
+
+import com.inf.cscb869_pharmacy.bulkhead.Subsystem;
+import com.inf.cscb869_pharmacy.bulkhead.UseBulkhead;
+import com.inf.cscb869_pharmacy.common.TableVersionRegistry;
+import com.inf.cscb869_pharmacy.diagnosis.repository.DiagnosisRepository;
+import com.inf.cscb869_pharmacy.recipe.repository.RecipeRepository;
+import com.inf.cscb869_pharmacy.report.dto.TrendDTO;
+import com.inf.cscb869_pharmacy.report.dto.TrendGranularity;
+import com.inf.cscb869_pharmacy.report.dto.TrendMetric;
+import com.inf.cscb869_pharmacy.report.dto.TrendPointDTO;
+import com.inf.cscb869_pharmacy.report.service.TrendService;
+import com.inf.cscb869_pharmacy.sickleave.repository.SickLeaveRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service implementation for trends.
+ * Each request runs at most one grouped date_trunc query; buckets without rows are filled with zero here.
+ * Counts of closed buckets (ending before today) are cached per bucket, so overlapping dashboard ranges
+ * only query the still-open tail. Closed buckets can still change through backdated edits, so each cached
+ * count remembers the versions of the tables its query read and is re-queried once any of them moves.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+@UseBulkhead(Subsystem.REPORTS)
+public class TrendServiceImpl implements TrendService {
+
+    static final int MAX_BUCKETS = 1000;
+    private static final int MAX_CACHED_BUCKETS = 50_000;
+
+    static final List<String> RECIPE_TABLES = List.of("recipe");
+    static final List<String> SICK_LEAVE_TABLES = List.of("sick_leaves");
+    static final List<String> DIAGNOSIS_TABLES = List.of("diagnoses", "recipe");
+
+    private final RecipeRepository recipeRepository;
+    private final SickLeaveRepository sickLeaveRepository;
+    private final DiagnosisRepository diagnosisRepository;
+    private final TableVersionRegistry tableVersions;
+
+    private final Map<BucketKey, CachedCount> closedBuckets = new ConcurrentHashMap<>();
+
+    @Override
+    public TrendDTO getTrend(String metricParam, String granularityParam, LocalDate from, LocalDate to, Long doctorId) {
+        TrendMetric metric = TrendMetric.fromParam(metricParam);
+        TrendGranularity granularity = TrendGranularity.fromParam(granularityParam);
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Both from and to dates are required");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("The to date must not be before the from date");
+        }
+
+        List<LocalDate> buckets = new ArrayList<>();
+        for (LocalDate bucket = granularity.bucketStart(from); !bucket.isAfter(to); bucket = granularity.next(bucket)) {
+            if (buckets.size() == MAX_BUCKETS) {
+                throw new IllegalArgumentException("A trend may have at most " + MAX_BUCKETS + " buckets");
+            }
+            buckets.add(bucket);
+        }
+        LocalDate rangeStart = buckets.get(0);
+        LocalDate rangeEnd = granularity.next(buckets.get(buckets.size() - 1)).minusDays(1);
+
+        LocalDate today = LocalDate.now();
+        // Taken before the query, so a write committed while it runs leaves the cached counts stale
+        long[] versions = tableVersions.snapshot(tables(metric));
+        Map<LocalDate, Long> counts = new HashMap<>();
+        LocalDate firstUncached = null;
+        for (LocalDate bucket : buckets) {
+            if (!isClosed(granularity, bucket, today)) {
+                firstUncached = bucket;
+                break;
+            }
+            CachedCount cached = closedBuckets.get(new BucketKey(metric, granularity, doctorId, bucket));
+            if (cached == null || !Arrays.equals(cached.versions(), versions)) {
+                firstUncached = bucket;
+                break;
+            }
+            counts.put(bucket, cached.count());
+        }
+
+        if (firstUncached != null) {
+            log.info("Querying {} trend by {} from {} to {}", metric, granularity, firstUncached, rangeEnd);
+            Map<LocalDate, Long> queried = query(metric, granularity, firstUncached, rangeEnd, doctorId);
+            if (closedBuckets.size() > MAX_CACHED_BUCKETS) {
+                closedBuckets.clear();
+            }
+            for (LocalDate bucket : buckets) {
+                if (bucket.isBefore(firstUncached)) {
+                    continue;
+                }
+                long count = queried.getOrDefault(bucket, 0L);
+                counts.put(bucket, count);
+                if (isClosed(granularity, bucket, today)) {
+                    closedBuckets.put(new BucketKey(metric, granularity, doctorId, bucket), new CachedCount(count, versions));
+                }
+            }
+        }
+
+        List<TrendPointDTO> points = buckets.stream()
+                .map(bucket -> TrendPointDTO.builder()
+                        .periodStart(bucket)
+                        .count(counts.getOrDefault(bucket, 0L))
+                        .build())
+                .toList();
+        return TrendDTO.builder()
+                .metric(metric.getParam())
+                .granularity(granularity)
+                .from(rangeStart)
+                .to(rangeEnd)
+                .doctorId(doctorId)
+                .points(points)
+                .build();
+    }
+
+    private Map<LocalDate, Long> query(TrendMetric metric, TrendGranularity granularity,
+                                       LocalDate from, LocalDate to, Long doctorId) {
+        List<Object[]> rows = switch (metric) {
+            case RECIPES -> recipeRepository.countByPeriod(granularity.unit(), from, to, doctorId);
+            case SICK_LEAVES -> sickLeaveRepository.countByPeriod(granularity.unit(), from, to, doctorId);
+            case DIAGNOSES -> diagnosisRepository.countByPeriod(granularity.unit(), from, to, doctorId);
+        };
+        Map<LocalDate, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put(toLocalDate(row[0]), ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    private static List<String> tables(TrendMetric metric) {
+        return switch (metric) {
+            case RECIPES -> RECIPE_TABLES;
+            case SICK_LEAVES -> SICK_LEAVE_TABLES;
+            case DIAGNOSES -> DIAGNOSIS_TABLES;
+        };
+    }
+
+    private static boolean isClosed(TrendGranularity granularity, LocalDate bucket, LocalDate today) {
+        return !granularity.next(bucket).isAfter(today);
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate();
+        }
+        if (value instanceof java.sql.Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toLocalDate();
+        }
+        return (LocalDate) value;
+    }
+
+    private record BucketKey(TrendMetric metric, TrendGranularity granularity, Long doctorId, LocalDate bucket) {
+    }
+
+    private record CachedCount(long count, long[] versions) {
+    }
+}
@@ -1,12 +1,22 @@
 package com.inf.cscb869_pharmacy.sickleave.controller;
 
+import com.inf.cscb869_pharmacy.sickleave.dto.SickLeaveCheckDTO;
+import com.inf.cscb869_pharmacy.sickleave.dto.SickLeaveOverlapDTO;
 import com.inf.cscb869_pharmacy.sickleave.entity.SickLeave;
+import com.inf.cscb869_pharmacy.sickleave.entity.SickLeaveEvent;
+import com.inf.cscb869_pharmacy.sickleave.entity.SickLeaveOverlapPolicy;
 import com.inf.cscb869_pharmacy.sickleave.entity.SickLeaveStatus;
+import com.inf.cscb869_pharmacy.sickleave.service.SickLeaveRollupService;
 import com.inf.cscb869_pharmacy.sickleave.service.SickLeaveService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
@@ -24,6 +34,7 @@ import java.util.Map;
 public class SickLeaveApiController {
 
     private final SickLeaveService sickLeaveService;
+    private final SickLeaveRollupService sickLeaveRollupService;
 
     @GetMapping
     public ResponseEntity<List<SickLeave>> getAllSickLeaves() {
@@ -44,9 +55,11 @@ public class SickLeaveApiController {
     }
 
     @PostMapping
-    public ResponseEntity<SickLeave> createSickLeave(@RequestBody SickLeave sickLeave) {
+    public ResponseEntity<SickLeave> createSickLeave(
+            @RequestBody SickLeave sickLeave,
+            @RequestParam(defaultValue = "REJECT") SickLeaveOverlapPolicy overlap) {
         log.info("API: Creating new sick leave");
-        return ResponseEntity.ok(sickLeaveService.createSickLeave(sickLeave));
+        return ResponseEntity.ok(sickLeaveService.createSickLeave(sickLeave, overlap));
     }
 
     @PutMapping("/{id}")
@@ -114,6 +127,17 @@ public class SickLeaveApiController {
         return ResponseEntity.ok(sickLeaveService.extendSickLeave(id, additionalDays, reason));
     }
 
+    @GetMapping("/{id}/events")
+    public ResponseEntity<List<SickLeaveEvent>> getSickLeaveEvents(
+            @PathVariable Long id,
+            @PageableDefault(size = 50, sort = "occurredAt", direction = Sort.Direction.DESC) Pageable pageable) {
+        log.info("API: Getting events for sick leave {}", id);
+        Page<SickLeaveEvent> events = sickLeaveService.getSickLeaveEvents(id, pageable);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(events.getTotalElements()))
+                .body(events.getContent());
+    }
+
     @PostMapping("/{id}/cancel")
     public ResponseEntity<SickLeave> cancelSickLeave(
             @PathVariable Long id,
@@ -138,6 +162,19 @@ public class SickLeaveApiController {
         return ResponseEntity.ok(sickLeaveService.hasActiveSickLeaveOnDate(customerId, date));
     }
 
+    @GetMapping("/overlaps")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<SickLeaveOverlapDTO>> findAllOverlaps() {
+        log.info("API: Scanning sick leaves for overlaps");
+        return ResponseEntity.ok(sickLeaveService.findAllOverlaps());
+    }
+
+    @PostMapping("/check")
+    public ResponseEntity<List<SickLeaveCheckDTO>> checkActiveSickLeaves(@RequestBody List<SickLeaveCheckDTO> checks) {
+        log.info("API: Batch checking active sick leaves for {} pairs", checks.size());
+        return ResponseEntity.ok(sickLeaveService.checkActiveSickLeaves(checks));
+    }
+
     @GetMapping("/statistics/by-doctor")
     public ResponseEntity<List<Object[]>> countSickLeavesByDoctor() {
         log.info("API: Getting sick leave statistics by doctor");
@@ -150,9 +187,11 @@ public class SickLeaveApiController {
         return ResponseEntity.ok(sickLeaveService.countSickLeavesByMonth());
     }
 
-    @GetMapping("/generate-number")
-    public ResponseEntity<Map<String, String>> generateLeaveNumber() {
-        String leaveNumber = sickLeaveService.generateLeaveNumber();
-        return ResponseEntity.ok(Map.of("leaveNumber", leaveNumber));
+    @PostMapping("/statistics/by-month/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> rebuildMonthlyStatistics() {
+        log.info("API: Rebuilding monthly sick leave rollup");
+        sickLeaveRollupService.rebuild();
+        return ResponseEntity.noContent().build();
     }
 }
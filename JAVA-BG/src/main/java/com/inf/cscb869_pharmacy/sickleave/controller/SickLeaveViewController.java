@@ -4,10 +4,13 @@ import com.inf.cscb869_pharmacy.customer.service.CustomerService;
 import com.inf.cscb869_pharmacy.doctor.service.DoctorService;
 import com.inf.cscb869_pharmacy.recipe.service.RecipeService;
 import com.inf.cscb869_pharmacy.sickleave.entity.SickLeave;
+import com.inf.cscb869_pharmacy.sickleave.entity.SickLeaveOverlapPolicy;
 import com.inf.cscb869_pharmacy.sickleave.entity.SickLeaveStatus;
 import com.inf.cscb869_pharmacy.sickleave.service.SickLeaveService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.stereotype.Controller;
@@ -67,7 +70,6 @@ public class SickLeaveViewController {
         log.info("Showing create sick leave form");
         
         SickLeave sickLeave = new SickLeave();
-        sickLeave.setLeaveNumber(sickLeaveService.generateLeaveNumber());
         sickLeave.setIssueDate(LocalDate.now());
         
         model.addAttribute("sickLeave", sickLeave);
@@ -133,6 +135,7 @@ public class SickLeaveViewController {
             @RequestParam Long recipeId,
             @RequestParam(required = false) Long customerId,
             @RequestParam(required = false) Long doctorId,
+            @RequestParam(defaultValue = "false") boolean continuation,
             RedirectAttributes redirectAttributes,
             Authentication authentication) {
         log.info("Creating new sick leave");
@@ -179,7 +182,8 @@ public class SickLeaveViewController {
 
             sickLeave.setRecipe(recipe);
             sickLeave.setIssueDate(LocalDate.now());
-            sickLeaveService.createSickLeave(sickLeave);
+            sickLeaveService.createSickLeave(sickLeave,
+                    continuation ? SickLeaveOverlapPolicy.MERGE : SickLeaveOverlapPolicy.REJECT);
             redirectAttributes.addFlashAttribute("success", 
                 "✅ Sick leave created successfully! Number: " + sickLeave.getLeaveNumber());
             
@@ -202,6 +206,8 @@ public class SickLeaveViewController {
         }
 
         model.addAttribute("sickLeave", sickLeave);
+        model.addAttribute("events", sickLeaveService.getSickLeaveEvents(id,
+                PageRequest.of(0, 50, Sort.by(Sort.Direction.DESC, "occurredAt"))).getContent());
         
         // Calculate additional information
         model.addAttribute("isActive", sickLeave.isCurrentlyActive());
@@ -0,0 +1,23 @@
+package com.inf.cscb869_pharmacy.sickleave.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One customer/date pair of a batch "active sick leave on date" check; {@code active} is filled in the response.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SickLeaveCheckDTO {
+    private Long customerId;
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate date;
+    private Boolean active;
+}
@@ -0,0 +1,23 @@
+package com.inf.cscb869_pharmacy.sickleave.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SickLeaveOverlapDTO {
+    private Long customerId;
+    private Long firstLeaveId;
+    private String firstLeaveNumber;
+    private Long secondLeaveId;
+    private String secondLeaveNumber;
+    private LocalDate overlapStart;
+    private LocalDate overlapEnd;
+    private Long overlapDays;
+}
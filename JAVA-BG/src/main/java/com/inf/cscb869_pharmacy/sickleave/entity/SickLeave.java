@@ -11,7 +11,10 @@ import org.springframework.format.annotation.DateTimeFormat;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "sick_leaves")
+@Table(name = "sick_leaves", indexes = {
+        @Index(name = "idx_sick_leaves_customer_status_dates", columnList = "customer_id, status, start_date, end_date"),
+        @Index(name = "idx_sick_leaves_issuing_doctor_issue_date", columnList = "issuing_doctor_id, issue_date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -27,6 +30,24 @@ public class SickLeave extends BaseEntity {
     @NotNull(message = "Recipe is required")
     private Recipe recipe;
 
+    /**
+     * Copy of the recipe's customer, so per-patient validity checks need no join through recipe.
+     */
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    /**
+     * Copy of the recipe's doctor, so per-doctor lists and rankings need no join through recipe.
+     */
+    @Column(name = "issuing_doctor_id", nullable = false)
+    private Long issuingDoctorId;
+
+    /**
+     * The leave this one continues, when it was issued as a continuation of an overlapping leave.
+     */
+    @Column(name = "continuation_of_id")
+    private Long continuationOfId;
+
     @NotNull(message = "Start date is required")
     @DateTimeFormat(pattern = "yyyy-MM-dd")
     @Column(name = "start_date", nullable = false)
@@ -0,0 +1,55 @@
+package com.inf.cscb869_pharmacy.sickleave.entity;
+
+import com.inf.cscb869_pharmacy.common.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of a sick leave's append-only history; the sick leave row itself holds the current state.
+ */
+@Entity
+@Table(name = "sick_leave_events", indexes = {
+        @Index(name = "idx_sick_leave_events_leave_time", columnList = "sick_leave_id, occurred_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SickLeaveEvent extends BaseEntity {
+
+    @Column(name = "sick_leave_id", nullable = false)
+    private Long sickLeaveId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private SickLeaveEventType type;
+
+    /**
+     * Days added by the event: the initial duration when issued, the extension when extended.
+     */
+    private Integer days;
+
+    @Column(length = 1000)
+    private String reason;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(length = 255)
+    private String actor;
+
+    @Override
+    public String toString() {
+        return "SickLeaveEvent{" +
+                "id=" + getId() +
+                ", sickLeaveId=" + sickLeaveId +
+                ", type=" + type +
+                ", days=" + days +
+                ", occurredAt=" + occurredAt +
+                ", actor='" + actor + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,9 @@
+package com.inf.cscb869_pharmacy.sickleave.entity;
+
+public enum SickLeaveEventType {
+    ISSUED,
+    UPDATED,
+    EXTENDED,
+    CANCELLED,
+    COMPLETED
+}
@@ -0,0 +1,49 @@
+package com.inf.cscb869_pharmacy.sickleave.entity;
+
+import com.inf.cscb869_pharmacy.common.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Non-cancelled sick leaves per start month and issuing doctor, maintained on every sick leave write.
+ */
+@Entity
+@Table(name = "sick_leave_monthly_rollup",
+        uniqueConstraints = @UniqueConstraint(name = "uk_sick_leave_monthly_rollup_period_doctor",
+                columnNames = {"period_year", "period_month", "doctor_id"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SickLeaveMonthlyRollup extends BaseEntity {
+
+    @Column(name = "period_year", nullable = false)
+    private Integer periodYear;
+
+    @Column(name = "period_month", nullable = false)
+    private Integer periodMonth;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @Column(name = "leave_count", nullable = false)
+    @Builder.Default
+    private Long leaveCount = 0L;
+
+    @Column(name = "total_days", nullable = false)
+    @Builder.Default
+    private Long totalDays = 0L;
+
+    @Override
+    public String toString() {
+        return "SickLeaveMonthlyRollup{" +
+                "id=" + getId() +
+                ", periodYear=" + periodYear +
+                ", periodMonth=" + periodMonth +
+                ", doctorId=" + doctorId +
+                ", leaveCount=" + leaveCount +
+                ", totalDays=" + totalDays +
+                '}';
+    }
+}
@@ -0,0 +1,36 @@
+package com.inf.cscb869_pharmacy.sickleave.entity;
+
+import com.inf.cscb869_pharmacy.common.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Per-day sick leave number sequence; nodes reserve blocks of numbers by advancing {@code nextValue}.
+ */
+@Entity
+@Table(name = "sick_leave_number_blocks",
+        uniqueConstraints = @UniqueConstraint(name = "uk_sick_leave_number_blocks_day", columnNames = "issue_day"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SickLeaveNumberBlock extends BaseEntity {
+
+    @Column(name = "issue_day", nullable = false)
+    private LocalDate issueDay;
+
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+
+    @Override
+    public String toString() {
+        return "SickLeaveNumberBlock{" +
+                "id=" + getId() +
+                ", issueDay=" + issueDay +
+                ", nextValue=" + nextValue +
+                '}';
+    }
+}
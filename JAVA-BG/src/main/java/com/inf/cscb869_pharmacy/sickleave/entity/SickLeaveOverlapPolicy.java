@@ -0,0 +1,15 @@
+package com.inf.cscb869_pharmacy.sickleave.entity;
+
+/**
+ * What to do when a new sick leave overlaps an existing one of the same patient.
+ */
+public enum SickLeaveOverlapPolicy {
+    /**
+     * Refuse the new leave.
+     */
+    REJECT,
+    /**
+     * Issue the new leave as a continuation starting the day after the covered period ends.
+     */
+    MERGE
+}
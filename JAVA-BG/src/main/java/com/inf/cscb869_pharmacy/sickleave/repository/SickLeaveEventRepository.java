@@ -0,0 +1,20 @@
+package com.inf.cscb869_pharmacy.sickleave.repository;
+
+import com.inf.cscb869_pharmacy.sickleave.entity.SickLeaveEvent;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SickLeaveEventRepository extends JpaRepository<SickLeaveEvent, Long> {
+
+    Page<SickLeaveEvent> findBySickLeaveId(Long sickLeaveId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM SickLeaveEvent e WHERE e.sickLeaveId = :sickLeaveId")
+    int deleteBySickLeaveId(@Param("sickLeaveId") Long sickLeaveId);
+}
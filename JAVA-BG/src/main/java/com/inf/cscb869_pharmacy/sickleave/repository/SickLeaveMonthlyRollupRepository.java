@@ -0,0 +1,49 @@
+package com.inf.cscb869_pharmacy.sickleave.repository;
+
+import com.inf.cscb869_pharmacy.sickleave.entity.SickLeaveMonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SickLeaveMonthlyRollupRepository extends JpaRepository<SickLeaveMonthlyRollup, Long> {
+
+    /**
+     * Adds the deltas to the bucket, creating it when missing. One statement, so two first writes to a bucket cannot
+     * both insert it.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sick_leave_monthly_rollup (period_year, period_month, doctor_id, leave_count, total_days) " +
+            "VALUES (:year, :month, :doctorId, :countDelta, :daysDelta) " +
+            "ON CONFLICT (period_year, period_month, doctor_id) DO UPDATE " +
+            "SET leave_count = sick_leave_monthly_rollup.leave_count + EXCLUDED.leave_count, " +
+            "total_days = sick_leave_monthly_rollup.total_days + EXCLUDED.total_days",
+            nativeQuery = true)
+    int adjust(@Param("year") int year,
+               @Param("month") int month,
+               @Param("doctorId") Long doctorId,
+               @Param("countDelta") long countDelta,
+               @Param("daysDelta") long daysDelta);
+
+    /**
+     * Holds off rollup writers until the current transaction ends, while still allowing reads.
+     * A rebuild takes it before reading the source totals, so no delta lands between that read and the rewrite.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE sick_leave_monthly_rollup IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    /**
+     * year, month, leave count, total days; newest month first.
+     */
+    @Query("SELECT r.periodYear, r.periodMonth, SUM(r.leaveCount), SUM(r.totalDays) " +
+            "FROM SickLeaveMonthlyRollup r " +
+            "GROUP BY r.periodYear, r.periodMonth " +
+            "HAVING SUM(r.leaveCount) > 0 " +
+            "ORDER BY r.periodYear DESC, r.periodMonth DESC")
+    List<Object[]> summarizeByMonth();
+}
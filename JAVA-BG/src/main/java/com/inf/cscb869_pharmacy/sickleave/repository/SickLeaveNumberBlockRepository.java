@@ -0,0 +1,17 @@
+package com.inf.cscb869_pharmacy.sickleave.repository;
+
+import com.inf.cscb869_pharmacy.sickleave.entity.SickLeaveNumberBlock;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface SickLeaveNumberBlockRepository extends JpaRepository<SickLeaveNumberBlock, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<SickLeaveNumberBlock> findByIssueDay(LocalDate issueDay);
+}
@@ -8,43 +8,104 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SickLeaveRepository extends JpaRepository<SickLeave, Long> {
 
     Optional<SickLeave> findByLeaveNumber(String leaveNumber);
 
-    List<SickLeave> findByRecipeCustomerIdOrderByStartDateDesc(Long customerId);
+    List<SickLeave> findByCustomerIdOrderByStartDateDesc(Long customerId);
 
-    List<SickLeave> findByRecipeDoctorIdOrderByIssueDateDesc(Long doctorId);
+    List<SickLeave> findByIssuingDoctorIdOrderByIssueDateDesc(Long doctorId);
 
     List<SickLeave> findByRecipeId(Long recipeId);
 
     List<SickLeave> findByStatus(SickLeaveStatus status);
 
-    @Query("SELECT sl FROM SickLeave sl WHERE sl.recipe.customer.id = :customerId AND sl.status = 'ACTIVE' AND sl.endDate >= CURRENT_DATE ORDER BY sl.startDate DESC")
+    @Query("SELECT sl FROM SickLeave sl WHERE sl.customerId = :customerId AND sl.status = 'ACTIVE' AND sl.endDate >= CURRENT_DATE ORDER BY sl.startDate DESC")
     List<SickLeave> findActiveSickLeavesByCustomerId(@Param("customerId") Long customerId);
 
     List<SickLeave> findByStartDateBetween(LocalDate startDate, LocalDate endDate);
 
-    @Query("SELECT sl.recipe.doctor.name, COUNT(sl) FROM SickLeave sl GROUP BY sl.recipe.doctor.id, sl.recipe.doctor.name ORDER BY COUNT(sl) DESC")
+    /**
+     * Ranking rows: issuing doctor name and count of non-cancelled leaves.
+     */
+    @Query("SELECT d.name, COUNT(sl) FROM SickLeave sl JOIN Doctor d ON d.id = sl.issuingDoctorId " +
+            "WHERE sl.status <> 'CANCELLED' " +
+            "GROUP BY d.id, d.name ORDER BY COUNT(sl) DESC")
     List<Object[]> countSickLeavesByDoctor();
 
-    @Query(value = "SELECT EXTRACT(YEAR FROM sl.start_date) AS yr, " +
-            "EXTRACT(MONTH FROM sl.start_date) AS mn, " +
-            "COUNT(*) AS cnt " +
+    /**
+     * Rollup source: year, month, doctor id, leave count and total days of non-cancelled leaves by start month.
+     */
+    @Query("SELECT EXTRACT(YEAR FROM sl.startDate), EXTRACT(MONTH FROM sl.startDate), sl.issuingDoctorId, " +
+            "COUNT(sl), SUM(sl.durationDays) " +
+            "FROM SickLeave sl " +
+            "WHERE sl.status <> 'CANCELLED' " +
+            "GROUP BY EXTRACT(YEAR FROM sl.startDate), EXTRACT(MONTH FROM sl.startDate), sl.issuingDoctorId")
+    List<Object[]> summarizeMonthlyRollup();
+
+    /**
+     * Trend rows: bucket start (date_trunc unit), count of non-cancelled leaves by start date.
+     */
+    @Query(value = "SELECT CAST(DATE_TRUNC(:unit, sl.start_date) AS date) AS bucket, COUNT(*) " +
             "FROM sick_leaves sl " +
-            "GROUP BY EXTRACT(YEAR FROM sl.start_date), EXTRACT(MONTH FROM sl.start_date) " +
-            "ORDER BY EXTRACT(YEAR FROM sl.start_date) DESC, EXTRACT(MONTH FROM sl.start_date) DESC",
+            "WHERE sl.start_date BETWEEN :from AND :to AND sl.status <> 'CANCELLED' " +
+            "AND (CAST(:doctorId AS bigint) IS NULL OR sl.issuing_doctor_id = CAST(:doctorId AS bigint)) " +
+            "GROUP BY bucket ORDER BY bucket",
             nativeQuery = true)
-    List<Object[]> countSickLeavesByMonth();
+    List<Object[]> countByPeriod(@Param("unit") String unit,
+                                 @Param("from") LocalDate from,
+                                 @Param("to") LocalDate to,
+                                 @Param("doctorId") Long doctorId);
+
+    @Query("SELECT r.doctor.id FROM Recipe r WHERE r.id = :recipeId")
+    Optional<Long> findDoctorIdByRecipeId(@Param("recipeId") Long recipeId);
 
     @Query("SELECT CASE WHEN COUNT(sl) > 0 THEN true ELSE false END " +
            "FROM SickLeave sl " +
-           "WHERE sl.recipe.customer.id = :customerId " +
+           "WHERE sl.customerId = :customerId " +
            "AND sl.status = 'ACTIVE' " +
-           "AND :date BETWEEN sl.startDate AND sl.endDate")
+           "AND sl.startDate <= :date AND sl.endDate >= :date")
     boolean hasActiveSickLeaveOnDate(@Param("customerId") Long customerId, @Param("date") LocalDate date);
+
+    /**
+     * Active validity intervals of the given customers touching [from, to]: customerId, startDate, endDate.
+     */
+    @Query("SELECT sl.customerId, sl.startDate, sl.endDate FROM SickLeave sl " +
+           "WHERE sl.customerId IN :customerIds " +
+           "AND sl.status = 'ACTIVE' " +
+           "AND sl.startDate <= :to AND sl.endDate >= :from")
+    List<Object[]> findActiveIntervals(@Param("customerIds") Collection<Long> customerIds,
+                                       @Param("from") LocalDate from,
+                                       @Param("to") LocalDate to);
+
+    /**
+     * Non-cancelled leaves of the customer whose validity interval intersects [from, to].
+     */
+    @Query("SELECT sl FROM SickLeave sl " +
+           "WHERE sl.customerId = :customerId " +
+           "AND sl.status <> 'CANCELLED' " +
+           "AND sl.startDate <= :to AND sl.endDate >= :from " +
+           "AND (:excludeId IS NULL OR sl.id <> :excludeId) " +
+           "ORDER BY sl.startDate")
+    List<SickLeave> findOverlapping(@Param("customerId") Long customerId,
+                                    @Param("from") LocalDate from,
+                                    @Param("to") LocalDate to,
+                                    @Param("excludeId") Long excludeId);
+
+    /**
+     * Non-cancelled validity intervals ordered for a sweep: id, leaveNumber, customerId, startDate, endDate.
+     */
+    @Query("SELECT sl.id, sl.leaveNumber, sl.customerId, sl.startDate, sl.endDate FROM SickLeave sl " +
+           "WHERE sl.status <> 'CANCELLED' " +
+           "ORDER BY sl.customerId, sl.startDate, sl.id")
+    Stream<Object[]> streamIntervalsForSweep();
+
+    @Query("SELECT r.customer.id FROM Recipe r WHERE r.id = :recipeId")
+    Optional<Long> findCustomerIdByRecipeId(@Param("recipeId") Long recipeId);
 }
@@ -0,0 +1,141 @@
+package com.inf.cscb869_pharmacy.sickleave.service;
+
+import com.inf.cscb869_pharmacy.sickleave.entity.SickLeaveNumberBlock;
+import com.inf.cscb869_pharmacy.sickleave.repository.SickLeaveNumberBlockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Allocates sick leave numbers in the format SL-YYYYMMDD-NNNNNN-C, where C is a Luhn check digit
+ * over the date and sequence digits.
+ * Each node reserves a block of the day's sequence in a short transaction of its own and then hands
+ * numbers out of that block without locking. Numbers left in a block when the node stops are skipped,
+ * so the sequence is unique and increasing per node but may have gaps.
+ * Алокиране на номера на болнични листове
+ */
+@Component
+@Slf4j
+public class SickLeaveNumberAllocator {
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final SickLeaveNumberBlockRepository blockRepository;
+    private final TransactionTemplate blockTransaction;
+    private final int blockSize;
+
+    private final ReentrantLock refillLock = new ReentrantLock();
+
+    private volatile Block current;
+
+    public SickLeaveNumberAllocator(SickLeaveNumberBlockRepository blockRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${pharmacy.sick-leave.number-block-size:50}") int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Sick leave number block size must be positive: " + blockSize);
+        }
+        this.blockRepository = blockRepository;
+        this.blockSize = blockSize;
+        this.blockTransaction = new TransactionTemplate(transactionManager);
+        this.blockTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public String nextNumber() {
+        return nextNumber(LocalDate.now());
+    }
+
+    String nextNumber(LocalDate day) {
+        while (true) {
+            Block block = current;
+            if (block != null && block.day.equals(day)) {
+                long value = block.next.getAndIncrement();
+                if (value < block.end) {
+                    return format(day, value);
+                }
+            }
+            refill(day, block);
+        }
+    }
+
+    static String format(LocalDate day, long value) {
+        String digits = day.format(DAY_FORMAT) + String.format("%06d", value);
+        return "SL-" + digits.substring(0, 8) + "-" + digits.substring(8) + "-" + checkDigit(digits);
+    }
+
+    /**
+     * Luhn check digit, so a mistyped digit or swapped neighbours in a quoted number are detectable.
+     */
+    static int checkDigit(String digits) {
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int digit = digits.charAt(i) - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    /**
+     * A lock rather than {@code synchronized}: the reservation runs a JDBC transaction, and a virtual
+     * thread blocked inside a monitor would pin its carrier thread for the whole round trip.
+     */
+    private void refill(LocalDate day, Block exhausted) {
+        refillLock.lock();
+        try {
+            if (current != exhausted) {
+                return;
+            }
+            Block reserved = reserveBlock(day);
+            log.info("Reserved sick leave numbers {} to {} for {}", reserved.next.get(), reserved.end - 1, day);
+            current = reserved;
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    private Block reserveBlock(LocalDate day) {
+        try {
+            return blockTransaction.execute(status -> claim(day));
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the day's row first; its row lock now orders the claims.
+            return blockTransaction.execute(status -> claim(day));
+        }
+    }
+
+    private Block claim(LocalDate day) {
+        SickLeaveNumberBlock row = blockRepository.findByIssueDay(day)
+                .orElseGet(() -> SickLeaveNumberBlock.builder().issueDay(day).nextValue(1L).build());
+        long start = row.getNextValue();
+        row.setNextValue(start + blockSize);
+        blockRepository.saveAndFlush(row);
+        return new Block(day, start, start + blockSize);
+    }
+
+    private static final class Block {
+        private final LocalDate day;
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(LocalDate day, long start, long end) {
+            this.day = day;
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
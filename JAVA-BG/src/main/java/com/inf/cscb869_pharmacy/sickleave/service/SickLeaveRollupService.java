@@ -0,0 +1,35 @@
+package com.inf.cscb869_pharmacy.sickleave.service;
+
+import com.inf.cscb869_pharmacy.sickleave.entity.SickLeave;
+
+import java.util.List;
+
+/**
+ * Keeps the monthly sick leave rollup in step with sick leave writes
+ * Месечна статистика за болнични листове
+ */
+public interface SickLeaveRollupService {
+
+    /**
+     * What the leave currently adds to the rollup, or {@code null} when it adds nothing (cancelled or incomplete).
+     */
+    Contribution contributionOf(SickLeave sickLeave);
+
+    /**
+     * Moves one leave's contribution from {@code before} to {@code after}; either side may be {@code null}.
+     */
+    void recordChange(Contribution before, Contribution after);
+
+    /**
+     * Rows of year, month, leave count and total days, newest month first.
+     */
+    List<Object[]> getMonthlyTotals();
+
+    /**
+     * Recomputes the rollup from the sick leaves table and returns the number of rollup rows written.
+     */
+    int rebuild();
+
+    record Contribution(int year, int month, Long doctorId, int days) {
+    }
+}
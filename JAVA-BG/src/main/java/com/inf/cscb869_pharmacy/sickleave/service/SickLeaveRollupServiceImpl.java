@@ -0,0 +1,114 @@
+package com.inf.cscb869_pharmacy.sickleave.service;
+
+import com.inf.cscb869_pharmacy.job.ClusterJob;
+import com.inf.cscb869_pharmacy.sickleave.entity.SickLeave;
+import com.inf.cscb869_pharmacy.sickleave.entity.SickLeaveMonthlyRollup;
+import com.inf.cscb869_pharmacy.sickleave.entity.SickLeaveStatus;
+import com.inf.cscb869_pharmacy.sickleave.repository.SickLeaveMonthlyRollupRepository;
+import com.inf.cscb869_pharmacy.sickleave.repository.SickLeaveRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Service implementation for the monthly sick leave rollup.
+ * A leave counts once, in the month it starts, under its issuing doctor; cancelled leaves do not count.
+ * Deltas are applied in the caller's transaction, so the rollup commits or rolls back with the leave.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class SickLeaveRollupServiceImpl implements SickLeaveRollupService {
+
+    private final SickLeaveMonthlyRollupRepository rollupRepository;
+    private final SickLeaveRepository sickLeaveRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        // Seed data is inserted by SQL and bypasses the write path
+        if (rollupRepository.count() == 0 && sickLeaveRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    @Override
+    public Contribution contributionOf(SickLeave sickLeave) {
+        if (sickLeave == null || sickLeave.getStatus() == SickLeaveStatus.CANCELLED
+                || sickLeave.getStartDate() == null || sickLeave.getDurationDays() == null) {
+            return null;
+        }
+        if (sickLeave.getIssuingDoctorId() == null) {
+            return null;
+        }
+        return new Contribution(sickLeave.getStartDate().getYear(), sickLeave.getStartDate().getMonthValue(),
+                sickLeave.getIssuingDoctorId(), sickLeave.getDurationDays());
+    }
+
+    @Override
+    public void recordChange(Contribution before, Contribution after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null && after != null && sameBucket(before, after)) {
+            adjust(after, 0, after.days() - before.days());
+            return;
+        }
+        if (before != null) {
+            adjust(before, -1, -before.days());
+        }
+        if (after != null) {
+            adjust(after, 1, after.days());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Object[]> getMonthlyTotals() {
+        return rollupRepository.summarizeByMonth();
+    }
+
+    /**
+     * Nightly safety net for deltas lost to bulk statements or manual SQL; one node rebuilds for the cluster.
+     */
+    @Scheduled(cron = "${pharmacy.jobs.rollup-rebuild.cron:0 30 3 * * *}")
+    @ClusterJob(value = "sick-leave-rollup-rebuild", minIntervalString = "${pharmacy.jobs.rollup-rebuild.min-interval-ms:3600000}")
+    public int reconcile() {
+        return rebuild();
+    }
+
+    @Override
+    public int rebuild() {
+        log.info("Rebuilding monthly sick leave rollup from sick leaves table");
+        rollupRepository.lockForRebuild();
+        List<SickLeaveMonthlyRollup> rows = sickLeaveRepository.summarizeMonthlyRollup().stream()
+                .map(row -> SickLeaveMonthlyRollup.builder()
+                        .periodYear(((Number) row[0]).intValue())
+                        .periodMonth(((Number) row[1]).intValue())
+                        .doctorId((Long) row[2])
+                        .leaveCount(((Number) row[3]).longValue())
+                        .totalDays(row[4] != null ? ((Number) row[4]).longValue() : 0L)
+                        .build())
+                .toList();
+        rollupRepository.deleteAllInBatch();
+        rollupRepository.saveAll(rows);
+        log.info("Rebuilt {} monthly sick leave rollup rows", rows.size());
+        return rows.size();
+    }
+
+    private void adjust(Contribution bucket, long countDelta, long daysDelta) {
+        rollupRepository.adjust(bucket.year(), bucket.month(), bucket.doctorId(), countDelta, daysDelta);
+    }
+
+    private static boolean sameBucket(Contribution first, Contribution second) {
+        return first.year() == second.year() && first.month() == second.month()
+                && Objects.equals(first.doctorId(), second.doctorId());
+    }
+}
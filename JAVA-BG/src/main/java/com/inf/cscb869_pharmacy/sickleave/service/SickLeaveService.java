@@ -1,15 +1,26 @@
 package com.inf.cscb869_pharmacy.sickleave.service;
 
+import com.inf.cscb869_pharmacy.sickleave.dto.SickLeaveCheckDTO;
+import com.inf.cscb869_pharmacy.sickleave.dto.SickLeaveOverlapDTO;
 import com.inf.cscb869_pharmacy.sickleave.entity.SickLeave;
+import com.inf.cscb869_pharmacy.sickleave.entity.SickLeaveEvent;
+import com.inf.cscb869_pharmacy.sickleave.entity.SickLeaveOverlapPolicy;
 import com.inf.cscb869_pharmacy.sickleave.entity.SickLeaveStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
 import java.util.List;
 
 public interface SickLeaveService {
 
+    /**
+     * Creates a sick leave, rejecting it when it overlaps another non-cancelled leave of the same patient.
+     */
     SickLeave createSickLeave(SickLeave sickLeave);
 
+    SickLeave createSickLeave(SickLeave sickLeave, SickLeaveOverlapPolicy overlapPolicy);
+
     SickLeave updateSickLeave(Long id, SickLeave sickLeave);
 
     void deleteSickLeave(Long id);
@@ -38,11 +49,39 @@ public interface SickLeaveService {
 
     Boolean hasActiveSickLeaveOnDate(Long customerId, LocalDate date);
 
+    /**
+     * Answers many customer/date checks with a single query; results keep the request order.
+     */
+    List<SickLeaveCheckDTO> checkActiveSickLeaves(List<SickLeaveCheckDTO> checks);
+
+    /**
+     * Finds every pair of overlapping non-cancelled leaves in one ordered pass over the table.
+     */
+    List<SickLeaveOverlapDTO> findAllOverlaps();
+
     SickLeave extendSickLeave(Long id, Integer additionalDays, String reason);
 
+    /**
+     * History of a sick leave, one row per issue, update, extension, cancellation or completion.
+     */
+    Page<SickLeaveEvent> getSickLeaveEvents(Long sickLeaveId, Pageable pageable);
+
+    /**
+     * Moves the leaves issued on a recipe to the recipe's new doctor.
+     */
+    void reassignIssuingDoctor(Long recipeId, Long doctorId);
+
+    /**
+     * Moves the leaves issued on a recipe to the recipe's new patient; rejected when they overlap that patient's leaves.
+     */
+    void reassignCustomer(Long recipeId, Long customerId);
+
+    /**
+     * Deletes the leaves issued on a recipe with their history, taking them out of the monthly rollup; for recipe deletion.
+     */
+    void deleteSickLeavesByRecipeId(Long recipeId);
+
     SickLeave cancelSickLeave(Long id, String reason);
 
     SickLeave completeSickLeave(Long id);
-
-    String generateLeaveNumber();
 }
@@ -1,17 +1,34 @@
 package com.inf.cscb869_pharmacy.sickleave.service;
 
+import com.inf.cscb869_pharmacy.bulkhead.Subsystem;
+import com.inf.cscb869_pharmacy.bulkhead.UseBulkhead;
+import com.inf.cscb869_pharmacy.metrics.MetricsConfig;
+import com.inf.cscb869_pharmacy.metrics.PharmacyMetrics;
+import com.inf.cscb869_pharmacy.recipe.entity.Recipe;
+import com.inf.cscb869_pharmacy.sickleave.dto.SickLeaveCheckDTO;
+import com.inf.cscb869_pharmacy.sickleave.dto.SickLeaveOverlapDTO;
 import com.inf.cscb869_pharmacy.sickleave.entity.SickLeave;
+import com.inf.cscb869_pharmacy.sickleave.entity.SickLeaveEvent;
+import com.inf.cscb869_pharmacy.sickleave.entity.SickLeaveEventType;
+import com.inf.cscb869_pharmacy.sickleave.entity.SickLeaveOverlapPolicy;
 import com.inf.cscb869_pharmacy.sickleave.entity.SickLeaveStatus;
+import com.inf.cscb869_pharmacy.sickleave.repository.SickLeaveEventRepository;
 import com.inf.cscb869_pharmacy.sickleave.repository.SickLeaveRepository;
+import com.inf.cscb869_pharmacy.util.CurrentActor;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.List;
-import java.util.UUID;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service implementation for Sick Leave management
@@ -21,18 +38,31 @@ import java.util.UUID;
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class SickLeaveServiceImpl implements SickLeaveService {
 
+    private static final int MAX_BATCH_CHECKS = 1000;
+
     private final SickLeaveRepository sickLeaveRepository;
+    private final SickLeaveNumberAllocator sickLeaveNumberAllocator;
+    private final SickLeaveEventRepository sickLeaveEventRepository;
+    private final SickLeaveRollupService sickLeaveRollupService;
+    private final PharmacyMetrics pharmacyMetrics;
 
     @Override
+    @UseBulkhead(Subsystem.WRITES)
     public SickLeave createSickLeave(SickLeave sickLeave) {
+        return createSickLeave(sickLeave, SickLeaveOverlapPolicy.REJECT);
+    }
+
+    @Override
+    @UseBulkhead(Subsystem.WRITES)
+    public SickLeave createSickLeave(SickLeave sickLeave, SickLeaveOverlapPolicy overlapPolicy) {
         Long recipeId = sickLeave.getRecipe() != null ? sickLeave.getRecipe().getId() : null;
         log.info("Creating new sick leave for recipe ID: {}", recipeId);
 
-        if (sickLeave.getLeaveNumber() == null || sickLeave.getLeaveNumber().isEmpty()) {
-            sickLeave.setLeaveNumber(generateLeaveNumber());
-        }
+        sickLeave.setCustomerId(resolveCustomerId(sickLeave.getRecipe()));
+        sickLeave.setIssuingDoctorId(resolveIssuingDoctorId(sickLeave.getRecipe()));
 
         if (sickLeave.getIssueDate() == null) {
             sickLeave.setIssueDate(LocalDate.now());
@@ -42,13 +72,31 @@ public class SickLeaveServiceImpl implements SickLeaveService {
             sickLeave.setStatus(SickLeaveStatus.ACTIVE);
         }
 
-        return sickLeaveRepository.save(sickLeave);
+        List<SickLeave> overlapping = findOverlapping(sickLeave, null);
+        if (!overlapping.isEmpty()) {
+            if (overlapPolicy != SickLeaveOverlapPolicy.MERGE) {
+                throw overlapError(overlapping);
+            }
+            issueAsContinuation(sickLeave, overlapping);
+        }
+
+        // Numbers are only handed out at persist time, never taken from the client
+        sickLeave.setLeaveNumber(sickLeaveNumberAllocator.nextNumber());
+        log.info("Assigned sick leave number: {}", sickLeave.getLeaveNumber());
+
+        SickLeave saved = sickLeaveRepository.save(sickLeave);
+        recordEvent(saved, SickLeaveEventType.ISSUED, saved.getDurationDays(), null);
+        sickLeaveRollupService.recordChange(null, sickLeaveRollupService.contributionOf(saved));
+        pharmacyMetrics.sickLeaveIssued();
+        return saved;
     }
 
     @Override
+    @UseBulkhead(Subsystem.WRITES)
     public SickLeave updateSickLeave(Long id, SickLeave sickLeave) {
         log.info("Updating sick leave with ID: {}", id);
         SickLeave existing = getSickLeaveById(id);
+        SickLeaveRollupService.Contribution before = sickLeaveRollupService.contributionOf(existing);
 
         existing.setStartDate(sickLeave.getStartDate());
         existing.setDurationDays(sickLeave.getDurationDays());
@@ -56,13 +104,37 @@ public class SickLeaveServiceImpl implements SickLeaveService {
         existing.setStatus(sickLeave.getStatus());
         existing.setNotes(sickLeave.getNotes());
 
-        return sickLeaveRepository.save(existing);
+        List<SickLeave> overlapping = findOverlapping(existing, id);
+        if (!overlapping.isEmpty()) {
+            throw overlapError(overlapping);
+        }
+
+        SickLeave saved = sickLeaveRepository.save(existing);
+        recordEvent(saved, SickLeaveEventType.UPDATED, saved.getDurationDays(), null);
+        sickLeaveRollupService.recordChange(before, sickLeaveRollupService.contributionOf(saved));
+        return saved;
     }
 
     @Override
+    @UseBulkhead(Subsystem.WRITES)
     public void deleteSickLeave(Long id) {
         log.info("Deleting sick leave with ID: {}", id);
-        sickLeaveRepository.deleteById(id);
+        sickLeaveRepository.findById(id).ifPresent(existing -> {
+            sickLeaveRollupService.recordChange(sickLeaveRollupService.contributionOf(existing), null);
+            sickLeaveEventRepository.deleteBySickLeaveId(id);
+            sickLeaveRepository.delete(existing);
+        });
+    }
+
+    @Override
+    @UseBulkhead(Subsystem.WRITES)
+    public void deleteSickLeavesByRecipeId(Long recipeId) {
+        for (SickLeave sickLeave : sickLeaveRepository.findByRecipeId(recipeId)) {
+            log.info("Deleting sick leave {} of deleted recipe {}", sickLeave.getId(), recipeId);
+            sickLeaveRollupService.recordChange(sickLeaveRollupService.contributionOf(sickLeave), null);
+            sickLeaveEventRepository.deleteBySickLeaveId(sickLeave.getId());
+            sickLeaveRepository.delete(sickLeave);
+        }
     }
 
     @Override
@@ -91,14 +163,14 @@ public class SickLeaveServiceImpl implements SickLeaveService {
     @Transactional(readOnly = true)
     public List<SickLeave> getSickLeavesByCustomerId(Long customerId) {
         log.info("Fetching sick leaves for customer ID: {}", customerId);
-        return sickLeaveRepository.findByRecipeCustomerIdOrderByStartDateDesc(customerId);
+        return sickLeaveRepository.findByCustomerIdOrderByStartDateDesc(customerId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<SickLeave> getSickLeavesByDoctorId(Long doctorId) {
         log.info("Fetching sick leaves for doctor ID: {}", doctorId);
-        return sickLeaveRepository.findByRecipeDoctorIdOrderByIssueDateDesc(doctorId);
+        return sickLeaveRepository.findByIssuingDoctorIdOrderByIssueDateDesc(doctorId);
     }
 
     @Override
@@ -140,7 +212,7 @@ public class SickLeaveServiceImpl implements SickLeaveService {
     @Transactional(readOnly = true)
     public List<Object[]> countSickLeavesByMonth() {
         log.info("Counting sick leaves by month");
-        return sickLeaveRepository.countSickLeavesByMonth();
+        return sickLeaveRollupService.getMonthlyTotals();
     }
 
     @Override
@@ -151,61 +223,251 @@ public class SickLeaveServiceImpl implements SickLeaveService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<SickLeaveCheckDTO> checkActiveSickLeaves(List<SickLeaveCheckDTO> checks) {
+        if (checks == null || checks.isEmpty()) {
+            return List.of();
+        }
+        if (checks.size() > MAX_BATCH_CHECKS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_CHECKS + " checks are allowed per request");
+        }
+        log.info("Checking {} customer/date pairs for active sick leave", checks.size());
+
+        Set<Long> customerIds = new HashSet<>();
+        LocalDate from = null;
+        LocalDate to = null;
+        for (SickLeaveCheckDTO check : checks) {
+            if (check.getCustomerId() == null || check.getDate() == null) {
+                throw new IllegalArgumentException("Each check needs a customerId and a date");
+            }
+            customerIds.add(check.getCustomerId());
+            from = from == null || check.getDate().isBefore(from) ? check.getDate() : from;
+            to = to == null || check.getDate().isAfter(to) ? check.getDate() : to;
+        }
+
+        Map<Long, List<LocalDate[]>> intervals = new HashMap<>();
+        for (Object[] row : sickLeaveRepository.findActiveIntervals(customerIds, from, to)) {
+            intervals.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                    .add(new LocalDate[]{(LocalDate) row[1], (LocalDate) row[2]});
+        }
+
+        return checks.stream()
+                .map(check -> SickLeaveCheckDTO.builder()
+                        .customerId(check.getCustomerId())
+                        .date(check.getDate())
+                        .active(intervals.getOrDefault(check.getCustomerId(), List.of()).stream()
+                                .anyMatch(interval -> !check.getDate().isBefore(interval[0])
+                                        && !check.getDate().isAfter(interval[1])))
+                        .build())
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<SickLeaveEvent> getSickLeaveEvents(Long sickLeaveId, Pageable pageable) {
+        log.info("Fetching events for sick leave ID: {}", sickLeaveId);
+        return sickLeaveEventRepository.findBySickLeaveId(sickLeaveId, pageable);
+    }
+
+    @Override
+    @UseBulkhead(Subsystem.WRITES)
+    public void reassignIssuingDoctor(Long recipeId, Long doctorId) {
+        for (SickLeave sickLeave : sickLeaveRepository.findByRecipeId(recipeId)) {
+            if (Objects.equals(sickLeave.getIssuingDoctorId(), doctorId)) {
+                continue;
+            }
+            log.info("Reassigning sick leave {} to doctor {}", sickLeave.getId(), doctorId);
+            SickLeaveRollupService.Contribution before = sickLeaveRollupService.contributionOf(sickLeave);
+            sickLeave.setIssuingDoctorId(doctorId);
+            SickLeave saved = sickLeaveRepository.save(sickLeave);
+            recordEvent(saved, SickLeaveEventType.UPDATED, null, "Recipe doctor changed");
+            sickLeaveRollupService.recordChange(before, sickLeaveRollupService.contributionOf(saved));
+        }
+    }
+
+    @Override
+    @UseBulkhead(Subsystem.WRITES)
+    public void reassignCustomer(Long recipeId, Long customerId) {
+        for (SickLeave sickLeave : sickLeaveRepository.findByRecipeId(recipeId)) {
+            if (Objects.equals(sickLeave.getCustomerId(), customerId)) {
+                continue;
+            }
+            log.info("Moving sick leave {} to customer {}", sickLeave.getId(), customerId);
+            sickLeave.setCustomerId(customerId);
+            List<SickLeave> overlapping = findOverlapping(sickLeave, sickLeave.getId());
+            if (!overlapping.isEmpty()) {
+                throw overlapError(overlapping);
+            }
+            SickLeave saved = sickLeaveRepository.save(sickLeave);
+            recordEvent(saved, SickLeaveEventType.UPDATED, null, "Recipe patient changed");
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SickLeaveOverlapDTO> findAllOverlaps() {
+        log.info("Scanning all sick leaves for overlapping validity periods");
+        List<SickLeaveOverlapDTO> overlaps = new ArrayList<>();
+        // Rows arrive ordered by customer and start date; 'open' holds the customer's leaves still running
+        // at the current start, so each leave is compared only with leaves it can actually overlap.
+        List<Object[]> open = new ArrayList<>();
+        Long currentCustomer = null;
+        try (Stream<Object[]> rows = sickLeaveRepository.streamIntervalsForSweep()) {
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                Long customerId = (Long) row[2];
+                LocalDate start = (LocalDate) row[3];
+                if (!customerId.equals(currentCustomer)) {
+                    open.clear();
+                    currentCustomer = customerId;
+                }
+                open.removeIf(earlier -> ((LocalDate) earlier[4]).isBefore(start));
+                for (Object[] earlier : open) {
+                    overlaps.add(toOverlap(earlier, row));
+                }
+                open.add(row);
+            }
+        }
+        log.info("Found {} overlapping sick leave pairs", overlaps.size());
+        return overlaps;
+    }
+
+    @Override
+    @UseBulkhead(Subsystem.WRITES)
     public SickLeave extendSickLeave(Long id, Integer additionalDays, String reason) {
         log.info("Extending sick leave {} by {} days", id, additionalDays);
+        if (additionalDays == null || additionalDays <= 0) {
+            throw new IllegalArgumentException("A sick leave can only be extended by a positive number of days");
+        }
         SickLeave sickLeave = getSickLeaveById(id);
+        SickLeaveRollupService.Contribution before = sickLeaveRollupService.contributionOf(sickLeave);
 
         sickLeave.setDurationDays(sickLeave.getDurationDays() + additionalDays);
         sickLeave.setStatus(SickLeaveStatus.EXTENDED);
 
-        String extendNote = String.format("Extended by %d days on %s. Reason: %s",
-                additionalDays, LocalDate.now(), reason);
-
-        if (sickLeave.getNotes() != null && !sickLeave.getNotes().isEmpty()) {
-            sickLeave.setNotes(sickLeave.getNotes() + "\n" + extendNote);
-        } else {
-            sickLeave.setNotes(extendNote);
+        List<SickLeave> overlapping = findOverlapping(sickLeave, id);
+        if (!overlapping.isEmpty()) {
+            throw overlapError(overlapping);
         }
 
-        return sickLeaveRepository.save(sickLeave);
+        SickLeave saved = sickLeaveRepository.save(sickLeave);
+        recordEvent(saved, SickLeaveEventType.EXTENDED, additionalDays, reason);
+        sickLeaveRollupService.recordChange(before, sickLeaveRollupService.contributionOf(saved));
+        return saved;
     }
 
     @Override
+    @UseBulkhead(Subsystem.WRITES)
     public SickLeave cancelSickLeave(Long id, String reason) {
         log.info("Cancelling sick leave {}", id);
         SickLeave sickLeave = getSickLeaveById(id);
+        SickLeaveRollupService.Contribution before = sickLeaveRollupService.contributionOf(sickLeave);
 
         sickLeave.setStatus(SickLeaveStatus.CANCELLED);
 
-        String cancelNote = String.format("Cancelled on %s. Reason: %s", LocalDate.now(), reason);
-
-        if (sickLeave.getNotes() != null && !sickLeave.getNotes().isEmpty()) {
-            sickLeave.setNotes(sickLeave.getNotes() + "\n" + cancelNote);
-        } else {
-            sickLeave.setNotes(cancelNote);
-        }
-
-        return sickLeaveRepository.save(sickLeave);
+        SickLeave saved = sickLeaveRepository.save(sickLeave);
+        recordEvent(saved, SickLeaveEventType.CANCELLED, null, reason);
+        sickLeaveRollupService.recordChange(before, sickLeaveRollupService.contributionOf(saved));
+        return saved;
     }
 
     @Override
+    @UseBulkhead(Subsystem.WRITES)
     public SickLeave completeSickLeave(Long id) {
         log.info("Marking sick leave {} as completed", id);
         SickLeave sickLeave = getSickLeaveById(id);
+        SickLeaveRollupService.Contribution before = sickLeaveRollupService.contributionOf(sickLeave);
 
         sickLeave.setStatus(SickLeaveStatus.COMPLETED);
 
-        return sickLeaveRepository.save(sickLeave);
+        SickLeave saved = sickLeaveRepository.save(sickLeave);
+        recordEvent(saved, SickLeaveEventType.COMPLETED, null, null);
+        sickLeaveRollupService.recordChange(before, sickLeaveRollupService.contributionOf(saved));
+        return saved;
     }
 
-    @Override
-    public String generateLeaveNumber() {
-        // Format: SL-YYYYMMDD-XXXX (e.g., SL-20260126-A1B2)
-        String datePrefix = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String uniquePart = UUID.randomUUID().toString().substring(0, 4).toUpperCase();
-        String leaveNumber = "SL-" + datePrefix + "-" + uniquePart;
+    private Long resolveCustomerId(Recipe recipe) {
+        if (recipe == null) {
+            return null;
+        }
+        if (recipe.getCustomer() != null && recipe.getCustomer().getId() != null) {
+            return recipe.getCustomer().getId();
+        }
+        return sickLeaveRepository.findCustomerIdByRecipeId(recipe.getId())
+                .orElseThrow(() -> new RuntimeException("Recipe not found with ID: " + recipe.getId()));
+    }
+
+    private Long resolveIssuingDoctorId(Recipe recipe) {
+        if (recipe == null) {
+            return null;
+        }
+        if (recipe.getDoctor() != null && recipe.getDoctor().getId() != null) {
+            return recipe.getDoctor().getId();
+        }
+        return sickLeaveRepository.findDoctorIdByRecipeId(recipe.getId())
+                .orElseThrow(() -> new RuntimeException("Recipe not found with ID: " + recipe.getId()));
+    }
+
+    private void recordEvent(SickLeave sickLeave, SickLeaveEventType type, Integer days, String reason) {
+        sickLeaveEventRepository.save(SickLeaveEvent.builder()
+                .sickLeaveId(sickLeave.getId())
+                .type(type)
+                .days(days)
+                .reason(reason)
+                .occurredAt(LocalDateTime.now())
+                .actor(CurrentActor.name())
+                .build());
+    }
+
+    private List<SickLeave> findOverlapping(SickLeave sickLeave, Long excludeId) {
+        if (sickLeave.getCustomerId() == null || sickLeave.getStartDate() == null
+                || sickLeave.getDurationDays() == null || sickLeave.getStatus() == SickLeaveStatus.CANCELLED) {
+            return List.of();
+        }
+        sickLeave.calculateEndDate();
+        return sickLeaveRepository.findOverlapping(
+                sickLeave.getCustomerId(), sickLeave.getStartDate(), sickLeave.getEndDate(), excludeId);
+    }
+
+    /**
+     * Moves the new leave's start to the day after the overlapping leaves end, keeping its end date.
+     */
+    private void issueAsContinuation(SickLeave sickLeave, List<SickLeave> overlapping) {
+        SickLeave previous = overlapping.stream().max(Comparator.comparing(SickLeave::getEndDate)).orElseThrow();
+        if (sickLeave.getStartDate().isBefore(overlapping.get(0).getStartDate())) {
+            throw new IllegalArgumentException("Sick leave starts before " + overlapping.get(0).getLeaveNumber()
+                    + " and cannot be issued as its continuation");
+        }
+        if (!sickLeave.getEndDate().isAfter(previous.getEndDate())) {
+            throw new IllegalArgumentException("Sick leave period is already covered by " + previous.getLeaveNumber());
+        }
+
+        LocalDate start = previous.getEndDate().plusDays(1);
+        sickLeave.setDurationDays((int) ChronoUnit.DAYS.between(start, sickLeave.getEndDate()) + 1);
+        sickLeave.setStartDate(start);
+        sickLeave.setContinuationOfId(previous.getId());
+        sickLeave.calculateEndDate();
+        log.info("Issuing sick leave as continuation of {} starting {}", previous.getLeaveNumber(), start);
+    }
+
+    private static IllegalArgumentException overlapError(List<SickLeave> overlapping) {
+        String numbers = overlapping.stream().map(SickLeave::getLeaveNumber).collect(Collectors.joining(", "));
+        return new IllegalArgumentException("Sick leave overlaps existing sick leave(s) of the patient: " + numbers);
+    }
 
-        log.info("Generated sick leave number: {}", leaveNumber);
-        return leaveNumber;
+    private static SickLeaveOverlapDTO toOverlap(Object[] earlier, Object[] later) {
+        LocalDate overlapStart = (LocalDate) later[3];
+        LocalDate earlierEnd = (LocalDate) earlier[4];
+        LocalDate laterEnd = (LocalDate) later[4];
+        LocalDate overlapEnd = earlierEnd.isBefore(laterEnd) ? earlierEnd : laterEnd;
+        return SickLeaveOverlapDTO.builder()
+                .customerId((Long) later[2])
+                .firstLeaveId((Long) earlier[0])
+                .firstLeaveNumber((String) earlier[1])
+                .secondLeaveId((Long) later[0])
+                .secondLeaveNumber((String) later[1])
+                .overlapStart(overlapStart)
+                .overlapEnd(overlapEnd)
+                .overlapDays(ChronoUnit.DAYS.between(overlapStart, overlapEnd) + 1)
+                .build();
     }
 }
@@ -0,0 +1,42 @@
+package com.inf.cscb869_pharmacy.util;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Name of the user behind the current request, for audit records.
+ * Prefers the e-mail, then the Keycloak preferred_username, then the principal name.
+ */
+public final class CurrentActor {
+
+    public static final String SYSTEM = "system";
+
+    private CurrentActor() {
+    }
+
+    public static String name() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return SYSTEM;
+        }
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof OidcUser oidcUser) {
+            return firstPresent(oidcUser.getEmail(), oidcUser.getClaimAsString("preferred_username"), authentication.getName());
+        }
+        if (principal instanceof Jwt jwt) {
+            return firstPresent(jwt.getClaimAsString("email"), jwt.getClaimAsString("preferred_username"), authentication.getName());
+        }
+        return firstPresent(authentication.getName(), SYSTEM);
+    }
+
+    private static String firstPresent(String... candidates) {
+        for (String candidate : candidates) {
+            if (candidate != null && !candidate.isBlank()) {
+                return candidate;
+            }
+        }
+        return SYSTEM;
+    }
+}
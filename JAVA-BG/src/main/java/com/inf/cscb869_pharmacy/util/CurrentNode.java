@@ -0,0 +1,14 @@
+package com.inf.cscb869_pharmacy.util;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Name of this application instance ({@code pid@host}), for records shared between nodes.
+ */
+public final class CurrentNode {
+
+    public static final String NAME = ManagementFactory.getRuntimeMXBean().getName();
+
+    private CurrentNode() {
+    }
+}
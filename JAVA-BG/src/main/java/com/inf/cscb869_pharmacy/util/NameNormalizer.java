@@ -0,0 +1,24 @@
+package com.inf.cscb869_pharmacy.util;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Canonical form for free-text names (diagnoses, catalog keys):
+ * trimmed, inner whitespace collapsed, lower-cased.
+ */
+public final class NameNormalizer {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private NameNormalizer() {
+    }
+
+    public static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String collapsed = WHITESPACE.matcher(value.trim()).replaceAll(" ");
+        return collapsed.isEmpty() ? null : collapsed.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,23 @@
+-- Runs after Hibernate creates the tables (spring.jpa.defer-datasource-initialization=true).
+-- PostgreSQL-specific objects that cannot be expressed as JPA index annotations.
+
+-- Trigram index so "diagnosis contains text" searches on normalized_name can use an index
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_diagnoses_normalized_name_trgm
+    ON diagnoses USING gin (normalized_name gin_trgm_ops);
+
+-- No two non-cancelled sick leaves of one patient may overlap; backs the service check against concurrent issuance
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+ALTER TABLE sick_leaves ADD CONSTRAINT ex_sick_leaves_customer_period
+    EXCLUDE USING gist (customer_id WITH =, daterange(start_date, end_date, '[]') WITH &&)
+    WHERE (status <> 'CANCELLED');
+
+-- Cache invalidations published by every node, kept for a while so a node that lost its LISTEN connection can catch up
+CREATE TABLE IF NOT EXISTS cache_invalidation_log (
+    id         BIGSERIAL PRIMARY KEY,
+    cache_name VARCHAR(100) NOT NULL,
+    cache_key  VARCHAR(255),
+    origin     VARCHAR(36)  NOT NULL,
+    created_at TIMESTAMPTZ  NOT NULL DEFAULT now()
+);
+CREATE INDEX IF NOT EXISTS idx_cache_invalidation_log_created_at ON cache_invalidation_log (created_at);
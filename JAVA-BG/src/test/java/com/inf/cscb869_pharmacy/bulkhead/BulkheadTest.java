@@ -0,0 +1,75 @@
+package com.inf.cscb869_pharmacy.bulkhead;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkheadTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void callerShouldBeRejectedWhenNoPermitFreesUpInTime() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(Subsystem.REPORTS, 1, Duration.ofMillis(20), registry);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> {
+            try (Bulkhead.Permit permit = bulkhead.acquire()) {
+                held.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(held.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(bulkhead::acquire)
+                .isInstanceOf(BulkheadFullException.class)
+                .hasMessageContaining("reports");
+        assertThat(registry.get("pharmacy.bulkhead.rejected").tag("bulkhead", "reports").counter().count()).isEqualTo(1.0);
+        assertThat(registry.get("pharmacy.bulkhead.saturation").tag("bulkhead", "reports").gauge().value()).isEqualTo(1.0);
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        try (Bulkhead.Permit permit = bulkhead.acquire()) {
+            assertThat(bulkhead.active()).isEqualTo(1);
+        }
+        assertThat(bulkhead.active()).isZero();
+    }
+
+    @Test
+    void nestedCallsOnTheSameThreadShouldReuseThePermit() {
+        Bulkhead writes = new Bulkhead(Subsystem.WRITES, 1, Duration.ofMillis(20), registry);
+        Bulkhead reports = new Bulkhead(Subsystem.REPORTS, 1, Duration.ofMillis(20), registry);
+
+        try (Bulkhead.Permit outer = writes.acquire();
+             Bulkhead.Permit inner = writes.acquire();
+             Bulkhead.Permit other = reports.acquire()) {
+            assertThat(writes.active()).isEqualTo(1);
+            assertThat(reports.active()).isZero();
+        }
+        assertThat(writes.active()).isZero();
+    }
+
+    @Test
+    void registryShouldSizeBulkheadsFromThePoolSize() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "20")
+                .withProperty("pharmacy.bulkhead.exports.pool-share", "1");
+
+        BulkheadRegistry bulkheads = new BulkheadRegistry(environment, registry);
+
+        assertThat(bulkheads.get(Subsystem.WRITES).getMaxConcurrent()).isEqualTo(10);
+        assertThat(bulkheads.get(Subsystem.REPORTS).getMaxConcurrent()).isEqualTo(6);
+        assertThat(bulkheads.get(Subsystem.EXPORTS).getMaxConcurrent()).isEqualTo(1);
+        assertThat(bulkheads.get(Subsystem.REPORTS).getMaxWait()).isEqualTo(Duration.ofMillis(500));
+    }
+}
@@ -0,0 +1,55 @@
+package com.inf.cscb869_pharmacy.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryInvalidationBusTest {
+
+    private InMemoryInvalidationBus nodeA;
+    private InMemoryInvalidationBus nodeB;
+    private final List<String> evictedOnA = new CopyOnWriteArrayList<>();
+    private final List<String> evictedOnB = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        InMemoryInvalidationBus.Hub hub = new InMemoryInvalidationBus.Hub();
+        nodeA = new InMemoryInvalidationBus(hub);
+        nodeB = new InMemoryInvalidationBus(hub);
+        nodeA.subscribe("doctors", invalidation -> evictedOnA.add(invalidation.key()));
+        nodeB.subscribe("doctors", invalidation -> evictedOnB.add(invalidation.key()));
+    }
+
+    @Test
+    void invalidationShouldReachTheOtherNodesOnly() {
+        nodeA.publish("doctors", 1L);
+
+        assertThat(evictedOnB).containsExactly("1");
+        assertThat(evictedOnA).isEmpty();
+    }
+
+    @Test
+    void otherCachesShouldNotBeTouched() {
+        nodeA.publish("medicines", 1L);
+
+        assertThat(evictedOnB).isEmpty();
+    }
+
+    @Test
+    void reconnectingNodeShouldCatchUpOnMissedInvalidations() {
+        nodeA.publish("doctors", 1L);
+        nodeB.disconnect();
+        nodeA.publish("doctors", 2L);
+        nodeA.publish("doctors", 3L);
+
+        assertThat(evictedOnB).containsExactly("1");
+
+        nodeB.reconnect();
+
+        assertThat(evictedOnB).containsExactly("1", "2", "3");
+    }
+}
@@ -0,0 +1,79 @@
+package com.inf.cscb869_pharmacy.cache;
+
+import com.inf.cscb869_pharmacy.doctor.entity.Doctor;
+import com.inf.cscb869_pharmacy.medicine.entity.Medicine;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceDataCacheTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Cache entityCache;
+
+    @Mock
+    private org.hibernate.Cache hibernateCache;
+
+    @Mock
+    private InvalidationBus invalidationBus;
+
+    @Test
+    void evictDoctorShouldDropOnlyTheLookupsLocally() {
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(hibernateCache);
+        ReferenceDataCache cache = new ReferenceDataCache(entityManagerFactory, null, invalidationBus);
+
+        cache.evictDoctor(3L);
+
+        verify(hibernateCache).evictQueryRegion(ReferenceDataCache.LOOKUPS);
+        verifyNoInteractions(entityCache);
+        verify(invalidationBus).publish(ReferenceDataCache.DOCTORS, 3L);
+    }
+
+    @Test
+    void invalidationFromAnotherNodeShouldEvictLocallyWithoutRepublishing() {
+        when(entityManagerFactory.getCache()).thenReturn(entityCache);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(hibernateCache);
+        InMemoryInvalidationBus.Hub hub = new InMemoryInvalidationBus.Hub();
+        InMemoryInvalidationBus local = new InMemoryInvalidationBus(hub);
+        InMemoryInvalidationBus remote = new InMemoryInvalidationBus(hub);
+        new ReferenceDataCache(entityManagerFactory, null, local).subscribe();
+
+        remote.publish(ReferenceDataCache.MEDICINES, 7L);
+        remote.publish(ReferenceDataCache.DOCTORS, null);
+
+        verify(entityCache).evict(Medicine.class, 7L);
+        verify(entityCache).evict(Doctor.class);
+        verify(hibernateCache, times(2)).evictQueryRegion(ReferenceDataCache.LOOKUPS);
+    }
+
+    @Test
+    void hitRatioShouldBeHitsPerLookup() {
+        CacheRegionStatistics region = mock(CacheRegionStatistics.class);
+        when(region.getHitCount()).thenReturn(3L);
+        when(region.getMissCount()).thenReturn(1L);
+
+        assertThat(ReferenceDataCache.hitRatio(region)).isEqualTo(0.75);
+        assertThat(ReferenceDataCache.hitRatio(null)).isZero();
+    }
+}
@@ -0,0 +1,124 @@
+package com.inf.cscb869_pharmacy.datagen;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SyntheticDataGeneratorTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 1);
+    private static final SyntheticDataGenerator.Settings SETTINGS =
+            new SyntheticDataGenerator.Settings(7L, 5, 200, 30, 3000, 2, 500);
+
+    @Test
+    void generateShouldBeDeterministicForTheSameSeed() {
+        RecordingWriter first = new RecordingWriter();
+        RecordingWriter second = new RecordingWriter();
+
+        new SyntheticDataGenerator(SETTINGS, first, TODAY).generate();
+        new SyntheticDataGenerator(SETTINGS, second, TODAY).generate();
+
+        assertThat(first.rows.keySet()).containsExactlyElementsOf(second.rows.keySet());
+        first.rows.forEach((table, rows) -> assertThat(rows).as(table).containsExactlyElementsOf(second.rows.get(table)));
+    }
+
+    @Test
+    void generateShouldContinueAfterExistingRowsAndResetIdentities() {
+        RecordingWriter writer = new RecordingWriter();
+        writer.maxIds.put("recipe", 100L);
+        writer.existing.add("8001010000");
+
+        SyntheticDataGenerator.Result result = new SyntheticDataGenerator(SETTINGS, writer, TODAY).generate();
+
+        assertThat(result.recipes()).isEqualTo(3000);
+        assertThat(writer.rows.get("recipe")).hasSize(3000);
+        assertThat(writer.rows.get("recipe").get(0)[0]).isEqualTo(101L);
+        assertThat(writer.rows.get("diagnoses")).hasSize((int) result.diagnoses());
+        assertThat(writer.resetTables).contains("recipe", "sick_leaves", "customers");
+    }
+
+    @Test
+    void customersShouldHaveValidUniqueEgns() {
+        RecordingWriter writer = new RecordingWriter();
+        new SyntheticDataGenerator(SETTINGS, writer, TODAY).generate();
+
+        Set<String> egns = new HashSet<>();
+        for (Object[] customer : writer.rows.get("customers")) {
+            String egn = (String) customer[2];
+            assertThat(egn).matches("\\d{10}");
+            assertThat(SyntheticDataGenerator.egn((LocalDate) customer[6], Integer.parseInt(egn.substring(6, 9)))).isEqualTo(egn);
+            assertThat(egns.add(egn)).isTrue();
+        }
+    }
+
+    @Test
+    void sickLeavesOfOneCustomerShouldNotOverlap() {
+        RecordingWriter writer = new RecordingWriter();
+        new SyntheticDataGenerator(SETTINGS, writer, TODAY).generate();
+
+        Map<Long, LocalDate> lastEnd = new HashMap<>();
+        assertThat(writer.rows.get("sick_leaves")).isNotEmpty();
+        for (Object[] sickLeave : writer.rows.get("sick_leaves")) {
+            if ("CANCELLED".equals(sickLeave[10])) {
+                continue;
+            }
+            Long customerId = (Long) sickLeave[3];
+            LocalDate start = (LocalDate) sickLeave[6];
+            LocalDate previousEnd = lastEnd.put(customerId, (LocalDate) sickLeave[8]);
+            if (previousEnd != null) {
+                assertThat(start).isAfter(previousEnd);
+            }
+        }
+    }
+
+    @Test
+    void egnShouldEncodeCenturyAndCheckDigit() {
+        assertThat(SyntheticDataGenerator.egn(LocalDate.of(1975, 12, 31), 123)).isEqualTo("7512311231");
+        assertThat(SyntheticDataGenerator.egn(LocalDate.of(2005, 3, 9), 40)).startsWith("054309040");
+    }
+
+    @Test
+    void constructorShouldRejectEmptyReferenceData() {
+        assertThatThrownBy(() -> new SyntheticDataGenerator(
+                new SyntheticDataGenerator.Settings(1L, 0, 10, 10, 10, 1, 10), new RecordingWriter(), TODAY))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static final class RecordingWriter implements TableWriter {
+        private final Map<String, List<Object[]>> rows = new LinkedHashMap<>();
+        private final Map<String, Long> maxIds = new HashMap<>();
+        private final Set<String> existing = new HashSet<>();
+        private final List<String> resetTables = new ArrayList<>();
+
+        @Override
+        public long maxId(String table) {
+            return maxIds.getOrDefault(table, 0L);
+        }
+
+        @Override
+        public Set<String> existingValues(String table, String column) {
+            return new HashSet<>(existing);
+        }
+
+        @Override
+        public void write(String table, List<String> columns, List<Object[]> batch) {
+            batch.forEach(row -> assertThat(row).hasSameSizeAs(columns));
+            rows.computeIfAbsent(table, key -> new ArrayList<>()).addAll(batch.stream().map(Object[]::clone).toList());
+        }
+
+        @Override
+        public void resetIdentity(String table) {
+            resetTables.add(table);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.inf.cscb869_pharmacy.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two in-memory H2 databases stand in for the primary and the replica; each knows its own name.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DataSource primary = database("primary");
+    private final DataSource replica = database("replica");
+
+    @AfterEach
+    void clearActor() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsShouldGoToTheReplica() {
+        Routing routing = routing(replica, "SELECT 0");
+
+        assertThat(routing.read(true)).isEqualTo("replica");
+        assertThat(routing.read(false)).isEqualTo("primary");
+        assertThat(routing.jdbc.queryForObject("SELECT name FROM node", String.class)).isEqualTo("primary");
+    }
+
+    @Test
+    void userShouldReadTheirOwnWritesFromThePrimary() {
+        Routing routing = routing(replica, "SELECT 0");
+        actAs("doctor@clinic.com");
+        routing.transactions.executeWithoutResult(status -> routing.jdbc.update("UPDATE node SET writes = writes + 1"));
+        routing.readYourWrites.writeCommitted("doctor@clinic.com");
+
+        assertThat(routing.read(true)).isEqualTo("primary");
+
+        actAs("other@clinic.com");
+        assertThat(routing.read(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void readWriteTransactionWithoutWritesShouldNotMakeTheUserSticky() {
+        Routing routing = routing(replica, "SELECT 0");
+        actAs("doctor@clinic.com");
+
+        assertThat(routing.read(false)).isEqualTo("primary");
+        assertThat(routing.read(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void laggingReplicaShouldBeSkipped() {
+        Routing routing = routing(replica, "SELECT 10");
+
+        assertThat(routing.read(true)).isEqualTo("primary");
+        assertThat(registry.get("pharmacy.datasource.replica.available").tag("replica", "replica-1").gauge().value()).isZero();
+    }
+
+    @Test
+    void unreachableReplicaShouldFallBackToThePrimary() {
+        JdbcDataSource missing = new JdbcDataSource();
+        missing.setURL("jdbc:h2:mem:missing-" + UUID.randomUUID() + ";IFEXISTS=TRUE");
+        Routing routing = routing(missing, "SELECT 0");
+
+        assertThat(routing.read(true)).isEqualTo("primary");
+    }
+
+    private Routing routing(DataSource replicaDataSource, String lagQuery) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(Map.of("replica-1", replicaDataSource), Duration.ofSeconds(2),
+                lagQuery, registry);
+        monitor.check();
+        ReadYourWritesTracker readYourWrites = new ReadYourWritesTracker(Duration.ofSeconds(30));
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, monitor, readYourWrites, registry);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        return new Routing(new JdbcTemplate(dataSource), new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+                readYourWrites);
+    }
+
+    private static void actAs(String user) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(user, null, "ROLE_DOCTOR"));
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20), writes INT)");
+        jdbc.update("INSERT INTO node VALUES (?, 0)", name);
+        return dataSource;
+    }
+
+    private record Routing(JdbcTemplate jdbc, TransactionTemplate transactions, ReadYourWritesTracker readYourWrites) {
+
+        String read(boolean readOnly) {
+            TransactionTemplate template = new TransactionTemplate(transactions.getTransactionManager());
+            template.setReadOnly(readOnly);
+            return template.execute(status -> jdbc.queryForObject("SELECT name FROM node", String.class));
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.inf.cscb869_pharmacy.diagnosis.service;
+
+import com.inf.cscb869_pharmacy.cache.CacheInvalidation;
+import com.inf.cscb869_pharmacy.cache.InvalidationBus;
+import com.inf.cscb869_pharmacy.diagnosis.dto.DiagnosisCatalogEntryDTO;
+import com.inf.cscb869_pharmacy.diagnosis.entity.Diagnosis;
+import com.inf.cscb869_pharmacy.diagnosis.entity.DiagnosisCatalogEntry;
+import com.inf.cscb869_pharmacy.diagnosis.repository.DiagnosisCatalogRepository;
+import com.inf.cscb869_pharmacy.diagnosis.repository.DiagnosisRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DiagnosisCatalogServiceImplTest {
+
+    @Mock
+    private DiagnosisCatalogRepository diagnosisCatalogRepository;
+
+    @Mock
+    private DiagnosisRepository diagnosisRepository;
+
+    @Mock
+    private InvalidationBus invalidationBus;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private DiagnosisCatalogServiceImpl catalogService;
+
+    @Test
+    void reloadShouldExposeUsedNamesSortedCaseInsensitively() {
+        when(diagnosisCatalogRepository.findAll()).thenReturn(List.of(
+                entry("influenza", "Influenza", "J11", 3L),
+                entry("acute bronchitis", "acute bronchitis", "J20.9", 1L),
+                entry("migraine", "Migraine", "G43", 0L)
+        ));
+
+        catalogService.reload();
+
+        assertThat(catalogService.getDiagnosisOptions()).containsExactly("acute bronchitis", "Influenza");
+    }
+
+    @Test
+    void recordChangesShouldUpsertAddedNameAndUpdateMemory() {
+        catalogService.recordChanges(List.of(), List.of(diagnosis("  Seasonal   Flu ", "J11")));
+
+        verify(diagnosisCatalogRepository).upsertUsage("seasonal flu", "Seasonal   Flu", "J11", 1L);
+        verify(diagnosisCatalogRepository, never()).save(any(DiagnosisCatalogEntry.class));
+        assertThat(catalogService.getDiagnosisOptions()).containsExactly("Seasonal   Flu");
+    }
+
+    @Test
+    void recordChangesShouldSkipRenameToSameNormalizedName() {
+        catalogService.recordChanges(List.of(diagnosis("Flu", "J11")), List.of(diagnosis("flu ", "J11")));
+
+        verify(diagnosisCatalogRepository, never()).adjustUsage(anyString(), anyLong(), any());
+        verify(diagnosisCatalogRepository, never()).upsertUsage(anyString(), anyString(), any(), anyLong());
+    }
+
+    @Test
+    void recordChangesShouldOnlyDecrementRemovedName() {
+        catalogService.recordChanges(List.of(diagnosis("Flu", "J11")), List.of());
+
+        verify(diagnosisCatalogRepository).adjustUsage("flu", -1L, null);
+        verify(diagnosisCatalogRepository, never()).upsertUsage(anyString(), anyString(), any(), anyLong());
+    }
+
+    @Test
+    void optionsShouldNotBeServedFromSnapshotTakenBeforeChange() {
+        when(diagnosisCatalogRepository.findAll()).thenReturn(List.of(entry("influenza", "Influenza", "J11", 3L)));
+        catalogService.reload();
+        assertThat(catalogService.getDiagnosisOptions()).containsExactly("Influenza");
+
+        catalogService.recordChanges(List.of(), List.of(diagnosis("Asthma", "J45")));
+
+        assertThat(catalogService.getDiagnosisOptions()).containsExactly("Asthma", "Influenza");
+    }
+
+    @Test
+    void recordChangesShouldPublishEachChangedName() {
+        catalogService.recordChanges(List.of(diagnosis("Flu", "J11")), List.of(diagnosis("Asthma", "J45")));
+
+        verify(invalidationBus).publish(DiagnosisCatalogServiceImpl.CACHE_NAME, "flu");
+        verify(invalidationBus).publish(DiagnosisCatalogServiceImpl.CACHE_NAME, "asthma");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void remoteInvalidationShouldRefreshEntryFromTable() {
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        ArgumentCaptor<Consumer<CacheInvalidation>> listener = ArgumentCaptor.forClass(Consumer.class);
+        catalogService.subscribe();
+        verify(invalidationBus).subscribe(eq(DiagnosisCatalogServiceImpl.CACHE_NAME), listener.capture());
+        when(diagnosisCatalogRepository.findByNormalizedName("asthma"))
+                .thenReturn(Optional.of(entry("asthma", "Asthma", "J45", 2L)));
+
+        listener.getValue().accept(new CacheInvalidation(DiagnosisCatalogServiceImpl.CACHE_NAME, "asthma", 1L, "node-b"));
+
+        assertThat(catalogService.getDiagnosisOptions()).containsExactly("Asthma");
+        assertThat(catalogService.suggest("ast", 1)).singleElement()
+                .satisfies(item -> assertThat(item.getUsageCount()).isEqualTo(2L));
+    }
+
+    @Test
+    void suggestShouldMatchPrefixAndOrderByUsage() {
+        when(diagnosisCatalogRepository.findAll()).thenReturn(List.of(
+                entry("hypertension", "Hypertension", "I10", 2L),
+                entry("hypothyroidism", "Hypothyroidism", "E03.9", 5L),
+                entry("influenza", "Influenza", "J11", 9L)
+        ));
+        catalogService.reload();
+
+        List<DiagnosisCatalogEntryDTO> result = catalogService.suggest("HYP", 10);
+
+        assertThat(result).extracting(DiagnosisCatalogEntryDTO::getName)
+                .containsExactly("Hypothyroidism", "Hypertension");
+        assertThat(catalogService.suggest(" ", 10)).isEmpty();
+    }
+
+    private static DiagnosisCatalogEntry entry(String normalized, String display, String code, long usage) {
+        return DiagnosisCatalogEntry.builder()
+                .normalizedName(normalized)
+                .displayName(display)
+                .icd10Code(code)
+                .usageCount(usage)
+                .build();
+    }
+
+    private static Diagnosis diagnosis(String name, String code) {
+        return Diagnosis.builder()
+                .name(name)
+                .icd10Code(code)
+                .build();
+    }
+}
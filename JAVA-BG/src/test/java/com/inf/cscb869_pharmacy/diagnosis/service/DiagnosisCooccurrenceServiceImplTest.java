@@ -0,0 +1,201 @@
+package com.inf.cscb869_pharmacy.diagnosis.service;
+
+import com.inf.cscb869_pharmacy.cache.InvalidationBus;
+import com.inf.cscb869_pharmacy.diagnosis.dto.DiagnosisCooccurrenceDTO;
+import com.inf.cscb869_pharmacy.diagnosis.entity.Diagnosis;
+import com.inf.cscb869_pharmacy.diagnosis.entity.DiagnosisCooccurrence;
+import com.inf.cscb869_pharmacy.diagnosis.repository.DiagnosisCooccurrenceRepository;
+import com.inf.cscb869_pharmacy.diagnosis.repository.DiagnosisRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DiagnosisCooccurrenceServiceImplTest {
+
+    @Mock
+    private DiagnosisCooccurrenceRepository cooccurrenceRepository;
+
+    @Mock
+    private DiagnosisRepository diagnosisRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private InvalidationBus invalidationBus;
+
+    @InjectMocks
+    private DiagnosisCooccurrenceServiceImpl cooccurrenceService;
+
+    @Test
+    void recordRecipeChangeShouldCountEachDistinctPairOnce() {
+        cooccurrenceService.recordRecipeChange(List.of(), List.of(
+                diagnosis("Flu"), diagnosis("Migraine"), diagnosis(" flu "), diagnosis("Hypertension")));
+
+        List<DiagnosisCooccurrenceDTO> top = cooccurrenceService.getTopPairs(10);
+
+        assertThat(top).hasSize(3);
+        assertThat(top).allSatisfy(pair -> assertThat(pair.getCount()).isEqualTo(1L));
+        verify(cooccurrenceRepository, never()).adjustCount(anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    void getTopPairsShouldReturnHighestCountsFirst() {
+        cooccurrenceService.recordRecipeChange(List.of(), List.of(diagnosis("Flu"), diagnosis("Asthma")));
+        cooccurrenceService.recordRecipeChange(List.of(), List.of(diagnosis("Flu"), diagnosis("Asthma")));
+        cooccurrenceService.recordRecipeChange(List.of(), List.of(diagnosis("Flu"), diagnosis("Migraine")));
+
+        List<DiagnosisCooccurrenceDTO> top = cooccurrenceService.getTopPairs(1);
+
+        assertThat(top).singleElement().satisfies(pair -> {
+            assertThat(pair.getFirstDiagnosis()).isEqualTo("Asthma");
+            assertThat(pair.getSecondDiagnosis()).isEqualTo("Flu");
+            assertThat(pair.getCount()).isEqualTo(2L);
+        });
+    }
+
+    @Test
+    void recordRecipeChangeShouldApplyOnlyTheDifference() {
+        cooccurrenceService.recordRecipeChange(List.of(), List.of(diagnosis("Flu"), diagnosis("Asthma")));
+        cooccurrenceService.recordRecipeChange(
+                List.of(diagnosis("Flu"), diagnosis("Asthma")),
+                List.of(diagnosis("FLU"), diagnosis("Asthma")));
+
+        assertThat(cooccurrenceService.getTopPairs(10)).singleElement()
+                .satisfies(pair -> assertThat(pair.getCount()).isEqualTo(1L));
+    }
+
+    @Test
+    void flushShouldUpsertPendingDeltasOnce() {
+        runTransactionCallbacks();
+
+        cooccurrenceService.recordRecipeChange(List.of(), List.of(diagnosis("Flu"), diagnosis("Asthma")));
+        cooccurrenceService.flush();
+        cooccurrenceService.flush();
+
+        verify(cooccurrenceRepository, times(1)).upsertCount("asthma", "flu", "Asthma", "Flu", 1L);
+        verify(cooccurrenceRepository, never()).save(any(DiagnosisCooccurrence.class));
+        verify(cooccurrenceRepository).deleteEmptyPairs();
+    }
+
+    @Test
+    void flushShouldOnlyDecrementExistingPairs() {
+        runTransactionCallbacks();
+
+        cooccurrenceService.recordRecipeChange(List.of(diagnosis("Flu"), diagnosis("Asthma")), List.of(diagnosis("Flu")));
+        cooccurrenceService.flush();
+
+        verify(cooccurrenceRepository).adjustCount("asthma", "flu", -1L);
+        verify(cooccurrenceRepository, never()).upsertCount(anyString(), anyString(), anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    void flushShouldRequeueDeltasWhenPersistFails() {
+        doThrow(new IllegalStateException("database down"))
+                .when(transactionTemplate).executeWithoutResult(any());
+
+        cooccurrenceService.recordRecipeChange(List.of(), List.of(diagnosis("Flu"), diagnosis("Asthma")));
+        cooccurrenceService.flush();
+
+        runTransactionCallbacks();
+        cooccurrenceService.flush();
+
+        verify(cooccurrenceRepository).upsertCount("asthma", "flu", "Asthma", "Flu", 1L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuildShouldKeepChangesCommittedWhileItRuns() {
+        cooccurrenceService.recordRecipeChange(List.of(), List.of(diagnosis("Flu"), diagnosis("Asthma")));
+        when(diagnosisRepository.summarizeCooccurrences())
+                .thenReturn(List.<Object[]>of(new Object[]{"asthma", "flu", "Asthma", "Flu", 1L}));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            Object rebuilt = ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null);
+            cooccurrenceService.recordRecipeChange(List.of(), List.of(diagnosis("Flu"), diagnosis("Migraine")));
+            return rebuilt;
+        });
+
+        cooccurrenceService.rebuild();
+
+        assertThat(cooccurrenceService.getTopPairs(10))
+                .extracting(DiagnosisCooccurrenceDTO::getSecondDiagnosis, DiagnosisCooccurrenceDTO::getCount)
+                .containsExactlyInAnyOrder(tuple("Flu", 1L), tuple("Migraine", 1L));
+
+        runTransactionCallbacks();
+        cooccurrenceService.flush();
+        verify(cooccurrenceRepository).upsertCount("flu", "migraine", "Flu", "Migraine", 1L);
+        verify(cooccurrenceRepository, never()).upsertCount("asthma", "flu", "Asthma", "Flu", 1L);
+        verify(invalidationBus).publish(DiagnosisCooccurrenceServiceImpl.CACHE_NAME, null);
+    }
+
+    @Test
+    void recordRecipeChangeShouldQueueDeltasOnlyOnceTheTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cooccurrenceService.recordRecipeChange(List.of(), List.of(diagnosis("Flu"), diagnosis("Asthma")));
+            assertThat(cooccurrenceService.getTopPairs(10)).isEmpty();
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(cooccurrenceService.getTopPairs(10)).singleElement()
+                .satisfies(pair -> assertThat(pair.getCount()).isEqualTo(1L));
+    }
+
+    @Test
+    void reloadShouldTakeTheTableAfterFlushingLocalDeltas() {
+        runTransactionCallbacks();
+        cooccurrenceService.recordRecipeChange(List.of(), List.of(diagnosis("Flu"), diagnosis("Asthma")));
+        when(cooccurrenceRepository.findAll()).thenReturn(List.of(DiagnosisCooccurrence.builder()
+                .firstName("asthma").secondName("flu")
+                .firstDisplayName("Asthma").secondDisplayName("Flu")
+                .pairCount(3L)
+                .build()));
+
+        cooccurrenceService.reload();
+
+        verify(cooccurrenceRepository).upsertCount("asthma", "flu", "Asthma", "Flu", 1L);
+        assertThat(cooccurrenceService.getTopPairs(10)).singleElement()
+                .satisfies(pair -> assertThat(pair.getCount()).isEqualTo(3L));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionCallbacks() {
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private static Diagnosis diagnosis(String name) {
+        return Diagnosis.builder().name(name).build();
+    }
+}
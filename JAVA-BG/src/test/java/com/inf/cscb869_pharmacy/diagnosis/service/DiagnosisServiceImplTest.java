@@ -0,0 +1,89 @@
+package com.inf.cscb869_pharmacy.diagnosis.service;
+
+import com.inf.cscb869_pharmacy.diagnosis.dto.DiagnosisQueryDTO;
+import com.inf.cscb869_pharmacy.diagnosis.dto.Icd10CodeDTO;
+import com.inf.cscb869_pharmacy.diagnosis.entity.Diagnosis;
+import com.inf.cscb869_pharmacy.diagnosis.entity.DiagnosisSeverity;
+import com.inf.cscb869_pharmacy.diagnosis.repository.DiagnosisRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DiagnosisServiceImplTest {
+
+    @Mock
+    private DiagnosisRepository diagnosisRepository;
+
+    @Mock
+    private DiagnosisCatalogService diagnosisCatalogService;
+
+    @Mock
+    private Icd10CatalogService icd10CatalogService;
+
+    @Mock
+    private DiagnosisCooccurrenceService diagnosisCooccurrenceService;
+
+    @InjectMocks
+    private DiagnosisServiceImpl diagnosisService;
+
+    @Test
+    void getDiagnosesBySeverityShouldQueryRepositoryPage() {
+        Pageable pageable = PageRequest.of(0, 20);
+        Page<Diagnosis> page = new PageImpl<>(List.of(Diagnosis.builder().name("Flu").build()), pageable, 1);
+        when(diagnosisRepository.findBySeverity(DiagnosisSeverity.SEVERE, pageable)).thenReturn(page);
+
+        Page<Diagnosis> result = diagnosisService.getDiagnosesBySeverity(DiagnosisSeverity.SEVERE, pageable);
+
+        assertThat(result).isSameAs(page);
+        verify(diagnosisRepository, never()).findAll();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void queryDiagnosesShouldCanonicalizeCodeAndUseSingleSpecificationQuery() {
+        Pageable pageable = PageRequest.of(1, 10);
+        DiagnosisQueryDTO criteria = DiagnosisQueryDTO.builder()
+                .icd10Code("j209")
+                .primary(true)
+                .build();
+        when(icd10CatalogService.findCode("j209"))
+                .thenReturn(Optional.of(Icd10CodeDTO.builder().code("J20.9").build()));
+        when(diagnosisRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(Page.empty(pageable));
+
+        diagnosisService.queryDiagnoses(criteria, pageable);
+
+        assertThat(criteria.getIcd10Code()).isEqualTo("J20.9");
+        verify(diagnosisRepository).findAll(any(Specification.class), eq(pageable));
+    }
+
+    @Test
+    void queryDiagnosesShouldRejectInvertedDateRange() {
+        DiagnosisQueryDTO criteria = DiagnosisQueryDTO.builder()
+                .startDate(LocalDate.of(2026, 3, 1))
+                .endDate(LocalDate.of(2026, 2, 1))
+                .build();
+
+        assertThatThrownBy(() -> diagnosisService.queryDiagnoses(criteria, PageRequest.of(0, 10)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
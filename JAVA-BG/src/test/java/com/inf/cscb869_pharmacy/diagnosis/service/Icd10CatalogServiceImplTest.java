@@ -0,0 +1,79 @@
+package com.inf.cscb869_pharmacy.diagnosis.service;
+
+import com.inf.cscb869_pharmacy.diagnosis.dto.Icd10CodeDTO;
+import com.inf.cscb869_pharmacy.diagnosis.dto.Icd10ValidationDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class Icd10CatalogServiceImplTest {
+
+    private Icd10CatalogServiceImpl catalogService;
+
+    @BeforeEach
+    void setUp() {
+        catalogService = new Icd10CatalogServiceImpl(new ClassPathResource("icd10/icd10-codes.tsv"), false);
+        catalogService.load();
+    }
+
+    @Test
+    void findByPrefixShouldReturnCodesInOrder() {
+        List<Icd10CodeDTO> result = catalogService.findByPrefix("j2", 10);
+
+        assertThat(result).extracting(Icd10CodeDTO::getCode)
+                .containsExactly("J20", "J20.9", "J21.9");
+        assertThat(result.get(0).getChapter()).isEqualTo("X");
+    }
+
+    @Test
+    void suggestShouldSearchDescriptionsByWordPrefixes() {
+        List<Icd10CodeDTO> result = catalogService.suggest("acute bronch", 10);
+
+        assertThat(result).extracting(Icd10CodeDTO::getCode)
+                .containsExactly("J20", "J20.9", "J21.9", "J40");
+    }
+
+    @Test
+    void getCodesInChapterShouldStayWithinChapterBounds() {
+        List<Icd10CodeDTO> result = catalogService.getCodesInChapter("iii", 100);
+
+        assertThat(result).isNotEmpty();
+        assertThat(result).allSatisfy(code -> {
+            assertThat(code.getChapter()).isEqualTo("III");
+            assertThat(code.getCode()).startsWith("D");
+        });
+    }
+
+    @Test
+    void validateShouldCanonicalizeAndReportKnownCodes() {
+        Icd10ValidationDTO known = catalogService.validate(" j20 9 ");
+        Icd10ValidationDTO unknown = catalogService.validate("J99.9");
+        Icd10ValidationDTO malformed = catalogService.validate("flu");
+
+        assertThat(known.getCode()).isEqualTo("J20.9");
+        assertThat(known.isKnown()).isTrue();
+        assertThat(known.getDescription()).isEqualTo("Acute bronchitis, unspecified");
+        assertThat(unknown.isValidFormat()).isTrue();
+        assertThat(unknown.isKnown()).isFalse();
+        assertThat(unknown.getChapter()).isEqualTo("X");
+        assertThat(malformed.isValidFormat()).isFalse();
+    }
+
+    @Test
+    void resolveCodeShouldRejectUnknownCodesOnlyWhenStrict() {
+        Icd10CatalogServiceImpl strict = new Icd10CatalogServiceImpl(new ClassPathResource("icd10/icd10-codes.tsv"), true);
+        strict.load();
+
+        assertThat(catalogService.resolveCode("j99.9")).isEqualTo("J99.9");
+        assertThat(catalogService.resolveCode("free text")).isEqualTo("free text");
+        assertThat(strict.resolveCode("i10")).isEqualTo("I10");
+        assertThatThrownBy(() -> strict.resolveCode("J99.9"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown ICD-10 code");
+    }
+}
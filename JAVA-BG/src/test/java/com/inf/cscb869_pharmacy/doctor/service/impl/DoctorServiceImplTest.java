@@ -1,5 +1,6 @@
 package com.inf.cscb869_pharmacy.doctor.service.impl;
 
+import com.inf.cscb869_pharmacy.cache.ReferenceDataCache;
 import com.inf.cscb869_pharmacy.doctor.entity.Doctor;
 import com.inf.cscb869_pharmacy.doctor.repository.DoctorRepository;
 import org.junit.jupiter.api.Test;
@@ -22,12 +23,16 @@ class DoctorServiceImplTest {
     @Mock
     private DoctorRepository doctorRepository;
 
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
     @InjectMocks
     private DoctorServiceImpl doctorService;
 
     @Test
     void updateDoctorShouldUpdateExistingName() {
         Doctor existing = doctor("Dr. Old", "old@clinic.com");
+        existing.setId(5L);
         Doctor update = doctor("Dr. New", "new@clinic.com");
 
         when(doctorRepository.findById(5L)).thenReturn(Optional.of(existing));
@@ -37,6 +42,7 @@ class DoctorServiceImplTest {
         assertThat(existing.getName()).isEqualTo("Dr. New");
         assertThat(existing.getEmail()).isEqualTo("old@clinic.com");
         verify(doctorRepository).save(existing);
+        verify(referenceDataCache).evictDoctor(5L);
     }
 
     @Test
@@ -49,6 +55,13 @@ class DoctorServiceImplTest {
         verify(doctorRepository).save(input);
     }
 
+    @Test
+    void deleteDoctorShouldEvictItFromTheCache() {
+        doctorService.deleteDoctor(7L);
+        verify(doctorRepository).deleteById(7L);
+        verify(referenceDataCache).evictDoctor(7L);
+    }
+
     @Test
     void getDoctorShouldThrowWhenMissing() {
         when(doctorRepository.findById(77L)).thenReturn(Optional.empty());
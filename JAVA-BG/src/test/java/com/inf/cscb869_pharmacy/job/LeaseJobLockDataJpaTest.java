@@ -0,0 +1,88 @@
+package com.inf.cscb869_pharmacy.job;
+
+import com.inf.cscb869_pharmacy.job.dto.JobRunDTO;
+import com.inf.cscb869_pharmacy.job.entity.JobRun;
+import com.inf.cscb869_pharmacy.job.entity.JobRunStatus;
+import com.inf.cscb869_pharmacy.job.repository.JobRunRepository;
+import com.inf.cscb869_pharmacy.job.service.JobRunService;
+import com.inf.cscb869_pharmacy.job.service.JobRunServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.test.database.replace=NONE",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:jobtests;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;NON_KEYWORDS=DOCTOR",
+        "pharmacy.jobs.lock=lease"
+})
+@Import({LeaseJobLock.class, JobRunServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LeaseJobLockDataJpaTest {
+
+    @Autowired
+    private JobLock jobLock;
+
+    @Autowired
+    private JobRunService jobRunService;
+
+    @Autowired
+    private JobRunRepository jobRunRepository;
+
+    @AfterEach
+    void tearDown() {
+        jobRunRepository.deleteAll();
+    }
+
+    @Test
+    void heldLeaseShouldTurnAwayASecondRun() {
+        AtomicBoolean secondRan = new AtomicBoolean();
+
+        boolean firstRan = jobLock.runExclusively("rollup", () ->
+                assertThat(jobLock.runExclusively("rollup", () -> secondRan.set(true))).isFalse());
+
+        assertThat(firstRan).isTrue();
+        assertThat(secondRan).isFalse();
+        assertThat(jobLock.runExclusively("rollup", () -> { })).isTrue();
+    }
+
+    @Test
+    void expiredLeaseShouldBeTakenOver() {
+        jobRunRepository.save(JobRun.builder()
+                .jobName("rollup")
+                .leaseOwner("dead-node")
+                .leaseUntil(LocalDateTime.now().minusMinutes(1))
+                .build());
+
+        assertThat(jobLock.runExclusively("rollup", () -> { })).isTrue();
+        assertThat(jobRunRepository.findByJobName("rollup")).get()
+                .extracting(JobRun::getLeaseOwner)
+                .isNull();
+    }
+
+    @Test
+    void recordedRunShouldShowInTheStatusAndCountAsRecent() {
+        jobLock.runExclusively("prune", () ->
+                jobRunService.recordRun("prune", LocalDateTime.now(), Duration.ofMillis(40), 12L, null));
+
+        JobRunDTO status = jobRunService.getJobRun("prune").orElseThrow();
+        assertThat(status.getLastStatus()).isEqualTo(JobRunStatus.SUCCEEDED);
+        assertThat(status.getLastRowsAffected()).isEqualTo(12L);
+        assertThat(status.getRunCount()).isEqualTo(1L);
+        assertThat(jobRunService.ranWithin("prune", Duration.ofMinutes(10))).isTrue();
+        assertThat(jobRunService.ranWithin("prune", Duration.ZERO)).isFalse();
+    }
+}
@@ -0,0 +1,23 @@
+package com.inf.cscb869_pharmacy.metrics;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails a repository test when its body issues more SQL statements than {@link #value()}.
+ * On a class it applies to every test method that does not declare its own limit.
+ * Only statements prepared by Hibernate are counted; {@code JdbcTemplate} fixtures are not.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ExtendWith(QueryCountExtension.class)
+public @interface MaxQueries {
+
+    int value();
+}
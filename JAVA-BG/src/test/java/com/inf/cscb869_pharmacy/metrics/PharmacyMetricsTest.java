@@ -0,0 +1,38 @@
+package com.inf.cscb869_pharmacy.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PharmacyMetricsTest {
+
+    @Test
+    void businessCountersShouldCountOutsideTransactionsImmediately() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PharmacyMetrics metrics = new PharmacyMetrics(registry);
+
+        metrics.recipeCreated();
+        metrics.recipeCreated();
+        metrics.sickLeaveIssued();
+
+        assertThat(registry.get("pharmacy.recipes.created").counter().count()).isEqualTo(2.0);
+        assertThat(registry.get("pharmacy.sick.leaves.issued").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void rowCountShouldOnlyCountRowResults() {
+        assertThat(RepositoryRowCountPostProcessor.rowCount(List.of(1, 2, 3))).isEqualTo(3);
+        assertThat(RepositoryRowCountPostProcessor.rowCount(new PageImpl<>(List.of("a", "b")))).isEqualTo(2);
+        assertThat(RepositoryRowCountPostProcessor.rowCount(Optional.empty())).isZero();
+        assertThat(RepositoryRowCountPostProcessor.rowCount(null)).isZero();
+        assertThat(RepositoryRowCountPostProcessor.rowCount(new Object())).isEqualTo(1);
+        assertThat(RepositoryRowCountPostProcessor.rowCount(42L)).isEqualTo(-1);
+        assertThat(RepositoryRowCountPostProcessor.rowCount(Stream.of(1))).isEqualTo(-1);
+    }
+}
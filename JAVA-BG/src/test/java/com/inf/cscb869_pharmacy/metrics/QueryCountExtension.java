@@ -0,0 +1,46 @@
+package com.inf.cscb869_pharmacy.metrics;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the SQL statements of a test body and checks them against {@link MaxQueries}.
+ * Meant for {@code @DataJpaTest} suites: the {@code @WebMvcTest} suites mock their services and issue no SQL,
+ * so endpoint budgets are checked at runtime through {@code @QueryBudget} instead.
+ */
+public class QueryCountExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(QueryCountExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(context.getUniqueId(), SqlStatementRecorder.open());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        SqlStatementRecorder.Scope scope = context.getStore(NAMESPACE)
+                .remove(context.getUniqueId(), SqlStatementRecorder.Scope.class);
+        if (scope == null) {
+            return;
+        }
+        scope.close();
+        maxQueries(context).ifPresent(max -> assertThat(scope.statementCount())
+                .as("SQL statements issued by %s (repeated: %s)", context.getDisplayName(), scope.repeatedStatements(2))
+                .isLessThanOrEqualTo(max));
+    }
+
+    private static Optional<Integer> maxQueries(ExtensionContext context) {
+        return context.getTestMethod()
+                .map(method -> AnnotatedElementUtils.findMergedAnnotation(method, MaxQueries.class))
+                .or(() -> context.getTestClass()
+                        .map(type -> AnnotatedElementUtils.findMergedAnnotation(type, MaxQueries.class)))
+                .map(MaxQueries::value);
+    }
+}
@@ -0,0 +1,36 @@
+package com.inf.cscb869_pharmacy.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStatementRecorderTest {
+
+    private final SqlStatementInspector inspector = new SqlStatementInspector();
+
+    @Test
+    void scopesShouldCountStatementsAndNestedScopesShouldSeeTheirShare() {
+        try (SqlStatementRecorder.Scope request = SqlStatementRecorder.open()) {
+            inspector.inspect("select c from customers c");
+            try (SqlStatementRecorder.Scope nested = SqlStatementRecorder.open()) {
+                inspector.inspect("select d from doctor d where d.id=?");
+                inspector.inspect("select d from doctor d where d.id=?");
+                assertThat(nested.statementCount()).isEqualTo(2);
+            }
+            inspector.inspect("select d from doctor d where d.id=?");
+
+            assertThat(request.statementCount()).isEqualTo(4);
+            assertThat(request.repeatedStatements(3)).isEqualTo(Map.of("select d from doctor d where d.id=?", 3));
+        }
+    }
+
+    @Test
+    void statementsOutsideAScopeShouldBeIgnored() {
+        assertThat(inspector.inspect("select 1")).isEqualTo("select 1");
+        try (SqlStatementRecorder.Scope scope = SqlStatementRecorder.open()) {
+            assertThat(scope.statementCount()).isZero();
+        }
+    }
+}
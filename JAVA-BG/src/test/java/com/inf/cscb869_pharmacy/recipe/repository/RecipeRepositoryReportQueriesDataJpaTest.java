@@ -1,15 +1,27 @@
 package com.inf.cscb869_pharmacy.recipe.repository;
 
+import com.inf.cscb869_pharmacy.customer.entity.Customer;
+import com.inf.cscb869_pharmacy.customer.repository.CustomerRepository;
+import com.inf.cscb869_pharmacy.metrics.MaxQueries;
+import com.inf.cscb869_pharmacy.recipe.entity.RecipeStatus;
+import com.inf.cscb869_pharmacy.report.dto.ExaminationReportDTO;
+import com.inf.cscb869_pharmacy.report.dto.PatientReportDTO;
+import com.inf.cscb869_pharmacy.sickleave.repository.SickLeaveRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DataJpaTest(properties = {
         "spring.test.database.replace=NONE",
@@ -24,6 +36,12 @@ class RecipeRepositoryReportQueriesDataJpaTest {
     @Autowired
     private RecipeRepository recipeRepository;
 
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private SickLeaveRepository sickLeaveRepository;
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
@@ -59,20 +77,7 @@ class RecipeRepositoryReportQueriesDataJpaTest {
     }
 
     @Test
-    void countSickLeavesByMonthShouldGroupAndOrderDescending() {
-        List<Object[]> rows = recipeRepository.countSickLeavesByMonth();
-        assertThat(rows).hasSize(2);
-
-        assertThat(asInt(rows.get(0)[0])).isEqualTo(2026);
-        assertThat(asInt(rows.get(0)[1])).isEqualTo(2);
-        assertThat(asLong(rows.get(0)[2])).isEqualTo(1L);
-
-        assertThat(asInt(rows.get(1)[0])).isEqualTo(2026);
-        assertThat(asInt(rows.get(1)[1])).isEqualTo(1);
-        assertThat(asLong(rows.get(1)[2])).isEqualTo(2L);
-    }
-
-    @Test
+    @MaxQueries(1)
     void findMostCommonDiagnosesShouldExcludeNullAndBlankAndSortByCount() {
         List<Object[]> rows = recipeRepository.findMostCommonDiagnoses();
         assertThat(rows).hasSize(2);
@@ -90,8 +95,87 @@ class RecipeRepositoryReportQueriesDataJpaTest {
         assertThat(covidPatients).isEqualTo(1L);
     }
 
-    private static int asInt(Object value) {
-        return ((Number) value).intValue();
+    @Test
+    @MaxQueries(3)
+    void findPatientsByDiagnosisShouldReturnDistinctCustomersPaged() {
+        Page<Customer> firstPage = customerRepository.findPatientsByDiagnosis("flu", PageRequest.of(0, 1, Sort.by("name")));
+        Page<Customer> covid = customerRepository.findPatientsByDiagnosis("COVID", PageRequest.of(0, 10, Sort.by("name")));
+
+        assertThat(firstPage.getTotalElements()).isEqualTo(2L);
+        assertThat(firstPage.getContent()).extracting(Customer::getName).containsExactly("Alice");
+        assertThat(covid.getContent()).extracting(Customer::getName).containsExactly("Alice");
+    }
+
+    @Test
+    @MaxQueries(2)
+    void findPatientReportsByDiagnosisShouldProjectMaskedPatientRows() {
+        Page<PatientReportDTO> flu = customerRepository.findPatientReportsByDiagnosis("flu", PageRequest.of(0, 10, Sort.by("name")));
+
+        assertThat(flu.getTotalElements()).isEqualTo(2L);
+        assertThat(flu.getContent()).extracting(PatientReportDTO::getName, PatientReportDTO::getMaskedEgn, PatientReportDTO::getPrimaryDoctorName)
+                .containsExactly(tuple("Alice", "******1111", "Dr. One"), tuple("Bob", "******2222", "Dr. Two"));
+    }
+
+    @Test
+    @MaxQueries(2)
+    void examinationReportsShouldProjectRecipeRowsWithoutTheCustomerRecord() {
+        List<ExaminationReportDTO> history = recipeRepository.findExaminationReportsByCustomerId(201L);
+        List<ExaminationReportDTO> doctorTwo = recipeRepository.findDoctorExaminationReports(
+                102L, LocalDate.of(2026, 2, 1), LocalDate.of(2026, 2, 28));
+
+        assertThat(history).extracting(ExaminationReportDTO::getId, ExaminationReportDTO::getDoctorName, ExaminationReportDTO::getCustomerName)
+                .containsExactly(tuple(303L, "Dr. Two", "Alice"), tuple(301L, "Dr. One", "Alice"));
+        assertThat(doctorTwo).extracting(ExaminationReportDTO::getId).containsExactly(303L, 304L, 305L);
+        assertThat(doctorTwo.get(1).getStatus()).isEqualTo(RecipeStatus.ACTIVE);
+        assertThat(doctorTwo.get(1).getSickLeave()).isFalse();
+    }
+
+    @Test
+    @MaxQueries(1)
+    void countSickLeavesByDoctorShouldSkipCancelledLeaves() {
+        insertSickLeave(501L, 301L, 201L, 101L, "ACTIVE");
+        insertSickLeave(502L, 302L, 202L, 101L, "CANCELLED");
+        insertSickLeave(503L, 303L, 201L, 102L, "ACTIVE");
+        insertSickLeave(504L, 303L, 201L, 102L, "COMPLETED");
+
+        List<Object[]> rows = sickLeaveRepository.countSickLeavesByDoctor();
+
+        assertThat(rows).extracting(row -> row[0], row -> asLong(row[1]))
+                .containsExactly(tuple("Dr. Two", 2L), tuple("Dr. One", 1L));
+    }
+
+    @Test
+    @MaxQueries(1)
+    void summarizeMonthlyRollupShouldGroupByStartMonthAndDoctorSkippingCancelledLeaves() {
+        insertSickLeave(501L, 301L, 201L, 101L, "ACTIVE", LocalDate.of(2026, 1, 10), 3);
+        insertSickLeave(502L, 302L, 202L, 101L, "COMPLETED", LocalDate.of(2026, 1, 25), 5);
+        insertSickLeave(503L, 302L, 202L, 101L, "CANCELLED", LocalDate.of(2026, 1, 26), 7);
+        insertSickLeave(504L, 303L, 201L, 102L, "ACTIVE", LocalDate.of(2026, 1, 12), 2);
+        insertSickLeave(505L, 303L, 201L, 101L, "ACTIVE", LocalDate.of(2026, 2, 3), 4);
+
+        List<Object[]> rows = sickLeaveRepository.summarizeMonthlyRollup();
+
+        assertThat(rows).extracting(row -> asLong(row[0]), row -> asLong(row[1]), row -> asLong(row[2]),
+                        row -> asLong(row[3]), row -> asLong(row[4]))
+                .containsExactlyInAnyOrder(
+                        tuple(2026L, 1L, 101L, 2L, 8L),
+                        tuple(2026L, 1L, 102L, 1L, 2L),
+                        tuple(2026L, 2L, 101L, 1L, 4L));
+    }
+
+    @Test
+    void streamDoctorExaminationRowsShouldReturnOrderedExportRows() {
+        List<Object[]> rows;
+        try (Stream<Object[]> stream = recipeRepository.streamDoctorExaminationRows(
+                102L, LocalDate.of(2026, 2, 1), LocalDate.of(2026, 2, 28))) {
+            rows = stream.toList();
+        }
+
+        assertThat(rows).extracting(row -> asLong(row[0])).containsExactly(303L, 304L, 305L);
+        assertThat(rows.get(0)[2]).isEqualTo("Dr. Two");
+        assertThat(rows.get(0)[3]).isEqualTo("Alice");
+        assertThat(recipeRepository.countByDoctorIdAndCreationDateBetween(
+                102L, LocalDate.of(2026, 2, 1), LocalDate.of(2026, 2, 28))).isEqualTo(3L);
     }
 
     private static long asLong(Object value) {
@@ -110,10 +194,23 @@ class RecipeRepositoryReportQueriesDataJpaTest {
         );
     }
 
+    private void insertSickLeave(Long id, Long recipeId, Long customerId, Long doctorId, String status) {
+        insertSickLeave(id, recipeId, customerId, doctorId, status, LocalDate.of(2026, 1, 10), 3);
+    }
+
+    private void insertSickLeave(Long id, Long recipeId, Long customerId, Long doctorId, String status,
+                                 LocalDate startDate, int durationDays) {
+        jdbcTemplate.update(
+                "insert into sick_leaves (id, recipe_id, customer_id, issuing_doctor_id, start_date, duration_days, status, issue_date) " +
+                        "values (?,?,?,?,?,?,?,?)",
+                id, recipeId, customerId, doctorId, startDate, durationDays, status, startDate
+        );
+    }
+
     private void insertDiagnosis(Long id, Long recipeId, String name) {
         jdbcTemplate.update(
-                "insert into diagnoses (id, recipe_id, name, diagnosis_date, is_primary) values (?,?,?,?,?)",
-                id, recipeId, name, LocalDate.of(2026, 1, 1), true
+                "insert into diagnoses (id, recipe_id, name, normalized_name, diagnosis_date, is_primary) values (?,?,?,?,?,?)",
+                id, recipeId, name, name.toLowerCase(), LocalDate.of(2026, 1, 1), true
         );
     }
 }
@@ -2,13 +2,17 @@ package com.inf.cscb869_pharmacy.recipe.service.impl;
 
 import com.inf.cscb869_pharmacy.customer.entity.Customer;
 import com.inf.cscb869_pharmacy.diagnosis.entity.Diagnosis;
+import com.inf.cscb869_pharmacy.diagnosis.service.DiagnosisCatalogService;
+import com.inf.cscb869_pharmacy.diagnosis.service.DiagnosisCooccurrenceService;
 import com.inf.cscb869_pharmacy.doctor.entity.Doctor;
 import com.inf.cscb869_pharmacy.medicine.entity.Medicine;
+import com.inf.cscb869_pharmacy.metrics.PharmacyMetrics;
 import com.inf.cscb869_pharmacy.recipe.dto.RecipeDTO;
 import com.inf.cscb869_pharmacy.recipe.entity.Recipe;
 import com.inf.cscb869_pharmacy.recipe.entity.RecipeMedicine;
 import com.inf.cscb869_pharmacy.recipe.entity.RecipeStatus;
 import com.inf.cscb869_pharmacy.recipe.repository.RecipeRepository;
+import com.inf.cscb869_pharmacy.sickleave.service.SickLeaveService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -32,6 +36,18 @@ class RecipeServiceImplTest {
     @Mock
     private RecipeRepository recipeRepository;
 
+    @Mock
+    private DiagnosisCatalogService diagnosisCatalogService;
+
+    @Mock
+    private DiagnosisCooccurrenceService diagnosisCooccurrenceService;
+
+    @Mock
+    private SickLeaveService sickLeaveService;
+
+    @Mock
+    private PharmacyMetrics pharmacyMetrics;
+
     @InjectMocks
     private RecipeServiceImpl recipeService;
 
@@ -55,6 +71,7 @@ class RecipeServiceImplTest {
         assertThat(result.getCustomerId()).isNotNull();
         assertThat(result.getStatus()).isEqualTo(RecipeStatus.ACTIVE);
         verify(recipeRepository).save(input);
+        verify(pharmacyMetrics).recipeCreated();
     }
 
     @Test
@@ -110,6 +127,26 @@ class RecipeServiceImplTest {
         ArgumentCaptor<Recipe> saveCaptor = ArgumentCaptor.forClass(Recipe.class);
         verify(recipeRepository).save(saveCaptor.capture());
         assertThat(saveCaptor.getValue()).isSameAs(existing);
+        verify(sickLeaveService).reassignIssuingDoctor(42L, existing.getDoctor().getId());
+        verify(sickLeaveService).reassignCustomer(42L, existing.getCustomer().getId());
+    }
+
+    @Test
+    void deleteRecipeShouldDeleteItsSickLeavesThroughTheSickLeaveService() {
+        Recipe existing = Recipe.builder()
+                .creationDate(LocalDate.of(2026, 1, 1))
+                .doctor(doctor("Dr. Old", "UIN-OLD"))
+                .customer(customer("Old Patient", "1234567891"))
+                .status(RecipeStatus.ACTIVE)
+                .diagnoses(new ArrayList<>())
+                .build();
+        existing.setId(42L);
+        when(recipeRepository.findById(42L)).thenReturn(Optional.of(existing));
+
+        recipeService.deleteRecipe(42L);
+
+        verify(sickLeaveService).deleteSickLeavesByRecipeId(42L);
+        verify(recipeRepository).delete(existing);
     }
 
     @Test
@@ -2,6 +2,7 @@ package com.inf.cscb869_pharmacy.report.controller;
 
 import com.inf.cscb869_pharmacy.config.SecurityConfig;
 import com.inf.cscb869_pharmacy.customer.service.CustomerService;
+import com.inf.cscb869_pharmacy.diagnosis.service.DiagnosisCatalogService;
 import com.inf.cscb869_pharmacy.doctor.service.DoctorService;
 import com.inf.cscb869_pharmacy.report.service.ReportService;
 import org.junit.jupiter.api.Test;
@@ -32,6 +33,9 @@ class ReportViewControllerSecurityWebMvcTest {
     @MockBean
     private CustomerService customerService;
 
+    @MockBean
+    private DiagnosisCatalogService diagnosisCatalogService;
+
     @MockBean
     private JwtDecoder jwtDecoder;
 
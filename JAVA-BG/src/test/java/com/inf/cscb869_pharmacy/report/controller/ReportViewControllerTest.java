@@ -1,6 +1,7 @@
 package com.inf.cscb869_pharmacy.report.controller;
 
 import com.inf.cscb869_pharmacy.customer.service.CustomerService;
+import com.inf.cscb869_pharmacy.diagnosis.service.DiagnosisCatalogService;
 import com.inf.cscb869_pharmacy.doctor.service.DoctorService;
 import com.inf.cscb869_pharmacy.report.dto.MonthlyStatisticsDTO;
 import com.inf.cscb869_pharmacy.report.service.ReportService;
@@ -29,6 +30,9 @@ class ReportViewControllerTest {
     @Mock
     private CustomerService customerService;
 
+    @Mock
+    private DiagnosisCatalogService diagnosisCatalogService;
+
     @InjectMocks
     private ReportViewController controller;
 
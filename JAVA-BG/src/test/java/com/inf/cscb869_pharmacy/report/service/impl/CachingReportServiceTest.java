@@ -0,0 +1,147 @@
+package com.inf.cscb869_pharmacy.report.service.impl;
+
+import com.inf.cscb869_pharmacy.cache.InMemoryInvalidationBus;
+import com.inf.cscb869_pharmacy.common.TableVersionRegistry;
+import com.inf.cscb869_pharmacy.datasource.ReplicaLagMonitor;
+import com.inf.cscb869_pharmacy.report.dto.DiagnosisReportDTO;
+import com.inf.cscb869_pharmacy.report.dto.DoctorStatisticsDTO;
+import com.inf.cscb869_pharmacy.report.service.ReportService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingReportServiceTest {
+
+    @Mock
+    private ReportService delegate;
+
+    private TableVersionRegistry tableVersions;
+
+    private CachingReportService cachingReportService;
+
+    @BeforeEach
+    void setUp() {
+        tableVersions = new TableVersionRegistry(null, new InMemoryInvalidationBus(), null);
+        cachingReportService = new CachingReportService(delegate, tableVersions, 0, Optional.empty());
+    }
+
+    @Test
+    void repeatedReadsShouldHitTheDatabaseOnce() {
+        when(delegate.getMostCommonDiagnoses()).thenReturn(List.of(new DiagnosisReportDTO("Flu", 3L)));
+
+        cachingReportService.getMostCommonDiagnoses();
+        List<DiagnosisReportDTO> second = cachingReportService.getMostCommonDiagnoses();
+
+        assertThat(second).extracting(DiagnosisReportDTO::getDiagnosis).containsExactly("Flu");
+        verify(delegate, times(1)).getMostCommonDiagnoses();
+    }
+
+    @Test
+    void writeToADependentTableShouldInvalidateTheEntry() {
+        when(delegate.getDoctorsSickLeaveRanking()).thenReturn(List.of(stat("Dr. One", 1L)), List.of(stat("Dr. One", 2L)));
+
+        cachingReportService.getDoctorsSickLeaveRanking();
+        tableVersions.bump("sick_leaves");
+        List<DoctorStatisticsDTO> refreshed = cachingReportService.getDoctorsSickLeaveRanking();
+
+        assertThat(refreshed).extracting(DoctorStatisticsDTO::getCount).containsExactly(2L);
+        verify(delegate, times(2)).getDoctorsSickLeaveRanking();
+    }
+
+    @Test
+    void writeToAnUnrelatedTableShouldKeepTheEntry() {
+        when(delegate.getVisitCountPerDoctor()).thenReturn(List.of(stat("Dr. One", 4L)));
+
+        cachingReportService.getVisitCountPerDoctor();
+        tableVersions.bump("sick_leaves");
+        cachingReportService.getVisitCountPerDoctor();
+
+        verify(delegate, times(1)).getVisitCountPerDoctor();
+    }
+
+    @Test
+    void resultLoadedRightAfterAWriteShouldNotBeCachedWithReplicas() {
+        CachingReportService withReplicas = new CachingReportService(delegate, tableVersions, 60_000, Optional.empty());
+        when(delegate.getMostCommonDiagnoses()).thenReturn(List.of(new DiagnosisReportDTO("Flu", 3L)));
+
+        tableVersions.bump("diagnoses");
+        withReplicas.getMostCommonDiagnoses();
+        withReplicas.getMostCommonDiagnoses();
+
+        verify(delegate, times(2)).getMostCommonDiagnoses();
+    }
+
+    @Test
+    void settleWindowShouldDefaultToTheReplicaMaxLag() {
+        ReplicaLagMonitor replicas = new ReplicaLagMonitor(Map.of(), Duration.ofSeconds(2), null, new SimpleMeterRegistry());
+
+        assertThat(CachingReportService.settleWindow(-1, Optional.of(replicas))).isEqualTo(Duration.ofSeconds(2));
+        assertThat(CachingReportService.settleWindow(-1, Optional.empty())).isZero();
+        assertThat(CachingReportService.settleWindow(500, Optional.of(replicas))).isEqualTo(Duration.ofMillis(500));
+    }
+
+    @Test
+    void failedLoadShouldNotBeCached() {
+        when(delegate.getPatientCountPerPrimaryDoctor())
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(List.of(stat("Dr. One", 5L)));
+
+        assertThatThrownBy(() -> cachingReportService.getPatientCountPerPrimaryDoctor())
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(cachingReportService.getPatientCountPerPrimaryDoctor())
+                .extracting(DoctorStatisticsDTO::getCount).containsExactly(5L);
+    }
+
+    @Test
+    void concurrentMissesShouldShareOneQuery() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.getMostCommonDiagnoses()).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(new DiagnosisReportDTO("Flu", 3L));
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<DiagnosisReportDTO>>> futures = new ArrayList<>();
+            futures.add(executor.submit(cachingReportService::getMostCommonDiagnoses));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 7; i++) {
+                futures.add(executor.submit(cachingReportService::getMostCommonDiagnoses));
+            }
+            release.countDown();
+            for (Future<List<DiagnosisReportDTO>> future : futures) {
+                assertThat(future.get(5, TimeUnit.SECONDS)).hasSize(1);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(delegate, times(1)).getMostCommonDiagnoses();
+    }
+
+    private static DoctorStatisticsDTO stat(String doctorName, Long count) {
+        return DoctorStatisticsDTO.builder().doctorName(doctorName).count(count).build();
+    }
+}
@@ -0,0 +1,163 @@
+package com.inf.cscb869_pharmacy.report.service.impl;
+
+import com.inf.cscb869_pharmacy.bulkhead.BulkheadRegistry;
+import com.inf.cscb869_pharmacy.recipe.entity.RecipeStatus;
+import com.inf.cscb869_pharmacy.recipe.repository.RecipeRepository;
+import com.inf.cscb869_pharmacy.report.dto.ReportJobDTO;
+import com.inf.cscb869_pharmacy.report.dto.ReportJobRequest;
+import com.inf.cscb869_pharmacy.report.dto.ReportJobStatus;
+import com.inf.cscb869_pharmacy.report.dto.ReportJobType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReportJobServiceImplTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+    private static final LocalDate END = LocalDate.of(2026, 3, 31);
+
+    @Mock
+    private RecipeRepository recipeRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private ReportJobServiceImpl reportJobService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        reportJobService = new ReportJobServiceImpl(recipeRepository, transactionTemplate,
+                new BulkheadRegistry(new MockEnvironment(), new SimpleMeterRegistry()), 1, 5, 1, 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reportJobService.shutdown();
+    }
+
+    @Test
+    void submittedJobShouldSpoolRowsToCsv() throws Exception {
+        when(recipeRepository.countByCreationDateBetween(START, END)).thenReturn(2L);
+        when(recipeRepository.streamExaminationRows(START, END)).thenReturn(Stream.of(
+                new Object[]{1L, START, "Dr. One", "Alice", RecipeStatus.ACTIVE, null, false},
+                new Object[]{2L, END, "Dr. One", "Smith, Bob", RecipeStatus.FULFILLED, null, true}));
+
+        ReportJobDTO submitted = reportJobService.submit(request(ReportJobType.EXAMINATIONS), "doctor@clinic.com");
+        ReportJobDTO finished = awaitFinished(submitted.getId(), "doctor@clinic.com");
+
+        assertThat(finished.getStatus()).isEqualTo(ReportJobStatus.SUCCEEDED);
+        assertThat(finished.getProgress()).isEqualTo(100);
+        assertThat(finished.getProcessedRows()).isEqualTo(2L);
+        Path file = reportJobService.getResult(submitted.getId(), "doctor@clinic.com").orElseThrow();
+        assertThat(Files.readAllLines(file)).containsExactly(
+                ReportJobServiceImpl.CSV_HEADER,
+                "1,2026-01-01,Dr. One,Alice,ACTIVE,,false",
+                "2,2026-03-31,Dr. One,\"Smith, Bob\",FULFILLED,,true");
+    }
+
+    @Test
+    void toCsvLineShouldNeutraliseFormulaCells() {
+        String line = ReportJobServiceImpl.toCsvLine(new Object[]{
+                3L, "=HYPERLINK(\"http://x\")", "+1", "-2+3", "@SUM(A1)", "Dr. A-B", -5L});
+
+        assertThat(line).isEqualTo("3,\"'=HYPERLINK(\"\"http://x\"\")\",'+1,'-2+3,'@SUM(A1),Dr. A-B,-5");
+    }
+
+    @Test
+    void jobsShouldOnlyBeVisibleToTheirOwner() throws Exception {
+        when(recipeRepository.streamExaminationRows(START, END)).thenReturn(Stream.empty());
+
+        ReportJobDTO submitted = reportJobService.submit(request(ReportJobType.EXAMINATIONS), "doctor@clinic.com");
+        awaitFinished(submitted.getId(), "doctor@clinic.com");
+
+        assertThat(reportJobService.getJob(submitted.getId(), "other@clinic.com")).isEmpty();
+        assertThat(reportJobService.getResult(submitted.getId(), "other@clinic.com")).isEmpty();
+        assertThat(reportJobService.cancel(submitted.getId(), "other@clinic.com")).isFalse();
+    }
+
+    @Test
+    void submitShouldEnforcePerUserLimitAndCancelShouldStopRunningJob() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        when(recipeRepository.streamExaminationRows(START, END)).thenAnswer(invocation -> Stream.generate(() -> {
+            started.countDown();
+            return new Object[]{1L, START, "Dr. One", "Alice", RecipeStatus.ACTIVE, null, false};
+        }));
+
+        ReportJobDTO running = reportJobService.submit(request(ReportJobType.EXAMINATIONS), "doctor@clinic.com");
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> reportJobService.submit(request(ReportJobType.EXAMINATIONS), "doctor@clinic.com"))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(reportJobService.cancel(running.getId(), "doctor@clinic.com")).isTrue();
+        assertThat(awaitFinished(running.getId(), "doctor@clinic.com").getStatus()).isEqualTo(ReportJobStatus.CANCELLED);
+        assertThat(reportJobService.getResult(running.getId(), "doctor@clinic.com")).isEmpty();
+    }
+
+    @Test
+    void submitShouldRejectDoctorReportWithoutDoctor() {
+        assertThatThrownBy(() -> reportJobService.submit(request(ReportJobType.DOCTOR_EXAMINATIONS), "doctor@clinic.com"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Doctor is required for doctor examination reports");
+    }
+
+    @Test
+    void cleanUpShouldDropFinishedJobsPastTheirTtl() throws Exception {
+        when(recipeRepository.streamExaminationRows(START, END)).thenReturn(Stream.empty());
+
+        ReportJobDTO submitted = reportJobService.submit(request(ReportJobType.EXAMINATIONS), "doctor@clinic.com");
+        awaitFinished(submitted.getId(), "doctor@clinic.com");
+        Path file = reportJobService.getResult(submitted.getId(), "doctor@clinic.com").orElseThrow();
+
+        reportJobService.cleanUp(LocalDateTime.now().plusMinutes(30));
+        assertThat(reportJobService.getJob(submitted.getId(), "doctor@clinic.com")).isPresent();
+
+        reportJobService.cleanUp(LocalDateTime.now().plusMinutes(61));
+        assertThat(reportJobService.getJob(submitted.getId(), "doctor@clinic.com")).isEmpty();
+        assertThat(file).doesNotExist();
+    }
+
+    private ReportJobDTO awaitFinished(String id, String owner) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            ReportJobDTO job = reportJobService.getJob(id, owner).orElseThrow();
+            if (job.getStatus().isFinished()) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Report job " + id + " did not finish");
+    }
+
+    private static ReportJobRequest request(ReportJobType type) {
+        return ReportJobRequest.builder().type(type).startDate(START).endDate(END).build();
+    }
+}
@@ -3,20 +3,30 @@ package com.inf.cscb869_pharmacy.report.service.impl;
 import com.inf.cscb869_pharmacy.customer.entity.Customer;
 import com.inf.cscb869_pharmacy.customer.repository.CustomerRepository;
 import com.inf.cscb869_pharmacy.doctor.repository.DoctorRepository;
-import com.inf.cscb869_pharmacy.recipe.entity.Recipe;
 import com.inf.cscb869_pharmacy.recipe.repository.RecipeRepository;
+import com.inf.cscb869_pharmacy.report.dto.DoctorStatisticsDTO;
 import com.inf.cscb869_pharmacy.report.dto.MonthlyStatisticsDTO;
+import com.inf.cscb869_pharmacy.report.dto.PatientReportDTO;
+import com.inf.cscb869_pharmacy.sickleave.repository.SickLeaveRepository;
+import com.inf.cscb869_pharmacy.sickleave.service.SickLeaveRollupService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -32,29 +42,66 @@ class ReportServiceImplTest {
     @Mock
     private RecipeRepository recipeRepository;
 
+    @Mock
+    private SickLeaveRepository sickLeaveRepository;
+
+    @Mock
+    private SickLeaveRollupService sickLeaveRollupService;
+
     @InjectMocks
     private ReportServiceImpl reportService;
 
     @Test
-    void getPatientsByDiagnosisShouldReturnDistinctCustomers() {
+    void getPatientsByDiagnosisShouldQueryNormalizedNameForDistinctCustomers() {
         Customer first = Customer.builder().name("Alice").egn("1234567890").build();
         Customer second = Customer.builder().name("Bob").egn("1234567891").build();
 
-        Recipe r1 = Recipe.builder().customer(first).build();
-        Recipe r2 = Recipe.builder().customer(first).build();
-        Recipe r3 = Recipe.builder().customer(second).build();
-
-        when(recipeRepository.findByDiagnosisContainingIgnoreCase("flu"))
-                .thenReturn(List.of(r1, r2, r3));
-        List<Customer> result = reportService.getPatientsByDiagnosis("flu");
+        when(customerRepository.findPatientsByDiagnosis(eq("acute flu"), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(first, second)));
+        List<Customer> result = reportService.getPatientsByDiagnosis("  Acute   FLU ");
         assertThat(result).containsExactly(first, second);
     }
 
+    @Test
+    void getPatientsByDiagnosisShouldReturnEmptyPageForBlankInput() {
+        Page<Customer> result = reportService.getPatientsByDiagnosis(" ", PageRequest.of(0, 10));
+        assertThat(result.getContent()).isEmpty();
+        verify(customerRepository, never()).findPatientsByDiagnosis(any(), any());
+    }
+
+    @Test
+    void getPatientReportsByDiagnosisShouldQueryProjectionWithNormalizedName() {
+        PatientReportDTO alice = new PatientReportDTO(1L, "Alice", "9208227654", "Dr. One", LocalDate.of(2026, 12, 31));
+        when(customerRepository.findPatientReportsByDiagnosis(eq("acute flu"), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(alice)));
+
+        Page<PatientReportDTO> result = reportService.getPatientReportsByDiagnosis(" Acute  FLU", PageRequest.of(0, 10));
+
+        assertThat(result.getContent()).singleElement().satisfies(patient -> {
+            assertThat(patient.getMaskedEgn()).isEqualTo("******7654");
+            assertThat(patient.getPrimaryDoctorName()).isEqualTo("Dr. One");
+        });
+    }
+
+    @Test
+    void getPatientReportsByDiagnosisShouldReturnEmptyPageForBlankInput() {
+        Page<PatientReportDTO> result = reportService.getPatientReportsByDiagnosis("  ", PageRequest.of(0, 10));
+        assertThat(result.getContent()).isEmpty();
+        verify(customerRepository, never()).findPatientReportsByDiagnosis(any(), any());
+    }
+
+    @Test
+    void maskEgnShouldKeepOnlyLastFourDigits() {
+        assertThat(PatientReportDTO.maskEgn("8505156789")).isEqualTo("******6789");
+        assertThat(PatientReportDTO.maskEgn("123")).isEqualTo("***");
+        assertThat(PatientReportDTO.maskEgn(null)).isNull();
+    }
+
     @Test
     void getSickLeavesByMonthShouldMapNumericTypesAndMonthName() {
-        when(recipeRepository.countSickLeavesByMonth()).thenReturn(List.of(
-                new Object[]{2026, 2, 4L},
-                new Object[]{2025L, 13, 1}
+        when(sickLeaveRollupService.getMonthlyTotals()).thenReturn(List.of(
+                new Object[]{2026, 2, 4L, 20L},
+                new Object[]{2025L, 13, 1, 3}
         ));
         List<MonthlyStatisticsDTO> result = reportService.getSickLeavesByMonth();
         assertThat(result).hasSize(2);
@@ -62,11 +109,24 @@ class ReportServiceImplTest {
         assertThat(result.get(0).getMonth()).isEqualTo(2);
         assertThat(result.get(0).getMonthName()).isEqualTo("FEBRUARY");
         assertThat(result.get(0).getCount()).isEqualTo(4L);
+        assertThat(result.get(0).getTotalDays()).isEqualTo(20L);
 
         assertThat(result.get(1).getYear()).isEqualTo(2025);
         assertThat(result.get(1).getMonth()).isEqualTo(13);
         assertThat(result.get(1).getMonthName()).isEqualTo("UNKNOWN");
         assertThat(result.get(1).getCount()).isEqualTo(1L);
+        assertThat(result.get(1).getTotalDays()).isEqualTo(3L);
+    }
+
+    @Test
+    void getDoctorsSickLeaveRankingShouldMapIssuingDoctorCounts() {
+        when(sickLeaveRepository.countSickLeavesByDoctor()).thenReturn(List.of(
+                new Object[]{"Dr. One", 3L},
+                new Object[]{"Dr. Two", 1L}
+        ));
+        List<DoctorStatisticsDTO> result = reportService.getDoctorsSickLeaveRanking();
+        assertThat(result).extracting(DoctorStatisticsDTO::getDoctorName).containsExactly("Dr. One", "Dr. Two");
+        assertThat(result).extracting(DoctorStatisticsDTO::getCount).containsExactly(3L, 1L);
     }
 
     @Test
@@ -0,0 +1,140 @@
+package com.inf.cscb869_pharmacy.report.service.impl;
+
+import com.inf.cscb869_pharmacy.cache.InMemoryInvalidationBus;
+import com.inf.cscb869_pharmacy.common.TableVersionRegistry;
+import com.inf.cscb869_pharmacy.diagnosis.repository.DiagnosisRepository;
+import com.inf.cscb869_pharmacy.recipe.repository.RecipeRepository;
+import com.inf.cscb869_pharmacy.report.dto.TrendDTO;
+import com.inf.cscb869_pharmacy.report.dto.TrendPointDTO;
+import com.inf.cscb869_pharmacy.sickleave.repository.SickLeaveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TrendServiceImplTest {
+
+    @Mock
+    private RecipeRepository recipeRepository;
+
+    @Mock
+    private SickLeaveRepository sickLeaveRepository;
+
+    @Mock
+    private DiagnosisRepository diagnosisRepository;
+
+    private TableVersionRegistry tableVersions;
+
+    private TrendServiceImpl trendService;
+
+    @BeforeEach
+    void setUp() {
+        tableVersions = new TableVersionRegistry(null, new InMemoryInvalidationBus(), null);
+        trendService = new TrendServiceImpl(recipeRepository, sickLeaveRepository, diagnosisRepository, tableVersions);
+    }
+
+    @Test
+    void getTrendShouldFillEmptyBucketsWithZero() {
+        when(recipeRepository.countByPeriod("month", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 4, 30), 5L))
+                .thenReturn(List.of(
+                        new Object[]{Date.valueOf("2025-01-01"), 3L},
+                        new Object[]{Date.valueOf("2025-04-01"), 1L}));
+
+        TrendDTO trend = trendService.getTrend("recipes", "month", LocalDate.of(2025, 1, 15), LocalDate.of(2025, 4, 2), 5L);
+
+        assertThat(trend.getFrom()).isEqualTo(LocalDate.of(2025, 1, 1));
+        assertThat(trend.getTo()).isEqualTo(LocalDate.of(2025, 4, 30));
+        assertThat(trend.getPoints()).extracting(TrendPointDTO::getPeriodStart, TrendPointDTO::getCount)
+                .containsExactly(
+                        tuple(LocalDate.of(2025, 1, 1), 3L),
+                        tuple(LocalDate.of(2025, 2, 1), 0L),
+                        tuple(LocalDate.of(2025, 3, 1), 0L),
+                        tuple(LocalDate.of(2025, 4, 1), 1L));
+    }
+
+    @Test
+    void getTrendShouldAlignWeeksToMonday() {
+        when(sickLeaveRepository.countByPeriod("week", LocalDate.of(2025, 3, 3), LocalDate.of(2025, 3, 16), null))
+                .thenReturn(List.<Object[]>of(new Object[]{LocalDate.of(2025, 3, 10), 2L}));
+
+        TrendDTO trend = trendService.getTrend("sickLeaves", "week", LocalDate.of(2025, 3, 5), LocalDate.of(2025, 3, 12), null);
+
+        assertThat(trend.getPoints()).extracting(TrendPointDTO::getPeriodStart, TrendPointDTO::getCount)
+                .containsExactly(
+                        tuple(LocalDate.of(2025, 3, 3), 0L),
+                        tuple(LocalDate.of(2025, 3, 10), 2L));
+    }
+
+    @Test
+    void closedBucketsShouldBeServedFromCache() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 2, 28);
+        when(diagnosisRepository.countByPeriod("month", from, to, null))
+                .thenReturn(List.<Object[]>of(new Object[]{Date.valueOf("2025-02-01"), 7L}));
+
+        trendService.getTrend("diagnoses", "month", from, to, null);
+        TrendDTO cached = trendService.getTrend("diagnoses", "month", LocalDate.of(2025, 2, 1), to, null);
+
+        assertThat(cached.getPoints()).extracting(TrendPointDTO::getCount).containsExactly(7L);
+        verify(diagnosisRepository, times(1)).countByPeriod(anyString(), any(), any(), any());
+    }
+
+    @Test
+    void closedBucketsShouldBeRequeriedAfterSourceTableChanges() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 1, 31);
+        when(diagnosisRepository.countByPeriod("month", from, to, null))
+                .thenReturn(List.<Object[]>of(new Object[]{Date.valueOf("2025-01-01"), 7L}))
+                .thenReturn(List.<Object[]>of(new Object[]{Date.valueOf("2025-01-01"), 8L}));
+
+        trendService.getTrend("diagnoses", "month", from, to, null);
+        tableVersions.bump("sick_leaves");
+        trendService.getTrend("diagnoses", "month", from, to, null);
+        tableVersions.bump("recipe");
+        TrendDTO requeried = trendService.getTrend("diagnoses", "month", from, to, null);
+
+        assertThat(requeried.getPoints()).extracting(TrendPointDTO::getCount).containsExactly(8L);
+        verify(diagnosisRepository, times(2)).countByPeriod(anyString(), any(), any(), any());
+    }
+
+    @Test
+    void openBucketShouldAlwaysBeQueried() {
+        LocalDate thisMonth = LocalDate.now().withDayOfMonth(1);
+        LocalDate lastMonth = thisMonth.minusMonths(1);
+        LocalDate endOfMonth = thisMonth.plusMonths(1).minusDays(1);
+        when(recipeRepository.countByPeriod("month", lastMonth, endOfMonth, null)).thenReturn(List.of());
+        when(recipeRepository.countByPeriod("month", thisMonth, endOfMonth, null)).thenReturn(List.of());
+
+        trendService.getTrend("recipes", "month", lastMonth, LocalDate.now(), null);
+        trendService.getTrend("recipes", "month", lastMonth, LocalDate.now(), null);
+
+        verify(recipeRepository).countByPeriod("month", lastMonth, endOfMonth, null);
+        verify(recipeRepository).countByPeriod("month", thisMonth, endOfMonth, null);
+    }
+
+    @Test
+    void getTrendShouldRejectUnknownMetricAndTooManyBuckets() {
+        assertThatThrownBy(() -> trendService.getTrend("visits", "day", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 2), null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unknown trend metric: visits");
+        assertThatThrownBy(() -> trendService.getTrend("recipes", "day", LocalDate.of(2020, 1, 1), LocalDate.of(2025, 1, 1), null))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(recipeRepository, never()).countByPeriod(anyString(), any(), any(), any());
+    }
+}
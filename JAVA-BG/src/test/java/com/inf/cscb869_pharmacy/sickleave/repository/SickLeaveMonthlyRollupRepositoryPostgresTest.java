@@ -0,0 +1,75 @@
+package com.inf.cscb869_pharmacy.sickleave.repository;
+
+import com.inf.cscb869_pharmacy.sickleave.entity.SickLeaveMonthlyRollup;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * The rollup upsert is Postgres-only SQL (H2 parses ON CONFLICT DO NOTHING only), so it runs against a real server.
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class SickLeaveMonthlyRollupRepositoryPostgresTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private SickLeaveMonthlyRollupRepository rollupRepository;
+
+    @Test
+    void adjustShouldInsertMissingBucketThenAddToIt() {
+        rollupRepository.adjust(2026, 1, 101L, 1, 3);
+        rollupRepository.adjust(2026, 1, 101L, 2, 9);
+        rollupRepository.adjust(2026, 1, 102L, 1, 5);
+
+        List<SickLeaveMonthlyRollup> rows = rollupRepository.findAll();
+
+        assertThat(rows).extracting(SickLeaveMonthlyRollup::getDoctorId, SickLeaveMonthlyRollup::getLeaveCount,
+                        SickLeaveMonthlyRollup::getTotalDays)
+                .containsExactlyInAnyOrder(tuple(101L, 3L, 12L), tuple(102L, 1L, 5L));
+    }
+
+    @Test
+    void adjustShouldApplyNegativeDeltasToExistingBucket() {
+        rollupRepository.adjust(2026, 2, 101L, 2, 10);
+        rollupRepository.adjust(2026, 2, 101L, -1, -4);
+
+        assertThat(rollupRepository.findAll()).singleElement()
+                .satisfies(row -> {
+                    assertThat(row.getLeaveCount()).isEqualTo(1L);
+                    assertThat(row.getTotalDays()).isEqualTo(6L);
+                });
+    }
+
+    @Test
+    void summarizeByMonthShouldSumDoctorsAndSkipEmptyMonths() {
+        rollupRepository.adjust(2026, 1, 101L, 2, 8);
+        rollupRepository.adjust(2026, 1, 102L, 1, 2);
+        rollupRepository.adjust(2026, 2, 101L, 1, 4);
+        rollupRepository.adjust(2026, 3, 101L, 1, 4);
+        rollupRepository.adjust(2026, 3, 101L, -1, -4);
+
+        List<Object[]> rows = rollupRepository.summarizeByMonth();
+
+        assertThat(rows).extracting(row -> ((Number) row[0]).intValue(), row -> ((Number) row[1]).intValue(),
+                        row -> ((Number) row[2]).longValue(), row -> ((Number) row[3]).longValue())
+                .containsExactly(tuple(2026, 2, 1L, 4L), tuple(2026, 1, 3L, 10L));
+    }
+}
@@ -0,0 +1,116 @@
+package com.inf.cscb869_pharmacy.sickleave.service;
+
+import com.inf.cscb869_pharmacy.sickleave.entity.SickLeaveNumberBlock;
+import com.inf.cscb869_pharmacy.sickleave.repository.SickLeaveNumberBlockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SickLeaveNumberAllocatorTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 2, 1);
+
+    @Mock
+    private SickLeaveNumberBlockRepository blockRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SickLeaveNumberBlock dayRow;
+
+    @BeforeEach
+    void setUp() {
+        dayRow = SickLeaveNumberBlock.builder().issueDay(DAY).nextValue(1L).build();
+    }
+
+    @Test
+    void nextNumberShouldFormatSequenceWithCheckDigit() {
+        when(blockRepository.findByIssueDay(DAY)).thenReturn(Optional.of(dayRow));
+        SickLeaveNumberAllocator allocator = new SickLeaveNumberAllocator(blockRepository, transactionManager, 10);
+
+        assertThat(allocator.nextNumber(DAY)).isEqualTo("SL-20260201-000001-5");
+        assertThat(allocator.nextNumber(DAY)).isEqualTo("SL-20260201-000002-3");
+        assertThat(dayRow.getNextValue()).isEqualTo(11L);
+    }
+
+    @Test
+    void nextNumberShouldReserveNewBlockOnlyWhenCurrentIsExhausted() {
+        when(blockRepository.findByIssueDay(DAY)).thenReturn(Optional.of(dayRow));
+        SickLeaveNumberAllocator allocator = new SickLeaveNumberAllocator(blockRepository, transactionManager, 2);
+
+        allocator.nextNumber(DAY);
+        allocator.nextNumber(DAY);
+        String third = allocator.nextNumber(DAY);
+
+        assertThat(third).startsWith("SL-20260201-000003-");
+        verify(blockRepository, times(2)).saveAndFlush(any(SickLeaveNumberBlock.class));
+    }
+
+    @Test
+    void nextNumberShouldStartNewSequenceForNewDay() {
+        LocalDate nextDay = DAY.plusDays(1);
+        when(blockRepository.findByIssueDay(DAY)).thenReturn(Optional.of(dayRow));
+        when(blockRepository.findByIssueDay(nextDay)).thenReturn(Optional.empty());
+        SickLeaveNumberAllocator allocator = new SickLeaveNumberAllocator(blockRepository, transactionManager, 10);
+
+        allocator.nextNumber(DAY);
+
+        assertThat(allocator.nextNumber(nextDay)).startsWith("SL-20260202-000001-");
+    }
+
+    @Test
+    void concurrentCallersShouldNeverReceiveTheSameNumber() throws Exception {
+        when(blockRepository.findByIssueDay(DAY)).thenReturn(Optional.of(dayRow));
+        SickLeaveNumberAllocator allocator = new SickLeaveNumberAllocator(blockRepository, transactionManager, 7);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                futures.add(executor.submit(() -> allocator.nextNumber(DAY)));
+            }
+            Set<String> numbers = new HashSet<>();
+            for (Future<String> future : futures) {
+                numbers.add(future.get());
+            }
+            assertThat(numbers).hasSize(500);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void checkDigitShouldDetectTyposAndSwappedDigits() {
+        int valid = SickLeaveNumberAllocator.checkDigit("20260201000042");
+
+        assertThat(SickLeaveNumberAllocator.checkDigit("20260201000043")).isNotEqualTo(valid);
+        assertThat(SickLeaveNumberAllocator.checkDigit("20260201000024")).isNotEqualTo(valid);
+    }
+
+    @Test
+    void constructorShouldRejectNonPositiveBlockSize() {
+        assertThatThrownBy(() -> new SickLeaveNumberAllocator(blockRepository, transactionManager, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,106 @@
+package com.inf.cscb869_pharmacy.sickleave.service;
+
+import com.inf.cscb869_pharmacy.sickleave.entity.SickLeave;
+import com.inf.cscb869_pharmacy.sickleave.entity.SickLeaveMonthlyRollup;
+import com.inf.cscb869_pharmacy.sickleave.entity.SickLeaveStatus;
+import com.inf.cscb869_pharmacy.sickleave.repository.SickLeaveMonthlyRollupRepository;
+import com.inf.cscb869_pharmacy.sickleave.repository.SickLeaveRepository;
+import com.inf.cscb869_pharmacy.sickleave.service.SickLeaveRollupService.Contribution;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SickLeaveRollupServiceImplTest {
+
+    @Mock
+    private SickLeaveMonthlyRollupRepository rollupRepository;
+
+    @Mock
+    private SickLeaveRepository sickLeaveRepository;
+
+    @InjectMocks
+    private SickLeaveRollupServiceImpl rollupService;
+
+    @Test
+    void contributionOfShouldUseStartMonthAndIssuingDoctor() {
+        SickLeave sickLeave = sickLeave(LocalDate.of(2026, 1, 30), 5, SickLeaveStatus.ACTIVE);
+
+        assertThat(rollupService.contributionOf(sickLeave)).isEqualTo(new Contribution(2026, 1, 3L, 5));
+    }
+
+    @Test
+    void contributionOfShouldIgnoreCancelledLeaves() {
+        SickLeave sickLeave = sickLeave(LocalDate.of(2026, 1, 30), 5, SickLeaveStatus.CANCELLED);
+
+        assertThat(rollupService.contributionOf(sickLeave)).isNull();
+    }
+
+    @Test
+    void recordChangeShouldUpsertTheNewBucket() {
+        rollupService.recordChange(null, new Contribution(2026, 2, 3L, 4));
+
+        verify(rollupRepository).adjust(2026, 2, 3L, 1L, 4L);
+        verify(rollupRepository, never()).save(any());
+    }
+
+    @Test
+    void recordChangeShouldOnlyAdjustDaysWithinTheSameBucket() {
+        rollupService.recordChange(new Contribution(2026, 2, 3L, 4), new Contribution(2026, 2, 3L, 7));
+
+        verify(rollupRepository).adjust(2026, 2, 3L, 0L, 3L);
+        verify(rollupRepository, never()).save(any());
+    }
+
+    @Test
+    void recordChangeShouldMoveLeaveBetweenBuckets() {
+        rollupService.recordChange(new Contribution(2026, 2, 3L, 4), new Contribution(2026, 3, 3L, 4));
+
+        verify(rollupRepository).adjust(2026, 2, 3L, -1L, -4L);
+        verify(rollupRepository).adjust(2026, 3, 3L, 1L, 4L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuildShouldReplaceRollupWithSourceTotals() {
+        when(sickLeaveRepository.summarizeMonthlyRollup()).thenReturn(List.<Object[]>of(
+                new Object[]{2026, 2, 3L, 2L, 9L}));
+
+        rollupService.rebuild();
+
+        ArgumentCaptor<List<SickLeaveMonthlyRollup>> captor = ArgumentCaptor.forClass(List.class);
+        InOrder inOrder = inOrder(rollupRepository, sickLeaveRepository);
+        inOrder.verify(rollupRepository).lockForRebuild();
+        inOrder.verify(sickLeaveRepository).summarizeMonthlyRollup();
+        verify(rollupRepository).deleteAllInBatch();
+        verify(rollupRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).singleElement().satisfies(row -> {
+            assertThat(row.getDoctorId()).isEqualTo(3L);
+            assertThat(row.getLeaveCount()).isEqualTo(2L);
+            assertThat(row.getTotalDays()).isEqualTo(9L);
+        });
+    }
+
+    private static SickLeave sickLeave(LocalDate startDate, int days, SickLeaveStatus status) {
+        return SickLeave.builder()
+                .issuingDoctorId(3L)
+                .startDate(startDate)
+                .durationDays(days)
+                .status(status)
+                .build();
+    }
+}
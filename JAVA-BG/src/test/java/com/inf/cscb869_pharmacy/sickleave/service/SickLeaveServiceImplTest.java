@@ -1,21 +1,37 @@
 package com.inf.cscb869_pharmacy.sickleave.service;
 
+import com.inf.cscb869_pharmacy.customer.entity.Customer;
+import com.inf.cscb869_pharmacy.doctor.entity.Doctor;
+import com.inf.cscb869_pharmacy.metrics.PharmacyMetrics;
 import com.inf.cscb869_pharmacy.recipe.entity.Recipe;
+import com.inf.cscb869_pharmacy.sickleave.dto.SickLeaveCheckDTO;
+import com.inf.cscb869_pharmacy.sickleave.dto.SickLeaveOverlapDTO;
 import com.inf.cscb869_pharmacy.sickleave.entity.SickLeave;
+import com.inf.cscb869_pharmacy.sickleave.entity.SickLeaveEvent;
+import com.inf.cscb869_pharmacy.sickleave.entity.SickLeaveEventType;
+import com.inf.cscb869_pharmacy.sickleave.entity.SickLeaveOverlapPolicy;
 import com.inf.cscb869_pharmacy.sickleave.entity.SickLeaveStatus;
+import com.inf.cscb869_pharmacy.sickleave.repository.SickLeaveEventRepository;
 import com.inf.cscb869_pharmacy.sickleave.repository.SickLeaveRepository;
+import com.inf.cscb869_pharmacy.util.CurrentActor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
-import java.util.regex.Pattern;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -26,26 +42,46 @@ class SickLeaveServiceImplTest {
     @Mock
     private SickLeaveRepository sickLeaveRepository;
 
+    @Mock
+    private SickLeaveNumberAllocator sickLeaveNumberAllocator;
+
+    @Mock
+    private SickLeaveEventRepository sickLeaveEventRepository;
+
+    @Mock
+    private SickLeaveRollupService sickLeaveRollupService;
+
+    @Mock
+    private PharmacyMetrics pharmacyMetrics;
+
     @InjectMocks
     private SickLeaveServiceImpl sickLeaveService;
 
     @Test
     void createSickLeaveShouldApplyDefaultsAndSave() {
+        Customer customer = new Customer();
+        customer.setId(7L);
+        Doctor doctor = new Doctor();
+        doctor.setId(3L);
         SickLeave sickLeave = SickLeave.builder()
-                .recipe(Recipe.builder().creationDate(LocalDate.now()).build())
+                .recipe(Recipe.builder().creationDate(LocalDate.now()).customer(customer).doctor(doctor).build())
                 .startDate(LocalDate.of(2026, 2, 1))
                 .durationDays(5)
                 .reason("Flu")
+                .leaveNumber("SL-CLIENT-0001")
                 .build();
 
+        when(sickLeaveNumberAllocator.nextNumber()).thenReturn("SL-20260201-000001-5");
         when(sickLeaveRepository.save(sickLeave)).thenReturn(sickLeave);
         SickLeave result = sickLeaveService.createSickLeave(sickLeave);
         assertThat(result).isSameAs(sickLeave);
         assertThat(sickLeave.getStatus()).isEqualTo(SickLeaveStatus.ACTIVE);
         assertThat(sickLeave.getIssueDate()).isEqualTo(LocalDate.now());
-        assertThat(sickLeave.getLeaveNumber()).isNotBlank();
-        assertThat(Pattern.matches("^SL-\\d{8}-[A-Z0-9]{4}$", sickLeave.getLeaveNumber())).isTrue();
+        assertThat(sickLeave.getLeaveNumber()).isEqualTo("SL-20260201-000001-5");
+        assertThat(sickLeave.getCustomerId()).isEqualTo(7L);
+        assertThat(sickLeave.getIssuingDoctorId()).isEqualTo(3L);
         verify(sickLeaveRepository).save(sickLeave);
+        verify(pharmacyMetrics).sickLeaveIssued();
     }
 
     @Test
@@ -79,21 +115,28 @@ class SickLeaveServiceImplTest {
     }
 
     @Test
-    void extendSickLeaveShouldIncreaseDaysAndAppendNote() {
+    void extendSickLeaveShouldIncreaseDaysAndRecordEvent() {
         SickLeave existing = SickLeave.builder()
                 .durationDays(5)
                 .status(SickLeaveStatus.ACTIVE)
                 .notes("Initial")
                 .build();
+        existing.setId(2L);
 
         when(sickLeaveRepository.findById(2L)).thenReturn(Optional.of(existing));
         when(sickLeaveRepository.save(existing)).thenReturn(existing);
         SickLeave result = sickLeaveService.extendSickLeave(2L, 3, "Still ill");
         assertThat(result.getDurationDays()).isEqualTo(8);
         assertThat(result.getStatus()).isEqualTo(SickLeaveStatus.EXTENDED);
-        assertThat(result.getNotes()).contains("Initial");
-        assertThat(result.getNotes()).contains("Extended by 3 days");
-        assertThat(result.getNotes()).contains("Reason: Still ill");
+        assertThat(result.getNotes()).isEqualTo("Initial");
+
+        ArgumentCaptor<SickLeaveEvent> event = ArgumentCaptor.forClass(SickLeaveEvent.class);
+        verify(sickLeaveEventRepository).save(event.capture());
+        assertThat(event.getValue().getSickLeaveId()).isEqualTo(2L);
+        assertThat(event.getValue().getType()).isEqualTo(SickLeaveEventType.EXTENDED);
+        assertThat(event.getValue().getDays()).isEqualTo(3);
+        assertThat(event.getValue().getReason()).isEqualTo("Still ill");
+        assertThat(event.getValue().getActor()).isEqualTo(CurrentActor.SYSTEM);
     }
 
     @Test
@@ -108,9 +151,15 @@ class SickLeaveServiceImplTest {
         SickLeave cancelled = sickLeaveService.cancelSickLeave(3L, "Wrong document");
         SickLeave completed = sickLeaveService.completeSickLeave(4L);
         assertThat(cancelled.getStatus()).isEqualTo(SickLeaveStatus.CANCELLED);
-        assertThat(cancelled.getNotes()).contains("Reason: Wrong document");
+        assertThat(cancelled.getNotes()).isNull();
         assertThat(completed.getStatus()).isEqualTo(SickLeaveStatus.COMPLETED);
         verify(sickLeaveRepository, times(2)).save(org.mockito.ArgumentMatchers.any(SickLeave.class));
+
+        ArgumentCaptor<SickLeaveEvent> events = ArgumentCaptor.forClass(SickLeaveEvent.class);
+        verify(sickLeaveEventRepository, times(2)).save(events.capture());
+        assertThat(events.getAllValues()).extracting(SickLeaveEvent::getType, SickLeaveEvent::getReason)
+                .containsExactly(tuple(SickLeaveEventType.CANCELLED, "Wrong document"),
+                        tuple(SickLeaveEventType.COMPLETED, null));
     }
 
     @Test
@@ -121,4 +170,220 @@ class SickLeaveServiceImplTest {
                 .hasMessage("Sick leave not found with ID: 999");
     }
 
+    @Test
+    void createSickLeaveShouldResolveCustomerAndDoctorFromRecipeReference() {
+        Recipe recipe = Recipe.builder().build();
+        recipe.setId(40L);
+        SickLeave sickLeave = SickLeave.builder()
+                .recipe(recipe)
+                .startDate(LocalDate.of(2026, 2, 1))
+                .durationDays(2)
+                .build();
+
+        when(sickLeaveRepository.findCustomerIdByRecipeId(40L)).thenReturn(Optional.of(9L));
+        when(sickLeaveRepository.findDoctorIdByRecipeId(40L)).thenReturn(Optional.of(4L));
+        when(sickLeaveNumberAllocator.nextNumber()).thenReturn("SL-20260201-000002-3");
+        when(sickLeaveRepository.save(sickLeave)).thenReturn(sickLeave);
+        sickLeaveService.createSickLeave(sickLeave);
+
+        assertThat(sickLeave.getCustomerId()).isEqualTo(9L);
+        assertThat(sickLeave.getIssuingDoctorId()).isEqualTo(4L);
+    }
+
+    @Test
+    void reassignIssuingDoctorShouldMoveOnlyLeavesOfOtherDoctors() {
+        SickLeave moved = existingLeave(1L, "SL-1", LocalDate.of(2026, 2, 1), 3);
+        moved.setIssuingDoctorId(3L);
+        SickLeave unchanged = existingLeave(2L, "SL-2", LocalDate.of(2026, 2, 10), 3);
+        unchanged.setIssuingDoctorId(5L);
+        when(sickLeaveRepository.findByRecipeId(40L)).thenReturn(List.of(moved, unchanged));
+        when(sickLeaveRepository.save(moved)).thenReturn(moved);
+
+        sickLeaveService.reassignIssuingDoctor(40L, 5L);
+
+        assertThat(moved.getIssuingDoctorId()).isEqualTo(5L);
+        verify(sickLeaveRepository).save(moved);
+        verify(sickLeaveRepository, never()).save(unchanged);
+    }
+
+    @Test
+    void reassignCustomerShouldMoveLeavesAndRecordTheChange() {
+        SickLeave moved = existingLeave(1L, "SL-1", LocalDate.of(2026, 2, 1), 3);
+        moved.setCustomerId(7L);
+        when(sickLeaveRepository.findByRecipeId(40L)).thenReturn(List.of(moved));
+        when(sickLeaveRepository.findOverlapping(8L, LocalDate.of(2026, 2, 1), LocalDate.of(2026, 2, 3), 1L))
+                .thenReturn(List.of());
+        when(sickLeaveRepository.save(moved)).thenReturn(moved);
+
+        sickLeaveService.reassignCustomer(40L, 8L);
+
+        assertThat(moved.getCustomerId()).isEqualTo(8L);
+        ArgumentCaptor<SickLeaveEvent> event = ArgumentCaptor.forClass(SickLeaveEvent.class);
+        verify(sickLeaveEventRepository).save(event.capture());
+        assertThat(event.getValue().getType()).isEqualTo(SickLeaveEventType.UPDATED);
+        assertThat(event.getValue().getSickLeaveId()).isEqualTo(1L);
+    }
+
+    @Test
+    void reassignCustomerShouldRejectOverlapWithTheNewPatientsLeaves() {
+        SickLeave moved = existingLeave(1L, "SL-1", LocalDate.of(2026, 2, 1), 3);
+        moved.setCustomerId(7L);
+        SickLeave other = existingLeave(9L, "SL-9", LocalDate.of(2026, 2, 2), 5);
+        when(sickLeaveRepository.findByRecipeId(40L)).thenReturn(List.of(moved));
+        when(sickLeaveRepository.findOverlapping(8L, LocalDate.of(2026, 2, 1), LocalDate.of(2026, 2, 3), 1L))
+                .thenReturn(List.of(other));
+
+        assertThatThrownBy(() -> sickLeaveService.reassignCustomer(40L, 8L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("SL-9");
+        verify(sickLeaveRepository, never()).save(moved);
+    }
+
+    @Test
+    void deleteSickLeavesByRecipeIdShouldDropTheirHistoryAndRollupContribution() {
+        SickLeave leave = existingLeave(1L, "SL-1", LocalDate.of(2026, 2, 1), 3);
+        SickLeaveRollupService.Contribution contribution = new SickLeaveRollupService.Contribution(2026, 2, 3L, 3);
+        when(sickLeaveRepository.findByRecipeId(40L)).thenReturn(List.of(leave));
+        when(sickLeaveRollupService.contributionOf(leave)).thenReturn(contribution);
+
+        sickLeaveService.deleteSickLeavesByRecipeId(40L);
+
+        verify(sickLeaveRollupService).recordChange(contribution, null);
+        verify(sickLeaveEventRepository).deleteBySickLeaveId(1L);
+        verify(sickLeaveRepository).delete(leave);
+    }
+
+    @Test
+    void checkActiveSickLeavesShouldAnswerAllPairsFromOneQuery() {
+        List<SickLeaveCheckDTO> checks = List.of(
+                SickLeaveCheckDTO.builder().customerId(1L).date(LocalDate.of(2026, 2, 3)).build(),
+                SickLeaveCheckDTO.builder().customerId(1L).date(LocalDate.of(2026, 2, 20)).build(),
+                SickLeaveCheckDTO.builder().customerId(2L).date(LocalDate.of(2026, 2, 3)).build());
+        when(sickLeaveRepository.findActiveIntervals(Set.of(1L, 2L), LocalDate.of(2026, 2, 3), LocalDate.of(2026, 2, 20)))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, LocalDate.of(2026, 2, 1), LocalDate.of(2026, 2, 5)}));
+
+        List<SickLeaveCheckDTO> result = sickLeaveService.checkActiveSickLeaves(checks);
+
+        assertThat(result).extracting(SickLeaveCheckDTO::getActive).containsExactly(true, false, false);
+        verify(sickLeaveRepository, never()).hasActiveSickLeaveOnDate(any(), any());
+    }
+
+    @Test
+    void checkActiveSickLeavesShouldRejectIncompletePairs() {
+        List<SickLeaveCheckDTO> checks = List.of(SickLeaveCheckDTO.builder().customerId(1L).build());
+
+        assertThatThrownBy(() -> sickLeaveService.checkActiveSickLeaves(checks))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void createSickLeaveShouldRejectOverlapByDefault() {
+        SickLeave sickLeave = leaveForCustomer(7L, LocalDate.of(2026, 2, 3), 5);
+        when(sickLeaveRepository.findOverlapping(7L, LocalDate.of(2026, 2, 3), LocalDate.of(2026, 2, 7), null))
+                .thenReturn(List.of(existingLeave(5L, "SL-A", LocalDate.of(2026, 2, 1), 4)));
+
+        assertThatThrownBy(() -> sickLeaveService.createSickLeave(sickLeave))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("SL-A");
+        verify(sickLeaveNumberAllocator, never()).nextNumber();
+        verify(sickLeaveRepository, never()).save(any(SickLeave.class));
+    }
+
+    @Test
+    void createSickLeaveWithMergeShouldIssueContinuationAfterCoveredPeriod() {
+        SickLeave sickLeave = leaveForCustomer(7L, LocalDate.of(2026, 2, 3), 5);
+        when(sickLeaveRepository.findOverlapping(7L, LocalDate.of(2026, 2, 3), LocalDate.of(2026, 2, 7), null))
+                .thenReturn(List.of(existingLeave(5L, "SL-A", LocalDate.of(2026, 2, 1), 4)));
+        when(sickLeaveNumberAllocator.nextNumber()).thenReturn("SL-20260201-000003-1");
+        when(sickLeaveRepository.save(sickLeave)).thenReturn(sickLeave);
+
+        sickLeaveService.createSickLeave(sickLeave, SickLeaveOverlapPolicy.MERGE);
+
+        assertThat(sickLeave.getStartDate()).isEqualTo(LocalDate.of(2026, 2, 5));
+        assertThat(sickLeave.getEndDate()).isEqualTo(LocalDate.of(2026, 2, 7));
+        assertThat(sickLeave.getDurationDays()).isEqualTo(3);
+        assertThat(sickLeave.getContinuationOfId()).isEqualTo(5L);
+    }
+
+    @Test
+    void createSickLeaveWithMergeShouldRejectFullyCoveredPeriod() {
+        SickLeave sickLeave = leaveForCustomer(7L, LocalDate.of(2026, 2, 2), 2);
+        when(sickLeaveRepository.findOverlapping(7L, LocalDate.of(2026, 2, 2), LocalDate.of(2026, 2, 3), null))
+                .thenReturn(List.of(existingLeave(5L, "SL-A", LocalDate.of(2026, 2, 1), 4)));
+
+        assertThatThrownBy(() -> sickLeaveService.createSickLeave(sickLeave, SickLeaveOverlapPolicy.MERGE))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("already covered");
+    }
+
+    @Test
+    void extendSickLeaveShouldRejectExtensionIntoAnotherLeave() {
+        SickLeave existing = existingLeave(2L, "SL-B", LocalDate.of(2026, 2, 1), 5);
+        existing.setCustomerId(7L);
+        when(sickLeaveRepository.findById(2L)).thenReturn(Optional.of(existing));
+        when(sickLeaveRepository.findOverlapping(7L, LocalDate.of(2026, 2, 1), LocalDate.of(2026, 2, 8), 2L))
+                .thenReturn(List.of(existingLeave(3L, "SL-C", LocalDate.of(2026, 2, 7), 3)));
+
+        assertThatThrownBy(() -> sickLeaveService.extendSickLeave(2L, 3, "Still ill"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("SL-C");
+        verify(sickLeaveRepository, never()).save(any(SickLeave.class));
+    }
+
+    @Test
+    void extendSickLeaveShouldRejectMissingOrNonPositiveDays() {
+        assertThatThrownBy(() -> sickLeaveService.extendSickLeave(2L, null, "Still ill"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> sickLeaveService.extendSickLeave(2L, 0, "Still ill"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> sickLeaveService.extendSickLeave(2L, -3, "Shortened"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("A sick leave can only be extended by a positive number of days");
+        verify(sickLeaveRepository, never()).findById(any());
+        verify(sickLeaveRepository, never()).save(any(SickLeave.class));
+    }
+
+    @Test
+    void findAllOverlapsShouldReportEachOverlappingPairOnce() {
+        when(sickLeaveRepository.streamIntervalsForSweep()).thenReturn(Stream.of(
+                interval(1L, "SL-1", 7L, LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 10)),
+                interval(2L, "SL-2", 7L, LocalDate.of(2026, 1, 3), LocalDate.of(2026, 1, 4)),
+                interval(3L, "SL-3", 7L, LocalDate.of(2026, 1, 9), LocalDate.of(2026, 1, 12)),
+                interval(4L, "SL-4", 7L, LocalDate.of(2026, 1, 20), LocalDate.of(2026, 1, 21)),
+                interval(5L, "SL-5", 8L, LocalDate.of(2026, 1, 11), LocalDate.of(2026, 1, 15))));
+
+        List<SickLeaveOverlapDTO> overlaps = sickLeaveService.findAllOverlaps();
+
+        assertThat(overlaps).extracting(SickLeaveOverlapDTO::getFirstLeaveNumber, SickLeaveOverlapDTO::getSecondLeaveNumber)
+                .containsExactly(tuple("SL-1", "SL-2"), tuple("SL-1", "SL-3"));
+        assertThat(overlaps.get(1).getOverlapDays()).isEqualTo(2L);
+    }
+
+    private static SickLeave leaveForCustomer(Long customerId, LocalDate startDate, int durationDays) {
+        Customer customer = new Customer();
+        customer.setId(customerId);
+        Doctor doctor = new Doctor();
+        doctor.setId(3L);
+        return SickLeave.builder()
+                .recipe(Recipe.builder().customer(customer).doctor(doctor).build())
+                .startDate(startDate)
+                .durationDays(durationDays)
+                .build();
+    }
+
+    private static SickLeave existingLeave(Long id, String leaveNumber, LocalDate startDate, int durationDays) {
+        SickLeave sickLeave = SickLeave.builder()
+                .leaveNumber(leaveNumber)
+                .startDate(startDate)
+                .durationDays(durationDays)
+                .status(SickLeaveStatus.ACTIVE)
+                .build();
+        sickLeave.setId(id);
+        sickLeave.calculateEndDate();
+        return sickLeave;
+    }
+
+    private static Object[] interval(Long id, String leaveNumber, Long customerId, LocalDate start, LocalDate end) {
+        return new Object[]{id, leaveNumber, customerId, start, end};
+    }
 }